@@ -0,0 +1,61 @@
+#!/usr/bin/env bash
+#
+# Compares the start up time and resident memory of the JVM jar and the native executable.
+# Build both first: mvn install && mvn package -Pnative -DskipTests
+#
+# Usage: scripts/compare-startup.sh [runs]
+
+set -euo pipefail
+
+RUNS=${1:-5}
+PORT=${PORT:-18080}
+JAR=target/java-spring-service.jar
+NATIVE=target/java-spring-service
+
+cd "$(dirname "$0")/.."
+
+now_millis() {
+    python3 -c 'import time; print(int(time.time() * 1000))'
+}
+
+# Starts the given command, waits for /health and prints the start up time in ms and the RSS in MB after one request
+measure() {
+    local start pid rss
+    start=$(now_millis)
+    "$@" --server.port="$PORT" > /dev/null 2>&1 &
+    pid=$!
+    until curl -fs "http://localhost:$PORT/health" > /dev/null 2>&1; do
+        if ! kill -0 "$pid" 2> /dev/null; then
+            echo "Process exited before becoming healthy: $*" >&2
+            exit 1
+        fi
+        sleep 0.01
+    done
+    echo -n "$(( $(now_millis) - start )) "
+    curl -fs "http://localhost:$PORT/api/Paul" > /dev/null
+    rss=$(ps -o rss= -p "$pid" | tr -d ' ')
+    echo "$(( rss / 1024 ))"
+    kill "$pid"
+    wait "$pid" 2> /dev/null || true
+}
+
+report() {
+    local name=$1
+    shift
+    local results
+    results=$(for _ in $(seq "$RUNS"); do measure "$@"; done)
+    echo "$results" | awk -v name="$name" '
+        { startup += $1; rss += $2; if (NR == 1 || $1 < best) best = $1 }
+        END { printf "%-8s %12d %12d %12d\n", name, startup / NR, best, rss / NR }'
+}
+
+for artefact in "$JAR" "$NATIVE"; do
+    if [ ! -f "$artefact" ]; then
+        echo "Missing $artefact, build it with: mvn install && mvn package -Pnative -DskipTests" >&2
+        exit 1
+    fi
+done
+
+printf "%-8s %12s %12s %12s\n" "runtime" "startup ms" "best ms" "rss MB"
+report jvm java --add-opens=java.base/java.lang=ALL-UNNAMED -jar "$JAR"
+report native "./$NATIVE"
@@ -0,0 +1,147 @@
+package uk.co.paulpop.services;
+
+import io.grpc.ManagedChannel;
+import io.grpc.netty.shaded.io.grpc.netty.NettyChannelBuilder;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.embedded.EmbeddedWebApplicationContext;
+import uk.co.paulpop.services.grpc.GrpcGreetingServer;
+import uk.co.paulpop.services.grpc.proto.GreeterGrpc;
+import uk.co.paulpop.services.grpc.proto.HelloReply;
+import uk.co.paulpop.services.grpc.proto.HelloRequest;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.management.ManagementFactory;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the round trip of a greeting over REST, GET /api/{name} on the embedded Tomcat, with the unary SayHello call on the gRPC server
+ * of the same {@link JavaSpringServiceApplication}. Alongside throughput, the {@code cpuMicrosPerCall} counter gives the CPU time the whole
+ * process spent per call, client included since both run in the benchmark JVM.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RestVsGrpcBenchmark {
+
+    @Param({"P", "Paul Pop"})
+    private String name;
+
+    private EmbeddedWebApplicationContext context;
+    private ManagedChannel channel;
+    private GreeterGrpc.GreeterBlockingStub greeter;
+    private HelloRequest request;
+    private URL url;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        context = (EmbeddedWebApplicationContext) SpringApplication.run(JavaSpringServiceApplication.class,
+            "--server.port=0",
+            "--service.grpc.port=0",
+            "--service.rate-limit.enabled=false",
+            "--greeting.store.type=MEMORY");
+        url = new URL("http://localhost:" + context.getEmbeddedServletContainer().getPort()
+            + "/api/" + URLEncoder.encode(name, StandardCharsets.UTF_8.name()).replace("+", "%20"));
+        channel = NettyChannelBuilder.forAddress("localhost", context.getBean(GrpcGreetingServer.class).getPort())
+            .usePlaintext()
+            .build();
+        greeter = GreeterGrpc.newBlockingStub(channel);
+        request = HelloRequest.newBuilder().setName(name).build();
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() throws InterruptedException {
+        channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        context.close();
+    }
+
+    @Benchmark
+    public int rest(Buffer buffer, Cpu cpu) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        try (InputStream in = connection.getInputStream()) {
+            return buffer.drain(in);
+        } finally {
+            cpu.called();
+        }
+    }
+
+    @Benchmark
+    public HelloReply grpc(Cpu cpu) {
+        try {
+            return greeter.sayHello(request);
+        } finally {
+            cpu.called();
+        }
+    }
+
+    /**
+     * Per thread scratch space for reading response bodies; reading the body fully lets the JDK reuse the keep-alive connection.
+     */
+    @State(Scope.Thread)
+    public static class Buffer {
+
+        private final byte[] bytes = new byte[8192];
+
+        int drain(InputStream in) throws IOException {
+            int total = 0;
+            int read;
+            while ((read = in.read(bytes)) != -1) {
+                total += read;
+            }
+            return total;
+        }
+    }
+
+    /**
+     * Process CPU time per call over the iteration, reported by JMH as a secondary result. It is only sampled every few hundred calls to
+     * keep the sampling out of the measurement, and only makes sense with a single benchmark thread since JMH adds up the threads' values.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Cpu {
+
+        private static final int SAMPLE_EVERY = 256;
+
+        private static final com.sun.management.OperatingSystemMXBean OS =
+            (com.sun.management.OperatingSystemMXBean) ManagementFactory.getOperatingSystemMXBean();
+
+        public double cpuMicrosPerCall;
+
+        private long startNanos;
+        private long calls;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            cpuMicrosPerCall = 0;
+            calls = 0;
+            startNanos = OS.getProcessCpuTime();
+        }
+
+        void called() {
+            if (++calls % SAMPLE_EVERY == 0) {
+                cpuMicrosPerCall = (OS.getProcessCpuTime() - startNanos) / 1000.0 / calls;
+            }
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package uk.co.paulpop.services.grpc;
+
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import org.junit.Test;
+import uk.co.paulpop.services.exception.RateLimitedException;
+import uk.co.paulpop.services.exception.ServiceOverloadedException;
+import uk.co.paulpop.services.exception.handler.HttpExceptionHandler;
+import uk.co.paulpop.services.exception.handler.HttpExceptionResponses;
+import uk.co.paulpop.services.exception.handler.SampledErrorLogger;
+import uk.co.paulpop.services.metrics.HttpStatusCounters;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.springframework.http.HttpStatus.BAD_GATEWAY;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.GONE;
+import static org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
+import static org.springframework.http.HttpStatus.TOO_MANY_REQUESTS;
+
+public class GrpcExceptionHandlerTest {
+
+    private final HttpStatusCounters statusCounters = new HttpStatusCounters();
+    private final GrpcExceptionHandler exceptionHandler =
+        new GrpcExceptionHandler(new HttpExceptionHandler(statusCounters, new HttpExceptionResponses(16), new SampledErrorLogger(0)));
+
+    @Test
+    public void codeOf_mapsTheStatusesOfTheExceptionHandler() {
+        assertThat(GrpcExceptionHandler.codeOf(BAD_REQUEST), equalTo(Status.Code.INVALID_ARGUMENT));
+        assertThat(GrpcExceptionHandler.codeOf(TOO_MANY_REQUESTS), equalTo(Status.Code.RESOURCE_EXHAUSTED));
+        assertThat(GrpcExceptionHandler.codeOf(SERVICE_UNAVAILABLE), equalTo(Status.Code.UNAVAILABLE));
+        assertThat(GrpcExceptionHandler.codeOf(INTERNAL_SERVER_ERROR), equalTo(Status.Code.INTERNAL));
+    }
+
+    @Test
+    public void codeOf_whenStatusHasNoCounterpart_thenMapsItsClass() {
+        assertThat(GrpcExceptionHandler.codeOf(GONE), equalTo(Status.Code.FAILED_PRECONDITION));
+        assertThat(GrpcExceptionHandler.codeOf(BAD_GATEWAY), equalTo(Status.Code.INTERNAL));
+    }
+
+    @Test
+    public void toStatusException_countsTheErrorByHttpStatus() {
+        StatusRuntimeException overloaded = exceptionHandler.toStatusException(new ServiceOverloadedException("Service overloaded"));
+        StatusRuntimeException limited = exceptionHandler.toStatusException(new RateLimitedException("Rate limit exceeded"));
+
+        assertThat(overloaded.getStatus().getCode(), equalTo(Status.Code.UNAVAILABLE));
+        assertThat(overloaded.getStatus().getDescription(), equalTo("Service overloaded"));
+        assertThat(limited.getStatus().getCode(), equalTo(Status.Code.RESOURCE_EXHAUSTED));
+        assertThat(statusCounters.get(503), equalTo(1L));
+        assertThat(statusCounters.get(429), equalTo(1L));
+    }
+
+    @Test
+    public void toError_whenErrorIsNotAnException_thenMapsItToInternal() {
+        assertThat(exceptionHandler.toError(new AssertionError("boom")).getCode(), equalTo(Status.Code.INTERNAL.value()));
+        assertThat(statusCounters.get(500), equalTo(1L));
+    }
+}
@@ -0,0 +1,180 @@
+package uk.co.paulpop.services.grpc;
+
+import io.grpc.ManagedChannel;
+import io.grpc.Server;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.inprocess.InProcessChannelBuilder;
+import io.grpc.inprocess.InProcessServerBuilder;
+import io.grpc.stub.StreamObserver;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import uk.co.paulpop.services.exception.handler.HttpExceptionHandler;
+import uk.co.paulpop.services.exception.handler.HttpExceptionResponses;
+import uk.co.paulpop.services.exception.handler.SampledErrorLogger;
+import uk.co.paulpop.services.greeting.GreetingTemplate;
+import uk.co.paulpop.services.greeting.frequency.NameFrequencyIndex;
+import uk.co.paulpop.services.greeting.store.InMemoryGreetingStore;
+import uk.co.paulpop.services.grpc.proto.GreeterGrpc;
+import uk.co.paulpop.services.grpc.proto.HelloReply;
+import uk.co.paulpop.services.grpc.proto.HelloRequest;
+import uk.co.paulpop.services.metrics.HttpStatusCounters;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.junit.Assert.fail;
+
+public class GrpcGreetingServiceTest {
+
+    private final NameFrequencyIndex nameFrequencyIndex = new NameFrequencyIndex(64, 4096, 1, 64, 4, 4);
+    private final InMemoryGreetingStore greetingStore = new InMemoryGreetingStore(nameFrequencyIndex);
+    private final HttpStatusCounters statusCounters = new HttpStatusCounters();
+
+    private Server server;
+    private ManagedChannel channel;
+
+    @Before
+    public void setUp() throws IOException {
+        start(new GrpcGreetingService(GreetingTemplate.compile("Hello {name}"), greetingStore, exceptionHandler(), 16, UTF_8));
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+        server.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void sayHello_repliesAndRecordsTheGreeting() {
+        HelloReply reply = GreeterGrpc.newBlockingStub(channel).sayHello(request("Jean-François"));
+
+        assertThat(reply.getMessage(), equalTo("Hello Jean-François"));
+        assertThat(greetingStore.count("Jean-François"), equalTo(1L));
+        assertThat(nameFrequencyIndex.count("Jean-François").getCount(), equalTo(1L));
+    }
+
+    @Test
+    public void sayHello_whenNameIsNotValid_thenFailsWithInvalidArgument() {
+        assertFailsWith(request(""), "Name must not be empty");
+        assertFailsWith(request("Paul Pop Paul Pop Paul"), "Name must be at most 16 characters");
+        assertFailsWith(request("Paul\nPop"), "Name must not contain control characters");
+
+        assertThat(statusCounters.get(400), equalTo(3L));
+        assertThat(greetingStore.count(""), equalTo(0L));
+    }
+
+    @Test
+    public void sayHello_whenNameHasMaximumLengthInCodePoints_thenReplies() {
+        String name = "👋👋👋👋👋👋👋👋👋👋👋👋👋👋👋👋";
+
+        assertThat(GreeterGrpc.newBlockingStub(channel).sayHello(request(name)).getMessage(), equalTo("Hello " + name));
+    }
+
+    @Test
+    public void sayHello_whenNameIsNotInConfiguredCharset_thenFailsWithInvalidArgument() throws IOException {
+        tearDownQuietly();
+        start(new GrpcGreetingService(GreetingTemplate.compile("Hello {name}"), greetingStore, exceptionHandler(), 16, US_ASCII));
+
+        assertFailsWith(request("François"), "Name must be encoded in US-ASCII");
+    }
+
+    @Test
+    public void sayHello_whenGreetingFails_thenFailsWithInternal() throws IOException {
+        tearDownQuietly();
+        start(new GrpcGreetingService(GreetingTemplate.compile("Hello {name}"), new InMemoryGreetingStore(nameFrequencyIndex) {
+            @Override
+            public void record(final String name, final long timestamp) {
+                throw new IllegalStateException("Store is closed");
+            }
+        }, exceptionHandler(), 16, UTF_8));
+
+        try {
+            GreeterGrpc.newBlockingStub(channel).sayHello(request("Paul"));
+            fail("Expected the call to fail");
+        } catch (StatusRuntimeException e) {
+            assertThat(e.getStatus().getCode(), equalTo(Status.Code.INTERNAL));
+            assertThat(e.getStatus().getDescription(), equalTo("Something went wrong"));
+        }
+        assertThat(statusCounters.get(500), equalTo(1L));
+    }
+
+    @Test
+    public void sayHelloToAll_repliesToEveryNameInOrderAndKeepsTheStreamOpenOnErrors() throws InterruptedException {
+        List<HelloReply> replies = new CopyOnWriteArrayList<>();
+        CountDownLatch completed = new CountDownLatch(1);
+        StreamObserver<HelloRequest> requests = GreeterGrpc.newStub(channel).sayHelloToAll(new StreamObserver<HelloReply>() {
+            @Override
+            public void onNext(final HelloReply reply) {
+                replies.add(reply);
+            }
+
+            @Override
+            public void onError(final Throwable t) {
+                completed.countDown();
+            }
+
+            @Override
+            public void onCompleted() {
+                completed.countDown();
+            }
+        });
+
+        requests.onNext(request("Paul"));
+        requests.onNext(request("\u0000"));
+        requests.onNext(request("Pop"));
+        requests.onCompleted();
+
+        assertThat(completed.await(5, TimeUnit.SECONDS), is(true));
+        assertThat(replies, hasSize(3));
+        assertThat(replies.get(0).getMessage(), equalTo("Hello Paul"));
+        assertThat(replies.get(1).getResultCase(), equalTo(HelloReply.ResultCase.ERROR));
+        assertThat(replies.get(1).getError().getCode(), equalTo(Status.Code.INVALID_ARGUMENT.value()));
+        assertThat(replies.get(1).getError().getMessage(), equalTo("Bad Request"));
+        assertThat(replies.get(1).getError().getErrorsList(), contains("Name must not contain control characters"));
+        assertThat(replies.get(2).getMessage(), equalTo("Hello Pop"));
+        assertThat(greetingStore.count("Pop"), equalTo(1L));
+    }
+
+    private void start(final GrpcGreetingService service) throws IOException {
+        String name = InProcessServerBuilder.generateName();
+        server = InProcessServerBuilder.forName(name).directExecutor().addService(service).build().start();
+        channel = InProcessChannelBuilder.forName(name).directExecutor().build();
+    }
+
+    private void tearDownQuietly() {
+        channel.shutdownNow();
+        server.shutdownNow();
+    }
+
+    private GrpcExceptionHandler exceptionHandler() {
+        HttpExceptionHandler httpExceptionHandler =
+            new HttpExceptionHandler(statusCounters, new HttpExceptionResponses(16), new SampledErrorLogger(0));
+        return new GrpcExceptionHandler(httpExceptionHandler);
+    }
+
+    private void assertFailsWith(final HelloRequest request, final String description) {
+        try {
+            GreeterGrpc.newBlockingStub(channel).sayHello(request);
+            fail("Expected the call to fail");
+        } catch (StatusRuntimeException e) {
+            assertThat(e.getStatus().getCode(), equalTo(Status.Code.INVALID_ARGUMENT));
+            assertThat(e.getStatus().getDescription(), equalTo(description));
+        }
+    }
+
+    private static HelloRequest request(final String name) {
+        return HelloRequest.newBuilder().setName(name).build();
+    }
+}
@@ -0,0 +1,48 @@
+package uk.co.paulpop.services.config;
+
+import io.grpc.BindableService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import uk.co.paulpop.services.exception.handler.HttpExceptionHandler;
+import uk.co.paulpop.services.greeting.GreetingProperties;
+import uk.co.paulpop.services.greeting.GreetingTemplate;
+import uk.co.paulpop.services.greeting.store.GreetingStore;
+import uk.co.paulpop.services.grpc.GrpcExceptionHandler;
+import uk.co.paulpop.services.grpc.GrpcGreetingServer;
+import uk.co.paulpop.services.grpc.GrpcGreetingService;
+import uk.co.paulpop.services.grpc.GrpcProperties;
+
+import java.nio.charset.Charset;
+import java.util.List;
+
+/**
+ * gRPC configuration class, only compiled in with the grpc Maven profile and used in either runtime unless service.grpc.enabled is false.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "service.grpc", name = "enabled", matchIfMissing = true)
+@EnableConfigurationProperties(GrpcProperties.class)
+class GrpcConfig {
+
+    @Bean
+    public GrpcExceptionHandler grpcExceptionHandler(final HttpExceptionHandler httpExceptionHandler) {
+        return new GrpcExceptionHandler(httpExceptionHandler);
+    }
+
+    @Bean
+    public GrpcGreetingService grpcGreetingService(final GreetingTemplate greetingTemplate, final GreetingStore greetingStore,
+                                                   final GrpcExceptionHandler grpcExceptionHandler,
+                                                   final GreetingProperties properties) {
+        GreetingProperties.Name name = properties.getName();
+        return new GrpcGreetingService(greetingTemplate, greetingStore, grpcExceptionHandler, name.getMaximumLength(),
+            Charset.forName(name.getCharset()));
+    }
+
+    @Bean
+    public GrpcGreetingServer grpcGreetingServer(@Value("${server.address:0.0.0.0}") final String host, final GrpcProperties properties,
+                                                 final List<BindableService> services) {
+        return new GrpcGreetingServer(host, properties, services);
+    }
+}
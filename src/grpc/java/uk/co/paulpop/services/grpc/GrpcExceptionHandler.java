@@ -0,0 +1,103 @@
+package uk.co.paulpop.services.grpc;
+
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import uk.co.paulpop.services.exception.InvalidNameException;
+import uk.co.paulpop.services.exception.RateLimitedException;
+import uk.co.paulpop.services.exception.ServiceOverloadedException;
+import uk.co.paulpop.services.exception.handler.HttpExceptionHandler;
+import uk.co.paulpop.services.exception.handler.HttpExceptionResponse;
+import uk.co.paulpop.services.grpc.proto.ErrorReply;
+
+import javax.validation.ConstraintViolationException;
+
+/**
+ * gRPC counterpart of {@link HttpExceptionHandler}. Errors are handed to the same handler, so they are counted by HTTP status, logged and
+ * recorded in flight recordings exactly like on the HTTP API, and the status it picks is mapped to the gRPC status code with the same
+ * meaning. The errors of the {@link HttpExceptionResponse} become the status description.
+ */
+public class GrpcExceptionHandler {
+
+    private final HttpExceptionHandler exceptionHandler;
+
+    public GrpcExceptionHandler(final HttpExceptionHandler exceptionHandler) {
+        this.exceptionHandler = exceptionHandler;
+    }
+
+    /**
+     * Returns the status a call failing with the given exception is closed with
+     *
+     * @param ex the exception
+     * @return the exception carrying the status
+     */
+    public StatusRuntimeException toStatusException(final Throwable ex) {
+        ResponseEntity<HttpExceptionResponse> response = handle(ex);
+        return codeOf(response.getStatusCode()).toStatus()
+            .withDescription(String.join("; ", response.getBody().getErrors()))
+            .asRuntimeException();
+    }
+
+    /**
+     * Returns the error reply for a message of a stream that failed with the given exception, leaving the stream open
+     *
+     * @param ex the exception
+     * @return the error
+     */
+    public ErrorReply toError(final Throwable ex) {
+        ResponseEntity<HttpExceptionResponse> response = handle(ex);
+        return ErrorReply.newBuilder()
+            .setCode(codeOf(response.getStatusCode()).value())
+            .setMessage(response.getBody().getMessage())
+            .addAllErrors(response.getBody().getErrors())
+            .build();
+    }
+
+    /**
+     * Maps a HTTP status to the gRPC status code with the same meaning
+     *
+     * @param status the HTTP status
+     * @return the gRPC status code
+     */
+    static Status.Code codeOf(final HttpStatus status) {
+        switch (status) {
+            case BAD_REQUEST:
+                return Status.Code.INVALID_ARGUMENT;
+            case UNAUTHORIZED:
+                return Status.Code.UNAUTHENTICATED;
+            case FORBIDDEN:
+                return Status.Code.PERMISSION_DENIED;
+            case NOT_FOUND:
+                return Status.Code.NOT_FOUND;
+            case CONFLICT:
+                return Status.Code.ABORTED;
+            case TOO_MANY_REQUESTS:
+                return Status.Code.RESOURCE_EXHAUSTED;
+            case NOT_IMPLEMENTED:
+                return Status.Code.UNIMPLEMENTED;
+            case SERVICE_UNAVAILABLE:
+                return Status.Code.UNAVAILABLE;
+            case GATEWAY_TIMEOUT:
+                return Status.Code.DEADLINE_EXCEEDED;
+            default:
+                return status.is4xxClientError() ? Status.Code.FAILED_PRECONDITION : Status.Code.INTERNAL;
+        }
+    }
+
+    private ResponseEntity<HttpExceptionResponse> handle(final Throwable ex) {
+        if (ex instanceof InvalidNameException) {
+            return exceptionHandler.handleInvalidNameException((InvalidNameException) ex);
+        }
+        if (ex instanceof ConstraintViolationException) {
+            return exceptionHandler.handleConstraintViolationException((ConstraintViolationException) ex);
+        }
+        if (ex instanceof ServiceOverloadedException) {
+            return exceptionHandler.handleServiceOverloadedException((ServiceOverloadedException) ex);
+        }
+        if (ex instanceof RateLimitedException) {
+            return exceptionHandler.handleRateLimitedException((RateLimitedException) ex);
+        }
+        return exceptionHandler.handleException(ex instanceof Exception ? (Exception) ex : new RuntimeException(ex));
+    }
+}
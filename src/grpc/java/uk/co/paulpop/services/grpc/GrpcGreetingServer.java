@@ -0,0 +1,103 @@
+package uk.co.paulpop.services.grpc;
+
+import io.grpc.BindableService;
+import io.grpc.Server;
+import io.grpc.netty.shaded.io.grpc.netty.NettyServerBuilder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the gRPC services on Netty in the same process as the HTTP API, on a port of its own. It is started last and stopped first, so
+ * the services it depends on are up for as long as it serves calls.
+ */
+public class GrpcGreetingServer implements SmartLifecycle {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GrpcGreetingServer.class);
+
+    private final String host;
+    private final GrpcProperties properties;
+    private final List<BindableService> services;
+
+    private volatile Server server;
+
+    /**
+     * @param host       the address to bind to
+     * @param properties the server configuration
+     * @param services   the services to serve
+     */
+    public GrpcGreetingServer(final String host, final GrpcProperties properties, final List<BindableService> services) {
+        this.host = host;
+        this.properties = properties;
+        this.services = services;
+    }
+
+    @Override
+    public void start() {
+        NettyServerBuilder builder = NettyServerBuilder.forAddress(new InetSocketAddress(host, properties.getPort()))
+            .maxConcurrentCallsPerConnection(properties.getMaxConcurrentCallsPerConnection())
+            .maxInboundMessageSize(properties.getMaxInboundMessageBytes());
+        if (properties.isDirectExecutor()) {
+            builder.directExecutor();
+        }
+        services.forEach(builder::addService);
+        try {
+            server = builder.build().start();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to start the gRPC server on port " + properties.getPort(), e);
+        }
+        LOGGER.info("gRPC server started on port {}", getPort());
+    }
+
+    @Override
+    public void stop() {
+        Server running = server;
+        if (running == null) {
+            return;
+        }
+        running.shutdown();
+        try {
+            if (!running.awaitTermination(properties.getShutdownGraceMillis(), TimeUnit.MILLISECONDS)) {
+                running.shutdownNow().awaitTermination();
+            }
+        } catch (InterruptedException e) {
+            running.shutdownNow();
+            Thread.currentThread().interrupt();
+        }
+        server = null;
+    }
+
+    @Override
+    public void stop(final Runnable callback) {
+        stop();
+        callback.run();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return server != null;
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return true;
+    }
+
+    @Override
+    public int getPhase() {
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * @return the port the server is listening on
+     */
+    public int getPort() {
+        return server.getPort();
+    }
+}
@@ -0,0 +1,148 @@
+package uk.co.paulpop.services.grpc;
+
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.StreamObserver;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.co.paulpop.services.greeting.GreetingTemplate;
+import uk.co.paulpop.services.greeting.store.GreetingStore;
+import uk.co.paulpop.services.grpc.proto.GreeterGrpc;
+import uk.co.paulpop.services.grpc.proto.HelloReply;
+import uk.co.paulpop.services.grpc.proto.HelloRequest;
+import uk.co.paulpop.services.profiling.GreetingEvent;
+import uk.co.paulpop.services.routing.NameValidator;
+
+import java.nio.charset.Charset;
+
+/**
+ * Serves the greetings of the HTTP API over gRPC. Every name is checked by the same {@link NameValidator} rules as on the fast route of
+ * GET /api/{name}, recorded and counted in the {@link GreetingStore}, rendered from the same {@link GreetingTemplate} and marked with a
+ * {@link GreetingEvent} in flight recordings. Errors go through the {@link GrpcExceptionHandler}: they fail a unary call, while a stream
+ * answers them with an error reply and carries on.
+ */
+public class GrpcGreetingService extends GreeterGrpc.GreeterImplBase {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GrpcGreetingService.class);
+
+    private final GreetingTemplate greetingTemplate;
+    private final GreetingStore greetingStore;
+    private final GrpcExceptionHandler exceptionHandler;
+    private final NameValidator nameValidator;
+
+    /**
+     * @param greetingTemplate the template greetings are rendered with
+     * @param greetingStore    the store every greeting is recorded in
+     * @param exceptionHandler the handler mapping errors to gRPC statuses
+     * @param maximumLength    the maximum length of a name in characters
+     * @param charset          the charset names must be encodable in
+     */
+    public GrpcGreetingService(final GreetingTemplate greetingTemplate, final GreetingStore greetingStore,
+                               final GrpcExceptionHandler exceptionHandler, final int maximumLength, final Charset charset) {
+        this.greetingTemplate = greetingTemplate;
+        this.greetingStore = greetingStore;
+        this.exceptionHandler = exceptionHandler;
+        this.nameValidator = new NameValidator(maximumLength, charset);
+    }
+
+    @Override
+    public void sayHello(final HelloRequest request, final StreamObserver<HelloReply> responseObserver) {
+        HelloReply reply;
+        try {
+            reply = greet(request.getName());
+        } catch (RuntimeException e) {
+            responseObserver.onError(exceptionHandler.toStatusException(e));
+            return;
+        }
+        responseObserver.onNext(reply);
+        responseObserver.onCompleted();
+    }
+
+    /**
+     * Replies to every request in order. Requests are read one at a time and only while the client keeps up with the replies, so a slow
+     * reader holds back its own stream rather than replies piling up in memory.
+     */
+    @Override
+    public StreamObserver<HelloRequest> sayHelloToAll(final StreamObserver<HelloReply> responseObserver) {
+        ServerCallStreamObserver<HelloReply> replies = (ServerCallStreamObserver<HelloReply>) responseObserver;
+        replies.disableAutoRequest();
+        FlowControl flowControl = new FlowControl(replies);
+        replies.setOnReadyHandler(flowControl);
+        replies.setOnCancelHandler(() -> LOGGER.debug("Greeting stream cancelled by the client"));
+
+        return new StreamObserver<HelloRequest>() {
+
+            private long names;
+
+            @Override
+            public void onNext(final HelloRequest request) {
+                HelloReply reply;
+                try {
+                    reply = greet(request.getName());
+                } catch (RuntimeException e) {
+                    reply = HelloReply.newBuilder().setError(exceptionHandler.toError(e)).build();
+                }
+                names++;
+                replies.onNext(reply);
+                flowControl.requestNext();
+            }
+
+            @Override
+            public void onError(final Throwable t) {
+                LOGGER.debug("Greeting stream failed after {} names", names, t);
+            }
+
+            @Override
+            public void onCompleted() {
+                replies.onCompleted();
+                LOGGER.info("Said hello to a stream of {} names", names);
+            }
+        };
+    }
+
+    private HelloReply greet(final String name) {
+        GreetingEvent event = new GreetingEvent();
+        event.begin();
+        try {
+            LOGGER.debug("Received gRPC request to say hello to {}", name);
+            nameValidator.validate(name);
+            greetingStore.record(name, System.currentTimeMillis());
+            return HelloReply.newBuilder().setMessage(greetingTemplate.render(name)).build();
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.setName(name);
+                event.commit();
+            }
+        }
+    }
+
+    /**
+     * Requests the next message once the previous reply has been sent, or once the transport is ready again if it was buffering.
+     */
+    private static final class FlowControl implements Runnable {
+
+        private final ServerCallStreamObserver<HelloReply> replies;
+        private boolean waiting = true;
+
+        FlowControl(final ServerCallStreamObserver<HelloReply> replies) {
+            this.replies = replies;
+        }
+
+        @Override
+        public void run() {
+            // Called on the transport's serialized executor, like onNext, whenever it may have become ready
+            if (waiting && replies.isReady()) {
+                waiting = false;
+                replies.request(1);
+            }
+        }
+
+        void requestNext() {
+            if (replies.isReady()) {
+                replies.request(1);
+            } else {
+                waiting = true;
+            }
+        }
+    }
+}
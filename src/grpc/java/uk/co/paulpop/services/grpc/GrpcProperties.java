@@ -0,0 +1,44 @@
+package uk.co.paulpop.services.grpc;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration for the gRPC server started alongside the HTTP API when the service is built with the grpc profile.
+ */
+@Data
+@ConfigurationProperties("service.grpc")
+public class GrpcProperties {
+
+    /**
+     * Whether the gRPC server is started.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Port the gRPC server listens on, or 0 for any free port.
+     */
+    private int port = 9090;
+
+    /**
+     * Calls a single HTTP/2 connection can have in flight at once.
+     */
+    private int maxConcurrentCallsPerConnection = 100;
+
+    /**
+     * Largest request message accepted, past which the call fails with RESOURCE_EXHAUSTED.
+     */
+    private int maxInboundMessageBytes = 16384;
+
+    /**
+     * Whether calls are run on the Netty event loop that read them rather than handed to an executor. Greetings never block, so this
+     * saves a thread hand-off per message.
+     */
+    private boolean directExecutor = true;
+
+    /**
+     * How long calls in flight are given to complete on shutdown before they are cancelled.
+     */
+    private long shutdownGraceMillis = 5000;
+
+}
@@ -0,0 +1,101 @@
+package uk.co.paulpop.services;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.embedded.EmbeddedWebApplicationContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Compares greeting a batch of names with one POST /api/batch call against one GET /api/{name} call per name, both through the embedded
+ * Tomcat. Each operation greets {@code size} names, so the scores are directly comparable.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchGreetingBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int size;
+
+    private EmbeddedWebApplicationContext context;
+    private URL batchUrl;
+    private URL[] singleUrls;
+    private byte[] batchBody;
+    private final byte[] buffer = new byte[8192];
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        context = (EmbeddedWebApplicationContext) SpringApplication.run(JavaSpringServiceApplication.class, "--server.port=0",
+            "--service.rate-limit.enabled=false");
+        String baseUrl = "http://localhost:" + context.getEmbeddedServletContainer().getPort() + "/api/";
+
+        batchUrl = new URL(baseUrl + "batch");
+        singleUrls = new URL[size];
+        StringBuilder names = new StringBuilder("[");
+        for (int i = 0; i < size; i++) {
+            singleUrls[i] = new URL(baseUrl + "name" + i);
+            names.append(i == 0 ? "" : ",").append("\"name").append(i).append('"');
+        }
+        batchBody = names.append(']').toString().getBytes(UTF_8);
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public int batch() throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) batchUrl.openConnection();
+        connection.setRequestMethod("POST");
+        connection.setRequestProperty("Content-Type", "application/json");
+        connection.setDoOutput(true);
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write(batchBody);
+        }
+        return drain(connection);
+    }
+
+    @Benchmark
+    public int singles() throws IOException {
+        int total = 0;
+        for (URL url : singleUrls) {
+            total += drain((HttpURLConnection) url.openConnection());
+        }
+        return total;
+    }
+
+    private int drain(HttpURLConnection connection) throws IOException {
+        int total = 0;
+        try (InputStream in = connection.getInputStream()) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                total += read;
+            }
+        }
+        return total;
+    }
+}
@@ -0,0 +1,82 @@
+package uk.co.paulpop.services;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.embedded.EmbeddedWebApplicationContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the full round trip of GET /api/{name} through the embedded Tomcat started by {@link JavaSpringServiceApplication}.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JavaSpringServiceApplicationBenchmark {
+
+    @Param({"P", "Paul Pop"})
+    private String name;
+
+    private EmbeddedWebApplicationContext context;
+    private URL url;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        context = (EmbeddedWebApplicationContext) SpringApplication.run(JavaSpringServiceApplication.class, "--server.port=0",
+            "--service.rate-limit.enabled=false");
+        url = new URL("http://localhost:" + context.getEmbeddedServletContainer().getPort()
+            + "/api/" + URLEncoder.encode(name, StandardCharsets.UTF_8.name()).replace("+", "%20"));
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        context.close();
+    }
+
+    @Benchmark
+    public int sayHello(Buffer buffer) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        try (InputStream in = connection.getInputStream()) {
+            return buffer.drain(in);
+        }
+    }
+
+    /**
+     * Per thread scratch space for reading response bodies; reading the body fully lets the JDK reuse the keep-alive connection.
+     */
+    @State(Scope.Thread)
+    public static class Buffer {
+
+        private final byte[] bytes = new byte[8192];
+
+        int drain(InputStream in) throws IOException {
+            int total = 0;
+            int read;
+            while ((read = in.read(bytes)) != -1) {
+                total += read;
+            }
+            return total;
+        }
+    }
+}
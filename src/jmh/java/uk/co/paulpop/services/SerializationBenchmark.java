@@ -0,0 +1,123 @@
+package uk.co.paulpop.services;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import uk.co.paulpop.services.exception.handler.HttpExceptionResponse;
+import uk.co.paulpop.services.exception.handler.HttpExceptionResponseJsonCodec;
+import uk.co.paulpop.services.json.codec.JsonCodec;
+import uk.co.paulpop.services.model.Hello;
+import uk.co.paulpop.services.model.HelloJsonCodec;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the codecs generated at build time with Jackson serialization of the response models, using an {@link ObjectMapper} configured
+ * the same way Spring Boot configures the one behind the JSON message converter. Together with {@code gc.alloc.rate.norm}, the average
+ * time gives the ns/op and bytes/op of each.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SerializationBenchmark {
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+
+    private ObjectMapper objectMapper;
+    private Hello hello;
+    private HttpExceptionResponse exceptionResponse;
+    private JsonFactory jsonFactory;
+    private byte[] helloJson;
+    private byte[] exceptionResponseJson;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        hello = Hello.builder()
+            .message("Hello Paul Pop")
+            .build();
+        exceptionResponse = HttpExceptionResponse.builder()
+            .message("Bad Request")
+            .errors(Collections.singletonList("Parameter 'parameter' does not accept value 'MismatchValue'"))
+            .build();
+        jsonFactory = objectMapper.getFactory();
+        helloJson = objectMapper.writeValueAsBytes(hello);
+        exceptionResponseJson = objectMapper.writeValueAsBytes(exceptionResponse);
+    }
+
+    @Benchmark
+    public int serializeHello() throws IOException {
+        return write(hello);
+    }
+
+    @Benchmark
+    public int serializeHttpExceptionResponse() throws IOException {
+        return write(exceptionResponse);
+    }
+
+    @Benchmark
+    public int serializeHelloWithCodec() throws IOException {
+        return write(HelloJsonCodec.INSTANCE, hello);
+    }
+
+    @Benchmark
+    public int serializeHttpExceptionResponseWithCodec() throws IOException {
+        return write(HttpExceptionResponseJsonCodec.INSTANCE, exceptionResponse);
+    }
+
+    @Benchmark
+    public Hello deserializeHello() throws IOException {
+        return objectMapper.readValue(helloJson, Hello.class);
+    }
+
+    @Benchmark
+    public HttpExceptionResponse deserializeHttpExceptionResponse() throws IOException {
+        return objectMapper.readValue(exceptionResponseJson, HttpExceptionResponse.class);
+    }
+
+    @Benchmark
+    public Hello deserializeHelloWithCodec() throws IOException {
+        return read(HelloJsonCodec.INSTANCE, helloJson);
+    }
+
+    @Benchmark
+    public HttpExceptionResponse deserializeHttpExceptionResponseWithCodec() throws IOException {
+        return read(HttpExceptionResponseJsonCodec.INSTANCE, exceptionResponseJson);
+    }
+
+    private int write(Object value) throws IOException {
+        out.reset();
+        objectMapper.writeValue(out, value);
+        return out.size();
+    }
+
+    private <T> int write(JsonCodec<T> codec, T value) throws IOException {
+        out.reset();
+        codec.write(value, out);
+        return out.size();
+    }
+
+    private <T> T read(JsonCodec<T> codec, byte[] json) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(json)) {
+            parser.nextToken();
+            return codec.read(parser);
+        }
+    }
+}
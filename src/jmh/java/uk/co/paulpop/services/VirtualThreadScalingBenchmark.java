@@ -0,0 +1,115 @@
+package uk.co.paulpop.services;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.embedded.EmbeddedWebApplicationContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares how request throughput through the embedded Tomcat scales with the number of concurrent clients, between Tomcat's platform thread
+ * pool (capped at server.tomcat.max-threads) and a virtual thread per request. Every operation is one round of {@code concurrency}
+ * simultaneous requests; the {@code requests} counter gives the resulting requests per second.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class VirtualThreadScalingBenchmark {
+
+    @Param({"false", "true"})
+    private boolean virtualThreads;
+
+    @Param({"50", "200", "800"})
+    private int concurrency;
+
+    private EmbeddedWebApplicationContext context;
+    private ExecutorService clients;
+    private URL url;
+
+    @Setup(Level.Trial)
+    public void start() throws IOException {
+        context = (EmbeddedWebApplicationContext) SpringApplication.run(JavaSpringServiceApplication.class,
+            "--server.port=0",
+            "--server.tomcat.max-threads=200",
+            "--service.concurrency-limit.enabled=false",
+            "--service.rate-limit.enabled=false",
+            "--service.virtual-threads.enabled=" + virtualThreads);
+        clients = Executors.newVirtualThreadPerTaskExecutor();
+        url = new URL("http://localhost:" + context.getEmbeddedServletContainer().getPort() + "/api/Paul");
+    }
+
+    @TearDown(Level.Trial)
+    public void stop() {
+        clients.shutdown();
+        context.close();
+    }
+
+    @Benchmark
+    public void concurrentRequests(Requests requests) throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(concurrency);
+        for (int i = 0; i < concurrency; i++) {
+            clients.execute(() -> {
+                try {
+                    get();
+                } finally {
+                    done.countDown();
+                }
+            });
+        }
+        done.await();
+        requests.requests += concurrency;
+    }
+
+    private void get() {
+        try {
+            HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+            try (InputStream in = connection.getInputStream()) {
+                byte[] buffer = new byte[256];
+                while (in.read(buffer) != -1) {
+                    // drain so the connection is kept alive
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Counts individual requests, reported by JMH as a secondary requests per second result.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Requests {
+
+        public long requests;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            requests = 0;
+        }
+    }
+}
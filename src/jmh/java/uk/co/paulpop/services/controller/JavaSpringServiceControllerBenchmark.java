@@ -0,0 +1,74 @@
+package uk.co.paulpop.services.controller;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import uk.co.paulpop.services.greeting.BatchGreetingWriter;
+import uk.co.paulpop.services.greeting.GreetingTemplate;
+import uk.co.paulpop.services.greeting.SingleFlight;
+import uk.co.paulpop.services.greeting.cache.TinyLfuGreetingCache;
+import uk.co.paulpop.services.greeting.frequency.NameFrequencyIndex;
+import uk.co.paulpop.services.greeting.store.GreetingStore;
+import uk.co.paulpop.services.greeting.store.InMemoryGreetingStore;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link JavaSpringServiceController#sayHello} in isolation, without the servlet container or Spring MVC, with and without the
+ * greeting cache and greeting coalescing.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JavaSpringServiceControllerBenchmark {
+
+    @Param({"P", "Paul Pop", "Jean-François Champollion"})
+    private String name;
+
+    @Param({"false", "true"})
+    private boolean cached;
+
+    @Param({"false", "true"})
+    private boolean coalesced;
+
+    private JavaSpringServiceController controller;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Setup
+    public void setUp() {
+        GreetingTemplate template = GreetingTemplate.compile("Hello {name}");
+        GreetingStore store = new InMemoryGreetingStore(new NameFrequencyIndex(1024, 64 * 1024, 4, 1024, 4, 20));
+        controller = new JavaSpringServiceController(template,
+            cached ? Optional.of(new TinyLfuGreetingCache(1024 * 1024)) : Optional.empty(),
+            coalesced ? Optional.of(new SingleFlight<>()) : Optional.empty(),
+            store,
+            new BatchGreetingWriter(template, Jackson2ObjectMapperBuilder.json().build(), store, 256),
+            Optional.empty());
+        request = new MockHttpServletRequest("GET", "/api/" + name);
+        response = new MockHttpServletResponse();
+    }
+
+    @Benchmark
+    public void sayHello() throws IOException {
+        response.reset();
+        controller.sayHello(name, new ServletWebRequest(request, response), response);
+    }
+}
@@ -0,0 +1,86 @@
+package uk.co.paulpop.services.greeting;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import uk.co.paulpop.services.model.Hello;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares rendering a greeting through {@link GreetingTemplate} against the previous String.format, Lombok builder, ResponseEntity and
+ * Jackson path. Run with the GC profiler to compare {@code gc.alloc.rate.norm}, which should be zero for the template.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GreetingTemplateBenchmark {
+
+    @Param({"P", "Paul Pop", "Jean-François Champollion"})
+    private String name;
+
+    private final CountingOutputStream out = new CountingOutputStream();
+
+    private GreetingTemplate template;
+    private ObjectMapper objectMapper;
+
+    @Setup
+    public void setUp() {
+        template = GreetingTemplate.compile("Hello {name}");
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    }
+
+    @Benchmark
+    public long template() throws IOException {
+        template.writeJson(name, out);
+        return out.count;
+    }
+
+    @Benchmark
+    public long formatBuilderAndJackson() throws IOException {
+        ResponseEntity<Hello> response = ResponseEntity.ok(Hello.builder()
+            .message(String.format("Hello %s", name))
+            .build());
+        objectMapper.writeValue(out, response.getBody());
+        return out.count;
+    }
+
+    /**
+     * Stands in for the servlet output stream without retaining or copying what is written to it.
+     */
+    private static final class CountingOutputStream extends OutputStream {
+
+        private long count;
+
+        @Override
+        public void write(int b) {
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            count += len;
+        }
+
+        @Override
+        public void close() {
+            // Jackson closes the target stream after writing a value
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package uk.co.paulpop.services.greeting.frequency;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Compares {@link NameFrequencyIndex} against a {@code ConcurrentHashMap<String, LongAdder>}, for the throughput of counting skewed names
+ * from several threads and for the memory every name costs. The fill benchmarks count every name once per operation, so with the GC
+ * profiler {@code gc.alloc.rate.norm} is the heap bytes allocated per name, and {@code offHeapBytesPerName} adds the direct memory the
+ * index allocates.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Benchmark)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NameFrequencyIndexBenchmark {
+
+    private static final int NAMES = 100_000;
+
+    @Param({"1", "4"})
+    private int counterStripes;
+
+    private String[] names;
+    private NameFrequencyIndex index;
+    private ConcurrentMap<String, LongAdder> map;
+
+    @Setup
+    public void setUp() {
+        names = new String[NAMES];
+        for (int i = 0; i < NAMES; i++) {
+            names[i] = "Name " + i;
+        }
+        index = newIndex();
+        map = new ConcurrentHashMap<>();
+        for (String name : names) {
+            index.record(name);
+            map.computeIfAbsent(name, key -> new LongAdder()).increment();
+        }
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void record(final Cursor cursor) {
+        index.record(names[cursor.next()]);
+    }
+
+    @Benchmark
+    @Threads(4)
+    public void concurrentHashMap(final Cursor cursor) {
+        map.computeIfAbsent(names[cursor.next()], key -> new LongAdder()).increment();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OperationsPerInvocation(NAMES)
+    public NameFrequencyIndex fillIndex(final Footprint footprint) {
+        NameFrequencyIndex filled = newIndex();
+        for (String name : names) {
+            filled.record(name);
+        }
+        footprint.offHeapBytesPerName = (double) filled.stats().getOffHeapBytes() / NAMES;
+        return filled;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OperationsPerInvocation(NAMES)
+    public ConcurrentMap<String, LongAdder> fillConcurrentHashMap(final Footprint footprint) {
+        ConcurrentMap<String, LongAdder> filled = new ConcurrentHashMap<>();
+        for (String name : names) {
+            // Copies the name, as the index does, instead of keeping the one the benchmark already holds
+            filled.computeIfAbsent(new String(name.toCharArray()), key -> new LongAdder()).increment();
+        }
+        footprint.offHeapBytesPerName = 0;
+        return filled;
+    }
+
+    private NameFrequencyIndex newIndex() {
+        // Three quarters of the slots are usable, so every name fits in the exact index
+        return new NameFrequencyIndex(NAMES * 4 / 3 + 1, NAMES * 16, counterStripes, 65536, 4, 20);
+    }
+
+    /**
+     * Picks names with a skew towards the first ones, so a few names take most of the greetings.
+     */
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        private final SplittableRandom random = new SplittableRandom();
+
+        int next() {
+            double uniform = random.nextDouble();
+            return (int) (uniform * uniform * uniform * NAMES);
+        }
+    }
+
+    /**
+     * Off-heap memory of the last filled index, reported next to the benchmark results.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class Footprint {
+
+        public double offHeapBytesPerName;
+
+        @Setup(Level.Iteration)
+        public void reset() {
+            offHeapBytesPerName = 0;
+        }
+    }
+}
@@ -0,0 +1,66 @@
+package uk.co.paulpop.services.routing;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.util.UriUtils;
+import org.springframework.web.util.UrlPathHelper;
+
+import java.io.UnsupportedEncodingException;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Compares getting the name of a {@code GET /api/{name}} request through the {@link NamePathDecoder} of the fast route against the steps
+ * the stock request mapping takes: decoding the lookup path, matching it against the pattern and extracting the URI template variable.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@State(Scope.Thread)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class NameRouteBenchmark {
+
+    @Param({"P", "Paul Pop", "Jean-François Champollion"})
+    private String name;
+
+    private final NamePathDecoder decoder = new NamePathDecoder(256, UTF_8);
+    private final UrlPathHelper urlPathHelper = new UrlPathHelper();
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+
+    private MockHttpServletRequest request;
+
+    @Setup
+    public void setUp() throws UnsupportedEncodingException {
+        request = new MockHttpServletRequest("GET", "/api/" + UriUtils.encodePathSegment(name, "UTF-8"));
+    }
+
+    @Benchmark
+    public String fastRoute() {
+        String uri = request.getRequestURI();
+        return decoder.decode(uri, request.getContextPath().length() + "/api/".length(), uri.length());
+    }
+
+    @Benchmark
+    public String stockRoute() {
+        String lookupPath = urlPathHelper.getLookupPathForRequest(request);
+        if (!pathMatcher.match(NameHandlerMapping.PATTERN, lookupPath)) {
+            return null;
+        }
+        Map<String, String> variables = pathMatcher.extractUriTemplateVariables(NameHandlerMapping.PATTERN, lookupPath);
+        return urlPathHelper.decodePathVariables(request, variables).get("name");
+    }
+}
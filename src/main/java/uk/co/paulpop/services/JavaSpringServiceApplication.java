@@ -2,9 +2,12 @@ package uk.co.paulpop.services;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextClosedEvent;
 
 import javax.annotation.PostConstruct;
 import java.util.TimeZone;
+import java.util.concurrent.CountDownLatch;
 
 /**
  * Core spring boot application for running the service
@@ -17,7 +20,24 @@ public class JavaSpringServiceApplication {
         TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
     }
 
-    public static void main(String[] args) {
-        SpringApplication.run(JavaSpringServiceApplication.class, args);
+    public static void main(String[] args) throws InterruptedException {
+        ServiceRuntime runtime = ServiceRuntime.resolve(args);
+        if (runtime == ServiceRuntime.SERVLET) {
+            SpringApplication.run(JavaSpringServiceApplication.class, args);
+            return;
+        }
+
+        // Reactor Netty runs on daemon threads, so keep the JVM alive until the context is closed
+        CountDownLatch closed = new CountDownLatch(1);
+        SpringApplication application = new SpringApplication(JavaSpringServiceApplication.class);
+        application.setWebEnvironment(false);
+        application.addListeners(new ApplicationListener<ContextClosedEvent>() {
+            @Override
+            public void onApplicationEvent(ContextClosedEvent event) {
+                closed.countDown();
+            }
+        });
+        application.run(args);
+        closed.await();
     }
 }
@@ -0,0 +1,43 @@
+package uk.co.paulpop.services;
+
+import org.springframework.core.env.SimpleCommandLinePropertySource;
+import org.springframework.core.env.StandardEnvironment;
+import org.springframework.util.ClassUtils;
+
+/**
+ * The runtime serving the API, chosen at startup through the service.runtime property.
+ */
+public enum ServiceRuntime {
+
+    /**
+     * Blocking Spring MVC on the embedded Tomcat.
+     */
+    SERVLET,
+
+    /**
+     * Non-blocking Reactor Netty, only available when the service is built with the reactive Maven profile.
+     */
+    REACTIVE;
+
+    public static final String PROPERTY = "service.runtime";
+
+    private static final String REACTOR_NETTY_CLASS = "reactor.ipc.netty.http.server.HttpServer";
+
+    /**
+     * Resolves the runtime from the command line arguments, system properties or environment variables
+     *
+     * @param args the command line arguments
+     * @return the runtime to start
+     * @throws IllegalStateException if the reactive runtime is requested but the service was built without it
+     */
+    public static ServiceRuntime resolve(final String... args) {
+        StandardEnvironment environment = new StandardEnvironment();
+        environment.getPropertySources().addFirst(new SimpleCommandLinePropertySource(args));
+
+        ServiceRuntime runtime = valueOf(environment.getProperty(PROPERTY, SERVLET.name()).trim().toUpperCase());
+        if (runtime == REACTIVE && !ClassUtils.isPresent(REACTOR_NETTY_CLASS, ServiceRuntime.class.getClassLoader())) {
+            throw new IllegalStateException("The reactive runtime is not available, build the service with the reactive profile");
+        }
+        return runtime;
+    }
+}
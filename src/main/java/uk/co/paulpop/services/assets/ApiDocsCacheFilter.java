@@ -0,0 +1,56 @@
+package uk.co.paulpop.services.assets;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Keeps the Swagger document rendered by springfox for every group and host it was requested for, so it is only built and serialized once.
+ * The document already depends on the host, as springfox writes it into the document, so that is part of the key.
+ */
+public class ApiDocsCacheFilter extends OncePerRequestFilter {
+
+    private static final String API_DOCS_PATH = "/v2/api-docs";
+
+    private final int maximumDocuments;
+    private final ConcurrentMap<String, StaticAsset> documents = new ConcurrentHashMap<>();
+
+    public ApiDocsCacheFilter(final int maximumDocuments) {
+        this.maximumDocuments = maximumDocuments;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(final HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !"GET".equals(request.getMethod()) || !API_DOCS_PATH.equals(path);
+    }
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response, final FilterChain chain)
+        throws ServletException, IOException {
+        String key = request.getHeader("Host") + '|' + request.getParameter("group");
+        StaticAsset document = documents.get(key);
+        if (document != null) {
+            document.serve(request, response);
+            return;
+        }
+
+        ContentCachingResponseWrapper rendering = new ContentCachingResponseWrapper(response);
+        chain.doFilter(request, rendering);
+        if (rendering.getStatusCode() == HttpServletResponse.SC_OK && documents.size() < maximumDocuments) {
+            documents.putIfAbsent(key, StaticAsset.of(rendering.getContentAsByteArray(), rendering.getContentType(), "no-cache", true));
+        }
+        rendering.copyBodyToResponse();
+    }
+
+    int size() {
+        return documents.size();
+    }
+}
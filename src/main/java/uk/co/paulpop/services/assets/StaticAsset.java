@@ -0,0 +1,135 @@
+package uk.co.paulpop.services.assets;
+
+import lombok.Data;
+import org.springframework.util.DigestUtils;
+import uk.co.paulpop.services.server.CompressionFilter;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.file.Path;
+import java.util.zip.Deflater;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * A response body that never changes while the service runs, kept as it is and, when that is smaller, gzip compressed. Each of the two
+ * carries the strong ETag of its own bytes. Bodies backed by a file are handed to Tomcat's sendfile when the connector supports it.
+ */
+@Data
+public class StaticAsset {
+
+    static final String SENDFILE_SUPPORTED = "org.apache.tomcat.sendfile.support";
+    static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final String contentType;
+    private final String cacheControl;
+    private final Body identity;
+    private final Body gzip;
+
+    /**
+     * Creates an asset kept on the heap, with a gzip compressed copy when the content is compressible and compressing it pays off
+     *
+     * @param content      the uncompressed content
+     * @param contentType  the Content-Type header of the asset
+     * @param cacheControl the Cache-Control header of the asset
+     * @param compressible whether the content is worth compressing
+     * @return the asset
+     */
+    public static StaticAsset of(final byte[] content, final String contentType, final String cacheControl, final boolean compressible) {
+        byte[] compressed = compressible ? gzip(content) : null;
+        Body identity = Body.of(null, ByteBuffer.wrap(content).asReadOnlyBuffer(), etag(content));
+        if (compressed == null || compressed.length >= content.length) {
+            return new StaticAsset(contentType, cacheControl, identity, null);
+        }
+        Body gzip = Body.of(null, ByteBuffer.wrap(compressed).asReadOnlyBuffer(), etag(compressed));
+        return new StaticAsset(contentType, cacheControl, identity, gzip);
+    }
+
+    /**
+     * Writes the asset to the given response, compressed if the client accepts gzip, or a 304 Not Modified when the client already has it
+     *
+     * @param request  the request for the asset
+     * @param response the response to write to
+     * @throws IOException if the body can't be written
+     */
+    public void serve(final HttpServletRequest request, final HttpServletResponse response) throws IOException {
+        Body body = gzip != null && CompressionFilter.acceptsGzip(request.getHeader("Accept-Encoding")) ? gzip : identity;
+
+        response.setContentType(contentType);
+        response.setHeader("Cache-Control", cacheControl);
+        response.setHeader("ETag", body.getEtag());
+        if (gzip != null) {
+            response.addHeader("Vary", "Accept-Encoding");
+        }
+        if (body == gzip) {
+            response.setHeader("Content-Encoding", "gzip");
+        }
+        if (matches(request.getHeader("If-None-Match"), body.getEtag())) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        long length = body.getContent().remaining();
+        response.setContentLengthLong(length);
+        if ("HEAD".equals(request.getMethod())) {
+            return;
+        }
+        if (body.getFile() != null && Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORTED))) {
+            request.setAttribute(SENDFILE_FILENAME, body.getFile().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, 0L);
+            request.setAttribute(SENDFILE_END, length);
+            return;
+        }
+        OutputStream out = response.getOutputStream();
+        Channels.newChannel(out).write(body.getContent().duplicate());
+    }
+
+    static String etag(final byte[] content) {
+        return "\"0" + DigestUtils.md5DigestAsHex(content) + "\"";
+    }
+
+    static byte[] gzip(final byte[] content) {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(content.length / 2 + 32);
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed) {
+            {
+                def.setLevel(Deflater.BEST_COMPRESSION);
+            }
+        }) {
+            out.write(content);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to compress an in-memory asset", e);
+        }
+        return compressed.toByteArray();
+    }
+
+    private static boolean matches(final String ifNoneMatch, final String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if ("*".equals(tag) || etag.equals(tag.startsWith("W/") ? tag.substring(2) : tag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * One encoding of an asset. The content is a read-only view shared by all requests, which only ever write from duplicates of it.
+     */
+    @Data(staticConstructor = "of")
+    public static class Body {
+
+        private final Path file;
+        private final ByteBuffer content;
+        private final String etag;
+
+    }
+}
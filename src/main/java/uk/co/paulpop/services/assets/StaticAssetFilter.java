@@ -0,0 +1,38 @@
+package uk.co.paulpop.services.assets;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Serves GET and HEAD requests for the assets in the {@link StaticAssetStore} straight from their memory mapped files, leaving every other
+ * request to the rest of the chain.
+ */
+public class StaticAssetFilter extends OncePerRequestFilter {
+
+    private final StaticAssetStore store;
+
+    public StaticAssetFilter(final StaticAssetStore store) {
+        this.store = store;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(final HttpServletRequest request) {
+        String method = request.getMethod();
+        return !("GET".equals(method) || "HEAD".equals(method)) || store.get(pathOf(request)) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response, final FilterChain chain)
+        throws ServletException, IOException {
+        store.get(pathOf(request)).serve(request, response);
+    }
+
+    private static String pathOf(final HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+}
@@ -0,0 +1,37 @@
+package uk.co.paulpop.services.assets;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Configuration for serving the Swagger UI assets and the API documentation from memory.
+ */
+@Data
+@ConfigurationProperties("service.static-assets")
+public class StaticAssetProperties {
+
+    /**
+     * Whether the assets are extracted at start up and served by the static asset filter instead of Spring MVC's resource chain.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Class path patterns of the assets, relative paths under META-INF/resources become the request paths.
+     */
+    private List<String> locations = Arrays.asList("classpath*:META-INF/resources/swagger-ui.html",
+        "classpath*:META-INF/resources/webjars/springfox-swagger-ui/**");
+
+    /**
+     * How long clients can keep assets other than HTML pages without revalidating them, in seconds.
+     */
+    private long maxAgeSeconds = 31536000;
+
+    /**
+     * Maximum number of rendered API documents kept, one per documentation group and host.
+     */
+    private int maximumApiDocs = 16;
+
+}
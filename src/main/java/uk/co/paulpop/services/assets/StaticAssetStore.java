@@ -0,0 +1,147 @@
+package uk.co.paulpop.services.assets;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.ResourcePatternResolver;
+import org.springframework.util.FileSystemUtils;
+import org.springframework.util.StreamUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import static java.nio.file.StandardOpenOption.READ;
+
+/**
+ * Extracts assets from the class path into a temporary directory at start up and memory maps them, together with a gzip compressed copy
+ * of the compressible ones, so requests for them neither read the jar nor compress anything.
+ */
+public class StaticAssetStore implements DisposableBean {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StaticAssetStore.class);
+
+    private static final String ROOT = "META-INF/resources";
+    private static final Map<String, String> CONTENT_TYPES = new HashMap<>();
+    private static final String[] COMPRESSIBLE_EXTENSIONS = {"html", "js", "css", "json", "map", "svg", "txt"};
+
+    static {
+        CONTENT_TYPES.put("html", "text/html;charset=UTF-8");
+        CONTENT_TYPES.put("js", "application/javascript");
+        CONTENT_TYPES.put("css", "text/css");
+        CONTENT_TYPES.put("json", "application/json");
+        CONTENT_TYPES.put("map", "application/json");
+        CONTENT_TYPES.put("svg", "image/svg+xml");
+        CONTENT_TYPES.put("txt", "text/plain");
+        CONTENT_TYPES.put("png", "image/png");
+        CONTENT_TYPES.put("gif", "image/gif");
+        CONTENT_TYPES.put("ico", "image/x-icon");
+        CONTENT_TYPES.put("ttf", "font/ttf");
+        CONTENT_TYPES.put("woff", "font/woff");
+        CONTENT_TYPES.put("woff2", "font/woff2");
+    }
+
+    private final Path directory;
+    private final long maxAgeSeconds;
+    private final Map<String, StaticAsset> assets = new HashMap<>();
+
+    public StaticAssetStore(final ResourcePatternResolver resolver, final Collection<String> locations, final long maxAgeSeconds)
+        throws IOException {
+        this.directory = Files.createTempDirectory("static-assets");
+        this.maxAgeSeconds = maxAgeSeconds;
+        long bytes = 0;
+        for (String location : locations) {
+            for (Resource resource : resolver.getResources(location)) {
+                String path = pathOf(resource);
+                if (path != null && resource.isReadable() && !assets.containsKey(path)) {
+                    StaticAsset asset = extract(path, resource);
+                    assets.put(path, asset);
+                    bytes += asset.getIdentity().getContent().remaining();
+                }
+            }
+        }
+        LOGGER.info("Mapped {} static assets of {} bytes from {}", assets.size(), bytes, directory);
+    }
+
+    /**
+     * Returns the asset served under the given request path
+     *
+     * @param path the request path, relative to the context path
+     * @return the asset, or null if there is none
+     */
+    public StaticAsset get(final String path) {
+        return assets.get(path);
+    }
+
+    public int size() {
+        return assets.size();
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        FileSystemUtils.deleteRecursively(directory.toFile());
+    }
+
+    private StaticAsset extract(final String path, final Resource resource) throws IOException {
+        byte[] content;
+        try (InputStream in = resource.getInputStream()) {
+            content = StreamUtils.copyToByteArray(in);
+        }
+        String extension = extensionOf(path);
+        String contentType = CONTENT_TYPES.getOrDefault(extension, "application/octet-stream");
+        String cacheControl = "html".equals(extension) ? "no-cache" : "public, max-age=" + maxAgeSeconds + ", immutable";
+
+        Path file = directory.resolve(path.substring(1));
+        Files.createDirectories(file.getParent());
+        Files.write(file, content);
+        StaticAsset.Body identity = StaticAsset.Body.of(file, map(file), StaticAsset.etag(content));
+
+        StaticAsset.Body gzip = null;
+        if (isCompressible(extension)) {
+            byte[] compressed = StaticAsset.gzip(content);
+            if (compressed.length < content.length) {
+                Path compressedFile = file.resolveSibling(file.getFileName() + ".gz");
+                Files.write(compressedFile, compressed);
+                gzip = StaticAsset.Body.of(compressedFile, map(compressedFile), StaticAsset.etag(compressed));
+            }
+        }
+        return new StaticAsset(contentType, cacheControl, identity, gzip);
+    }
+
+    private static ByteBuffer map(final Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, READ)) {
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    private static String pathOf(final Resource resource) throws IOException {
+        String url = resource.getURL().toString();
+        int root = url.lastIndexOf(ROOT + "/");
+        if (root < 0 || url.endsWith("/")) {
+            return null;
+        }
+        return url.substring(root + ROOT.length());
+    }
+
+    private static String extensionOf(final String path) {
+        int dot = path.lastIndexOf('.');
+        return dot < 0 ? "" : path.substring(dot + 1).toLowerCase(Locale.ROOT);
+    }
+
+    private static boolean isCompressible(final String extension) {
+        for (String compressible : COMPRESSIBLE_EXTENSIONS) {
+            if (compressible.equals(extension)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,51 @@
+package uk.co.paulpop.services.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import uk.co.paulpop.services.exception.handler.HttpExceptionHandler;
+import uk.co.paulpop.services.exception.handler.HttpExceptionResponses;
+import uk.co.paulpop.services.limit.ConcurrencyLimitFilter;
+import uk.co.paulpop.services.limit.ConcurrencyLimitMetrics;
+import uk.co.paulpop.services.limit.ConcurrencyLimitProperties;
+import uk.co.paulpop.services.limit.ConcurrencyLimiter;
+import uk.co.paulpop.services.limit.GradientLimit;
+
+/**
+ * Concurrency limit configuration class, only used in the servlet runtime unless service.concurrency-limit.enabled is false. The filter
+ * goes first after the rate limit, so shed requests cost as little as possible.
+ */
+@Configuration
+@ConditionalOnWebApplication
+@ConditionalOnProperty(prefix = "service.concurrency-limit", name = "enabled", matchIfMissing = true)
+@EnableConfigurationProperties(ConcurrencyLimitProperties.class)
+class ConcurrencyLimitConfig {
+
+    @Bean
+    public ConcurrencyLimiter concurrencyLimiter(final ConcurrencyLimitProperties properties) {
+        GradientLimit limit = new GradientLimit(properties.getInitialLimit(), properties.getMinLimit(), properties.getMaxLimit(),
+            properties.getRttTolerance(), properties.getSmoothing(), properties.getWindowSize());
+        return new ConcurrencyLimiter(limit, properties.getLowPriorityShare());
+    }
+
+    @Bean
+    public ConcurrencyLimitMetrics concurrencyLimitMetrics(final ConcurrencyLimiter concurrencyLimiter) {
+        return new ConcurrencyLimitMetrics(concurrencyLimiter);
+    }
+
+    @Bean
+    public FilterRegistrationBean concurrencyLimitFilter(final ConcurrencyLimiter concurrencyLimiter,
+                                                         final HttpExceptionHandler httpExceptionHandler,
+                                                         final HttpExceptionResponses httpExceptionResponses,
+                                                         final ConcurrencyLimitProperties properties) {
+        ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(concurrencyLimiter, httpExceptionHandler, httpExceptionResponses,
+            properties.getCriticalPaths(), properties.getLowPriorityPaths());
+        FilterRegistrationBean registration = new FilterRegistrationBean(filter);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return registration;
+    }
+}
@@ -0,0 +1,30 @@
+package uk.co.paulpop.services.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import uk.co.paulpop.services.exception.handler.HttpExceptionResponseConverter;
+import uk.co.paulpop.services.exception.handler.HttpExceptionResponses;
+import uk.co.paulpop.services.exception.handler.SampledErrorLogger;
+
+/**
+ * Error response configuration class.
+ */
+@Configuration
+class ErrorConfig {
+
+    @Bean
+    public HttpExceptionResponses httpExceptionResponses(@Value("${service.errors.maximum-interned:256}") final int maximumInterned) {
+        return new HttpExceptionResponses(maximumInterned);
+    }
+
+    @Bean
+    public HttpExceptionResponseConverter httpExceptionResponseConverter(final HttpExceptionResponses httpExceptionResponses) {
+        return new HttpExceptionResponseConverter(httpExceptionResponses);
+    }
+
+    @Bean
+    public SampledErrorLogger sampledErrorLogger(@Value("${service.errors.log-per-second:10}") final int logPerSecond) {
+        return new SampledErrorLogger(logPerSecond);
+    }
+}
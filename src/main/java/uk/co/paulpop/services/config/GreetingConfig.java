@@ -0,0 +1,138 @@
+package uk.co.paulpop.services.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import uk.co.paulpop.services.greeting.BatchGreetingWriter;
+import uk.co.paulpop.services.greeting.GreetingProperties;
+import uk.co.paulpop.services.greeting.GreetingTemplate;
+import uk.co.paulpop.services.greeting.SingleFlight;
+import uk.co.paulpop.services.greeting.SingleFlightMetrics;
+import uk.co.paulpop.services.greeting.cache.EvictionPolicy;
+import uk.co.paulpop.services.greeting.cache.GreetingCache;
+import uk.co.paulpop.services.greeting.cache.GreetingCacheMetrics;
+import uk.co.paulpop.services.greeting.cache.LruGreetingCache;
+import uk.co.paulpop.services.greeting.cache.RenderedGreeting;
+import uk.co.paulpop.services.greeting.cache.TinyLfuGreetingCache;
+import uk.co.paulpop.services.greeting.frequency.NameFrequencyEndpoint;
+import uk.co.paulpop.services.greeting.frequency.NameFrequencyIndex;
+import uk.co.paulpop.services.greeting.frequency.NameFrequencyMetrics;
+import uk.co.paulpop.services.greeting.store.GreetingStore;
+import uk.co.paulpop.services.greeting.store.GreetingStoreMetrics;
+import uk.co.paulpop.services.greeting.store.InMemoryGreetingStore;
+import uk.co.paulpop.services.greeting.store.LogGreetingStore;
+import uk.co.paulpop.services.greeting.store.MappedGreetingLog;
+import uk.co.paulpop.services.greeting.store.StoreType;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+
+/**
+ * Greeting configuration class.
+ */
+@Configuration
+@EnableConfigurationProperties(GreetingProperties.class)
+class GreetingConfig {
+
+    @Bean
+    public GreetingTemplate greetingTemplate(final GreetingProperties properties) {
+        return GreetingTemplate.compile(properties.getTemplate());
+    }
+
+    @Bean
+    public BatchGreetingWriter batchGreetingWriter(final GreetingTemplate greetingTemplate, final ObjectMapper objectMapper,
+                                                   final GreetingStore greetingStore, final GreetingProperties properties) {
+        return new BatchGreetingWriter(greetingTemplate, objectMapper, greetingStore, properties.getBatch().getFlushSize());
+    }
+
+    /**
+     * The index every greeting is counted by name in, whether or not it is served on the actuator, as the store counts come from it
+     */
+    @Bean
+    public NameFrequencyIndex nameFrequencyIndex(final GreetingProperties properties) {
+        GreetingProperties.Frequency frequency = properties.getFrequency();
+        return new NameFrequencyIndex(frequency.getCapacity(), frequency.getKeyBytes(), frequency.getCounterStripes(),
+            frequency.getSketchWidth(), frequency.getSketchDepth(), frequency.getTopNames());
+    }
+
+    @Bean
+    public GreetingStore greetingStore(final NameFrequencyIndex nameFrequencyIndex, final GreetingProperties properties)
+        throws IOException {
+        GreetingProperties.Store store = properties.getStore();
+        if (store.getType() == StoreType.MEMORY) {
+            return new InMemoryGreetingStore(nameFrequencyIndex);
+        }
+        MappedGreetingLog log = new MappedGreetingLog(Paths.get(store.getDirectory()), store.getSegmentBytes(),
+            store.getRetainedSegments());
+        return new LogGreetingStore(log, nameFrequencyIndex, store.getCapacity(), store.getBatchSize(), store.getFlushIntervalMillis(),
+            store.getFsync(), store.getFsyncIntervalMillis());
+    }
+
+    @Bean
+    public GreetingStoreMetrics greetingStoreMetrics(final GreetingStore greetingStore) {
+        return new GreetingStoreMetrics(greetingStore);
+    }
+
+    /**
+     * Cache of rendered greetings, enabled unless greeting.cache.enabled is false.
+     */
+    @Configuration
+    @ConditionalOnProperty(prefix = "greeting.cache", name = "enabled", matchIfMissing = true)
+    static class GreetingCacheConfig {
+
+        @Bean
+        public GreetingCache greetingCache(final GreetingProperties properties) {
+            GreetingProperties.Cache cache = properties.getCache();
+            if (cache.getPolicy() == EvictionPolicy.LRU) {
+                return new LruGreetingCache(cache.getMaximumBytes());
+            }
+            return new TinyLfuGreetingCache(cache.getMaximumBytes());
+        }
+
+        @Bean
+        public GreetingCacheMetrics greetingCacheMetrics(final GreetingCache greetingCache) {
+            return new GreetingCacheMetrics(greetingCache);
+        }
+    }
+
+    /**
+     * Coalescing of concurrent renderings of the same greeting, enabled unless greeting.coalescing.enabled is false.
+     */
+    @Configuration
+    @ConditionalOnProperty(prefix = "greeting.coalescing", name = "enabled", matchIfMissing = true)
+    static class GreetingCoalescingConfig {
+
+        @Bean
+        public SingleFlight<String, RenderedGreeting> greetingSingleFlight() {
+            return new SingleFlight<>();
+        }
+
+        @Bean
+        public SingleFlightMetrics greetingSingleFlightMetrics(final SingleFlight<String, RenderedGreeting> greetingSingleFlight) {
+            return new SingleFlightMetrics(greetingSingleFlight);
+        }
+    }
+
+    /**
+     * Reporting of the greetings counted by name, enabled unless greeting.frequency.enabled is false.
+     */
+    @Configuration
+    @ConditionalOnProperty(prefix = "greeting.frequency", name = "enabled", matchIfMissing = true)
+    static class GreetingFrequencyConfig {
+
+        @Bean
+        public NameFrequencyMetrics nameFrequencyMetrics(final NameFrequencyIndex nameFrequencyIndex) {
+            return new NameFrequencyMetrics(nameFrequencyIndex);
+        }
+
+        @Bean
+        @ConditionalOnWebApplication
+        public NameFrequencyEndpoint nameFrequencyEndpoint(final NameFrequencyIndex nameFrequencyIndex,
+                                                           final GreetingProperties properties) {
+            return new NameFrequencyEndpoint(nameFrequencyIndex, properties.getFrequency().getTopNames());
+        }
+    }
+}
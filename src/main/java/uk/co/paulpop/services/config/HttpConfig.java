@@ -0,0 +1,58 @@
+package uk.co.paulpop.services.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.embedded.EmbeddedServletContainerCustomizer;
+import org.springframework.boot.context.embedded.tomcat.TomcatEmbeddedServletContainerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import uk.co.paulpop.services.server.CompressionFilter;
+import uk.co.paulpop.services.server.ConnectorMetrics;
+import uk.co.paulpop.services.server.Http2ConnectorCustomizer;
+import uk.co.paulpop.services.server.HttpProperties;
+import uk.co.paulpop.services.server.ProtocolMetricsFilter;
+
+/**
+ * HTTP/2 and response compression configuration class, only used in the servlet runtime.
+ */
+@Configuration
+@ConditionalOnWebApplication
+@EnableConfigurationProperties(HttpProperties.class)
+class HttpConfig {
+
+    @Bean
+    public ConnectorMetrics connectorMetrics() {
+        return new ConnectorMetrics();
+    }
+
+    @Bean
+    public FilterRegistrationBean protocolMetricsFilter(final ConnectorMetrics connectorMetrics) {
+        FilterRegistrationBean registration = new FilterRegistrationBean(new ProtocolMetricsFilter(connectorMetrics));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 2);
+        return registration;
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "service.http.http2", name = "enabled", matchIfMissing = true)
+    public EmbeddedServletContainerCustomizer http2ContainerCustomizer(final HttpProperties properties) {
+        Http2ConnectorCustomizer customizer = new Http2ConnectorCustomizer(properties.getHttp2().getMaxConcurrentStreams());
+        return container -> {
+            if (container instanceof TomcatEmbeddedServletContainerFactory) {
+                ((TomcatEmbeddedServletContainerFactory) container).addConnectorCustomizers(customizer);
+            }
+        };
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "service.http.compression", name = "enabled", matchIfMissing = true)
+    public FilterRegistrationBean compressionFilter(final HttpProperties properties, final ConnectorMetrics connectorMetrics) {
+        HttpProperties.Compression compression = properties.getCompression();
+        FilterRegistrationBean registration = new FilterRegistrationBean(
+            new CompressionFilter(compression.getMinResponseSize(), compression.getMimeTypes(), connectorMetrics));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 3);
+        return registration;
+    }
+}
@@ -0,0 +1,24 @@
+package uk.co.paulpop.services.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import uk.co.paulpop.services.json.codec.GeneratedJsonCodecs;
+import uk.co.paulpop.services.json.codec.JsonCodecHttpMessageConverter;
+
+/**
+ * JSON codec configuration class, registering the codecs generated at build time ahead of the Jackson message converter unless
+ * service.json.codecs-enabled is false.
+ */
+@Configuration
+@ConditionalOnWebApplication
+@ConditionalOnProperty(prefix = "service.json", name = "codecs-enabled", matchIfMissing = true)
+class JsonCodecConfig {
+
+    @Bean
+    public JsonCodecHttpMessageConverter jsonCodecHttpMessageConverter(final ObjectMapper objectMapper) {
+        return new JsonCodecHttpMessageConverter(GeneratedJsonCodecs.all(), objectMapper.getFactory());
+    }
+}
@@ -0,0 +1,17 @@
+package uk.co.paulpop.services.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import uk.co.paulpop.services.logging.AsyncLoggingMetrics;
+
+/**
+ * Logging configuration class, the appenders themselves are set up in logback-spring.xml and logback-access.xml.
+ */
+@Configuration
+class LoggingConfig {
+
+    @Bean
+    public AsyncLoggingMetrics asyncLoggingMetrics() {
+        return new AsyncLoggingMetrics();
+    }
+}
@@ -0,0 +1,56 @@
+package uk.co.paulpop.services.config;
+
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurerAdapter;
+import uk.co.paulpop.services.metrics.HttpStatusCounters;
+import uk.co.paulpop.services.metrics.LatencyHistograms;
+import uk.co.paulpop.services.metrics.LatencyRecordingInterceptor;
+import uk.co.paulpop.services.metrics.PrometheusEndpoint;
+
+import java.util.Collection;
+
+/**
+ * Metrics configuration class.
+ */
+@Configuration
+class MetricsConfig {
+
+    @Bean
+    public LatencyHistograms latencyHistograms() {
+        return new LatencyHistograms();
+    }
+
+    @Bean
+    public HttpStatusCounters httpStatusCounters() {
+        return new HttpStatusCounters();
+    }
+
+    /**
+     * Handler method timing and the Prometheus endpoint, only used in the servlet runtime.
+     */
+    @Configuration
+    @ConditionalOnWebApplication
+    static class MetricsWebConfig extends WebMvcConfigurerAdapter {
+
+        private final LatencyHistograms latencyHistograms;
+
+        MetricsWebConfig(final LatencyHistograms latencyHistograms) {
+            this.latencyHistograms = latencyHistograms;
+        }
+
+        @Override
+        public void addInterceptors(final InterceptorRegistry registry) {
+            registry.addInterceptor(new LatencyRecordingInterceptor(latencyHistograms));
+        }
+
+        @Bean
+        public PrometheusEndpoint prometheusEndpoint(final HttpStatusCounters httpStatusCounters,
+                                                     final Collection<PublicMetrics> publicMetrics) {
+            return new PrometheusEndpoint(latencyHistograms, httpStatusCounters, publicMetrics);
+        }
+    }
+}
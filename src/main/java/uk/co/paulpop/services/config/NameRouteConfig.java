@@ -0,0 +1,52 @@
+package uk.co.paulpop.services.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+import uk.co.paulpop.services.exception.handler.HttpExceptionHandler;
+import uk.co.paulpop.services.exception.handler.HttpExceptionResponses;
+import uk.co.paulpop.services.greeting.GreetingProperties;
+import uk.co.paulpop.services.metrics.LatencyHistograms;
+import uk.co.paulpop.services.metrics.LatencyRecordingInterceptor;
+import uk.co.paulpop.services.routing.NameHandlerMapping;
+import uk.co.paulpop.services.routing.NamePathDecoder;
+import uk.co.paulpop.services.routing.NameRouteFilter;
+
+import java.nio.charset.Charset;
+
+/**
+ * Fast route configuration class for GET /api/{name}, only used in the servlet runtime unless greeting.name.fast-route-enabled is false.
+ */
+@Configuration
+@ConditionalOnWebApplication
+@ConditionalOnProperty(prefix = "greeting.name", name = "fast-route-enabled", matchIfMissing = true)
+class NameRouteConfig {
+
+    @Bean
+    public NamePathDecoder namePathDecoder(final GreetingProperties properties) {
+        GreetingProperties.Name name = properties.getName();
+        return new NamePathDecoder(name.getMaximumLength(), Charset.forName(name.getCharset()));
+    }
+
+    @Bean
+    public FilterRegistrationBean nameRouteFilter(final NamePathDecoder namePathDecoder, final HttpExceptionHandler httpExceptionHandler,
+                                                  final HttpExceptionResponses httpExceptionResponses) {
+        FilterRegistrationBean registration =
+            new FilterRegistrationBean(new NameRouteFilter(namePathDecoder, httpExceptionHandler, httpExceptionResponses));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 5);
+        return registration;
+    }
+
+    @Bean
+    public NameHandlerMapping nameHandlerMapping(final RequestMappingHandlerMapping requestMappingHandlerMapping,
+                                                 final LatencyHistograms latencyHistograms) {
+        NameHandlerMapping mapping = new NameHandlerMapping(NameHandlerMapping.find(requestMappingHandlerMapping));
+        // Handler mappings don't share interceptors, so the latency of the fast route is recorded like in MetricsConfig
+        mapping.setInterceptors(new LatencyRecordingInterceptor(latencyHistograms));
+        return mapping;
+    }
+}
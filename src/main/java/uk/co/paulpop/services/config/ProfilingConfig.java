@@ -0,0 +1,39 @@
+package uk.co.paulpop.services.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import uk.co.paulpop.services.exception.handler.HttpExceptionResponses;
+import uk.co.paulpop.services.metrics.LatencyHistograms;
+import uk.co.paulpop.services.profiling.FlightRecorderEndpoint;
+import uk.co.paulpop.services.profiling.FlightRecorderProperties;
+import uk.co.paulpop.services.profiling.FlightRecordings;
+import uk.co.paulpop.services.warmup.WarmUp;
+
+import java.io.IOException;
+import java.util.Optional;
+
+/**
+ * Profiling configuration class, only used in the servlet runtime unless service.profiling.enabled is false. Flight recordings are
+ * started and downloaded on the actuator /jfr endpoint.
+ */
+@Configuration
+@ConditionalOnWebApplication
+@ConditionalOnProperty(prefix = "service.profiling", name = "enabled", matchIfMissing = true)
+@EnableConfigurationProperties(FlightRecorderProperties.class)
+class ProfilingConfig {
+
+    @Bean
+    public FlightRecordings flightRecordings(final FlightRecorderProperties properties, final LatencyHistograms latencyHistograms,
+                                             final Optional<WarmUp> warmUp) throws IOException {
+        return new FlightRecordings(properties, latencyHistograms, warmUp.orElse(null));
+    }
+
+    @Bean
+    public FlightRecorderEndpoint flightRecorderEndpoint(final FlightRecordings flightRecordings,
+                                                         final HttpExceptionResponses httpExceptionResponses) {
+        return new FlightRecorderEndpoint(flightRecordings, httpExceptionResponses);
+    }
+}
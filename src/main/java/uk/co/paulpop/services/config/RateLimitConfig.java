@@ -0,0 +1,57 @@
+package uk.co.paulpop.services.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import uk.co.paulpop.services.exception.handler.HttpExceptionHandler;
+import uk.co.paulpop.services.exception.handler.HttpExceptionResponses;
+import uk.co.paulpop.services.limit.RateLimitFilter;
+import uk.co.paulpop.services.limit.RateLimitMetrics;
+import uk.co.paulpop.services.limit.RateLimitProperties;
+import uk.co.paulpop.services.limit.RateLimitRoute;
+import uk.co.paulpop.services.limit.TokenBucketTable;
+import uk.co.paulpop.services.warmup.WarmUp;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Rate limit configuration class, only used in the servlet runtime when service.rate-limit.enabled is true. The filter goes first, ahead
+ * of the concurrency limit, so rejected clients neither take a slot nor skew the latencies the limit adapts to.
+ */
+@Configuration
+@ConditionalOnWebApplication
+@ConditionalOnProperty(prefix = "service.rate-limit", name = "enabled")
+@EnableConfigurationProperties(RateLimitProperties.class)
+class RateLimitConfig {
+
+    @Bean
+    public RateLimitFilter rateLimitFilter(final RateLimitProperties properties, final HttpExceptionHandler httpExceptionHandler,
+                                           final HttpExceptionResponses httpExceptionResponses, final Optional<WarmUp> warmUp) {
+        List<RateLimitRoute> routes = new ArrayList<>();
+        for (RateLimitProperties.Route route : properties.getRoutes()) {
+            TokenBucketTable buckets = new TokenBucketTable(route.getRequestsPerSecond(), route.getBurst(), properties.getMaximumClients(),
+                properties.getStripes());
+            routes.add(new RateLimitRoute(route.getName() != null ? route.getName() : route.getPath(), route.getPath(), buckets));
+        }
+        return new RateLimitFilter(routes, properties.getClientHeader(), properties.getTrustedProxies(), httpExceptionHandler,
+            httpExceptionResponses, warmUp.orElse(null));
+    }
+
+    @Bean
+    public RateLimitMetrics rateLimitMetrics(final RateLimitFilter rateLimitFilter) {
+        return new RateLimitMetrics(rateLimitFilter.getRoutes());
+    }
+
+    @Bean
+    public FilterRegistrationBean rateLimitFilterRegistration(final RateLimitFilter rateLimitFilter) {
+        FilterRegistrationBean registration = new FilterRegistrationBean(rateLimitFilter);
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+}
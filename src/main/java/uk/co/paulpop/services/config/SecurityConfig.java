@@ -0,0 +1,84 @@
+package uk.co.paulpop.services.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.autoconfigure.ManagementServerProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.authentication.dao.DaoAuthenticationProvider;
+import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
+import org.springframework.security.config.annotation.authentication.configurers.GlobalAuthenticationConfigurerAdapter;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+import uk.co.paulpop.services.security.AuthenticationCacheProperties;
+import uk.co.paulpop.services.security.CachingAuthenticationProvider;
+import uk.co.paulpop.services.security.FailedAuthenticationLockout;
+
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Security configuration class, authenticating the security.user through a {@link CachingAuthenticationProvider} unless
+ * service.auth-cache.enabled is false.
+ */
+@Configuration
+@ConditionalOnWebApplication
+@ConditionalOnProperty(prefix = "service.auth-cache", name = "enabled", matchIfMissing = true)
+@EnableConfigurationProperties(AuthenticationCacheProperties.class)
+class SecurityConfig {
+
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public GlobalAuthenticationConfigurerAdapter cachingAuthenticationConfigurer(final SecurityProperties securityProperties,
+                                                                                 final ManagementServerProperties managementProperties,
+                                                                                 final AuthenticationCacheProperties properties) {
+        return new CachingAuthenticationConfigurer(securityProperties, managementProperties, properties);
+    }
+
+    /**
+     * Replaces Spring Boot's default in memory user with the same user behind the caching provider, adding the management roles so the
+     * user can still reach the actuator endpoints.
+     */
+    private static final class CachingAuthenticationConfigurer extends GlobalAuthenticationConfigurerAdapter {
+
+        private static final Logger LOGGER = LoggerFactory.getLogger(CachingAuthenticationConfigurer.class);
+
+        private final SecurityProperties securityProperties;
+        private final ManagementServerProperties managementProperties;
+        private final AuthenticationCacheProperties properties;
+
+        CachingAuthenticationConfigurer(final SecurityProperties securityProperties, final ManagementServerProperties managementProperties,
+                                        final AuthenticationCacheProperties properties) {
+            this.securityProperties = securityProperties;
+            this.managementProperties = managementProperties;
+            this.properties = properties;
+        }
+
+        @Override
+        public void init(final AuthenticationManagerBuilder auth) {
+            SecurityProperties.User user = securityProperties.getUser();
+            if (user.isDefaultPassword()) {
+                LOGGER.info("\n\nUsing default security password: {}\n", user.getPassword());
+            }
+            Set<String> roles = new LinkedHashSet<>(user.getRole());
+            roles.addAll(managementProperties.getSecurity().getRoles());
+
+            DaoAuthenticationProvider delegate = new DaoAuthenticationProvider();
+            delegate.setUserDetailsService(new InMemoryUserDetailsManager(Collections.singletonList(new User(user.getName(),
+                user.getPassword(), AuthorityUtils.createAuthorityList(roles.stream().map(role -> "ROLE_" + role).toArray(String[]::new))))));
+
+            FailedAuthenticationLockout lockout = new FailedAuthenticationLockout(properties.getMaxFailures(),
+                properties.getLockoutSeconds(), properties.getLockoutMaximumSize());
+            auth.authenticationProvider(new CachingAuthenticationProvider(delegate, lockout, properties.getTtlSeconds(),
+                properties.getMaximumSize()));
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package uk.co.paulpop.services.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import uk.co.paulpop.services.startup.BeanStartupTimer;
+import uk.co.paulpop.services.startup.ExitAfterReadyListener;
+import uk.co.paulpop.services.startup.StartupEndpoint;
+
+/**
+ * Start up configuration class, timing beans when service.startup.timing-enabled is true.
+ */
+@Configuration
+class StartupConfig {
+
+    /**
+     * Static, so the timer is registered before the beans it should time are created.
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "service.startup", name = "timing-enabled")
+    public static BeanStartupTimer beanStartupTimer() {
+        return new BeanStartupTimer();
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "service.startup", name = "timing-enabled")
+    public StartupEndpoint startupEndpoint(final BeanStartupTimer beanStartupTimer) {
+        return new StartupEndpoint(beanStartupTimer);
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "service.startup", name = "exit-after-ready")
+    public ExitAfterReadyListener exitAfterReadyListener() {
+        return new ExitAfterReadyListener();
+    }
+}
@@ -0,0 +1,47 @@
+package uk.co.paulpop.services.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import uk.co.paulpop.services.assets.ApiDocsCacheFilter;
+import uk.co.paulpop.services.assets.StaticAssetFilter;
+import uk.co.paulpop.services.assets.StaticAssetProperties;
+import uk.co.paulpop.services.assets.StaticAssetStore;
+
+import java.io.IOException;
+
+/**
+ * Static asset configuration class, only used in the servlet runtime unless service.static-assets.enabled is false. Both filters run inside
+ * the compression filter, which leaves their already compressed responses alone.
+ */
+@Configuration
+@ConditionalOnWebApplication
+@ConditionalOnProperty(prefix = "service.static-assets", name = "enabled", matchIfMissing = true)
+@EnableConfigurationProperties(StaticAssetProperties.class)
+class StaticAssetsConfig {
+
+    @Bean
+    public StaticAssetStore staticAssetStore(final ApplicationContext applicationContext, final StaticAssetProperties properties)
+        throws IOException {
+        return new StaticAssetStore(applicationContext, properties.getLocations(), properties.getMaxAgeSeconds());
+    }
+
+    @Bean
+    public FilterRegistrationBean staticAssetFilter(final StaticAssetStore staticAssetStore) {
+        FilterRegistrationBean registration = new FilterRegistrationBean(new StaticAssetFilter(staticAssetStore));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 4);
+        return registration;
+    }
+
+    @Bean
+    public FilterRegistrationBean apiDocsCacheFilter(final StaticAssetProperties properties) {
+        FilterRegistrationBean registration = new FilterRegistrationBean(new ApiDocsCacheFilter(properties.getMaximumApiDocs()));
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 4);
+        return registration;
+    }
+}
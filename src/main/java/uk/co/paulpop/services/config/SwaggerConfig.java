@@ -1,5 +1,7 @@
 package uk.co.paulpop.services.config;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import springfox.documentation.builders.ApiInfoBuilder;
@@ -7,12 +9,16 @@ import springfox.documentation.builders.PathSelectors;
 import springfox.documentation.builders.RequestHandlerSelectors;
 import springfox.documentation.spi.DocumentationType;
 import springfox.documentation.spring.web.plugins.Docket;
+import springfox.documentation.spring.web.plugins.DocumentationPluginsBootstrapper;
 import springfox.documentation.swagger2.annotations.EnableSwagger2;
+import uk.co.paulpop.services.startup.LazySwaggerBootstrapFilter;
 
 /**
- * Swagger configuration class.
+ * Swagger configuration class, only used when the API is served through Spring MVC. With springfox.documentation.auto-startup set to
+ * false, the API is only scanned on the first request for the docs.
  */
 @Configuration
+@ConditionalOnWebApplication
 @EnableSwagger2
 class SwaggerConfig {
 
@@ -30,4 +36,10 @@ class SwaggerConfig {
                 .version("1.0")
                 .build());
     }
+
+    @Bean
+    @ConditionalOnProperty(name = "springfox.documentation.auto-startup", havingValue = "false")
+    public LazySwaggerBootstrapFilter lazySwaggerBootstrapFilter(final DocumentationPluginsBootstrapper documentationPluginsBootstrapper) {
+        return new LazySwaggerBootstrapFilter(documentationPluginsBootstrapper);
+    }
 }
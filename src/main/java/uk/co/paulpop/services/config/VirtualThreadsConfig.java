@@ -0,0 +1,43 @@
+package uk.co.paulpop.services.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.embedded.EmbeddedServletContainerCustomizer;
+import org.springframework.boot.context.embedded.tomcat.TomcatEmbeddedServletContainerFactory;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import uk.co.paulpop.services.server.VirtualThreadExecutorCustomizer;
+import uk.co.paulpop.services.server.VirtualThreadPinningMonitor;
+import uk.co.paulpop.services.server.VirtualThreadsProperties;
+
+import java.time.Duration;
+
+/**
+ * Virtual threads configuration class, only used when service.virtual-threads.enabled is true.
+ */
+@Configuration
+@ConditionalOnWebApplication
+@ConditionalOnProperty(prefix = "service.virtual-threads", name = "enabled")
+@EnableConfigurationProperties(VirtualThreadsProperties.class)
+class VirtualThreadsConfig {
+
+    @Bean
+    public VirtualThreadExecutorCustomizer virtualThreadExecutorCustomizer() {
+        return new VirtualThreadExecutorCustomizer();
+    }
+
+    @Bean
+    public EmbeddedServletContainerCustomizer virtualThreadContainerCustomizer(final VirtualThreadExecutorCustomizer virtualThreadExecutorCustomizer) {
+        return container -> {
+            if (container instanceof TomcatEmbeddedServletContainerFactory) {
+                ((TomcatEmbeddedServletContainerFactory) container).addConnectorCustomizers(virtualThreadExecutorCustomizer);
+            }
+        };
+    }
+
+    @Bean
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(final VirtualThreadsProperties properties) {
+        return new VirtualThreadPinningMonitor(Duration.ofMillis(properties.getPinnedThresholdMillis()));
+    }
+}
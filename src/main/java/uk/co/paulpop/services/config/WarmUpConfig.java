@@ -0,0 +1,37 @@
+package uk.co.paulpop.services.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import uk.co.paulpop.services.warmup.WarmUp;
+import uk.co.paulpop.services.warmup.WarmUpEndpoint;
+import uk.co.paulpop.services.warmup.WarmUpHealthIndicator;
+import uk.co.paulpop.services.warmup.WarmUpProperties;
+
+/**
+ * Warm-up configuration class, only used in the servlet runtime unless service.warm-up.enabled is false. The health indicator keeps
+ * /health out of service until the warm-up is done.
+ */
+@Configuration
+@ConditionalOnWebApplication
+@ConditionalOnProperty(prefix = "service.warm-up", name = "enabled", matchIfMissing = true)
+@EnableConfigurationProperties(WarmUpProperties.class)
+class WarmUpConfig {
+
+    @Bean
+    public WarmUp warmUp(final WarmUpProperties properties) {
+        return new WarmUp(properties);
+    }
+
+    @Bean
+    public WarmUpHealthIndicator warmUpHealthIndicator(final WarmUp warmUp) {
+        return new WarmUpHealthIndicator(warmUp);
+    }
+
+    @Bean
+    public WarmUpEndpoint warmUpEndpoint(final WarmUp warmUp) {
+        return new WarmUpEndpoint(warmUp);
+    }
+}
@@ -1,19 +1,40 @@
 package uk.co.paulpop.services.controller;
 
 import io.swagger.annotations.Api;
+import io.swagger.annotations.ApiImplicitParam;
 import io.swagger.annotations.ApiOperation;
 import io.swagger.annotations.ApiResponse;
 import io.swagger.annotations.ApiResponses;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 import uk.co.paulpop.services.exception.handler.HttpExceptionResponse;
+import uk.co.paulpop.services.greeting.BatchGreetingWriter;
+import uk.co.paulpop.services.greeting.GreetingTemplate;
+import uk.co.paulpop.services.greeting.SingleFlight;
+import uk.co.paulpop.services.greeting.cache.GreetingCache;
+import uk.co.paulpop.services.greeting.cache.RenderedGreeting;
+import uk.co.paulpop.services.greeting.store.GreetingStore;
+import uk.co.paulpop.services.model.GreetingCount;
 import uk.co.paulpop.services.model.Hello;
+import uk.co.paulpop.services.profiling.GreetingEvent;
+import uk.co.paulpop.services.warmup.WarmUp;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.Optional;
+import java.util.function.Function;
 
 import static javax.servlet.http.HttpServletResponse.SC_BAD_REQUEST;
 import static javax.servlet.http.HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+import static javax.servlet.http.HttpServletResponse.SC_NOT_MODIFIED;
+import static javax.servlet.http.HttpServletResponse.SC_OK;
+import static org.springframework.http.MediaType.APPLICATION_JSON_UTF8_VALUE;
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+import static uk.co.paulpop.services.greeting.BatchGreetingWriter.APPLICATION_NDJSON_VALUE;
 
 @Api("Java Spring Service API")
 @RestController
@@ -22,20 +43,113 @@ class JavaSpringServiceController {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(JavaSpringServiceController.class);
 
-    @GetMapping("/{name}")
-    @ResponseBody
-    @ApiOperation("Says hello to the given name")
-    @ResponseStatus(HttpStatus.OK)
+    private final GreetingTemplate greetingTemplate;
+    private final GreetingCache greetingCache;
+    private final Function<String, RenderedGreeting> greetingRenderer;
+    private final boolean coalescing;
+    private final GreetingStore greetingStore;
+    private final BatchGreetingWriter batchGreetingWriter;
+    private final WarmUp warmUp;
+
+    JavaSpringServiceController(final GreetingTemplate greetingTemplate, final Optional<GreetingCache> greetingCache,
+                                final Optional<SingleFlight<String, RenderedGreeting>> singleFlight, final GreetingStore greetingStore,
+                                final BatchGreetingWriter batchGreetingWriter, final Optional<WarmUp> warmUp) {
+        this.greetingTemplate = greetingTemplate;
+        this.greetingCache = greetingCache.orElse(null);
+        Function<String, RenderedGreeting> renderer = name -> RenderedGreeting.of(greetingTemplate.toJson(name));
+        this.greetingRenderer = singleFlight.isPresent() ? name -> singleFlight.get().execute(name, renderer) : renderer;
+        this.coalescing = singleFlight.isPresent();
+        this.greetingStore = greetingStore;
+        this.batchGreetingWriter = batchGreetingWriter;
+        this.warmUp = warmUp.orElse(null);
+    }
+
+    /**
+     * Writes the {@link Hello} JSON for the given name straight to the response. With the greeting cache enabled the body comes from the cache
+     * and carries an ETag, so clients sending a matching If-None-Match get a 304 without a body. Concurrent requests rendering the same
+     * name share one rendering when greeting coalescing is enabled. Every greeting is recorded and counted by name in the
+     * {@link GreetingStore} without waiting for it. Requests sent by the {@link WarmUp} are not recorded.
+     * Every call is marked with a {@link GreetingEvent} in flight recordings. There is no {@code @ResponseStatus}, as Spring would set that
+     * status after the method returns and turn a 304 back into a 200.
+     */
+    @GetMapping(value = "/{name}", produces = APPLICATION_JSON_UTF8_VALUE)
+    @ApiOperation(value = "Says hello to the given name", response = Hello.class)
     @ApiResponses({
+        @ApiResponse(code = SC_OK, message = "OK", response = Hello.class),
+        @ApiResponse(code = SC_NOT_MODIFIED, message = "Not modified"),
         @ApiResponse(code = SC_BAD_REQUEST, message = "Bad request", response = HttpExceptionResponse.class),
         @ApiResponse(code = SC_INTERNAL_SERVER_ERROR, message = "Internal server error", response = HttpExceptionResponse.class)})
-    public ResponseEntity<Hello> sayHello(final @PathVariable String name) {
+    public void sayHello(final @PathVariable String name, final WebRequest request, final HttpServletResponse response) throws IOException {
+        GreetingEvent event = new GreetingEvent();
+        event.begin();
+        try {
+            greet(name, request, response);
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.setName(name);
+                event.commit();
+            }
+        }
+    }
+
+    private void greet(final String name, final WebRequest request, final HttpServletResponse response) throws IOException {
+
+        LOGGER.debug("Received request to say hello to {}", name);
+        if (warmUp == null || !warmUp.isWarmUpRequest(request)) {
+            greetingStore.record(name, System.currentTimeMillis());
+        }
+
+        if (greetingCache == null && !coalescing) {
+            response.setContentType(APPLICATION_JSON_UTF8_VALUE);
+            greetingTemplate.writeJson(name, response.getOutputStream());
+            return;
+        }
+
+        RenderedGreeting greeting = greetingCache != null ? greetingCache.get(name, greetingRenderer) : greetingRenderer.apply(name);
+        if (greetingCache != null && request.checkNotModified(greeting.getEtag())) {
+            return;
+        }
+        response.setContentType(APPLICATION_JSON_UTF8_VALUE);
+        response.setContentLength(greeting.getBody().length);
+        response.getOutputStream().write(greeting.getBody());
+    }
+
+    /**
+     * Returns how many times the given name was greeted, as far as the greetings have been stored yet
+     */
+    @GetMapping(value = "/{name}/count", produces = APPLICATION_JSON_UTF8_VALUE)
+    @ApiOperation(value = "Returns how many times the given name was greeted", response = GreetingCount.class)
+    @ResponseStatus(HttpStatus.OK)
+    @ApiResponses({
+        @ApiResponse(code = SC_OK, message = "OK", response = GreetingCount.class),
+        @ApiResponse(code = SC_INTERNAL_SERVER_ERROR, message = "Internal server error", response = HttpExceptionResponse.class)})
+    public GreetingCount countGreetings(final @PathVariable String name) {
+        return GreetingCount.builder()
+            .name(name)
+            .count(greetingStore.count(name))
+            .build();
+    }
+
+    /**
+     * Streams a {@link Hello} line for every name in the request body, or a {@link HttpExceptionResponse} line for every item that isn't a
+     * name. The names are recorded in the {@link GreetingStore} like single greetings, unless the batch was sent by the {@link WarmUp}.
+     */
+    @PostMapping(value = "/batch", consumes = {APPLICATION_JSON_VALUE, APPLICATION_NDJSON_VALUE}, produces = APPLICATION_NDJSON_VALUE)
+    @ApiOperation(value = "Says hello to every given name, one JSON result per line", response = Hello.class, responseContainer = "List")
+    @ApiImplicitParam(name = "names", value = "JSON array of names, or one JSON string per line", required = true, paramType = "body",
+        dataType = "string", allowMultiple = true)
+    @ResponseStatus(HttpStatus.OK)
+    @ApiResponses({
+        @ApiResponse(code = SC_OK, message = "OK", response = Hello.class, responseContainer = "List"),
+        @ApiResponse(code = SC_INTERNAL_SERVER_ERROR, message = "Internal server error", response = HttpExceptionResponse.class)})
+    public void sayHelloToAll(final HttpServletRequest request, final HttpServletResponse response) throws IOException {
 
-        LOGGER.info("Received request to say hello to {}", name);
+        response.setContentType(APPLICATION_NDJSON_VALUE);
+        boolean record = warmUp == null || !warmUp.isWarmUpRequest(request);
+        long names = batchGreetingWriter.write(request.getInputStream(), response.getOutputStream(), record);
 
-        return ResponseEntity.ok(Hello.builder()
-            .message(String.format("Hello %s", name))
-            .build());
+        LOGGER.info("Said hello to a batch of {} names", names);
     }
 
 }
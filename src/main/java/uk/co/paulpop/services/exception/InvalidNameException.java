@@ -0,0 +1,12 @@
+package uk.co.paulpop.services.exception;
+
+/**
+ * Thrown when the name in the path of a greeting request is too long, badly encoded or contains characters that aren't allowed. The
+ * instances are created once per violation and reused, so it carries no stack trace.
+ */
+public class InvalidNameException extends RuntimeException {
+
+    public InvalidNameException(final String message) {
+        super(message, null, false, false);
+    }
+}
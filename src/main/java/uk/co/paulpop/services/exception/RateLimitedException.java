@@ -0,0 +1,12 @@
+package uk.co.paulpop.services.exception;
+
+/**
+ * Thrown when a client has sent more requests to a route than its rate limit allows. It is raised for every rejected request of an abusive
+ * client, so it carries no stack trace.
+ */
+public class RateLimitedException extends RuntimeException {
+
+    public RateLimitedException(final String message) {
+        super(message, null, false, false);
+    }
+}
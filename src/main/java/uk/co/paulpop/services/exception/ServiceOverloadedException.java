@@ -0,0 +1,12 @@
+package uk.co.paulpop.services.exception;
+
+/**
+ * Thrown when a request is shed because the service is already handling as many requests as its concurrency limit allows. It is raised for
+ * every rejected request while overloaded, so it carries no stack trace.
+ */
+public class ServiceOverloadedException extends RuntimeException {
+
+    public ServiceOverloadedException(final String message) {
+        super(message, null, false, false);
+    }
+}
@@ -6,6 +6,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
 import org.springframework.validation.FieldError;
+import org.springframework.validation.ObjectError;
 import org.springframework.web.HttpRequestMethodNotSupportedException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.ServletRequestBindingException;
@@ -14,40 +15,63 @@ import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 import org.springframework.web.multipart.support.MissingServletRequestPartException;
+import uk.co.paulpop.services.exception.InvalidNameException;
+import uk.co.paulpop.services.exception.RateLimitedException;
+import uk.co.paulpop.services.exception.ServiceOverloadedException;
+import uk.co.paulpop.services.metrics.HttpStatusCounters;
+import uk.co.paulpop.services.profiling.HttpExceptionEvent;
 
 import javax.validation.ConstraintViolation;
 import javax.validation.ConstraintViolationException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.stream.Collectors;
 
 import static org.springframework.http.HttpStatus.BAD_REQUEST;
 import static org.springframework.http.HttpStatus.INTERNAL_SERVER_ERROR;
+import static org.springframework.http.HttpStatus.SERVICE_UNAVAILABLE;
+import static org.springframework.http.HttpStatus.TOO_MANY_REQUESTS;
 
 /**
  * Controller advice that will handle all defined exceptions and return the relevant {@link HttpExceptionResponse} in the HTTP response.
+ * Responses with a fixed message come interned from {@link HttpExceptionResponses}, every response is counted by status in
+ * {@link HttpStatusCounters}, errors are logged through the {@link SampledErrorLogger} and marked with a {@link HttpExceptionEvent} in
+ * flight recordings.
  */
 @ControllerAdvice
 public class HttpExceptionHandler {
 
     private static final String GENERIC_ERROR_MESSAGE = "Something went wrong";
 
+    private final HttpStatusCounters errorCounters;
+    private final HttpExceptionResponses responses;
+    private final SampledErrorLogger errorLogger;
+    private final ResponseEntity<HttpExceptionResponse> genericError;
+
+    public HttpExceptionHandler(final HttpStatusCounters errorCounters, final HttpExceptionResponses responses,
+                                final SampledErrorLogger errorLogger) {
+        this.errorCounters = errorCounters;
+        this.responses = responses;
+        this.errorLogger = errorLogger;
+        this.genericError = responses.fixed(INTERNAL_SERVER_ERROR, GENERIC_ERROR_MESSAGE);
+    }
+
     /**
      * Handles {@link MethodArgumentNotValidException} and returns bad request
      */
     @ExceptionHandler(MethodArgumentNotValidException.class)
     @ResponseBody
     public ResponseEntity<HttpExceptionResponse> handleMethodArgumentNotValidException(MethodArgumentNotValidException ex) {
-        List<String> errors = ex.getBindingResult().getAllErrors().stream()
-            .map(e -> {
-                if (e instanceof FieldError) {
-                    return String.format("Parameter %s %s", ((FieldError) e).getField(), e.getDefaultMessage());
-                } else {
-                    return String.format("Object %s %s", e.getObjectName(), e.getDefaultMessage());
-                }
-            })
-            .collect(Collectors.toList());
-        return error(BAD_REQUEST, errors);
+        List<ObjectError> allErrors = ex.getBindingResult().getAllErrors();
+        List<String> errors = new ArrayList<>(allErrors.size());
+        for (ObjectError e : allErrors) {
+            if (e instanceof FieldError) {
+                errors.add("Parameter " + ((FieldError) e).getField() + " " + e.getDefaultMessage());
+            } else {
+                errors.add("Object " + e.getObjectName() + " " + e.getDefaultMessage());
+            }
+        }
+        return error(ex, BAD_REQUEST, errors);
     }
 
     /**
@@ -56,10 +80,11 @@ public class HttpExceptionHandler {
     @ExceptionHandler(ConstraintViolationException.class)
     @ResponseBody
     public ResponseEntity<HttpExceptionResponse> handleConstraintViolationException(ConstraintViolationException ex) {
-        List<String> errors = ex.getConstraintViolations().stream()
-            .map(ConstraintViolation::getMessage)
-            .collect(Collectors.toList());
-        return error(BAD_REQUEST, errors);
+        List<String> errors = new ArrayList<>(ex.getConstraintViolations().size());
+        for (ConstraintViolation<?> violation : ex.getConstraintViolations()) {
+            errors.add(violation.getMessage());
+        }
+        return error(ex, BAD_REQUEST, errors);
     }
 
     /**
@@ -68,7 +93,7 @@ public class HttpExceptionHandler {
     @ExceptionHandler(ServletRequestBindingException.class)
     @ResponseBody
     public ResponseEntity<HttpExceptionResponse> handleServletRequestBindingException(ServletRequestBindingException ex) {
-        return standardError(ex, BAD_REQUEST);
+        return fixedError(ex, BAD_REQUEST);
     }
 
     /**
@@ -77,7 +102,7 @@ public class HttpExceptionHandler {
     @ExceptionHandler(MissingServletRequestPartException.class)
     @ResponseBody
     public ResponseEntity<HttpExceptionResponse> handleMissingServletRequestPartException(MissingServletRequestPartException ex) {
-        return standardError(ex, BAD_REQUEST);
+        return fixedError(ex, BAD_REQUEST);
     }
 
     /**
@@ -86,7 +111,7 @@ public class HttpExceptionHandler {
     @ExceptionHandler(MethodArgumentTypeMismatchException.class)
     @ResponseBody
     public ResponseEntity<HttpExceptionResponse> handleMethodArgumentTypeMismatchException(MethodArgumentTypeMismatchException ex) {
-        return singleError(BAD_REQUEST, String.format("Parameter '%s' does not accept value '%s'", ex.getName(), ex.getValue()));
+        return singleError(ex, BAD_REQUEST, "Parameter '" + ex.getName() + "' does not accept value '" + ex.getValue() + "'");
     }
 
     /**
@@ -95,7 +120,8 @@ public class HttpExceptionHandler {
     @ExceptionHandler(HttpMessageNotReadableException.class)
     @ResponseBody
     public ResponseEntity<HttpExceptionResponse> handleMessageNotReadableException(HttpMessageNotReadableException ex) {
-        return standardError(ex, BAD_REQUEST);
+        // The message quotes the request body, so it is not interned
+        return singleError(ex, BAD_REQUEST, ex.getMessage());
     }
 
     /**
@@ -104,75 +130,97 @@ public class HttpExceptionHandler {
     @ExceptionHandler(HttpRequestMethodNotSupportedException.class)
     @ResponseBody
     public ResponseEntity<HttpExceptionResponse> handleMethodNotSupportedException(HttpRequestMethodNotSupportedException ex) {
-        return standardError(ex, BAD_REQUEST);
+        return fixedError(ex, BAD_REQUEST);
     }
 
     /**
-     * Handles the generic {@link Exception} and returns internal server error
+     * Handles {@link InvalidNameException} and returns bad request
      */
-    @ExceptionHandler(Exception.class)
+    @ExceptionHandler(InvalidNameException.class)
     @ResponseBody
-    @Order(Ordered.LOWEST_PRECEDENCE)
-    public ResponseEntity<HttpExceptionResponse> handleException() {
-        return genericError(INTERNAL_SERVER_ERROR);
+    public ResponseEntity<HttpExceptionResponse> handleInvalidNameException(InvalidNameException ex) {
+        return fixedError(ex, BAD_REQUEST);
     }
 
     /**
-     * Returns a http exception response entity where the error message is driven from the exception message
-     *
-     * @param ex     the exception the exception
-     * @param status the status
-     * @return a response entity containing a message from the exception and given status
+     * Handles {@link ServiceOverloadedException} and returns service unavailable
      */
-    private ResponseEntity<HttpExceptionResponse> standardError(final Exception ex, final HttpStatus status) {
-        return singleError(status, ex.getMessage());
+    @ExceptionHandler(ServiceOverloadedException.class)
+    @ResponseBody
+    public ResponseEntity<HttpExceptionResponse> handleServiceOverloadedException(ServiceOverloadedException ex) {
+        return fixedError(ex, SERVICE_UNAVAILABLE);
     }
 
     /**
-     * Returns a http exception response entity where the error message is generic
+     * Handles {@link RateLimitedException} and returns too many requests
+     */
+    @ExceptionHandler(RateLimitedException.class)
+    @ResponseBody
+    public ResponseEntity<HttpExceptionResponse> handleRateLimitedException(RateLimitedException ex) {
+        return fixedError(ex, TOO_MANY_REQUESTS);
+    }
+
+    /**
+     * Handles the generic {@link Exception} and returns internal server error
+     */
+    @ExceptionHandler(Exception.class)
+    @ResponseBody
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    public ResponseEntity<HttpExceptionResponse> handleException(Exception ex) {
+        return handled(ex, genericError);
+    }
+
+    /**
+     * Returns the interned http exception response entity for the exception message
      *
+     * @param ex     the exception
      * @param status the status
-     * @return a response entity containing a generic error message and given status
+     * @return a response entity containing a message from the exception and given status
      */
-    private ResponseEntity<HttpExceptionResponse> genericError(final HttpStatus status) {
-        return singleError(status, GENERIC_ERROR_MESSAGE);
+    private ResponseEntity<HttpExceptionResponse> fixedError(final Exception ex, final HttpStatus status) {
+        return handled(ex, responses.fixed(status, ex.getMessage()));
     }
 
     /**
      * Returns a http exception response entity where the error message is set to that provided
      *
+     * @param ex      the exception
      * @param status  the status
      * @param message the message to set in the response
      * @return a response entity containing the given message and given status
      */
-    private ResponseEntity<HttpExceptionResponse> singleError(final HttpStatus status, final String message) {
-        return error(status, Collections.singletonList(message));
+    private ResponseEntity<HttpExceptionResponse> singleError(final Exception ex, final HttpStatus status, final String message) {
+        return error(ex, status, Collections.singletonList(message));
     }
 
     /**
-     * Logs the exception and returns a response entity with the given status and errors
+     * Returns a new response entity with the given status and errors
      *
+     * @param ex     the exception
      * @param status the status to send in the response
      * @param errors the errors to put in the response
      * @return a response entity
      */
-    private ResponseEntity<HttpExceptionResponse> error(final HttpStatus status, final List<String> errors) {
-        return buildResponse(status, errors);
+    private ResponseEntity<HttpExceptionResponse> error(final Exception ex, final HttpStatus status, final List<String> errors) {
+        return handled(ex, responses.of(status, errors));
     }
 
     /**
-     * Builds the {@link ResponseEntity} instance for given http status and errors
+     * Counts and logs the response before returning it
      *
-     * @param status the http status
-     * @param errors the errors
-     * @return an instance of ResponseEntity
+     * @param ex       the exception
+     * @param response the response for the exception
+     * @return the given response
      */
-    private ResponseEntity<HttpExceptionResponse> buildResponse(HttpStatus status, List<String> errors) {
-        return ResponseEntity
-            .status(status)
-            .body(HttpExceptionResponse.builder()
-                .message(status.getReasonPhrase())
-                .errors(errors)
-                .build());
+    private ResponseEntity<HttpExceptionResponse> handled(final Exception ex, final ResponseEntity<HttpExceptionResponse> response) {
+        errorCounters.increment(response.getStatusCodeValue());
+        errorLogger.log(response.getStatusCode(), response.getBody().getErrors(), ex);
+        HttpExceptionEvent event = new HttpExceptionEvent();
+        if (event.shouldCommit()) {
+            List<String> errors = response.getBody().getErrors();
+            event.set(response.getStatusCodeValue(), ex.getClass(), errors.isEmpty() ? null : errors.get(0));
+            event.commit();
+        }
+        return response;
     }
 }
@@ -2,6 +2,7 @@ package uk.co.paulpop.services.exception.handler;
 
 import lombok.Builder;
 import lombok.Data;
+import uk.co.paulpop.services.json.codec.GenerateJsonCodec;
 
 import java.util.List;
 
@@ -10,6 +11,7 @@ import java.util.List;
  */
 @Data
 @Builder
+@GenerateJsonCodec
 public class HttpExceptionResponse {
 
     private final String message;
@@ -0,0 +1,54 @@
+package uk.co.paulpop.services.exception.handler;
+
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Writes {@link HttpExceptionResponse} bodies through {@link HttpExceptionResponses#serialize(HttpExceptionResponse)}, ahead of the Jackson
+ * converter and the generated codecs, so interned errors are written from their cached bytes. It never reads, leaving that to the generated
+ * codec.
+ */
+public class HttpExceptionResponseConverter extends AbstractHttpMessageConverter<HttpExceptionResponse> implements Ordered {
+
+    private final HttpExceptionResponses responses;
+
+    public HttpExceptionResponseConverter(final HttpExceptionResponses responses) {
+        super(UTF_8, MediaType.APPLICATION_JSON, new MediaType("application", "*+json"));
+        this.responses = responses;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    protected boolean supports(final Class<?> clazz) {
+        return HttpExceptionResponse.class == clazz;
+    }
+
+    @Override
+    public boolean canRead(final Class<?> clazz, final MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected HttpExceptionResponse readInternal(final Class<? extends HttpExceptionResponse> clazz, final HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Reading " + clazz.getSimpleName() + " is not supported");
+    }
+
+    @Override
+    protected void writeInternal(final HttpExceptionResponse response, final HttpOutputMessage outputMessage) throws IOException {
+        byte[] body = responses.serialize(response);
+        outputMessage.getHeaders().setContentLength(body.length);
+        outputMessage.getBody().write(body);
+    }
+}
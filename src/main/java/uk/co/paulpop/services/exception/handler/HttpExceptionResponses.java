@@ -0,0 +1,78 @@
+package uk.co.paulpop.services.exception.handler;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Builds the error responses returned by {@link HttpExceptionHandler}. Responses carrying a single fixed message are interned together with
+ * their serialized JSON, so repeating an error costs a cache lookup rather than building and serializing a new body. At most
+ * {@code maximumInterned} responses are held, and the cache admits and keeps them by how often they are used, so messages echoing client
+ * input, such as an unsupported method, cannot crowd out the ones that keep coming back.
+ */
+public class HttpExceptionResponses {
+
+    private final Cache<String, ResponseEntity<HttpExceptionResponse>> interned;
+    private final Cache<HttpExceptionResponse, byte[]> serialized;
+
+    public HttpExceptionResponses(final int maximumInterned) {
+        this.interned = Caffeine.newBuilder()
+            .maximumSize(maximumInterned)
+            .executor(Runnable::run)
+            .build();
+        this.serialized = Caffeine.newBuilder()
+            .maximumSize(maximumInterned)
+            .executor(Runnable::run)
+            .build();
+    }
+
+    /**
+     * Returns the interned response for a fixed message, interning it first
+     *
+     * @param status  the status of the response
+     * @param message the single error message
+     * @return a response entity with the given status and message
+     */
+    public ResponseEntity<HttpExceptionResponse> fixed(final HttpStatus status, final String message) {
+        if (message == null) {
+            return of(status, Collections.singletonList(null));
+        }
+        // The status code is all digits, so no two pairs of status and message share a key
+        return interned.get(status.value() + ":" + message, key -> {
+            ResponseEntity<HttpExceptionResponse> response = of(status, Collections.singletonList(message));
+            serialized.put(response.getBody(), HttpExceptionResponseJsonCodec.INSTANCE.encode(response.getBody()));
+            return response;
+        });
+    }
+
+    /**
+     * Builds a new response for messages that vary from request to request
+     *
+     * @param status the status of the response
+     * @param errors the error messages
+     * @return a response entity with the given status and errors
+     */
+    public ResponseEntity<HttpExceptionResponse> of(final HttpStatus status, final List<String> errors) {
+        return ResponseEntity
+            .status(status)
+            .body(HttpExceptionResponse.builder()
+                .message(status.getReasonPhrase())
+                .errors(errors)
+                .build());
+    }
+
+    /**
+     * Returns the JSON of a response, pre-serialized if it was interned
+     *
+     * @param response the response body
+     * @return the UTF-8 encoded JSON
+     */
+    public byte[] serialize(final HttpExceptionResponse response) {
+        byte[] bytes = serialized.getIfPresent(response);
+        return bytes != null ? bytes : HttpExceptionResponseJsonCodec.INSTANCE.encode(response);
+    }
+}
@@ -0,0 +1,75 @@
+package uk.co.paulpop.services.exception.handler;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Logs the errors handled by {@link HttpExceptionHandler}, at most {@code maxPerSecond} of them every second so an error storm cannot flood
+ * the logs. Suppressed errors are counted and reported once the next second starts logging again. A negative limit logs every error and
+ * zero logs none.
+ */
+public class SampledErrorLogger {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(HttpExceptionHandler.class);
+
+    private final int maxPerSecond;
+    private final AtomicLong second = new AtomicLong();
+    private final AtomicInteger logged = new AtomicInteger();
+    private final LongAdder suppressed = new LongAdder();
+
+    public SampledErrorLogger(final int maxPerSecond) {
+        this.maxPerSecond = maxPerSecond;
+    }
+
+    /**
+     * Logs server errors with their stack trace and client errors with their status and messages only
+     *
+     * @param status the status returned for the error
+     * @param errors the error messages returned
+     * @param ex     the exception that was handled
+     */
+    public void log(final HttpStatus status, final List<String> errors, final Exception ex) {
+        if (!LOGGER.isWarnEnabled() || !tryAcquire()) {
+            return;
+        }
+        if (status.is5xxServerError()) {
+            LOGGER.error("Request failed with {}", status.value(), ex);
+        } else {
+            LOGGER.warn("Request rejected with {}: {}", status.value(), errors);
+        }
+    }
+
+    /**
+     * @return the number of errors not logged since the last report
+     */
+    public long getSuppressed() {
+        return suppressed.sum();
+    }
+
+    private boolean tryAcquire() {
+        if (maxPerSecond < 0) {
+            return true;
+        }
+        long now = TimeUnit.NANOSECONDS.toSeconds(System.nanoTime());
+        long current = second.get();
+        if (now != current && second.compareAndSet(current, now)) {
+            logged.set(0);
+            long count = suppressed.sumThenReset();
+            if (count > 0) {
+                LOGGER.warn("Suppressed logging of {} errors", count);
+            }
+        }
+        if (logged.incrementAndGet() <= maxPerSecond) {
+            return true;
+        }
+        suppressed.increment();
+        return false;
+    }
+}
@@ -0,0 +1,92 @@
+package uk.co.paulpop.services.greeting;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.http.HttpStatus;
+import uk.co.paulpop.services.exception.handler.HttpExceptionResponse;
+import uk.co.paulpop.services.exception.handler.HttpExceptionResponseJsonCodec;
+import uk.co.paulpop.services.greeting.store.GreetingStore;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.Collections;
+
+/**
+ * Streams greetings for a batch of names, reading the names one at a time from either a JSON array or newline delimited JSON strings and
+ * writing one greeting per line as newline delimited JSON. Items that are not valid names get a {@link HttpExceptionResponse} line instead,
+ * so neither the names nor the greetings are ever held in memory as a whole. Every name greeted is recorded in the {@link GreetingStore}
+ * like a single greeting is.
+ */
+public class BatchGreetingWriter {
+
+    public static final String APPLICATION_NDJSON_VALUE = "application/x-ndjson";
+
+    private static final int NEW_LINE = '\n';
+
+    private final GreetingTemplate template;
+    private final JsonFactory jsonFactory;
+    private final GreetingStore store;
+    private final int flushSize;
+
+    public BatchGreetingWriter(final GreetingTemplate template, final ObjectMapper objectMapper, final GreetingStore store,
+                               final int flushSize) {
+        this.template = template;
+        this.jsonFactory = objectMapper.getFactory();
+        this.store = store;
+        this.flushSize = flushSize;
+    }
+
+    /**
+     * Writes a greeting or an error line for every item read from the given input
+     *
+     * @param in     the names, as a JSON array of strings or as newline delimited JSON strings
+     * @param out    the stream the newline delimited results are written to
+     * @param record whether the names greeted are recorded in the store, which they are not for warm-up requests
+     * @return the number of items read
+     * @throws IOException if either stream fails
+     */
+    public long write(final InputStream in, final OutputStream out, final boolean record) throws IOException {
+        long items = 0;
+        try (JsonParser parser = jsonFactory.createParser(in)) {
+            JsonToken token = parser.nextToken();
+            boolean array = token == JsonToken.START_ARRAY;
+            if (array) {
+                token = parser.nextToken();
+            }
+            while (token != null && !(array && token == JsonToken.END_ARRAY)) {
+                if (token == JsonToken.VALUE_STRING && parser.getTextLength() > 0) {
+                    String name = parser.getText();
+                    if (record) {
+                        store.record(name, System.currentTimeMillis());
+                    }
+                    template.writeJson(name, out);
+                } else {
+                    parser.skipChildren();
+                    writeError(out, "Item " + items + " must be a non-empty string");
+                }
+                out.write(NEW_LINE);
+                if (++items % flushSize == 0) {
+                    out.flush();
+                }
+                token = parser.nextToken();
+            }
+        } catch (JsonProcessingException e) {
+            // The status has most likely been committed by now, so the failure is reported in band like any other item
+            writeError(out, "Malformed JSON after item " + items + ": " + e.getOriginalMessage());
+            out.write(NEW_LINE);
+        }
+        out.flush();
+        return items;
+    }
+
+    private void writeError(final OutputStream out, final String error) throws IOException {
+        HttpExceptionResponseJsonCodec.INSTANCE.write(HttpExceptionResponse.builder()
+            .message(HttpStatus.BAD_REQUEST.getReasonPhrase())
+            .errors(Collections.singletonList(error))
+            .build(), out);
+    }
+}
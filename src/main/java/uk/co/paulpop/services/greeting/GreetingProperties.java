@@ -0,0 +1,203 @@
+package uk.co.paulpop.services.greeting;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import uk.co.paulpop.services.greeting.cache.EvictionPolicy;
+import uk.co.paulpop.services.greeting.store.FsyncPolicy;
+import uk.co.paulpop.services.greeting.store.StoreType;
+
+/**
+ * Configuration for the greetings returned by the API.
+ */
+@Data
+@ConfigurationProperties("greeting")
+public class GreetingProperties {
+
+    /**
+     * Template of the greeting message, where {name} is replaced by the name being greeted.
+     */
+    private String template = "Hello " + GreetingTemplate.NAME_PLACEHOLDER;
+
+    private final Cache cache = new Cache();
+
+    private final Batch batch = new Batch();
+
+    private final Coalescing coalescing = new Coalescing();
+
+    private final Store store = new Store();
+
+    private final Frequency frequency = new Frequency();
+
+    private final Name name = new Name();
+
+    /**
+     * Configuration for the cache of rendered greetings.
+     */
+    @Data
+    public static class Cache {
+
+        /**
+         * Whether rendered greetings are cached and served with an ETag.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Policy used to evict greetings once the cache is over its byte budget.
+         */
+        private EvictionPolicy policy = EvictionPolicy.TINY_LFU;
+
+        /**
+         * Approximate number of bytes the cached greetings may occupy.
+         */
+        private long maximumBytes = 8L * 1024 * 1024;
+
+    }
+
+    /**
+     * Configuration for the streaming batch endpoint.
+     */
+    @Data
+    public static class Batch {
+
+        /**
+         * Number of greetings written between explicit flushes of the response.
+         */
+        private int flushSize = 256;
+
+    }
+
+    /**
+     * Configuration for merging concurrent renderings of the same greeting.
+     */
+    @Data
+    public static class Coalescing {
+
+        /**
+         * Whether requests rendering a greeting that is already being rendered wait for and share that rendering.
+         */
+        private boolean enabled = true;
+
+    }
+
+    /**
+     * Configuration for recording every greeting said.
+     */
+    @Data
+    public static class Store {
+
+        /**
+         * Whether greetings are only counted in memory or also appended to a log on the local disk.
+         */
+        private StoreType type = StoreType.MEMORY;
+
+        /**
+         * Directory of the greeting log.
+         */
+        private String directory = System.getProperty("java.io.tmpdir") + "/java-spring-service/greetings";
+
+        /**
+         * Size of every memory mapped segment file of the log, in bytes.
+         */
+        private int segmentBytes = 64 * 1024 * 1024;
+
+        /**
+         * Number of segment files kept, including the one being appended to. Older ones are deleted, so only the greetings in the last
+         * segments are replayed and counted on start up.
+         */
+        private int retainedSegments = 16;
+
+        /**
+         * Number of greetings waiting to be appended before new ones are dropped, rounded up to the next power of two.
+         */
+        private int capacity = 8192;
+
+        /**
+         * Maximum number of greetings appended and committed together.
+         */
+        private int batchSize = 256;
+
+        /**
+         * How long the writer waits for more greetings when there is less than a batch, in milliseconds.
+         */
+        private long flushIntervalMillis = 10;
+
+        /**
+         * When appended greetings are forced to disk.
+         */
+        private FsyncPolicy fsync = FsyncPolicy.INTERVAL;
+
+        /**
+         * Maximum time appended greetings stay unforced with the INTERVAL policy, in milliseconds.
+         */
+        private long fsyncIntervalMillis = 1000;
+
+    }
+
+    /**
+     * Configuration for counting how often every name is greeted.
+     */
+    @Data
+    public static class Frequency {
+
+        /**
+         * Whether the most greeted names are served on the actuator names endpoint and the index is reported on /metrics. Greetings are
+         * counted by name either way, as the greeting store counts them in the index.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Number of slots of the exact index, rounded up to the next power of two. Three quarters of them can hold a name.
+         */
+        private int capacity = 131072;
+
+        /**
+         * Number of off-heap bytes for the UTF-8 names in the exact index.
+         */
+        private int keyBytes = 4 * 1024 * 1024;
+
+        /**
+         * Number of counters per name, rounded up to the next power of two, so concurrent greetings of a popular name rarely contend.
+         */
+        private int counterStripes = 4;
+
+        /**
+         * Number of counters per row of the sketch counting the names that no longer fit in the exact index.
+         */
+        private int sketchWidth = 65536;
+
+        /**
+         * Number of rows of the sketch.
+         */
+        private int sketchDepth = 4;
+
+        /**
+         * Number of names returned by the names endpoint by default, and of heavy hitters tracked among the sketched names.
+         */
+        private int topNames = 20;
+
+    }
+
+    /**
+     * Configuration for the names greeted through GET /api/{name}.
+     */
+    @Data
+    public static class Name {
+
+        /**
+         * Whether names are decoded and validated before the dispatcher and routed straight to the greeting, instead of through the
+         * stock request mapping.
+         */
+        private boolean fastRouteEnabled = true;
+
+        /**
+         * Maximum number of characters of a name.
+         */
+        private int maximumLength = 256;
+
+        /**
+         * Charset the percent-encoded bytes of a name must be valid in.
+         */
+        private String charset = "UTF-8";
+
+    }
+}
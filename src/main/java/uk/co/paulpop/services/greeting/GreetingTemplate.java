@@ -0,0 +1,116 @@
+package uk.co.paulpop.services.greeting;
+
+import uk.co.paulpop.services.json.JsonStrings;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * A greeting template such as {@code Hello {name}} compiled into pre-encoded JSON segments, so a greeting can be written as the JSON form of
+ * {@link uk.co.paulpop.services.model.Hello} without building any intermediate strings or objects. The plain text segments are kept as well
+ * for transports that carry the message as a string.
+ */
+public final class GreetingTemplate {
+
+    public static final String NAME_PLACEHOLDER = "{name}";
+
+    private static final byte[] JSON_START = "{\"message\":\"".getBytes(UTF_8);
+    private static final byte[] JSON_END = "\"}".getBytes(UTF_8);
+
+    private final String template;
+    private final String[] parts;
+    private final byte[][] segments;
+
+    private GreetingTemplate(final String template, final String[] parts, final byte[][] segments) {
+        this.template = template;
+        this.parts = parts;
+        this.segments = segments;
+    }
+
+    /**
+     * Compiles the given template, where every occurrence of {@value #NAME_PLACEHOLDER} is replaced by the name being greeted
+     *
+     * @param template the template
+     * @return the compiled template
+     */
+    public static GreetingTemplate compile(final String template) {
+        if (template == null) {
+            throw new IllegalArgumentException("Greeting template must not be null");
+        }
+        List<String> parts = new ArrayList<>();
+        int start = 0;
+        int placeholder;
+        while ((placeholder = template.indexOf(NAME_PLACEHOLDER, start)) != -1) {
+            parts.add(template.substring(start, placeholder));
+            start = placeholder + NAME_PLACEHOLDER.length();
+        }
+        parts.add(template.substring(start));
+        byte[][] segments = new byte[parts.size()][];
+        for (int i = 0; i < segments.length; i++) {
+            segments[i] = JsonStrings.encode(parts.get(i));
+        }
+        return new GreetingTemplate(template, parts.toArray(new String[parts.size()]), segments);
+    }
+
+    /**
+     * Writes the greeting for the given name as a JSON object with a single {@code message} field
+     *
+     * @param name the name to greet
+     * @param out  the stream to write to
+     * @throws IOException if the stream cannot be written to
+     */
+    public void writeJson(final CharSequence name, final OutputStream out) throws IOException {
+        out.write(JSON_START);
+        out.write(segments[0]);
+        for (int i = 1; i < segments.length; i++) {
+            JsonStrings.write(name, out);
+            out.write(segments[i]);
+        }
+        out.write(JSON_END);
+    }
+
+    /**
+     * Returns the greeting for the given name as a JSON object with a single {@code message} field
+     *
+     * @param name the name to greet
+     * @return the UTF-8 encoded JSON
+     */
+    public byte[] toJson(final CharSequence name) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(JSON_START.length + JSON_END.length + template.length() + name.length());
+        try {
+            writeJson(name, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Returns the greeting for the given name as plain text, the {@code message} of {@link uk.co.paulpop.services.model.Hello}
+     *
+     * @param name the name to greet
+     * @return the greeting
+     */
+    public String render(final CharSequence name) {
+        if (parts.length == 1) {
+            return parts[0];
+        }
+        StringBuilder message = new StringBuilder(template.length() + name.length() * (parts.length - 1));
+        message.append(parts[0]);
+        for (int i = 1; i < parts.length; i++) {
+            message.append(name).append(parts[i]);
+        }
+        return message.toString();
+    }
+
+    @Override
+    public String toString() {
+        return template;
+    }
+}
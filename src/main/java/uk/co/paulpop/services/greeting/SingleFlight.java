@@ -0,0 +1,84 @@
+package uk.co.paulpop.services.greeting;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Merges concurrent calls for the same key into one. The first caller for a key runs the computation and every caller arriving while it
+ * runs waits for, and shares, its result or failure. Nothing is kept once the computation is done, so callers that come later compute again.
+ * <p>
+ * Calls in flight are tracked in a concurrent map, so calls for different keys never wait for each other.
+ *
+ * @param <K> the type of the keys
+ * @param <V> the type of the results
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> calls = new ConcurrentHashMap<>();
+    private final LongAdder executions = new LongAdder();
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * Returns the result of the computation for the given key, joining a call already in flight for it if there is one
+     *
+     * @param key         the key identifying identical calls
+     * @param computation computes the result for the key
+     * @return the result of the computation
+     */
+    public V execute(final K key, final Function<? super K, ? extends V> computation) {
+        CompletableFuture<V> call = calls.get(key);
+        if (call == null) {
+            CompletableFuture<V> ownCall = new CompletableFuture<>();
+            call = calls.putIfAbsent(key, ownCall);
+            if (call == null) {
+                return lead(key, computation, ownCall);
+            }
+        }
+        coalesced.increment();
+        try {
+            return call.join();
+        } catch (CompletionException e) {
+            throw rethrow(e.getCause());
+        }
+    }
+
+    public long getExecutions() {
+        return executions.sum();
+    }
+
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    public int getInFlight() {
+        return calls.size();
+    }
+
+    private V lead(final K key, final Function<? super K, ? extends V> computation, final CompletableFuture<V> call) {
+        executions.increment();
+        try {
+            V result = computation.apply(key);
+            call.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            calls.remove(key, call);
+        }
+    }
+
+    private static RuntimeException rethrow(final Throwable cause) {
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        if (cause instanceof RuntimeException) {
+            return (RuntimeException) cause;
+        }
+        return new CompletionException(cause);
+    }
+}
@@ -0,0 +1,27 @@
+package uk.co.paulpop.services.greeting;
+
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Exposes the counters of the {@link SingleFlight} rendering greetings on the actuator metrics endpoint, as greeting.single-flight.*.
+ */
+public class SingleFlightMetrics implements PublicMetrics {
+
+    private final SingleFlight<?, ?> singleFlight;
+
+    public SingleFlightMetrics(final SingleFlight<?, ?> singleFlight) {
+        this.singleFlight = singleFlight;
+    }
+
+    @Override
+    public Collection<Metric<?>> metrics() {
+        return Arrays.asList(
+            new Metric<>("greeting.single-flight.executions", singleFlight.getExecutions()),
+            new Metric<>("greeting.single-flight.coalesced", singleFlight.getCoalesced()),
+            new Metric<>("greeting.single-flight.in-flight", singleFlight.getInFlight()));
+    }
+}
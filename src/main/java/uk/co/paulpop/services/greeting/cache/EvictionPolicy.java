@@ -0,0 +1,18 @@
+package uk.co.paulpop.services.greeting.cache;
+
+/**
+ * The policy used to pick which greetings to evict once a {@link GreetingCache} is over its byte budget.
+ */
+public enum EvictionPolicy {
+
+    /**
+     * Evicts the least recently used greeting.
+     */
+    LRU,
+
+    /**
+     * Window TinyLFU, which admits and evicts based on an estimate of how frequently each name is requested.
+     */
+    TINY_LFU
+
+}
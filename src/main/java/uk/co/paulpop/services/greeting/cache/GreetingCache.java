@@ -0,0 +1,23 @@
+package uk.co.paulpop.services.greeting.cache;
+
+import java.util.function.Function;
+
+/**
+ * A bounded cache of rendered greetings keyed by the name being greeted.
+ */
+public interface GreetingCache {
+
+    /**
+     * Returns the cached greeting for the given name, rendering and caching it on a miss
+     *
+     * @param name     the name being greeted
+     * @param renderer renders the greeting when it is not cached
+     * @return the rendered greeting
+     */
+    RenderedGreeting get(String name, Function<String, RenderedGreeting> renderer);
+
+    /**
+     * @return a snapshot of the cache counters
+     */
+    GreetingCacheStats stats();
+}
@@ -0,0 +1,30 @@
+package uk.co.paulpop.services.greeting.cache;
+
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Exposes the {@link GreetingCache} counters on the actuator metrics endpoint.
+ */
+public class GreetingCacheMetrics implements PublicMetrics {
+
+    private final GreetingCache cache;
+
+    public GreetingCacheMetrics(final GreetingCache cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    public Collection<Metric<?>> metrics() {
+        GreetingCacheStats stats = cache.stats();
+        return Arrays.asList(
+            new Metric<>("greeting.cache.hits", stats.getHits()),
+            new Metric<>("greeting.cache.misses", stats.getMisses()),
+            new Metric<>("greeting.cache.evictions", stats.getEvictions()),
+            new Metric<>("greeting.cache.entries", stats.getEntries()),
+            new Metric<>("greeting.cache.bytes", stats.getBytes()));
+    }
+}
@@ -0,0 +1,19 @@
+package uk.co.paulpop.services.greeting.cache;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Snapshot of the counters of a {@link GreetingCache}.
+ */
+@Data
+@Builder
+public class GreetingCacheStats {
+
+    private final long hits;
+    private final long misses;
+    private final long evictions;
+    private final long entries;
+    private final long bytes;
+
+}
@@ -0,0 +1,87 @@
+package uk.co.paulpop.services.greeting.cache;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+
+/**
+ * Greeting cache evicting the least recently used greetings once over its byte budget. It is guarded by a lock rather than synchronized, so
+ * a virtual thread waiting for it does not pin its carrier thread.
+ */
+public class LruGreetingCache implements GreetingCache {
+
+    private final long maximumBytes;
+    private final LinkedHashMap<String, RenderedGreeting> greetings = new LinkedHashMap<>(16, 0.75f, true);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final ReentrantLock lock = new ReentrantLock();
+    private long bytes;
+
+    public LruGreetingCache(final long maximumBytes) {
+        this.maximumBytes = maximumBytes;
+    }
+
+    @Override
+    public RenderedGreeting get(final String name, final Function<String, RenderedGreeting> renderer) {
+        lock.lock();
+        try {
+            RenderedGreeting greeting = greetings.get(name);
+            if (greeting != null) {
+                hits.increment();
+                return greeting;
+            }
+        } finally {
+            lock.unlock();
+        }
+        misses.increment();
+
+        RenderedGreeting greeting = renderer.apply(name);
+        long weight = greeting.weigh(name);
+        if (weight <= maximumBytes) {
+            put(name, greeting, weight);
+        }
+        return greeting;
+    }
+
+    @Override
+    public GreetingCacheStats stats() {
+        lock.lock();
+        try {
+            return GreetingCacheStats.builder()
+                .hits(hits.sum())
+                .misses(misses.sum())
+                .evictions(evictions.sum())
+                .entries(greetings.size())
+                .bytes(bytes)
+                .build();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void put(final String name, final RenderedGreeting greeting, final long weight) {
+        lock.lock();
+        try {
+            RenderedGreeting previous = greetings.put(name, greeting);
+            if (previous != null) {
+                bytes -= previous.weigh(name);
+            }
+            bytes += weight;
+
+            // The greeting just put is the most recently used, so it is never reached before the budget is met again
+            Iterator<Map.Entry<String, RenderedGreeting>> eldest = greetings.entrySet().iterator();
+            while (bytes > maximumBytes) {
+                Map.Entry<String, RenderedGreeting> entry = eldest.next();
+                bytes -= entry.getValue().weigh(entry.getKey());
+                eldest.remove();
+                evictions.increment();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package uk.co.paulpop.services.greeting.cache;
+
+import lombok.Data;
+import org.springframework.util.DigestUtils;
+
+/**
+ * A greeting already serialized to its JSON response body, together with the strong ETag of that body.
+ */
+@Data
+public class RenderedGreeting {
+
+    private final byte[] body;
+    private final String etag;
+
+    /**
+     * Creates a rendered greeting for the given body, deriving the ETag the same way Spring's ShallowEtagHeaderFilter does
+     *
+     * @param body the JSON response body
+     * @return the rendered greeting
+     */
+    public static RenderedGreeting of(final byte[] body) {
+        return new RenderedGreeting(body, "\"0" + DigestUtils.md5DigestAsHex(body) + "\"");
+    }
+
+    /**
+     * Returns the approximate number of bytes this greeting occupies in a cache under the given name
+     *
+     * @param name the name the greeting is cached under
+     * @return the approximate size in bytes
+     */
+    long weigh(final String name) {
+        return body.length + etag.length() + 2L * name.length();
+    }
+}
@@ -0,0 +1,44 @@
+package uk.co.paulpop.services.greeting.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+
+import java.util.function.Function;
+
+/**
+ * Greeting cache backed by Caffeine, which evicts using Window TinyLFU once over its byte budget.
+ */
+public class TinyLfuGreetingCache implements GreetingCache {
+
+    private final Cache<String, RenderedGreeting> greetings;
+
+    public TinyLfuGreetingCache(final long maximumBytes) {
+        this.greetings = Caffeine.newBuilder()
+            .maximumWeight(maximumBytes)
+            .<String, RenderedGreeting>weigher((name, greeting) -> (int) Math.min(Integer.MAX_VALUE, greeting.weigh(name)))
+            // Maintenance runs on the calling thread rather than the common pool, so evictions are counted as they happen
+            .executor(Runnable::run)
+            .recordStats()
+            .build();
+    }
+
+    @Override
+    public RenderedGreeting get(final String name, final Function<String, RenderedGreeting> renderer) {
+        return greetings.get(name, renderer);
+    }
+
+    @Override
+    public GreetingCacheStats stats() {
+        CacheStats stats = greetings.stats();
+        return GreetingCacheStats.builder()
+            .hits(stats.hitCount())
+            .misses(stats.missCount())
+            .evictions(stats.evictionCount())
+            .entries(greetings.estimatedSize())
+            .bytes(greetings.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0L))
+                .orElse(0L))
+            .build();
+    }
+}
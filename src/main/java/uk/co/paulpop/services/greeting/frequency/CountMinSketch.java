@@ -0,0 +1,63 @@
+package uk.co.paulpop.services.greeting.frequency;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Count-min sketch estimating how often a key was added from {@code depth} rows of {@code width} counters. Estimates never undercount, and
+ * overcount by at most e / width of all additions with a probability of 1 - e^-depth. The row indexes of a key are derived from the two
+ * halves of its 64 bit hash.
+ */
+public class CountMinSketch {
+
+    private final int width;
+    private final int depth;
+    private final int mask;
+    private final AtomicLongArray counters;
+
+    /**
+     * @param width number of counters per row, rounded up to the next power of two
+     * @param depth number of rows
+     */
+    public CountMinSketch(final int width, final int depth) {
+        this.width = width <= 1 ? 1 : Integer.highestOneBit(width - 1) << 1;
+        this.depth = depth;
+        this.mask = this.width - 1;
+        this.counters = new AtomicLongArray(this.width * depth);
+    }
+
+    /**
+     * Adds one occurrence of the key
+     *
+     * @return the estimated number of occurrences of the key, including this one
+     */
+    public long add(final long hash) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.incrementAndGet(index(hash, row)));
+        }
+        return estimate;
+    }
+
+    /**
+     * @return the estimated number of occurrences of the key
+     */
+    public long estimate(final long hash) {
+        long estimate = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            estimate = Math.min(estimate, counters.get(index(hash, row)));
+        }
+        return estimate;
+    }
+
+    /**
+     * @return the number of bytes of the counters
+     */
+    public long bytes() {
+        return 8L * counters.length();
+    }
+
+    private int index(final long hash, final int row) {
+        int combined = (int) hash + row * (int) (hash >>> 32);
+        return row * width + (combined & mask);
+    }
+}
@@ -0,0 +1,66 @@
+package uk.co.paulpop.services.greeting.frequency;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Keeps the k keys with the highest estimated counts seen so far. Offers below the lowest estimate kept return after a single volatile
+ * read, so only the keys climbing into the top k take the lock.
+ */
+public class HeavyHitters {
+
+    private final int k;
+    private final Map<String, Long> candidates;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private volatile long threshold;
+
+    public HeavyHitters(final int k) {
+        this.k = k;
+        this.candidates = new HashMap<>(k * 2);
+    }
+
+    /**
+     * Offers a key with its latest estimated count
+     */
+    public void offer(final String key, final long estimate) {
+        if (estimate <= threshold || k == 0) {
+            return;
+        }
+        lock.lock();
+        try {
+            candidates.put(key, estimate);
+            if (candidates.size() > k) {
+                candidates.remove(lowest().getKey());
+            }
+            threshold = candidates.size() < k ? 0 : lowest().getValue();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the keys kept with their estimated counts, in no particular order
+     */
+    public List<Map.Entry<String, Long>> snapshot() {
+        lock.lock();
+        try {
+            return new ArrayList<>(new HashMap<>(candidates).entrySet());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Map.Entry<String, Long> lowest() {
+        Map.Entry<String, Long> lowest = null;
+        for (Map.Entry<String, Long> candidate : candidates.entrySet()) {
+            if (lowest == null || candidate.getValue() < lowest.getValue()) {
+                lowest = candidate;
+            }
+        }
+        return lowest;
+    }
+}
@@ -0,0 +1,17 @@
+package uk.co.paulpop.services.greeting.frequency;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * How many times a name was greeted, either counted exactly or estimated.
+ */
+@Data
+@Builder
+public class NameCount {
+
+    private final String name;
+    private final long count;
+    private final boolean exact;
+
+}
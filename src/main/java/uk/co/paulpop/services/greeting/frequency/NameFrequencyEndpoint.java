@@ -0,0 +1,52 @@
+package uk.co.paulpop.services.greeting.frequency;
+
+import org.springframework.boot.actuate.endpoint.mvc.AbstractMvcEndpoint;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator endpoint serving the most greeted names and the count of any single name from the {@link NameFrequencyIndex}.
+ */
+@ConfigurationProperties(prefix = "endpoints.names")
+public class NameFrequencyEndpoint extends AbstractMvcEndpoint {
+
+    private static final int MAXIMUM_LIMIT = 1000;
+
+    private final NameFrequencyIndex index;
+    private final int defaultLimit;
+
+    public NameFrequencyEndpoint(final NameFrequencyIndex index, final int defaultLimit) {
+        super("/names", true);
+        this.index = index;
+        this.defaultLimit = defaultLimit;
+    }
+
+    /**
+     * @return the size of the index and the most greeted names
+     */
+    @RequestMapping(method = RequestMethod.GET, produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public Map<String, Object> top(final @RequestParam(required = false) Integer limit) {
+        Map<String, Object> names = new LinkedHashMap<>();
+        names.put("stats", index.stats());
+        names.put("top", index.top(limit == null ? defaultLimit : Math.min(limit, MAXIMUM_LIMIT)));
+        return names;
+    }
+
+    /**
+     * @return how many times the given name was greeted
+     */
+    @RequestMapping(value = "/{name:.+}", method = RequestMethod.GET, produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public NameCount count(final @PathVariable String name) {
+        return index.count(name);
+    }
+}
@@ -0,0 +1,126 @@
+package uk.co.paulpop.services.greeting.frequency;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Counts how many times every name was greeted without keeping a heap object per name. The first names seen are counted exactly in an
+ * {@link OffHeapCountIndex}; once it is full, the long tail of new names is counted approximately in a {@link CountMinSketch}, and the
+ * {@link HeavyHitters} among them are kept so a popular late name still shows up in the top names.
+ */
+public class NameFrequencyIndex {
+
+    private static final long FNV_OFFSET_BASIS = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+    private static final Comparator<NameCount> BY_COUNT = Comparator.comparingLong(NameCount::getCount);
+
+    private final OffHeapCountIndex index;
+    private final CountMinSketch sketch;
+    private final HeavyHitters heavyHitters;
+    private final LongAdder unindexed = new LongAdder();
+
+    /**
+     * @param capacity       number of slots of the exact index, three quarters of which can be used
+     * @param keyBytes       number of off-heap bytes for the names in the exact index
+     * @param counterStripes number of counters per name in the exact index
+     * @param sketchWidth    number of counters per row of the sketch
+     * @param sketchDepth    number of rows of the sketch
+     * @param heavyHitters   number of names counted in the sketch that are tracked as heavy hitters
+     */
+    public NameFrequencyIndex(final int capacity, final int keyBytes, final int counterStripes, final int sketchWidth,
+                              final int sketchDepth, final int heavyHitters) {
+        this.index = new OffHeapCountIndex(capacity, keyBytes, counterStripes);
+        this.sketch = new CountMinSketch(sketchWidth, sketchDepth);
+        this.heavyHitters = new HeavyHitters(heavyHitters);
+    }
+
+    /**
+     * Counts a greeting of the name
+     */
+    public void record(final String name) {
+        byte[] key = name.getBytes(UTF_8);
+        long hash = hash(key);
+        if (!index.increment(key, hash)) {
+            unindexed.increment();
+            heavyHitters.offer(name, sketch.add(hash));
+        }
+    }
+
+    /**
+     * @return how many times the name was greeted, exact if the name is indexed and an upper bound estimate otherwise
+     */
+    public NameCount count(final String name) {
+        byte[] key = name.getBytes(UTF_8);
+        long hash = hash(key);
+        long count = index.count(key, hash);
+        return NameCount.builder()
+            .name(name)
+            .count(count < 0 ? sketch.estimate(hash) : count)
+            .exact(count >= 0)
+            .build();
+    }
+
+    /**
+     * @return the most greeted names, most greeted first
+     */
+    public List<NameCount> top(final int limit) {
+        if (limit <= 0) {
+            return new ArrayList<>();
+        }
+        PriorityQueue<NameCount> top = new PriorityQueue<>(limit + 1, BY_COUNT);
+        long[] lowest = {0};
+        // Only names making it into the top are decoded
+        index.forEachCount((slot, count) -> {
+            if (top.size() < limit || count > lowest[0]) {
+                offer(top, limit, NameCount.builder().name(index.key(slot)).count(count).exact(true).build());
+                lowest[0] = top.peek().getCount();
+            }
+        });
+        for (Map.Entry<String, Long> heavyHitter : heavyHitters.snapshot()) {
+            offer(top, limit, NameCount.builder().name(heavyHitter.getKey()).count(heavyHitter.getValue()).exact(false).build());
+        }
+        List<NameCount> names = new ArrayList<>(top);
+        names.sort(BY_COUNT.reversed());
+        return names;
+    }
+
+    public NameFrequencyStats stats() {
+        return NameFrequencyStats.builder()
+            .indexedNames(index.size())
+            .maximumIndexedNames(index.maximumEntries())
+            .unindexedGreetings(unindexed.sum())
+            .keyBytes(index.keyBytes())
+            .offHeapBytes(index.offHeapBytes())
+            .heapBytes(index.heapBytes() + sketch.bytes())
+            .build();
+    }
+
+    /**
+     * 64 bit FNV-1a hash of the bytes, finished with the MurmurHash3 mixer so that both halves are well distributed
+     */
+    static long hash(final byte[] key) {
+        long hash = FNV_OFFSET_BASIS;
+        for (byte b : key) {
+            hash ^= b & 0xff;
+            hash *= FNV_PRIME;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        return hash ^ hash >>> 33;
+    }
+
+    private static void offer(final PriorityQueue<NameCount> top, final int limit, final NameCount name) {
+        top.offer(name);
+        if (top.size() > limit) {
+            top.poll();
+        }
+    }
+}
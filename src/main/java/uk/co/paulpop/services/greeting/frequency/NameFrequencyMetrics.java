@@ -0,0 +1,29 @@
+package uk.co.paulpop.services.greeting.frequency;
+
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Exposes the size of the {@link NameFrequencyIndex} on the actuator metrics endpoint.
+ */
+public class NameFrequencyMetrics implements PublicMetrics {
+
+    private final NameFrequencyIndex index;
+
+    public NameFrequencyMetrics(final NameFrequencyIndex index) {
+        this.index = index;
+    }
+
+    @Override
+    public Collection<Metric<?>> metrics() {
+        NameFrequencyStats stats = index.stats();
+        return Arrays.asList(
+            new Metric<>("greeting.frequency.indexed-names", stats.getIndexedNames()),
+            new Metric<>("greeting.frequency.unindexed-greetings", stats.getUnindexedGreetings()),
+            new Metric<>("greeting.frequency.key-bytes", stats.getKeyBytes()),
+            new Metric<>("greeting.frequency.off-heap-bytes", stats.getOffHeapBytes()));
+    }
+}
@@ -0,0 +1,20 @@
+package uk.co.paulpop.services.greeting.frequency;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Snapshot of the size of a {@link NameFrequencyIndex}.
+ */
+@Data
+@Builder
+public class NameFrequencyStats {
+
+    private final long indexedNames;
+    private final long maximumIndexedNames;
+    private final long unindexedGreetings;
+    private final long keyBytes;
+    private final long offHeapBytes;
+    private final long heapBytes;
+
+}
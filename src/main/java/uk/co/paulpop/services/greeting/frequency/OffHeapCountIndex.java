@@ -0,0 +1,237 @@
+package uk.co.paulpop.services.greeting.frequency;
+
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.ObjLongConsumer;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Fixed size, open addressing hash index counting keys given as UTF-8 bytes. The keys are copied once into a direct buffer, so an entry
+ * costs no objects on the heap: a slot is a 4 byte tag and its counters, and the key offset, length and bytes live off-heap.
+ * <p>
+ * Keys are inserted lock-free: a thread claims an empty slot with a CAS on its tag, copies the key and publishes the slot by writing the
+ * tag of the key's hash. Every slot has {@code counterStripes} counters laid out stripe by stripe, so threads counting the same popular key
+ * mostly update different cache lines. Once three quarters of the slots or all the key bytes are used, new keys are no longer indexed.
+ */
+public class OffHeapCountIndex {
+
+    private static final int EMPTY = 0;
+    private static final int CLAIMED = 1;
+    private static final int SLOT_BYTES = 8;
+
+    private final int capacity;
+    private final int mask;
+    private final int maximumEntries;
+    private final int stripeMask;
+    private final AtomicIntegerArray tags;
+    private final AtomicLongArray counters;
+    private final ByteBuffer slots;
+    private final ByteBuffer keys;
+    private final AtomicInteger keyBytes = new AtomicInteger();
+    private final AtomicInteger size = new AtomicInteger();
+
+    private volatile boolean full;
+
+    /**
+     * @param capacity       number of slots, rounded up to the next power of two
+     * @param keyBytes       number of off-heap bytes for the keys
+     * @param counterStripes number of counters per slot, rounded up to the next power of two
+     */
+    public OffHeapCountIndex(final int capacity, final int keyBytes, final int counterStripes) {
+        this.capacity = powerOfTwo(capacity);
+        this.mask = this.capacity - 1;
+        this.maximumEntries = this.capacity / 4 * 3;
+        this.stripeMask = powerOfTwo(counterStripes) - 1;
+        this.tags = new AtomicIntegerArray(this.capacity);
+        this.counters = new AtomicLongArray(this.capacity * (stripeMask + 1));
+        this.slots = ByteBuffer.allocateDirect(this.capacity * SLOT_BYTES);
+        this.keys = ByteBuffer.allocateDirect(keyBytes);
+    }
+
+    /**
+     * Counts the key, indexing it if it wasn't yet
+     *
+     * @param key  UTF-8 bytes of the key
+     * @param hash 64 bit hash of the key
+     * @return false if the key isn't indexed and the index is full
+     */
+    public boolean increment(final byte[] key, final long hash) {
+        int slot = find(key, hash, true);
+        if (slot < 0) {
+            return false;
+        }
+        counters.getAndIncrement(stripe() * capacity + slot);
+        return true;
+    }
+
+    /**
+     * @param key  UTF-8 bytes of the key
+     * @param hash 64 bit hash of the key
+     * @return how many times the key was counted, or -1 if it isn't indexed
+     */
+    public long count(final byte[] key, final long hash) {
+        int slot = find(key, hash, false);
+        return slot < 0 ? -1 : sum(slot);
+    }
+
+    /**
+     * Calls the consumer with every indexed key, decoded from UTF-8, and its count
+     */
+    public void forEach(final ObjLongConsumer<String> consumer) {
+        forEachCount((slot, count) -> consumer.accept(key(slot), count));
+    }
+
+    /**
+     * Calls the consumer with the count of every indexed key, without decoding the keys
+     */
+    public void forEachCount(final LongSlotConsumer consumer) {
+        for (int slot = 0; slot < capacity; slot++) {
+            int tag = tags.get(slot);
+            if (tag != EMPTY && tag != CLAIMED) {
+                consumer.accept(slot, sum(slot));
+            }
+        }
+    }
+
+    /**
+     * @return the key of a slot passed to {@link #forEachCount}, decoded from UTF-8
+     */
+    public String key(final int slot) {
+        int offset = slots.getInt(slot * SLOT_BYTES);
+        byte[] key = new byte[slots.getInt(slot * SLOT_BYTES + 4)];
+        for (int i = 0; i < key.length; i++) {
+            key[i] = keys.get(offset + i);
+        }
+        return new String(key, UTF_8);
+    }
+
+    public int size() {
+        return size.get();
+    }
+
+    /**
+     * @return the number of keys that can be indexed
+     */
+    public int maximumEntries() {
+        return maximumEntries;
+    }
+
+    /**
+     * @return the number of off-heap bytes used by keys so far
+     */
+    public int keyBytes() {
+        return Math.min(keyBytes.get(), keys.capacity());
+    }
+
+    /**
+     * @return the number of bytes allocated off-heap, for the slots and the keys
+     */
+    public long offHeapBytes() {
+        return (long) slots.capacity() + keys.capacity();
+    }
+
+    /**
+     * @return the number of bytes of the tags and counters allocated on the heap
+     */
+    public long heapBytes() {
+        return 4L * tags.length() + 8L * counters.length();
+    }
+
+    private int find(final byte[] key, final long hash, final boolean insert) {
+        int tag = tag(hash);
+        int slot = (int) hash & mask;
+        for (int probes = 0; probes < capacity; probes++) {
+            int current = tags.get(slot);
+            if (current == EMPTY) {
+                if (!insert || full || size.get() >= maximumEntries) {
+                    return -1;
+                }
+                if (!tags.compareAndSet(slot, EMPTY, CLAIMED)) {
+                    continue;
+                }
+                if (!store(slot, key)) {
+                    tags.set(slot, EMPTY);
+                    return -1;
+                }
+                size.incrementAndGet();
+                // Publishes the key written by store() to every thread reading the tag
+                tags.set(slot, tag);
+                return slot;
+            }
+            if (current == CLAIMED) {
+                // Another thread is copying a key into this slot, which may be the same key
+                Thread.yield();
+                continue;
+            }
+            if (current == tag && matches(slot, key)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    private boolean store(final int slot, final byte[] key) {
+        int offset = keyBytes.getAndAdd(key.length);
+        if (offset < 0 || offset > keys.capacity() - key.length) {
+            // Stops further allocations before the offset could wrap around
+            full = true;
+            return false;
+        }
+        for (int i = 0; i < key.length; i++) {
+            keys.put(offset + i, key[i]);
+        }
+        slots.putInt(slot * SLOT_BYTES, offset);
+        slots.putInt(slot * SLOT_BYTES + 4, key.length);
+        return true;
+    }
+
+    private boolean matches(final int slot, final byte[] key) {
+        if (slots.getInt(slot * SLOT_BYTES + 4) != key.length) {
+            return false;
+        }
+        int offset = slots.getInt(slot * SLOT_BYTES);
+        for (int i = 0; i < key.length; i++) {
+            if (keys.get(offset + i) != key[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long sum(final int slot) {
+        long sum = 0;
+        for (int stripe = 0; stripe <= stripeMask; stripe++) {
+            sum += counters.get(stripe * capacity + slot);
+        }
+        return sum;
+    }
+
+    private int stripe() {
+        return (int) (Thread.currentThread().getId() * 0x9E3779B97F4A7C15L >>> 40) & stripeMask;
+    }
+
+    /**
+     * Tags are the high half of the hash, moved away from the two values marking empty and claimed slots.
+     */
+    private static int tag(final long hash) {
+        int tag = (int) (hash >>> 32);
+        return tag == EMPTY || tag == CLAIMED ? tag + 2 : tag;
+    }
+
+    private static int powerOfTwo(final int value) {
+        return value <= 1 ? 1 : Integer.highestOneBit(value - 1) << 1;
+    }
+
+    /**
+     * Receives the slot and count of an indexed key.
+     */
+    @FunctionalInterface
+    public interface LongSlotConsumer {
+
+        void accept(int slot, long count);
+    }
+}
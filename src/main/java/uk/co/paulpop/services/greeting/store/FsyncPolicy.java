@@ -0,0 +1,22 @@
+package uk.co.paulpop.services.greeting.store;
+
+/**
+ * When greetings appended to the log are forced to disk.
+ */
+public enum FsyncPolicy {
+
+    /**
+     * Left to the operating system, so greetings survive the service crashing but not the machine.
+     */
+    NEVER,
+
+    /**
+     * At most once per fsync interval, so a crash of the machine loses at most that much.
+     */
+    INTERVAL,
+
+    /**
+     * After every batch, before its greetings are counted.
+     */
+    BATCH
+}
@@ -0,0 +1,30 @@
+package uk.co.paulpop.services.greeting.store;
+
+import uk.co.paulpop.services.greeting.frequency.NameFrequencyIndex;
+
+import java.io.Closeable;
+
+/**
+ * Records every greeting said, for analytics, and counts them by name in a bounded {@link NameFrequencyIndex}.
+ */
+public interface GreetingStore extends Closeable {
+
+    /**
+     * Records a greeting without waiting for it to be stored, so it may be dropped when the store cannot keep up
+     *
+     * @param name      the name greeted
+     * @param timestamp when the greeting was said, in milliseconds since the epoch
+     */
+    void record(String name, long timestamp);
+
+    /**
+     * @param name the name greeted
+     * @return the number of stored greetings for the name, exact if the index counts the name exactly and an upper bound estimate otherwise
+     */
+    long count(String name);
+
+    /**
+     * @return a snapshot of the store counters
+     */
+    GreetingStoreStats stats();
+}
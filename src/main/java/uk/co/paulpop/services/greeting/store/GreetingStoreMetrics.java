@@ -0,0 +1,30 @@
+package uk.co.paulpop.services.greeting.store;
+
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+
+import java.util.Arrays;
+import java.util.Collection;
+
+/**
+ * Exposes the {@link GreetingStore} counters on the actuator metrics endpoint.
+ */
+public class GreetingStoreMetrics implements PublicMetrics {
+
+    private final GreetingStore store;
+
+    public GreetingStoreMetrics(final GreetingStore store) {
+        this.store = store;
+    }
+
+    @Override
+    public Collection<Metric<?>> metrics() {
+        GreetingStoreStats stats = store.stats();
+        return Arrays.asList(
+            new Metric<>("greeting.store.recorded", stats.getRecorded()),
+            new Metric<>("greeting.store.dropped", stats.getDropped()),
+            new Metric<>("greeting.store.batches", stats.getBatches()),
+            new Metric<>("greeting.store.syncs", stats.getSyncs()),
+            new Metric<>("greeting.store.bytes", stats.getBytes()));
+    }
+}
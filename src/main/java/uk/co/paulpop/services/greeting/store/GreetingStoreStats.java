@@ -0,0 +1,19 @@
+package uk.co.paulpop.services.greeting.store;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Snapshot of the counters of a {@link GreetingStore}.
+ */
+@Data
+@Builder
+public class GreetingStoreStats {
+
+    private final long recorded;
+    private final long dropped;
+    private final long batches;
+    private final long syncs;
+    private final long bytes;
+
+}
@@ -0,0 +1,41 @@
+package uk.co.paulpop.services.greeting.store;
+
+import uk.co.paulpop.services.greeting.frequency.NameFrequencyIndex;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Greeting store counting greetings in memory only, in a {@link NameFrequencyIndex}.
+ */
+public class InMemoryGreetingStore implements GreetingStore {
+
+    private final NameFrequencyIndex counts;
+    private final LongAdder recorded = new LongAdder();
+
+    public InMemoryGreetingStore(final NameFrequencyIndex counts) {
+        this.counts = counts;
+    }
+
+    @Override
+    public void record(final String name, final long timestamp) {
+        counts.record(name);
+        recorded.increment();
+    }
+
+    @Override
+    public long count(final String name) {
+        return counts.count(name).getCount();
+    }
+
+    @Override
+    public GreetingStoreStats stats() {
+        return GreetingStoreStats.builder()
+            .recorded(recorded.sum())
+            .build();
+    }
+
+    @Override
+    public void close() {
+        // Nothing to release
+    }
+}
@@ -0,0 +1,170 @@
+package uk.co.paulpop.services.greeting.store;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import uk.co.paulpop.services.greeting.frequency.NameFrequencyIndex;
+import uk.co.paulpop.services.logging.RingBuffer;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Greeting store appending to a {@link MappedGreetingLog} through a group commit pipeline. Recording a greeting only publishes it to a
+ * lock-free {@link RingBuffer}; a single writer thread appends the greetings in batches, forces them to disk as the {@link FsyncPolicy}
+ * asks and only then counts them in the {@link NameFrequencyIndex}. The counts are rebuilt by replaying the segments the log retains when
+ * the store is created, so they cover the same greetings as the log does.
+ */
+public class LogGreetingStore implements GreetingStore {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LogGreetingStore.class);
+
+    private final MappedGreetingLog log;
+    private final RingBuffer<Greeting> buffer;
+    private final int batchSize;
+    private final long flushIntervalNanos;
+    private final FsyncPolicy fsyncPolicy;
+    private final long fsyncIntervalNanos;
+    private final NameFrequencyIndex counts;
+
+    private final LongAdder recorded = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder syncs = new LongAdder();
+    private final List<Greeting> batch;
+    private final Thread writer;
+
+    private volatile boolean running = true;
+    private volatile long bytes;
+    private long unsyncedSince = -1;
+
+    public LogGreetingStore(final MappedGreetingLog log, final NameFrequencyIndex counts, final int capacity, final int batchSize,
+                            final long flushIntervalMillis, final FsyncPolicy fsyncPolicy, final long fsyncIntervalMillis)
+        throws IOException {
+        this.log = log;
+        this.buffer = new RingBuffer<>(capacity);
+        this.batchSize = batchSize;
+        this.flushIntervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis);
+        this.fsyncPolicy = fsyncPolicy;
+        this.fsyncIntervalNanos = TimeUnit.MILLISECONDS.toNanos(fsyncIntervalMillis);
+        this.counts = counts;
+        this.batch = new ArrayList<>(batchSize);
+
+        long replayed = log.open((name, timestamp) -> counts.record(name));
+        this.bytes = log.bytes();
+        LOGGER.info("Replayed {} greetings from the greeting log", replayed);
+
+        writer = new Thread(this::writeLoop, "greeting-store");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    @Override
+    public void record(final String name, final long timestamp) {
+        if (!running || !buffer.offer(new Greeting(name, timestamp))) {
+            dropped.increment();
+            return;
+        }
+        if (buffer.size() >= batchSize) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    @Override
+    public long count(final String name) {
+        return counts.count(name).getCount();
+    }
+
+    @Override
+    public GreetingStoreStats stats() {
+        return GreetingStoreStats.builder()
+            .recorded(recorded.sum())
+            .dropped(dropped.sum())
+            .batches(batches.sum())
+            .syncs(syncs.sum())
+            .bytes(bytes)
+            .build();
+    }
+
+    /**
+     * Stops accepting greetings, commits the ones already recorded and closes the log
+     */
+    @Override
+    public void close() throws IOException {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        log.close();
+    }
+
+    private void writeLoop() {
+        while (true) {
+            // Read before draining, so every greeting recorded before close() is still committed
+            boolean stopping = !running;
+            int drained = buffer.drain(this::append, batchSize);
+            if (drained > 0) {
+                commit();
+            }
+            if (drained == batchSize) {
+                continue;
+            }
+            if (fsyncPolicy == FsyncPolicy.INTERVAL && unsyncedSince >= 0 && System.nanoTime() - unsyncedSince >= fsyncIntervalNanos) {
+                sync();
+            }
+            if (stopping) {
+                return;
+            }
+            LockSupport.parkNanos(this, flushIntervalNanos);
+        }
+    }
+
+    private void append(final Greeting greeting) {
+        try {
+            bytes += log.append(greeting.name.getBytes(UTF_8), greeting.timestamp);
+            batch.add(greeting);
+        } catch (IOException | RuntimeException e) {
+            dropped.increment();
+            LOGGER.warn("Could not append a greeting to the greeting log", e);
+        }
+    }
+
+    private void commit() {
+        if (fsyncPolicy == FsyncPolicy.BATCH) {
+            sync();
+        } else if (fsyncPolicy == FsyncPolicy.INTERVAL && unsyncedSince < 0) {
+            unsyncedSince = System.nanoTime();
+        }
+        for (Greeting greeting : batch) {
+            counts.record(greeting.name);
+        }
+        recorded.add(batch.size());
+        batches.increment();
+        batch.clear();
+    }
+
+    private void sync() {
+        log.force();
+        syncs.increment();
+        unsyncedSince = -1;
+    }
+
+    private static final class Greeting {
+
+        private final String name;
+        private final long timestamp;
+
+        Greeting(final String name, final long timestamp) {
+            this.name = name;
+            this.timestamp = timestamp;
+        }
+    }
+}
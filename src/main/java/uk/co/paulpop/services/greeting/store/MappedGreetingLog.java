@@ -0,0 +1,250 @@
+package uk.co.paulpop.services.greeting.store;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.channels.OverlappingFileLockException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.List;
+import java.util.function.ObjLongConsumer;
+import java.util.zip.CRC32;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static java.nio.file.StandardOpenOption.CREATE;
+import static java.nio.file.StandardOpenOption.CREATE_NEW;
+import static java.nio.file.StandardOpenOption.READ;
+import static java.nio.file.StandardOpenOption.WRITE;
+
+/**
+ * Append-only log of greetings in memory mapped segment files of {@code segmentBytes} each. Every record is laid out as
+ * <pre>
+ * int  name length + 1
+ * long timestamp
+ * byte name[]       UTF-8
+ * int  CRC-32 of the timestamp and name
+ * </pre>
+ * and followed by a zero int marking the end of the log, so replaying stops at the first zero, short or corrupt record and appending
+ * resumes from there. Segments are named by their sequence number and replayed in order. Only the last {@code retainedSegments} segments
+ * are kept: the oldest is deleted whenever a new one is started, so the log never takes more than that many segments on disk nor to replay.
+ * <p>
+ * The log is not thread safe and is meant to be written by a single thread. A lock file keeps other processes from opening the same
+ * directory.
+ */
+public class MappedGreetingLog implements Closeable {
+
+    private static final String SEGMENT_PREFIX = "greetings-";
+    private static final String SEGMENT_SUFFIX = ".log";
+    private static final int OVERHEAD_BYTES = 4 + 8 + 4;
+    private static final int END_MARKER_BYTES = 4;
+
+    private final Path directory;
+    private final int segmentBytes;
+    private final int retainedSegments;
+    private final Deque<FullSegment> fullSegments = new ArrayDeque<>();
+    private final FileChannel lockChannel;
+    private final FileLock lock;
+    private final CRC32 crc = new CRC32();
+
+    private MappedByteBuffer segment;
+    private Path segmentPath;
+    private long segmentNumber;
+    private long bytes;
+
+    public MappedGreetingLog(final Path directory, final int segmentBytes, final int retainedSegments) throws IOException {
+        if (segmentBytes < OVERHEAD_BYTES + END_MARKER_BYTES) {
+            throw new IllegalArgumentException("Segments must be at least " + (OVERHEAD_BYTES + END_MARKER_BYTES) + " bytes");
+        }
+        if (retainedSegments < 1) {
+            throw new IllegalArgumentException("At least one segment must be retained");
+        }
+        this.directory = Files.createDirectories(directory);
+        this.segmentBytes = segmentBytes;
+        this.retainedSegments = retainedSegments;
+        this.lockChannel = FileChannel.open(directory.resolve(".lock"), CREATE, WRITE);
+        try {
+            this.lock = lockChannel.tryLock();
+        } catch (OverlappingFileLockException e) {
+            lockChannel.close();
+            throw new IllegalStateException("Greeting log " + directory + " is already open", e);
+        }
+        if (lock == null) {
+            lockChannel.close();
+            throw new IllegalStateException("Greeting log " + directory + " is locked by another process");
+        }
+    }
+
+    /**
+     * Replays every record of the retained segments, deleting older ones, and positions the log for appending after the last one. Must be
+     * called once, before appending.
+     *
+     * @param consumer receives the name and timestamp of every record, in the order they were appended
+     * @return the number of records replayed
+     * @throws IOException if a segment can't be read or created
+     */
+    public long open(final ObjLongConsumer<String> consumer) throws IOException {
+        List<Path> segments = segments();
+        // Left over from a larger retention, and deleted before replaying so they are not counted either
+        while (segments.size() > retainedSegments) {
+            Files.deleteIfExists(segments.remove(0));
+        }
+        long records = 0;
+        for (int i = 0; i < segments.size(); i++) {
+            Path path = segments.get(i);
+            MappedByteBuffer mapped = map(path, false);
+            records += replay(mapped, consumer);
+            bytes += mapped.position();
+            if (i == segments.size() - 1) {
+                segment = mapped;
+                segmentPath = path;
+                segmentNumber = numberOf(path);
+            } else {
+                fullSegments.addLast(new FullSegment(path, mapped.position()));
+            }
+        }
+        if (segment == null) {
+            roll();
+        }
+        return records;
+    }
+
+    /**
+     * Appends a record, starting a new segment when the current one is full and deleting the oldest one past the retention
+     *
+     * @param name      the UTF-8 bytes of the name
+     * @param timestamp the timestamp of the greeting
+     * @return the number of bytes appended
+     * @throws IOException if a new segment can't be created or an old one can't be deleted
+     */
+    public int append(final byte[] name, final long timestamp) throws IOException {
+        int length = OVERHEAD_BYTES + name.length;
+        if (length + END_MARKER_BYTES > segmentBytes) {
+            throw new IllegalArgumentException("A name of " + name.length + " bytes does not fit in a segment");
+        }
+        if (segment.remaining() < length + END_MARKER_BYTES) {
+            roll();
+        }
+        int start = segment.position();
+        segment.putInt(name.length + 1);
+        segment.putLong(timestamp);
+        segment.put(name);
+        segment.putInt(checksum(segment, start + 4, 8 + name.length));
+        segment.putInt(segment.position(), 0);
+        bytes += length;
+        return length;
+    }
+
+    /**
+     * Forces the appended records of the current segment to disk
+     */
+    public void force() {
+        segment.force();
+    }
+
+    /**
+     * @return the number of bytes of all records in the retained segments
+     */
+    public long bytes() {
+        return bytes;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            if (segment != null) {
+                segment.force();
+            }
+        } finally {
+            lock.release();
+            lockChannel.close();
+        }
+    }
+
+    private long replay(final ByteBuffer mapped, final ObjLongConsumer<String> consumer) {
+        long records = 0;
+        while (mapped.remaining() >= OVERHEAD_BYTES) {
+            int start = mapped.position();
+            int nameLength = mapped.getInt() - 1;
+            if (nameLength < 0 || nameLength > mapped.remaining() - 8 - 4) {
+                mapped.position(start);
+                break;
+            }
+            long timestamp = mapped.getLong();
+            byte[] name = new byte[nameLength];
+            mapped.get(name);
+            if (mapped.getInt() != checksum(mapped, start + 4, 8 + nameLength)) {
+                mapped.position(start);
+                break;
+            }
+            consumer.accept(new String(name, UTF_8), timestamp);
+            records++;
+        }
+        return records;
+    }
+
+    private int checksum(final ByteBuffer buffer, final int offset, final int length) {
+        ByteBuffer view = buffer.duplicate();
+        view.limit(offset + length).position(offset);
+        crc.reset();
+        crc.update(view);
+        return (int) crc.getValue();
+    }
+
+    private void roll() throws IOException {
+        if (segment != null) {
+            segment.force();
+            fullSegments.addLast(new FullSegment(segmentPath, segment.position()));
+        }
+        segmentNumber++;
+        segmentPath = directory.resolve(String.format("%s%012d%s", SEGMENT_PREFIX, segmentNumber, SEGMENT_SUFFIX));
+        segment = map(segmentPath, true);
+        // Only forgotten once deleted, so a segment that could not be deleted is tried again on the next roll
+        while (fullSegments.size() >= retainedSegments) {
+            Files.deleteIfExists(fullSegments.peekFirst().path);
+            bytes -= fullSegments.removeFirst().bytes;
+        }
+    }
+
+    private MappedByteBuffer map(final Path path, final boolean create) throws IOException {
+        try (FileChannel channel = create ? FileChannel.open(path, CREATE_NEW, READ, WRITE) : FileChannel.open(path, READ, WRITE)) {
+            // The mapping stays valid once the channel is closed, and mapping past the end grows a new file to the segment size
+            return channel.map(FileChannel.MapMode.READ_WRITE, 0, Math.max(channel.size(), segmentBytes));
+        }
+    }
+
+    private List<Path> segments() throws IOException {
+        List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> paths = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path path : paths) {
+                segments.add(path);
+            }
+        }
+        // Sequence numbers are zero padded, so names sort in the order the segments were created
+        Collections.sort(segments);
+        return segments;
+    }
+
+    private static long numberOf(final Path segment) {
+        String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+    }
+
+    private static final class FullSegment {
+
+        private final Path path;
+        private final long bytes;
+
+        FullSegment(final Path path, final long bytes) {
+            this.path = path;
+            this.bytes = bytes;
+        }
+    }
+}
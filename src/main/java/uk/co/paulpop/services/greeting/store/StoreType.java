@@ -0,0 +1,17 @@
+package uk.co.paulpop.services.greeting.store;
+
+/**
+ * Where greetings are stored.
+ */
+public enum StoreType {
+
+    /**
+     * Greetings are only counted in memory and lost on restart.
+     */
+    MEMORY,
+
+    /**
+     * Greetings are appended to a memory mapped log on the local disk, which is replayed into the counts on start up.
+     */
+    LOG
+}
@@ -0,0 +1,106 @@
+package uk.co.paulpop.services.json;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Writes JSON string contents as UTF-8 straight to an {@link OutputStream}, escaping exactly the way Jackson's default generator does, so
+ * hand written JSON stays byte-identical to what the Jackson message converter would produce.
+ */
+public final class JsonStrings {
+
+    private static final byte[] HEX = {'0', '1', '2', '3', '4', '5', '6', '7', '8', '9', 'A', 'B', 'C', 'D', 'E', 'F'};
+
+    private JsonStrings() {
+    }
+
+    /**
+     * Writes the escaped, UTF-8 encoded contents of a JSON string, without the surrounding quotes
+     *
+     * @param value the characters to write
+     * @param out   the stream to write to
+     * @throws IOException if the stream cannot be written to
+     */
+    public static void write(final CharSequence value, final OutputStream out) throws IOException {
+        for (int i = 0, length = value.length(); i < length; i++) {
+            write(value.charAt(i), out);
+        }
+    }
+
+    /**
+     * Returns the escaped, UTF-8 encoded contents of a JSON string, without the surrounding quotes
+     *
+     * @param value the characters to encode
+     * @return the encoded bytes
+     */
+    public static byte[] encode(final CharSequence value) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(value.length() + 16);
+        try {
+            write(value, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private static void write(final char c, final OutputStream out) throws IOException {
+        if (c < 0x80) {
+            if (c < 0x20) {
+                writeControl(c, out);
+            } else if (c == '"' || c == '\\') {
+                out.write('\\');
+                out.write(c);
+            } else {
+                out.write(c);
+            }
+        } else if (c < 0x800) {
+            out.write(0xC0 | (c >> 6));
+            out.write(0x80 | (c & 0x3F));
+        } else if (Character.isSurrogate(c)) {
+            // Jackson escapes surrogates individually rather than combining the pair into a 4 byte sequence
+            writeUnicodeEscape(c, out);
+        } else {
+            out.write(0xE0 | (c >> 12));
+            out.write(0x80 | ((c >> 6) & 0x3F));
+            out.write(0x80 | (c & 0x3F));
+        }
+    }
+
+    private static void writeControl(final char c, final OutputStream out) throws IOException {
+        switch (c) {
+            case '\b':
+                writeShortEscape('b', out);
+                break;
+            case '\t':
+                writeShortEscape('t', out);
+                break;
+            case '\n':
+                writeShortEscape('n', out);
+                break;
+            case '\f':
+                writeShortEscape('f', out);
+                break;
+            case '\r':
+                writeShortEscape('r', out);
+                break;
+            default:
+                writeUnicodeEscape(c, out);
+        }
+    }
+
+    private static void writeShortEscape(final char escape, final OutputStream out) throws IOException {
+        out.write('\\');
+        out.write(escape);
+    }
+
+    private static void writeUnicodeEscape(final char c, final OutputStream out) throws IOException {
+        out.write('\\');
+        out.write('u');
+        out.write(HEX[(c >> 12) & 0xF]);
+        out.write(HEX[(c >> 8) & 0xF]);
+        out.write(HEX[(c >> 4) & 0xF]);
+        out.write(HEX[c & 0xF]);
+    }
+}
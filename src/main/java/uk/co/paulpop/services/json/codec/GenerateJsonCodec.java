@@ -0,0 +1,19 @@
+package uk.co.paulpop.services.json.codec;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Generates a {@link JsonCodec} named after the annotated class, in the same package, at build time. The codec writes and reads every
+ * non-static field in declaration order, the same way the Jackson message converter would, and builds instances through the constructor
+ * taking every field in that order, such as the one Lombok generates for {@code @Builder}. Fields may be {@code String}, {@code int},
+ * {@code long}, {@code boolean}, their boxed types or {@code List<String>}.
+ */
+@Documented
+@Target(ElementType.TYPE)
+@Retention(RetentionPolicy.SOURCE)
+public @interface GenerateJsonCodec {
+}
@@ -0,0 +1,56 @@
+package uk.co.paulpop.services.json.codec;
+
+import com.fasterxml.jackson.core.JsonParser;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Writes and reads one type as JSON without reflection. Implementations are generated for classes annotated with
+ * {@link GenerateJsonCodec}.
+ *
+ * @param <T> the type written and read
+ */
+public interface JsonCodec<T> {
+
+    /**
+     * @return the type written and read
+     */
+    Class<T> type();
+
+    /**
+     * Writes the value as UTF-8 encoded JSON
+     *
+     * @param value the value to write
+     * @param out   the stream to write to
+     * @throws IOException if the stream cannot be written to
+     */
+    void write(T value, OutputStream out) throws IOException;
+
+    /**
+     * Reads a value from a parser positioned on its first token
+     *
+     * @param parser the parser
+     * @return the value read, or null for a JSON null
+     * @throws IOException if the parser fails or the JSON doesn't match the type
+     */
+    T read(JsonParser parser) throws IOException;
+
+    /**
+     * Returns the value as UTF-8 encoded JSON
+     *
+     * @param value the value to encode
+     * @return the encoded bytes
+     */
+    default byte[] encode(final T value) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(128);
+        try {
+            write(value, out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+}
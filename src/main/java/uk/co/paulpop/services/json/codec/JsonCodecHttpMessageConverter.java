@@ -0,0 +1,66 @@
+package uk.co.paulpop.services.json.codec;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Reads and writes the types with a generated {@link JsonCodec}, ahead of the Jackson converter, which keeps handling every other type.
+ * It orders itself after the other converters registered as beans, so more specific ones such as the interned error responses still win.
+ */
+public class JsonCodecHttpMessageConverter extends AbstractHttpMessageConverter<Object> implements Ordered {
+
+    private final Map<Class<?>, JsonCodec<?>> codecs = new HashMap<>();
+    private final JsonFactory jsonFactory;
+
+    public JsonCodecHttpMessageConverter(final Collection<JsonCodec<?>> codecs, final JsonFactory jsonFactory) {
+        super(UTF_8, MediaType.APPLICATION_JSON, new MediaType("application", "*+json"));
+        for (JsonCodec<?> codec : codecs) {
+            this.codecs.put(codec.type(), codec);
+        }
+        this.jsonFactory = jsonFactory;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.LOWEST_PRECEDENCE;
+    }
+
+    @Override
+    protected boolean supports(final Class<?> clazz) {
+        return codecs.containsKey(clazz);
+    }
+
+    @Override
+    protected Object readInternal(final Class<?> clazz, final HttpInputMessage inputMessage) throws IOException {
+        try (JsonParser parser = jsonFactory.createParser(inputMessage.getBody())) {
+            if (parser.nextToken() == null) {
+                throw new HttpMessageNotReadableException("Required request body is missing");
+            }
+            return codecs.get(clazz).read(parser);
+        } catch (JsonProcessingException e) {
+            throw new HttpMessageNotReadableException("JSON parse error: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    protected void writeInternal(final Object value, final HttpOutputMessage outputMessage) throws IOException {
+        byte[] body = ((JsonCodec<Object>) codecs.get(value.getClass())).encode(value);
+        outputMessage.getHeaders().setContentLength(body.length);
+        outputMessage.getBody().write(body);
+    }
+}
@@ -0,0 +1,222 @@
+package uk.co.paulpop.services.json.codec;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import uk.co.paulpop.services.json.JsonStrings;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Writing and reading of single JSON values, shared by the generated {@link JsonCodec}s. Values are written the way Jackson's default
+ * generator writes them, and read with the scalar coercions Jackson's default deserializers accept.
+ */
+public final class JsonCodecs {
+
+    private static final byte[] NULL = "null".getBytes(UTF_8);
+    private static final byte[] TRUE = "true".getBytes(UTF_8);
+    private static final byte[] FALSE = "false".getBytes(UTF_8);
+
+    private JsonCodecs() {
+    }
+
+    /**
+     * Returns the bytes written before a field value: the opening brace or a comma, followed by the quoted field name and a colon
+     *
+     * @param first whether the field is the first of its object
+     * @param name  the name of the field
+     * @return the UTF-8 encoded prefix
+     */
+    public static byte[] fieldPrefix(final boolean first, final String name) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(name.length() + 4);
+        out.write(first ? '{' : ',');
+        out.write('"');
+        byte[] escaped = JsonStrings.encode(name);
+        out.write(escaped, 0, escaped.length);
+        out.write('"');
+        out.write(':');
+        return out.toByteArray();
+    }
+
+    public static void writeString(final String value, final OutputStream out) throws IOException {
+        if (value == null) {
+            out.write(NULL);
+        } else {
+            out.write('"');
+            JsonStrings.write(value, out);
+            out.write('"');
+        }
+    }
+
+    public static void writeStringList(final List<String> values, final OutputStream out) throws IOException {
+        if (values == null) {
+            out.write(NULL);
+            return;
+        }
+        out.write('[');
+        for (int i = 0; i < values.size(); i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            writeString(values.get(i), out);
+        }
+        out.write(']');
+    }
+
+    public static void writeLong(final long value, final OutputStream out) throws IOException {
+        if (value == Long.MIN_VALUE) {
+            out.write(Long.toString(value).getBytes(UTF_8));
+            return;
+        }
+        long remaining = value;
+        if (remaining < 0) {
+            out.write('-');
+            remaining = -remaining;
+        }
+        byte[] digits = new byte[19];
+        int position = digits.length;
+        do {
+            digits[--position] = (byte) ('0' + remaining % 10);
+            remaining /= 10;
+        } while (remaining > 0);
+        out.write(digits, position, digits.length - position);
+    }
+
+    public static void writeLong(final Long value, final OutputStream out) throws IOException {
+        if (value == null) {
+            out.write(NULL);
+        } else {
+            writeLong(value.longValue(), out);
+        }
+    }
+
+    public static void writeInt(final Integer value, final OutputStream out) throws IOException {
+        if (value == null) {
+            out.write(NULL);
+        } else {
+            writeLong(value.longValue(), out);
+        }
+    }
+
+    public static void writeBoolean(final boolean value, final OutputStream out) throws IOException {
+        out.write(value ? TRUE : FALSE);
+    }
+
+    public static void writeBoolean(final Boolean value, final OutputStream out) throws IOException {
+        if (value == null) {
+            out.write(NULL);
+        } else {
+            writeBoolean(value.booleanValue(), out);
+        }
+    }
+
+    /**
+     * Checks the parser is on the start of an object
+     *
+     * @return false if it is on a JSON null instead
+     * @throws JsonParseException if it is on anything else
+     */
+    public static boolean startObject(final JsonParser parser, final Class<?> type) throws IOException {
+        JsonToken token = parser.getCurrentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return false;
+        }
+        if (token != JsonToken.START_OBJECT) {
+            throw new JsonParseException(parser, "Expected an object for " + type.getSimpleName() + " but found " + token);
+        }
+        return true;
+    }
+
+    public static String readString(final JsonParser parser) throws IOException {
+        JsonToken token = parser.getCurrentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token == null || !token.isScalarValue()) {
+            throw new JsonParseException(parser, "Expected a string but found " + token);
+        }
+        return parser.getText();
+    }
+
+    public static List<String> readStringList(final JsonParser parser) throws IOException {
+        JsonToken token = parser.getCurrentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token != JsonToken.START_ARRAY) {
+            throw new JsonParseException(parser, "Expected an array but found " + token);
+        }
+        List<String> values = new ArrayList<>();
+        while (parser.nextToken() != JsonToken.END_ARRAY) {
+            values.add(readString(parser));
+        }
+        return values;
+    }
+
+    public static Long readLong(final JsonParser parser) throws IOException {
+        JsonToken token = parser.getCurrentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token == JsonToken.VALUE_NUMBER_INT || token == JsonToken.VALUE_NUMBER_FLOAT) {
+            return parser.getLongValue();
+        }
+        if (token == JsonToken.VALUE_STRING) {
+            try {
+                return Long.parseLong(parser.getText().trim());
+            } catch (NumberFormatException e) {
+                throw new JsonParseException(parser, "Expected a number but found '" + parser.getText() + "'", e);
+            }
+        }
+        throw new JsonParseException(parser, "Expected a number but found " + token);
+    }
+
+    public static long readLong(final JsonParser parser, final long defaultValue) throws IOException {
+        Long value = readLong(parser);
+        return value == null ? defaultValue : value;
+    }
+
+    public static Integer readInt(final JsonParser parser) throws IOException {
+        Long value = readLong(parser);
+        if (value == null) {
+            return null;
+        }
+        if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+            throw new JsonParseException(parser, "Number " + value + " is out of the range of an int");
+        }
+        return value.intValue();
+    }
+
+    public static int readInt(final JsonParser parser, final int defaultValue) throws IOException {
+        Integer value = readInt(parser);
+        return value == null ? defaultValue : value;
+    }
+
+    public static Boolean readBoolean(final JsonParser parser) throws IOException {
+        JsonToken token = parser.getCurrentToken();
+        if (token == JsonToken.VALUE_NULL) {
+            return null;
+        }
+        if (token == JsonToken.VALUE_TRUE || token == JsonToken.VALUE_FALSE) {
+            return token == JsonToken.VALUE_TRUE;
+        }
+        if (token == JsonToken.VALUE_STRING) {
+            String text = parser.getText().trim();
+            if ("true".equals(text) || "false".equals(text)) {
+                return "true".equals(text);
+            }
+        }
+        throw new JsonParseException(parser, "Expected a boolean but found " + token);
+    }
+
+    public static boolean readBoolean(final JsonParser parser, final boolean defaultValue) throws IOException {
+        Boolean value = readBoolean(parser);
+        return value == null ? defaultValue : value;
+    }
+}
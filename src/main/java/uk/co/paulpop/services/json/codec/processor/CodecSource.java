@@ -0,0 +1,99 @@
+package uk.co.paulpop.services.json.codec.processor;
+
+import java.util.List;
+
+/**
+ * Writes the source of generated codecs and of their registry.
+ */
+final class CodecSource {
+
+    private static final String GENERATED = "// Generated by " + JsonCodecProcessor.class.getName() + ", do not edit\n\n";
+
+    private CodecSource() {
+    }
+
+    static String codec(final String packageName, final String typeName, final String codecName, final List<Field> fields) {
+        StringBuilder source = new StringBuilder(2048).append(GENERATED);
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+        source.append("import com.fasterxml.jackson.core.JsonParser;\n")
+            .append("import com.fasterxml.jackson.core.JsonToken;\n")
+            .append("import ").append(JsonCodecProcessor.CODEC_PACKAGE).append(".JsonCodec;\n")
+            .append("import ").append(JsonCodecProcessor.CODEC_PACKAGE).append(".JsonCodecs;\n\n")
+            .append("import java.io.IOException;\n")
+            .append("import java.io.OutputStream;\n\n")
+            .append("/**\n * Writes and reads {@link ").append(typeName).append("} as JSON.\n */\n")
+            .append("public final class ").append(codecName).append(" implements JsonCodec<").append(typeName).append("> {\n\n")
+            .append("    public static final ").append(codecName).append(" INSTANCE = new ").append(codecName).append("();\n\n");
+
+        for (int i = 0; i < fields.size(); i++) {
+            source.append("    private static final byte[] FIELD_").append(i).append(" = JsonCodecs.fieldPrefix(").append(i == 0)
+                .append(", \"").append(fields.get(i).name).append("\");\n");
+        }
+        if (!fields.isEmpty()) {
+            source.append('\n');
+        }
+
+        source.append("    private ").append(codecName).append("() {\n    }\n\n")
+            .append("    @Override\n    public Class<").append(typeName).append("> type() {\n")
+            .append("        return ").append(typeName).append(".class;\n    }\n\n");
+
+        source.append("    @Override\n    public void write(final ").append(typeName)
+            .append(" value, final OutputStream out) throws IOException {\n");
+        if (fields.isEmpty()) {
+            source.append("        out.write('{');\n");
+        }
+        for (int i = 0; i < fields.size(); i++) {
+            Field field = fields.get(i);
+            source.append("        out.write(FIELD_").append(i).append(");\n")
+                .append("        JsonCodecs.").append(field.type.write).append("(value.").append(field.getter()).append(", out);\n");
+        }
+        source.append("        out.write('}');\n    }\n\n");
+
+        source.append("    @Override\n    public ").append(typeName).append(" read(final JsonParser parser) throws IOException {\n")
+            .append("        if (!JsonCodecs.startObject(parser, ").append(typeName).append(".class)) {\n")
+            .append("            return null;\n        }\n");
+        for (Field field : fields) {
+            source.append("        ").append(field.type.javaType).append(' ').append(field.local()).append(" = ")
+                .append(field.type.defaultValue()).append(";\n");
+        }
+        source.append("        while (parser.nextToken() == JsonToken.FIELD_NAME) {\n")
+            .append("            String $field = parser.getCurrentName();\n")
+            .append("            parser.nextToken();\n")
+            .append("            switch ($field) {\n");
+        for (Field field : fields) {
+            source.append("                case \"").append(field.name).append("\":\n")
+                .append("                    ").append(field.local()).append(" = JsonCodecs.").append(field.type.read).append(";\n")
+                .append("                    break;\n");
+        }
+        source.append("                default:\n")
+            .append("                    parser.skipChildren();\n")
+            .append("            }\n        }\n")
+            .append("        return new ").append(typeName).append('(');
+        for (int i = 0; i < fields.size(); i++) {
+            source.append(i == 0 ? "" : ", ").append(fields.get(i).local());
+        }
+        source.append(");\n    }\n}\n");
+        return source.toString();
+    }
+
+    static String registry(final String packageName, final String registryName, final List<String> codecs) {
+        StringBuilder source = new StringBuilder(1024);
+        source.append("package ").append(packageName).append(";\n\n")
+            .append("import java.util.Arrays;\n")
+            .append("import java.util.Collections;\n")
+            .append("import java.util.List;\n\n")
+            .append("/**\n * Every codec generated for a class annotated with {@link GenerateJsonCodec}.\n */\n")
+            .append("public final class ").append(registryName).append(" {\n\n")
+            .append("    private static final List<JsonCodec<?>> CODECS = Collections.unmodifiableList(Arrays.<JsonCodec<?>>asList(");
+        for (int i = 0; i < codecs.size(); i++) {
+            source.append(i == 0 ? "\n" : ",\n").append("        ").append(codecs.get(i)).append(".INSTANCE");
+        }
+        source.append("));\n\n")
+            .append("    private ").append(registryName).append("() {\n    }\n\n")
+            .append("    public static List<JsonCodec<?>> all() {\n")
+            .append("        return CODECS;\n    }\n}\n");
+        return source.toString();
+    }
+}
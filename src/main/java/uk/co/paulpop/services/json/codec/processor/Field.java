@@ -0,0 +1,26 @@
+package uk.co.paulpop.services.json.codec.processor;
+
+/**
+ * A field written and read by a generated codec.
+ */
+final class Field {
+
+    final String name;
+    final FieldType type;
+
+    Field(final String name, final FieldType type) {
+        this.name = name;
+        this.type = type;
+    }
+
+    /**
+     * @return the name of the local variable a field is read into, kept apart from the names the generated code uses itself
+     */
+    String local() {
+        return name + "$";
+    }
+
+    String getter() {
+        return type.getterPrefix() + Character.toUpperCase(name.charAt(0)) + name.substring(1) + "()";
+    }
+}
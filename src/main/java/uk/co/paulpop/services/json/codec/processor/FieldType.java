@@ -0,0 +1,49 @@
+package uk.co.paulpop.services.json.codec.processor;
+
+/**
+ * The field types generated codecs support, with the {@code JsonCodecs} calls writing and reading them.
+ */
+enum FieldType {
+
+    STRING("String", "writeString", "readString(parser)"),
+    STRING_LIST("java.util.List<String>", "writeStringList", "readStringList(parser)"),
+    BOOLEAN("boolean", "writeBoolean", "readBoolean(parser, false)"),
+    BOXED_BOOLEAN("Boolean", "writeBoolean", "readBoolean(parser)"),
+    INT("int", "writeLong", "readInt(parser, 0)"),
+    BOXED_INT("Integer", "writeInt", "readInt(parser)"),
+    LONG("long", "writeLong", "readLong(parser, 0L)"),
+    BOXED_LONG("Long", "writeLong", "readLong(parser)");
+
+    final String javaType;
+    final String write;
+    final String read;
+
+    FieldType(final String javaType, final String write, final String read) {
+        this.javaType = javaType;
+        this.write = write;
+        this.read = read;
+    }
+
+    /**
+     * @return the default value of a field missing from the JSON
+     */
+    String defaultValue() {
+        switch (this) {
+            case BOOLEAN:
+                return "false";
+            case INT:
+                return "0";
+            case LONG:
+                return "0L";
+            default:
+                return "null";
+        }
+    }
+
+    /**
+     * @return the prefix of the getter Lombok generates for a field of this type
+     */
+    String getterPrefix() {
+        return this == BOOLEAN ? "is" : "get";
+    }
+}
@@ -0,0 +1,155 @@
+package uk.co.paulpop.services.json.codec.processor;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.RoundEnvironment;
+import javax.annotation.processing.SupportedAnnotationTypes;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.DeclaredType;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Generates a {@code <Type>JsonCodec} next to every class annotated with {@code @GenerateJsonCodec}, and a {@code GeneratedJsonCodecs}
+ * registry listing them all. The processor is compiled ahead of the rest of the sources and discovered on the compile class path, so it
+ * runs alongside Lombok; the generated sources only call the getters and constructors Lombok adds once they are compiled themselves.
+ */
+@SupportedAnnotationTypes(JsonCodecProcessor.ANNOTATION)
+public class JsonCodecProcessor extends AbstractProcessor {
+
+    static final String ANNOTATION = "uk.co.paulpop.services.json.codec.GenerateJsonCodec";
+    static final String CODEC_PACKAGE = "uk.co.paulpop.services.json.codec";
+    static final String REGISTRY = "GeneratedJsonCodecs";
+    static final String SUFFIX = "JsonCodec";
+
+    private final List<String> codecs = new ArrayList<>();
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(final Set<? extends TypeElement> annotations, final RoundEnvironment round) {
+        for (TypeElement annotation : annotations) {
+            for (Element element : round.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() != ElementKind.CLASS) {
+                    error(element, "@GenerateJsonCodec can only be used on classes");
+                    continue;
+                }
+                generateCodec((TypeElement) element);
+            }
+        }
+        // Written once, in the round after the last codec, as nothing generated here is annotated in turn
+        if (!codecs.isEmpty() && annotations.isEmpty() && !round.processingOver()) {
+            generateRegistry();
+            codecs.clear();
+        }
+        return false;
+    }
+
+    private void generateCodec(final TypeElement type) {
+        List<Field> fields = new ArrayList<>();
+        for (Element member : type.getEnclosedElements()) {
+            if (member.getKind() != ElementKind.FIELD || member.getModifiers().contains(Modifier.STATIC)
+                || member.getModifiers().contains(Modifier.TRANSIENT)) {
+                continue;
+            }
+            FieldType fieldType = fieldType(member.asType());
+            if (fieldType == null) {
+                error(member, "Fields of type " + member.asType() + " are not supported by @GenerateJsonCodec");
+                return;
+            }
+            fields.add(new Field(member.getSimpleName().toString(), fieldType));
+        }
+
+        String packageName = packageOf(type);
+        String typeName = type.getQualifiedName().toString();
+        String codecName = type.getSimpleName() + SUFFIX;
+        try {
+            JavaFileObject file = processingEnv.getFiler().createSourceFile(qualify(packageName, codecName), type);
+            try (Writer writer = file.openWriter()) {
+                writer.write(CodecSource.codec(packageName, typeName, codecName, fields));
+            }
+            codecs.add(qualify(packageName, codecName));
+        } catch (IOException e) {
+            error(type, "Could not write " + codecName + ": " + e.getMessage());
+        }
+    }
+
+    private void generateRegistry() {
+        try {
+            JavaFileObject file = processingEnv.getFiler().createSourceFile(qualify(CODEC_PACKAGE, REGISTRY));
+            try (Writer writer = file.openWriter()) {
+                writer.write(CodecSource.registry(CODEC_PACKAGE, REGISTRY, codecs));
+            }
+        } catch (IOException e) {
+            processingEnv.getMessager().printMessage(Diagnostic.Kind.ERROR, "Could not write " + REGISTRY + ": " + e.getMessage());
+        }
+    }
+
+    private FieldType fieldType(final TypeMirror type) {
+        switch (type.getKind()) {
+            case BOOLEAN:
+                return FieldType.BOOLEAN;
+            case INT:
+                return FieldType.INT;
+            case LONG:
+                return FieldType.LONG;
+            case DECLARED:
+                return declaredFieldType(type);
+            default:
+                return null;
+        }
+    }
+
+    private FieldType declaredFieldType(final TypeMirror typeMirror) {
+        if (typeMirror.getKind() != TypeKind.DECLARED) {
+            return null;
+        }
+        DeclaredType type = (DeclaredType) typeMirror;
+        String name = ((TypeElement) type.asElement()).getQualifiedName().toString();
+        switch (name) {
+            case "java.lang.String":
+                return FieldType.STRING;
+            case "java.lang.Boolean":
+                return FieldType.BOXED_BOOLEAN;
+            case "java.lang.Integer":
+                return FieldType.BOXED_INT;
+            case "java.lang.Long":
+                return FieldType.BOXED_LONG;
+            case "java.util.List":
+                List<? extends TypeMirror> arguments = type.getTypeArguments();
+                return arguments.size() == 1 && declaredFieldType(arguments.get(0)) == FieldType.STRING ? FieldType.STRING_LIST : null;
+            default:
+                return null;
+        }
+    }
+
+    private String packageOf(final TypeElement type) {
+        PackageElement packageElement = processingEnv.getElementUtils().getPackageOf(type);
+        return packageElement.isUnnamed() ? "" : packageElement.getQualifiedName().toString();
+    }
+
+    private void error(final Element element, final String message) {
+        Messager messager = processingEnv.getMessager();
+        messager.printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    private static String qualify(final String packageName, final String simpleName) {
+        return packageName.isEmpty() ? simpleName : packageName + "." + simpleName;
+    }
+}
@@ -0,0 +1,93 @@
+package uk.co.paulpop.services.limit;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import uk.co.paulpop.services.exception.ServiceOverloadedException;
+import uk.co.paulpop.services.exception.handler.HttpExceptionHandler;
+import uk.co.paulpop.services.exception.handler.HttpExceptionResponse;
+import uk.co.paulpop.services.exception.handler.HttpExceptionResponses;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON_UTF8_VALUE;
+
+/**
+ * Sheds requests over the {@link ConcurrencyLimiter} before they reach anything else, so an overloaded node answers the requests it cannot
+ * take straight away instead of queueing them. Rejected requests get the 503 {@link HttpExceptionResponse} of the
+ * {@link HttpExceptionHandler}.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final ServiceOverloadedException OVERLOADED =
+        new ServiceOverloadedException("Too many requests in progress, retry later");
+
+    private final ConcurrencyLimiter limiter;
+    private final HttpExceptionHandler exceptionHandler;
+    private final HttpExceptionResponses responses;
+    private final List<String> criticalPaths;
+    private final List<String> lowPriorityPaths;
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+
+    public ConcurrencyLimitFilter(final ConcurrencyLimiter limiter, final HttpExceptionHandler exceptionHandler,
+                                  final HttpExceptionResponses responses, final List<String> criticalPaths,
+                                  final List<String> lowPriorityPaths) {
+        this.limiter = limiter;
+        this.exceptionHandler = exceptionHandler;
+        this.responses = responses;
+        this.criticalPaths = criticalPaths;
+        this.lowPriorityPaths = lowPriorityPaths;
+    }
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response, final FilterChain chain)
+        throws ServletException, IOException {
+        RoutePriority priority = priorityOf(request.getRequestURI().substring(request.getContextPath().length()));
+        if (!limiter.tryAcquire(priority)) {
+            reject(response);
+            return;
+        }
+        if (priority == RoutePriority.CRITICAL) {
+            chain.doFilter(request, response);
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            limiter.release(System.nanoTime() - start);
+        }
+    }
+
+    RoutePriority priorityOf(final String path) {
+        if (matches(criticalPaths, path)) {
+            return RoutePriority.CRITICAL;
+        }
+        return matches(lowPriorityPaths, path) ? RoutePriority.LOW : RoutePriority.NORMAL;
+    }
+
+    private boolean matches(final List<String> patterns, final String path) {
+        for (String pattern : patterns) {
+            if (pathMatcher.match(pattern, path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void reject(final HttpServletResponse response) throws IOException {
+        ResponseEntity<HttpExceptionResponse> error = exceptionHandler.handleServiceOverloadedException(OVERLOADED);
+        byte[] body = responses.serialize(error.getBody());
+        response.setStatus(error.getStatusCodeValue());
+        response.setHeader("Retry-After", "1");
+        response.setContentType(APPLICATION_JSON_UTF8_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+}
@@ -0,0 +1,35 @@
+package uk.co.paulpop.services.limit;
+
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Exposes the current concurrency limit, the requests in flight and the admitted and rejected requests by priority on the actuator metrics
+ * endpoint, as concurrency.*.
+ */
+public class ConcurrencyLimitMetrics implements PublicMetrics {
+
+    private final ConcurrencyLimiter limiter;
+
+    public ConcurrencyLimitMetrics(final ConcurrencyLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    @Override
+    public Collection<Metric<?>> metrics() {
+        List<Metric<?>> metrics = new ArrayList<>();
+        metrics.add(new Metric<>("concurrency.limit", limiter.getLimit()));
+        metrics.add(new Metric<>("concurrency.in-flight", limiter.getInFlight()));
+        for (RoutePriority priority : RoutePriority.values()) {
+            String name = priority.name().toLowerCase(Locale.ROOT);
+            metrics.add(new Metric<>("concurrency.admitted." + name, limiter.getAdmitted(priority)));
+            metrics.add(new Metric<>("concurrency.rejected." + name, limiter.getRejected(priority)));
+        }
+        return metrics;
+    }
+}
@@ -0,0 +1,61 @@
+package uk.co.paulpop.services.limit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Configuration for the adaptive concurrency limit in front of the servlet stack.
+ */
+@Data
+@ConfigurationProperties("service.concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+    /**
+     * Whether requests over the concurrency limit are rejected with a 503.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Limit used until enough requests have been timed to adjust it.
+     */
+    private int initialLimit = 100;
+
+    private int minLimit = 10;
+
+    private int maxLimit = 2000;
+
+    /**
+     * How much slower than the long term average recent requests can be before the limit shrinks, e.g. 2.0 tolerates twice as slow.
+     */
+    private double rttTolerance = 1.5;
+
+    /**
+     * Weight of every new estimate when the limit is adjusted, between 0 and 1.
+     */
+    private double smoothing = 0.2;
+
+    /**
+     * Number of requests timed before the limit is adjusted.
+     */
+    private int windowSize = 50;
+
+    /**
+     * Share of the limit low priority routes can use before they are shed.
+     */
+    private double lowPriorityShare = 0.75;
+
+    /**
+     * Ant-style paths that are never shed.
+     */
+    private List<String> criticalPaths = Arrays.asList("/health", "/health/**", "/info", "/prometheus");
+
+    /**
+     * Ant-style paths that are shed before all others.
+     */
+    private List<String> lowPriorityPaths = Arrays.asList("/api/batch", "/v2/api-docs", "/swagger-resources/**", "/swagger-ui.html",
+        "/webjars/**");
+
+}
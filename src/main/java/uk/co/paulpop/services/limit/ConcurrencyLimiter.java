@@ -0,0 +1,78 @@
+package uk.co.paulpop.services.limit;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Admits requests while fewer than the current {@link GradientLimit} are in flight and feeds the round trip time of every admitted request
+ * back into the limit. Low priority requests only get a share of the limit and critical ones are always admitted without being counted.
+ */
+public class ConcurrencyLimiter {
+
+    private final GradientLimit limit;
+    private final double lowPriorityShare;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final Map<RoutePriority, LongAdder> admitted = new EnumMap<>(RoutePriority.class);
+    private final Map<RoutePriority, LongAdder> rejected = new EnumMap<>(RoutePriority.class);
+
+    public ConcurrencyLimiter(final GradientLimit limit, final double lowPriorityShare) {
+        this.limit = limit;
+        this.lowPriorityShare = lowPriorityShare;
+        for (RoutePriority priority : RoutePriority.values()) {
+            admitted.put(priority, new LongAdder());
+            rejected.put(priority, new LongAdder());
+        }
+    }
+
+    /**
+     * Admits a request of the given priority if there is room for it. Every admitted request other than a critical one has to be released.
+     *
+     * @param priority the priority of the route requested
+     * @return whether the request was admitted
+     */
+    public boolean tryAcquire(final RoutePriority priority) {
+        if (priority == RoutePriority.CRITICAL) {
+            admitted.get(priority).increment();
+            return true;
+        }
+        int maxInFlight = priority == RoutePriority.LOW ? Math.max(1, (int) (limit.getLimit() * lowPriorityShare)) : limit.getLimit();
+        while (true) {
+            int current = inFlight.get();
+            if (current >= maxInFlight) {
+                rejected.get(priority).increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                admitted.get(priority).increment();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Releases an admitted request
+     *
+     * @param rttNanos the time the request took, in nanoseconds
+     */
+    public void release(final long rttNanos) {
+        limit.onSample(rttNanos, inFlight.getAndDecrement());
+    }
+
+    public int getLimit() {
+        return limit.getLimit();
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    public long getAdmitted(final RoutePriority priority) {
+        return admitted.get(priority).sum();
+    }
+
+    public long getRejected(final RoutePriority priority) {
+        return rejected.get(priority).sum();
+    }
+}
@@ -0,0 +1,100 @@
+package uk.co.paulpop.services.limit;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Concurrency limit adjusted by the gradient between the long term and the recent round trip time. As long as recent requests are about as
+ * fast as they used to be, the limit grows by a queue allowance of the square root of the limit. Once they slow down, the gradient drops
+ * below one and the limit shrinks in proportion, at most by half per window.
+ * <p>
+ * Samples are averaged over windows of {@code windowSize} requests and the limit only changes when a window closes. Windows where fewer
+ * than half the limit were in flight say nothing about the capacity, so they leave the limit as it is. Samples are accumulated without a
+ * lock, as every request adds one; only the request closing a window takes the lock to recompute the limit. A sample racing the close of
+ * a window may have its time counted in one window and itself in the next, which the averages over hundreds of samples absorb.
+ */
+public class GradientLimit {
+
+    private static final int LONG_WINDOWS = 600;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double rttTolerance;
+    private final double smoothing;
+    private final int windowSize;
+    private final ReentrantLock lock = new ReentrantLock();
+
+    private final LongAdder windowRttSum = new LongAdder();
+    private final AtomicInteger windowCount = new AtomicInteger();
+    private final AtomicInteger windowMaxInFlight = new AtomicInteger();
+
+    private volatile int limit;
+    // Guarded by the lock
+    private double estimatedLimit;
+    private double longRtt;
+
+    public GradientLimit(final int initialLimit, final int minLimit, final int maxLimit, final double rttTolerance, final double smoothing,
+                         final int windowSize) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.rttTolerance = rttTolerance;
+        this.smoothing = smoothing;
+        this.windowSize = windowSize;
+        this.limit = initialLimit;
+        this.estimatedLimit = initialLimit;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Records the round trip time of a request
+     *
+     * @param rttNanos the time the request took, in nanoseconds
+     * @param inFlight the number of requests in flight when it finished, including itself
+     */
+    public void onSample(final long rttNanos, final int inFlight) {
+        windowRttSum.add(rttNanos);
+        int max = windowMaxInFlight.get();
+        while (inFlight > max && !windowMaxInFlight.compareAndSet(max, inFlight)) {
+            max = windowMaxInFlight.get();
+        }
+        // Added after the time, so every sample counted when the window closes has its time in the sum. Only one sample sees the count
+        // reach the window size until it is reset, and it closes the window.
+        if (windowCount.incrementAndGet() == windowSize) {
+            closeWindow();
+        }
+    }
+
+    private void closeWindow() {
+        lock.lock();
+        try {
+            int count = windowCount.getAndSet(0);
+            int maxInFlight = windowMaxInFlight.getAndSet(0);
+            update((double) windowRttSum.sumThenReset() / count, maxInFlight);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void update(final double shortRtt, final int maxInFlight) {
+        if (longRtt == 0) {
+            longRtt = shortRtt;
+        } else {
+            longRtt += (shortRtt - longRtt) / LONG_WINDOWS;
+            // Recover faster once a period of slow requests is over, so the long term average does not keep the limit high
+            if (longRtt / shortRtt > 2) {
+                longRtt *= 0.95;
+            }
+        }
+        if (maxInFlight < estimatedLimit / 2) {
+            return;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, rttTolerance * longRtt / shortRtt));
+        double newLimit = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        estimatedLimit = Math.max(minLimit, Math.min(maxLimit, estimatedLimit * (1 - smoothing) + newLimit * smoothing));
+        limit = (int) estimatedLimit;
+    }
+}
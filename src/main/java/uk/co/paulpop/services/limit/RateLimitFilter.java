@@ -0,0 +1,111 @@
+package uk.co.paulpop.services.limit;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.util.PathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import uk.co.paulpop.services.exception.RateLimitedException;
+import uk.co.paulpop.services.exception.handler.HttpExceptionHandler;
+import uk.co.paulpop.services.exception.handler.HttpExceptionResponse;
+import uk.co.paulpop.services.exception.handler.HttpExceptionResponses;
+import uk.co.paulpop.services.warmup.WarmUp;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON_UTF8_VALUE;
+
+/**
+ * Rate limits every client on the first {@link RateLimitRoute} matching the request path, ahead of the concurrency limit, so a single
+ * abusive client cannot take a node's capacity. Clients are identified by the entry their {@code trustedProxies}-th proxy added to the
+ * client header, e.g. the last X-Forwarded-For entry behind a single load balancer, or by the remote address without trusted proxies or
+ * the header. Rejected requests get the 429 {@link HttpExceptionResponse} of the {@link HttpExceptionHandler} and a Retry-After header.
+ * Requests sent by the {@link WarmUp} are not rate limited.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final RateLimitedException RATE_LIMITED =
+        new RateLimitedException("Too many requests from this client, retry later");
+    private static final long SECOND_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final List<RateLimitRoute> routes;
+    private final String clientHeader;
+    private final int trustedProxies;
+    private final HttpExceptionHandler exceptionHandler;
+    private final HttpExceptionResponses responses;
+    private final WarmUp warmUp;
+    private final PathMatcher pathMatcher = new AntPathMatcher();
+
+    public RateLimitFilter(final List<RateLimitRoute> routes, final String clientHeader, final int trustedProxies,
+                           final HttpExceptionHandler exceptionHandler, final HttpExceptionResponses responses, final WarmUp warmUp) {
+        this.routes = routes;
+        this.clientHeader = clientHeader;
+        this.trustedProxies = trustedProxies;
+        this.exceptionHandler = exceptionHandler;
+        this.responses = responses;
+        this.warmUp = warmUp;
+    }
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response, final FilterChain chain)
+        throws ServletException, IOException {
+        RateLimitRoute route = routeOf(request.getRequestURI().substring(request.getContextPath().length()));
+        if (route != null && (warmUp == null || !warmUp.isWarmUpRequest(request))) {
+            long wait = route.tryAcquire(clientOf(request), System.nanoTime());
+            if (wait > 0) {
+                reject(response, wait);
+                return;
+            }
+        }
+        chain.doFilter(request, response);
+    }
+
+    public List<RateLimitRoute> getRoutes() {
+        return routes;
+    }
+
+    RateLimitRoute routeOf(final String path) {
+        for (RateLimitRoute route : routes) {
+            if (pathMatcher.match(route.getPath(), path)) {
+                return route;
+            }
+        }
+        return null;
+    }
+
+    String clientOf(final HttpServletRequest request) {
+        String forwarded = trustedProxies > 0 ? request.getHeader(clientHeader) : null;
+        if (forwarded != null) {
+            // Entries are appended by every proxy, so only the ones added by trusted proxies, counted from the right, can't be forged
+            int end = forwarded.length();
+            for (int proxy = 1; proxy <= trustedProxies; proxy++) {
+                int separator = forwarded.lastIndexOf(',', end - 1);
+                if (proxy == trustedProxies) {
+                    String client = forwarded.substring(separator + 1, end).trim();
+                    if (!client.isEmpty()) {
+                        return client;
+                    }
+                } else if (separator < 0) {
+                    break;
+                }
+                end = separator;
+            }
+        }
+        return request.getRemoteAddr();
+    }
+
+    private void reject(final HttpServletResponse response, final long waitNanos) throws IOException {
+        ResponseEntity<HttpExceptionResponse> error = exceptionHandler.handleRateLimitedException(RATE_LIMITED);
+        byte[] body = responses.serialize(error.getBody());
+        response.setStatus(error.getStatusCodeValue());
+        response.setHeader("Retry-After", Long.toString(Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + SECOND_NANOS - 1))));
+        response.setContentType(APPLICATION_JSON_UTF8_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+}
@@ -0,0 +1,34 @@
+package uk.co.paulpop.services.limit;
+
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Exposes the admitted and rejected requests, the tracked clients and the early evictions of every rate limited route on the actuator
+ * metrics endpoint, as ratelimit.&lt;route&gt;.*.
+ */
+public class RateLimitMetrics implements PublicMetrics {
+
+    private final List<RateLimitRoute> routes;
+
+    public RateLimitMetrics(final List<RateLimitRoute> routes) {
+        this.routes = routes;
+    }
+
+    @Override
+    public Collection<Metric<?>> metrics() {
+        List<Metric<?>> metrics = new ArrayList<>();
+        for (RateLimitRoute route : routes) {
+            String prefix = "ratelimit." + route.getName();
+            metrics.add(new Metric<>(prefix + ".admitted", route.getAdmitted()));
+            metrics.add(new Metric<>(prefix + ".rejected", route.getRejected()));
+            metrics.add(new Metric<>(prefix + ".clients", route.getBuckets().size()));
+            metrics.add(new Metric<>(prefix + ".evictions", route.getBuckets().evictions()));
+        }
+        return metrics;
+    }
+}
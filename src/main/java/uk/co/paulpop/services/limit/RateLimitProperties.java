@@ -0,0 +1,72 @@
+package uk.co.paulpop.services.limit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Configuration for the per client rate limits in front of the servlet stack.
+ */
+@Data
+@ConfigurationProperties("service.rate-limit")
+public class RateLimitProperties {
+
+    /**
+     * Whether clients over the rate limit of a route are rejected with a 429. Off unless trusted-proxies matches the deployment, as clients
+     * would otherwise share a bucket with everyone behind the same proxy.
+     */
+    private boolean enabled;
+
+    /**
+     * Header the proxies in front of the service add the client address to.
+     */
+    private String clientHeader = "X-Forwarded-For";
+
+    /**
+     * Number of proxies in front of the service appending to the client header. With none, clients are identified by their remote address.
+     * Any more than actually sit in front of the service let clients pick their own identity through the header.
+     */
+    private int trustedProxies;
+
+    /**
+     * Clients tracked per route, past which the least recently seen client is evicted.
+     */
+    private int maximumClients = 100000;
+
+    /**
+     * Number of independently locked parts the clients of a route are spread over, rounded up to a power of two.
+     */
+    private int stripes = 64;
+
+    /**
+     * Rate limited routes, the first one matching a path applying to it. Paths matching none are not rate limited.
+     */
+    private List<Route> routes = new ArrayList<>();
+
+    @Data
+    public static class Route {
+
+        /**
+         * Name of the route in the metrics.
+         */
+        private String name;
+
+        /**
+         * Ant-style path of the route.
+         */
+        private String path;
+
+        /**
+         * Requests a client can keep sending per second.
+         */
+        private double requestsPerSecond;
+
+        /**
+         * Requests a client can send at once after being idle.
+         */
+        private int burst;
+
+    }
+}
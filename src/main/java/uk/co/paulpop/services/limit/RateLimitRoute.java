@@ -0,0 +1,57 @@
+package uk.co.paulpop.services.limit;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * A rate limited route: the Ant-style path it covers, with a {@link TokenBucketTable} of its own and counts of what it admitted and
+ * rejected.
+ */
+public class RateLimitRoute {
+
+    private final String name;
+    private final String path;
+    private final TokenBucketTable buckets;
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public RateLimitRoute(final String name, final String path, final TokenBucketTable buckets) {
+        this.name = name;
+        this.path = path;
+        this.buckets = buckets;
+    }
+
+    /**
+     * Takes a token from the client's bucket if it has one
+     *
+     * @return 0 if the request is admitted, otherwise how many nanoseconds until the client can retry
+     */
+    long tryAcquire(final String client, final long nowNanos) {
+        long wait = buckets.tryAcquire(client, nowNanos);
+        if (wait == 0) {
+            admitted.increment();
+        } else {
+            rejected.increment();
+        }
+        return wait;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getPath() {
+        return path;
+    }
+
+    public TokenBucketTable getBuckets() {
+        return buckets;
+    }
+
+    public long getAdmitted() {
+        return admitted.sum();
+    }
+
+    public long getRejected() {
+        return rejected.sum();
+    }
+}
@@ -0,0 +1,22 @@
+package uk.co.paulpop.services.limit;
+
+/**
+ * How a route is treated once the concurrency limit is reached.
+ */
+public enum RoutePriority {
+
+    /**
+     * Never shed and not counted against the limit, e.g. health checks.
+     */
+    CRITICAL,
+
+    /**
+     * Admitted while the requests in flight are below the limit.
+     */
+    NORMAL,
+
+    /**
+     * Admitted while the requests in flight are below a share of the limit, so it is shed before the normal routes are.
+     */
+    LOW
+}
@@ -0,0 +1,135 @@
+package uk.co.paulpop.services.limit;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Token buckets by client, refilled at {@code requestsPerSecond} up to {@code burst} tokens. The clients are spread over lock-guarded
+ * stripes, each an access ordered map of at most its share of {@code maximumClients}, so memory stays bounded however many clients there
+ * are. Buckets idle long enough to have refilled completely are dropped first, which loses nothing as a new bucket starts out full; only
+ * once a stripe is full of active clients is its least recently seen one evicted early. The stripes use locks rather than synchronized, so
+ * a virtual thread waiting for one does not pin its carrier thread.
+ */
+public class TokenBucketTable {
+
+    private final double tokensPerNano;
+    private final double burst;
+    private final long refillNanos;
+    private final int maximumPerStripe;
+    private final Stripe[] stripes;
+    private final int mask;
+    private final LongAdder evictions = new LongAdder();
+
+    public TokenBucketTable(final double requestsPerSecond, final int burst, final int maximumClients, final int stripes) {
+        if (requestsPerSecond <= 0 || burst < 1) {
+            throw new IllegalArgumentException("Rate limits need a positive rate and a burst of at least one request");
+        }
+        this.tokensPerNano = requestsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.burst = burst;
+        this.refillNanos = (long) Math.ceil(burst / tokensPerNano);
+        int stripeCount = stripes <= 1 ? 1 : Integer.highestOneBit((stripes - 1) << 1);
+        this.maximumPerStripe = Math.max(1, (maximumClients + stripeCount - 1) / stripeCount);
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            this.stripes[i] = new Stripe();
+        }
+        this.mask = stripeCount - 1;
+    }
+
+    /**
+     * Takes a token from the client's bucket if it has one
+     *
+     * @param client   the client sending the request
+     * @param nowNanos the current {@link System#nanoTime()}
+     * @return 0 if a token was taken, otherwise how many nanoseconds until the next token
+     */
+    public long tryAcquire(final String client, final long nowNanos) {
+        int hash = client.hashCode();
+        Stripe stripe = stripes[(hash ^ (hash >>> 16)) & mask];
+        stripe.lock.lock();
+        try {
+            TokenBucket bucket = stripe.buckets.get(client);
+            if (bucket == null) {
+                stripe.dropRefilled(nowNanos);
+                bucket = new TokenBucket(burst, nowNanos);
+                stripe.buckets.put(client, bucket);
+            }
+            return bucket.tryAcquire(nowNanos);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    /**
+     * @return the number of clients with a bucket
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                size += stripe.buckets.size();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * @return the number of buckets evicted before they had refilled, because their stripe was full
+     */
+    public long evictions() {
+        return evictions.sum();
+    }
+
+    private final class Stripe {
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final LinkedHashMap<String, TokenBucket> buckets = new LinkedHashMap<String, TokenBucket>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<String, TokenBucket> eldest) {
+                if (size() > maximumPerStripe) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+
+        /**
+         * Drops the least recently seen buckets that have refilled completely since, stopping at the first that hasn't
+         */
+        void dropRefilled(final long nowNanos) {
+            Iterator<TokenBucket> iterator = buckets.values().iterator();
+            while (iterator.hasNext() && nowNanos - iterator.next().lastNanos >= refillNanos) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private final class TokenBucket {
+
+        private double tokens;
+        private long lastNanos;
+
+        TokenBucket(final double tokens, final long nowNanos) {
+            this.tokens = tokens;
+            this.lastNanos = nowNanos;
+        }
+
+        long tryAcquire(final long nowNanos) {
+            tokens = Math.min(burst, tokens + (nowNanos - lastNanos) * tokensPerNano);
+            lastNanos = nowNanos;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return Math.max(1, (long) Math.ceil((1 - tokens) / tokensPerNano));
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package uk.co.paulpop.services.logging;
+
+import ch.qos.logback.access.PatternLayout;
+import ch.qos.logback.access.spi.IAccessEvent;
+import ch.qos.logback.core.encoder.EncoderBase;
+import uk.co.paulpop.services.json.JsonStrings;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Access log encoder writing either the configured logback-access pattern or, for {@link AccessLogFormat#JSON}, one JSON object per line.
+ * Only meant to be used by a single thread, such as the writer thread of {@link AsyncBatchingAppender}.
+ */
+public class AccessLogEncoder extends EncoderBase<IAccessEvent> {
+
+    private static final byte[] NEW_LINE = System.lineSeparator().getBytes(UTF_8);
+
+    private final ByteArrayOutputStream json = new ByteArrayOutputStream(512);
+
+    private AccessLogFormat format = AccessLogFormat.PATTERN;
+    private String pattern;
+    private PatternLayout layout;
+
+    @Override
+    public void start() {
+        if (format == AccessLogFormat.PATTERN) {
+            layout = new PatternLayout();
+            layout.setContext(context);
+            if (pattern != null) {
+                layout.setPattern(pattern);
+            }
+            layout.start();
+        }
+        super.start();
+    }
+
+    @Override
+    public byte[] headerBytes() {
+        return null;
+    }
+
+    @Override
+    public byte[] encode(final IAccessEvent event) {
+        if (layout != null) {
+            return layout.doLayout(event).getBytes(UTF_8);
+        }
+        json.reset();
+        try {
+            writeJson(event, json);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return json.toByteArray();
+    }
+
+    @Override
+    public byte[] footerBytes() {
+        return null;
+    }
+
+    private static void writeJson(final IAccessEvent event, final OutputStream out) throws IOException {
+        out.write('{');
+        writeNumber("timestamp", event.getTimeStamp(), out);
+        out.write(',');
+        writeString("remoteHost", event.getRemoteHost(), out);
+        out.write(',');
+        writeString("method", event.getMethod(), out);
+        out.write(',');
+        writeString("uri", event.getRequestURI(), out);
+        String query = event.getQueryString();
+        if (query != null && !query.isEmpty()) {
+            out.write(',');
+            writeString("query", query, out);
+        }
+        out.write(',');
+        writeString("protocol", event.getProtocol(), out);
+        out.write(',');
+        writeNumber("status", event.getStatusCode(), out);
+        out.write(',');
+        writeNumber("bytes", event.getContentLength(), out);
+        out.write(',');
+        writeNumber("elapsedMillis", event.getElapsedTime(), out);
+        writeHeader("referer", event.getRequestHeader("Referer"), out);
+        writeHeader("forwardedFor", event.getRequestHeader("X-Forwarded-For"), out);
+        writeHeader("userAgent", event.getRequestHeader("User-Agent"), out);
+        out.write('}');
+        out.write(NEW_LINE);
+    }
+
+    private static void writeHeader(final String field, final String value, final OutputStream out) throws IOException {
+        if (value != null && !IAccessEvent.NA.equals(value)) {
+            out.write(',');
+            writeString(field, value, out);
+        }
+    }
+
+    private static void writeString(final String field, final String value, final OutputStream out) throws IOException {
+        writeField(field, out);
+        out.write('"');
+        JsonStrings.write(value == null ? IAccessEvent.NA : value, out);
+        out.write('"');
+    }
+
+    private static void writeNumber(final String field, final long value, final OutputStream out) throws IOException {
+        writeField(field, out);
+        out.write(Long.toString(value).getBytes(UTF_8));
+    }
+
+    private static void writeField(final String field, final OutputStream out) throws IOException {
+        out.write('"');
+        out.write(field.getBytes(UTF_8));
+        out.write('"');
+        out.write(':');
+    }
+
+    public AccessLogFormat getFormat() {
+        return format;
+    }
+
+    public void setFormat(final AccessLogFormat format) {
+        this.format = format;
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    public void setPattern(final String pattern) {
+        this.pattern = pattern;
+    }
+}
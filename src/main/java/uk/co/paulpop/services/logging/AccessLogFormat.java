@@ -0,0 +1,17 @@
+package uk.co.paulpop.services.logging;
+
+/**
+ * How {@link AccessLogEncoder} writes each request.
+ */
+public enum AccessLogFormat {
+
+    /**
+     * The logback-access pattern in logging.accesslog.pattern.
+     */
+    PATTERN,
+
+    /**
+     * One compact JSON object per line, written field by field without any pattern parsing or header map lookups beyond the logged ones.
+     */
+    JSON
+}
@@ -0,0 +1,259 @@
+package uk.co.paulpop.services.logging;
+
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.encoder.Encoder;
+import ch.qos.logback.core.spi.DeferredProcessingAware;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Logback appender that takes encoding and writing off the logging thread. Events are prepared for deferred processing and published to a
+ * lock-free {@link RingBuffer}; a single writer thread drains them in batches through the encoder into a buffered stream, which is flushed
+ * once per batch rather than once per event. When the buffer is full the {@link OverflowPolicy} decides between dropping the event and
+ * waiting for a free slot.
+ * <p>
+ * Works for both application ({@code ILoggingEvent}) and access ({@code IAccessEvent}) logging, and registers itself while started so its
+ * counters can be published by {@link AsyncLoggingMetrics}.
+ *
+ * @param <E> the type of the logged events
+ */
+public class AsyncBatchingAppender<E extends DeferredProcessingAware> extends UnsynchronizedAppenderBase<E> {
+
+    private static final ConcurrentMap<String, AsyncBatchingAppender<?>> STARTED = new ConcurrentHashMap<>();
+    private static final long BLOCKED_RETRY_NANOS = TimeUnit.MICROSECONDS.toNanos(100);
+    private static final int STREAM_BUFFER_SIZE = 64 * 1024;
+    private static final long STOP_TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(5);
+
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder flushes = new LongAdder();
+
+    private Encoder<E> encoder;
+    private OutputStream target = System.out;
+    private int capacity = 8192;
+    private int batchSize = 256;
+    private long flushIntervalMillis = 10;
+    private OverflowPolicy overflowPolicy = OverflowPolicy.BLOCK;
+
+    private RingBuffer<E> buffer;
+    private OutputStream stream;
+    private Thread writer;
+    private volatile boolean running;
+
+    /**
+     * @return every started appender
+     */
+    static Collection<AsyncBatchingAppender<?>> started() {
+        return Collections.unmodifiableCollection(STARTED.values());
+    }
+
+    @Override
+    public void start() {
+        if (isStarted()) {
+            return;
+        }
+        if (encoder == null) {
+            addError("No encoder set for the appender named [" + name + "].");
+            return;
+        }
+        if (batchSize < 1 || flushIntervalMillis < 1) {
+            addError("Batch size and flush interval of the appender named [" + name + "] must be positive.");
+            return;
+        }
+        try {
+            buffer = new RingBuffer<>(capacity);
+            capacity = buffer.capacity();
+            stream = new BufferedOutputStream(target, STREAM_BUFFER_SIZE);
+            write(encoder.headerBytes());
+        } catch (IOException | IllegalArgumentException e) {
+            addError("Could not start the appender named [" + name + "].", e);
+            return;
+        }
+        running = true;
+        writer = new Thread(this::writeLoop, "async-log-" + name);
+        writer.setDaemon(true);
+        writer.start();
+        super.start();
+        STARTED.put(name, this);
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        super.stop();
+        STARTED.remove(name, this);
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(STOP_TIMEOUT_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writer.isAlive()) {
+            // The writer is stuck on the target and holds the stream's lock, so touching the stream would block this thread as well
+            writer.interrupt();
+            addWarn("The writer of the appender named [" + name + "] did not finish in time, abandoning it.");
+            return;
+        }
+        try {
+            write(encoder.footerBytes());
+            stream.flush();
+        } catch (IOException e) {
+            addError("Could not close the appender named [" + name + "].", e);
+        }
+    }
+
+    @Override
+    protected void append(final E event) {
+        event.prepareForDeferredProcessing();
+        while (!buffer.offer(event)) {
+            if (overflowPolicy == OverflowPolicy.DROP || !running) {
+                dropped.increment();
+                return;
+            }
+            LockSupport.unpark(writer);
+            LockSupport.parkNanos(this, BLOCKED_RETRY_NANOS);
+        }
+        if (buffer.size() >= batchSize) {
+            LockSupport.unpark(writer);
+        }
+    }
+
+    private void writeLoop() {
+        boolean unflushed = false;
+        while (true) {
+            // Read before draining, so every event published before stop() is still written
+            boolean stopping = !running;
+            int drained = buffer.drain(this::encode, batchSize);
+            unflushed |= drained > 0;
+            if (drained == batchSize) {
+                continue;
+            }
+            if (unflushed) {
+                flush();
+                unflushed = false;
+            }
+            if (stopping) {
+                return;
+            }
+            LockSupport.parkNanos(this, TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis));
+        }
+    }
+
+    private void encode(final E event) {
+        try {
+            write(encoder.encode(event));
+            written.increment();
+        } catch (IOException | RuntimeException e) {
+            dropped.increment();
+            addError("Could not encode an event for the appender named [" + name + "].", e);
+        }
+    }
+
+    private void flush() {
+        try {
+            stream.flush();
+            flushes.increment();
+        } catch (IOException e) {
+            addError("Could not flush the appender named [" + name + "].", e);
+        }
+    }
+
+    private void write(final byte[] bytes) throws IOException {
+        if (bytes != null) {
+            stream.write(bytes);
+        }
+    }
+
+    public Encoder<E> getEncoder() {
+        return encoder;
+    }
+
+    public void setEncoder(final Encoder<E> encoder) {
+        this.encoder = encoder;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    /**
+     * @param capacity the number of events the ring buffer holds, rounded up to the next power of two and to at least two
+     */
+    public void setCapacity(final int capacity) {
+        this.capacity = capacity;
+    }
+
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * @param batchSize the maximum number of events written between two flushes
+     */
+    public void setBatchSize(final int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public long getFlushIntervalMillis() {
+        return flushIntervalMillis;
+    }
+
+    /**
+     * @param flushIntervalMillis how long the writer sleeps when the ring buffer is empty, bounding the delay before an event is written
+     */
+    public void setFlushIntervalMillis(final long flushIntervalMillis) {
+        this.flushIntervalMillis = flushIntervalMillis;
+    }
+
+    public OverflowPolicy getOverflowPolicy() {
+        return overflowPolicy;
+    }
+
+    public void setOverflowPolicy(final OverflowPolicy overflowPolicy) {
+        this.overflowPolicy = overflowPolicy;
+    }
+
+    void setTarget(final OutputStream target) {
+        this.target = target;
+    }
+
+    /**
+     * @return the number of events currently waiting to be written
+     */
+    public int getQueueSize() {
+        return buffer == null ? 0 : buffer.size();
+    }
+
+    /**
+     * @return the number of events discarded because the ring buffer was full or could not be encoded
+     */
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    /**
+     * @return the number of events written
+     */
+    public long getWritten() {
+        return written.sum();
+    }
+
+    /**
+     * @return the number of batches flushed
+     */
+    public long getFlushes() {
+        return flushes.sum();
+    }
+}
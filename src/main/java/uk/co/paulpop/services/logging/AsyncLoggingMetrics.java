@@ -0,0 +1,28 @@
+package uk.co.paulpop.services.logging;
+
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Exposes the counters of every started {@link AsyncBatchingAppender} on the actuator metrics endpoint, as logging.async.[appender].*.
+ */
+public class AsyncLoggingMetrics implements PublicMetrics {
+
+    @Override
+    public Collection<Metric<?>> metrics() {
+        List<Metric<?>> metrics = new ArrayList<>();
+        for (AsyncBatchingAppender<?> appender : AsyncBatchingAppender.started()) {
+            String prefix = "logging.async." + appender.getName() + ".";
+            metrics.add(new Metric<>(prefix + "queued", appender.getQueueSize()));
+            metrics.add(new Metric<>(prefix + "capacity", appender.getCapacity()));
+            metrics.add(new Metric<>(prefix + "dropped", appender.getDropped()));
+            metrics.add(new Metric<>(prefix + "written", appender.getWritten()));
+            metrics.add(new Metric<>(prefix + "flushes", appender.getFlushes()));
+        }
+        return metrics;
+    }
+}
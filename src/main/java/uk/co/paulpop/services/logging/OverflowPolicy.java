@@ -0,0 +1,17 @@
+package uk.co.paulpop.services.logging;
+
+/**
+ * What {@link AsyncBatchingAppender} does with an event when its ring buffer is full.
+ */
+public enum OverflowPolicy {
+
+    /**
+     * Discard the event and count it as dropped, so logging never slows a request down.
+     */
+    DROP,
+
+    /**
+     * Wait for the writer to free a slot, so no event is lost at the cost of back pressure on the logging thread.
+     */
+    BLOCK
+}
@@ -0,0 +1,48 @@
+package uk.co.paulpop.services.metrics;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.BiConsumer;
+
+/**
+ * Lock-free counters of HTTP responses, one per status code.
+ */
+public class HttpStatusCounters {
+
+    private static final int MIN_STATUS = 100;
+    private static final int MAX_STATUS = 599;
+
+    private final AtomicLongArray counts = new AtomicLongArray(MAX_STATUS - MIN_STATUS + 1);
+
+    /**
+     * Counts a response, codes outside of 100-599 are ignored
+     *
+     * @param status the HTTP status code of the response
+     */
+    public void increment(final int status) {
+        if (status >= MIN_STATUS && status <= MAX_STATUS) {
+            counts.incrementAndGet(status - MIN_STATUS);
+        }
+    }
+
+    /**
+     * @param status the HTTP status code
+     * @return the number of responses counted with that status
+     */
+    public long get(final int status) {
+        return status >= MIN_STATUS && status <= MAX_STATUS ? counts.get(status - MIN_STATUS) : 0;
+    }
+
+    /**
+     * Passes every status code that has been counted at least once to the given consumer, in ascending order
+     *
+     * @param consumer receives the status code and its count
+     */
+    public void forEach(final BiConsumer<Integer, Long> consumer) {
+        for (int i = 0; i < counts.length(); i++) {
+            long count = counts.get(i);
+            if (count > 0) {
+                consumer.accept(i + MIN_STATUS, count);
+            }
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package uk.co.paulpop.services.metrics;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * High resolution latency histograms, one per handler method. Recording goes through an HdrHistogram {@link Recorder}, which is wait-free
+ * and does not allocate, and reading swaps out the recorder's interval histogram and adds it to a cumulative one, so scrapes never block
+ * requests.
+ */
+public class LatencyHistograms {
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final ConcurrentMap<Method, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    /**
+     * Records the latency of a single call
+     *
+     * @param method the handler method that was called
+     * @param nanos  how long the call took, in nanoseconds
+     */
+    public void record(final Method method, final long nanos) {
+        // computeIfAbsent only locks and allocates the first time a method is seen
+        Endpoint endpoint = endpoints.computeIfAbsent(method, Endpoint::new);
+        endpoint.recorder.recordValue(Math.max(0, Math.min(TimeUnit.NANOSECONDS.toMicros(nanos), HIGHEST_TRACKABLE_MICROS)));
+    }
+
+    /**
+     * Passes the cumulative histogram of every recorded handler method, in microseconds, to the given consumer. The histograms must not be
+     * kept or modified after the consumer returns.
+     *
+     * @param consumer receives the name of the handler method, as Controller.method, and its histogram
+     */
+    public void forEach(final BiConsumer<String, Histogram> consumer) {
+        endpoints.values().forEach(endpoint -> {
+            synchronized (endpoint) {
+                endpoint.interval = endpoint.recorder.getIntervalHistogram(endpoint.interval);
+                endpoint.cumulative.add(endpoint.interval);
+                consumer.accept(endpoint.name, endpoint.cumulative);
+            }
+        });
+    }
+
+    private static final class Endpoint {
+
+        private final String name;
+        private final Recorder recorder = new Recorder(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+        private final Histogram cumulative = new Histogram(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+        private Histogram interval;
+
+        Endpoint(final Method method) {
+            this.name = method.getDeclaringClass().getSimpleName() + "." + method.getName();
+        }
+    }
+}
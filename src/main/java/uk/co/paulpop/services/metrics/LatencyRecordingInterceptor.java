@@ -0,0 +1,37 @@
+package uk.co.paulpop.services.metrics;
+
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Times every call to a handler method into {@link LatencyHistograms}. The start time is kept in a reused per thread slot rather than a
+ * request attribute, so timing a request allocates nothing.
+ */
+public class LatencyRecordingInterceptor extends HandlerInterceptorAdapter {
+
+    private static final ThreadLocal<long[]> START = ThreadLocal.withInitial(() -> new long[1]);
+
+    private final LatencyHistograms histograms;
+
+    public LatencyRecordingInterceptor(final LatencyHistograms histograms) {
+        this.histograms = histograms;
+    }
+
+    @Override
+    public boolean preHandle(final HttpServletRequest request, final HttpServletResponse response, final Object handler) {
+        if (handler instanceof HandlerMethod) {
+            START.get()[0] = System.nanoTime();
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(final HttpServletRequest request, final HttpServletResponse response, final Object handler, final Exception ex) {
+        if (handler instanceof HandlerMethod) {
+            histograms.record(((HandlerMethod) handler).getMethod(), System.nanoTime() - START.get()[0]);
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package uk.co.paulpop.services.metrics;
+
+import org.HdrHistogram.Histogram;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.endpoint.mvc.AbstractMvcEndpoint;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Actuator endpoint serving the handler method latency histograms, the error status counters and every other {@link PublicMetrics} metric
+ * in the Prometheus text exposition format. It is sensitive, so it sits behind the same management security as the other actuator
+ * endpoints.
+ */
+@ConfigurationProperties(prefix = "endpoints.prometheus")
+public class PrometheusEndpoint extends AbstractMvcEndpoint {
+
+    public static final String CONTENT_TYPE = "text/plain;version=0.0.4;charset=utf-8";
+
+    private static final double[] QUANTILES = {0.5, 0.75, 0.9, 0.95, 0.99, 0.999};
+    private static final double MICROS_PER_SECOND = 1_000_000d;
+    private static final Pattern INVALID_NAME_CHARACTERS = Pattern.compile("[^a-zA-Z0-9_:]");
+
+    private final LatencyHistograms histograms;
+    private final HttpStatusCounters errorCounters;
+    private final Collection<PublicMetrics> publicMetrics;
+
+    public PrometheusEndpoint(final LatencyHistograms histograms, final HttpStatusCounters errorCounters,
+                              final Collection<PublicMetrics> publicMetrics) {
+        super("/prometheus", true);
+        this.histograms = histograms;
+        this.errorCounters = errorCounters;
+        this.publicMetrics = publicMetrics;
+    }
+
+    /**
+     * @return every metric in the Prometheus text format
+     */
+    @RequestMapping(method = RequestMethod.GET, produces = CONTENT_TYPE)
+    @ResponseBody
+    public String scrape() {
+        StringBuilder out = new StringBuilder(4096);
+        writeLatencies(out);
+        writeErrors(out);
+        writePublicMetrics(out);
+        return out.toString();
+    }
+
+    private void writeLatencies(final StringBuilder out) {
+        header(out, "http_server_requests_seconds", "summary", "Latency of handler method calls");
+        histograms.forEach((handler, histogram) -> writeSummary(out, "http_server_requests_seconds", handler, histogram));
+    }
+
+    private static void writeSummary(final StringBuilder out, final String name, final String handler, final Histogram histogram) {
+        for (double quantile : QUANTILES) {
+            out.append(name).append("{handler=\"").append(handler).append("\",quantile=\"").append(quantile).append("\"} ")
+                .append(histogram.getValueAtPercentile(quantile * 100) / MICROS_PER_SECOND).append('\n');
+        }
+        out.append(name).append("_count{handler=\"").append(handler).append("\"} ").append(histogram.getTotalCount()).append('\n');
+        // HdrHistogram does not keep an exact sum, the mean is accurate to the histogram's precision
+        out.append(name).append("_sum{handler=\"").append(handler).append("\"} ")
+            .append(histogram.getMean() * histogram.getTotalCount() / MICROS_PER_SECOND).append('\n');
+    }
+
+    private void writeErrors(final StringBuilder out) {
+        header(out, "http_server_errors_total", "counter", "Error responses returned by the exception handler, by status code");
+        errorCounters.forEach((status, count) ->
+            out.append("http_server_errors_total{status=\"").append(status).append("\"} ").append(count).append('\n'));
+    }
+
+    private void writePublicMetrics(final StringBuilder out) {
+        Set<String> written = new HashSet<>();
+        for (PublicMetrics metrics : publicMetrics) {
+            for (Metric<?> metric : metrics.metrics()) {
+                String name = name(metric.getName());
+                if (written.add(name)) {
+                    out.append("# TYPE ").append(name).append(" gauge\n");
+                    out.append(name).append(' ').append(value(metric.getValue())).append('\n');
+                }
+            }
+        }
+    }
+
+    private static void header(final StringBuilder out, final String name, final String type, final String help) {
+        out.append("# HELP ").append(name).append(' ').append(help).append('\n');
+        out.append("# TYPE ").append(name).append(' ').append(type).append('\n');
+    }
+
+    private static String name(final String metricName) {
+        String name = INVALID_NAME_CHARACTERS.matcher(metricName).replaceAll("_");
+        return Character.isDigit(name.charAt(0)) ? "_" + name : name;
+    }
+
+    private static String value(final Number value) {
+        if (value instanceof Double || value instanceof Float) {
+            double doubleValue = value.doubleValue();
+            if (Double.isInfinite(doubleValue)) {
+                return doubleValue > 0 ? "+Inf" : "-Inf";
+            }
+            return Double.toString(doubleValue);
+        }
+        return Long.toString(value.longValue());
+    }
+}
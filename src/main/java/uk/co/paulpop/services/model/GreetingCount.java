@@ -0,0 +1,16 @@
+package uk.co.paulpop.services.model;
+
+import lombok.Builder;
+import lombok.Data;
+import uk.co.paulpop.services.json.codec.GenerateJsonCodec;
+
+@Data
+@Builder
+@GenerateJsonCodec
+public class GreetingCount {
+
+    private final String name;
+
+    private final long count;
+
+}
@@ -2,9 +2,11 @@ package uk.co.paulpop.services.model;
 
 import lombok.Builder;
 import lombok.Data;
+import uk.co.paulpop.services.json.codec.GenerateJsonCodec;
 
 @Data
 @Builder
+@GenerateJsonCodec
 public class Hello {
 
     private final String message;
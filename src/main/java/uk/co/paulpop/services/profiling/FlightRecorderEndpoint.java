@@ -0,0 +1,144 @@
+package uk.co.paulpop.services.profiling;
+
+import org.springframework.boot.actuate.endpoint.mvc.AbstractMvcEndpoint;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.ResponseBody;
+import uk.co.paulpop.services.exception.handler.HttpExceptionResponse;
+import uk.co.paulpop.services.exception.handler.HttpExceptionResponses;
+
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
+import static org.springframework.http.HttpStatus.CONFLICT;
+import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.MediaType.APPLICATION_JSON_UTF8_VALUE;
+
+/**
+ * Actuator endpoint starting, stopping and downloading the on demand {@link FlightRecordings}, and downloading the dumps of the continuous
+ * recording. It is sensitive, so it sits behind the same management security as the other actuator endpoints. Errors are answered with a
+ * {@link HttpExceptionResponse}.
+ */
+@ConfigurationProperties(prefix = "endpoints.jfr")
+public class FlightRecorderEndpoint extends AbstractMvcEndpoint {
+
+    private final FlightRecordings recordings;
+    private final HttpExceptionResponses responses;
+
+    public FlightRecorderEndpoint(final FlightRecordings recordings, final HttpExceptionResponses responses) {
+        super("/jfr", true);
+        this.recordings = recordings;
+        this.responses = responses;
+    }
+
+    /**
+     * @return the continuous recording, the recordings started on demand and the dumps of the continuous recording
+     */
+    @RequestMapping(method = RequestMethod.GET, produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public Map<String, Object> recordings() throws IOException {
+        Map<String, Object> recordings = new LinkedHashMap<>();
+        recordings.put("continuous", this.recordings.continuous());
+        recordings.put("recordings", this.recordings.recordings());
+        recordings.put("dumps", this.recordings.dumps());
+        return recordings;
+    }
+
+    /**
+     * Starts a recording, with the configured settings and limits for any parameter that isn't given
+     */
+    @RequestMapping(method = RequestMethod.POST, produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public ResponseEntity<?> start(final @RequestParam(required = false) String settings,
+                                   final @RequestParam(required = false) Long maxAgeSeconds,
+                                   final @RequestParam(required = false) Long maxSizeBytes,
+                                   final @RequestParam(required = false) Long durationSeconds) throws IOException {
+        try {
+            return ResponseEntity.ok(recordings.startRecording(settings, maxAgeSeconds, maxSizeBytes, durationSeconds));
+        } catch (IllegalArgumentException e) {
+            return error(BAD_REQUEST, e.getMessage());
+        } catch (IllegalStateException e) {
+            return error(CONFLICT, e.getMessage());
+        }
+    }
+
+    /**
+     * Stops a recording, which can still be downloaded until it is deleted
+     */
+    @RequestMapping(value = "/{id}/stop", method = RequestMethod.POST, produces = MediaType.APPLICATION_JSON_VALUE)
+    @ResponseBody
+    public ResponseEntity<?> stop(final @PathVariable long id) {
+        RecordingInfo recording = recordings.stopRecording(id);
+        return recording != null ? ResponseEntity.ok(recording) : error(NOT_FOUND, "No recording " + id);
+    }
+
+    /**
+     * Stops a recording and discards its data
+     */
+    @RequestMapping(value = "/{id}", method = RequestMethod.DELETE)
+    @ResponseBody
+    public ResponseEntity<?> delete(final @PathVariable long id) {
+        return recordings.deleteRecording(id) ? ResponseEntity.noContent().build() : error(NOT_FOUND, "No recording " + id);
+    }
+
+    /**
+     * Downloads the data a recording holds so far, running or stopped
+     */
+    @RequestMapping(value = "/{id}", method = RequestMethod.GET)
+    public void download(final @PathVariable long id, final HttpServletResponse response) throws IOException {
+        Path file = recordings.dumpRecording(id);
+        if (file == null) {
+            write(response, error(NOT_FOUND, "No recording " + id));
+            return;
+        }
+        try {
+            send(file, "recording-" + id + ".jfr", response);
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    /**
+     * Downloads a dump of the continuous recording
+     */
+    @RequestMapping(value = "/dumps/{name:.+}", method = RequestMethod.GET)
+    public void downloadDump(final @PathVariable String name, final HttpServletResponse response) throws IOException {
+        Path file = recordings.dumpFile(name);
+        if (file == null) {
+            write(response, error(NOT_FOUND, "No dump " + name));
+            return;
+        }
+        send(file, name, response);
+    }
+
+    private ResponseEntity<HttpExceptionResponse> error(final HttpStatus status, final String message) {
+        return responses.of(status, Collections.singletonList(message));
+    }
+
+    private void write(final HttpServletResponse response, final ResponseEntity<HttpExceptionResponse> error) throws IOException {
+        byte[] body = responses.serialize(error.getBody());
+        response.setStatus(error.getStatusCodeValue());
+        response.setContentType(APPLICATION_JSON_UTF8_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private static void send(final Path file, final String name, final HttpServletResponse response) throws IOException {
+        response.setContentType(MediaType.APPLICATION_OCTET_STREAM_VALUE);
+        response.setHeader("Content-Disposition", "attachment; filename=\"" + name + "\"");
+        response.setContentLengthLong(Files.size(file));
+        Files.copy(file, response.getOutputStream());
+    }
+}
@@ -0,0 +1,104 @@
+package uk.co.paulpop.services.profiling;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration for the JFR recordings started through the actuator and the continuous recording dumped on latency regressions.
+ */
+@Data
+@ConfigurationProperties("service.profiling")
+public class FlightRecorderProperties {
+
+    /**
+     * Whether flight recordings can be started on the actuator.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Event settings of recordings started on the actuator: a JDK configuration such as default or profile, or the path of a .jfc file.
+     */
+    private String settings = "profile";
+
+    /**
+     * How long recordings started on the actuator keep their data for, past which the oldest data is discarded.
+     */
+    private long maxAgeSeconds = 600;
+
+    /**
+     * How much data recordings started on the actuator keep, past which the oldest data is discarded.
+     */
+    private long maxSizeBytes = 268435456;
+
+    /**
+     * Recordings started on the actuator that can be open at once, running or stopped and waiting to be downloaded.
+     */
+    private int maximumRecordings = 4;
+
+    /**
+     * Directory recordings are dumped to, before being downloaded or when latency regresses.
+     */
+    private String directory = System.getProperty("java.io.tmpdir") + "/java-spring-service/recordings";
+
+    private Continuous continuous = new Continuous();
+
+    @Data
+    public static class Continuous {
+
+        /**
+         * Whether a low overhead recording runs all along, dumped to the directory when latency regresses.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Event settings of the continuous recording.
+         */
+        private String settings = "default";
+
+        /**
+         * How much of the recent past the continuous recording keeps, and so every dump covers.
+         */
+        private long maxAgeSeconds = 300;
+
+        /**
+         * How much data the continuous recording keeps at most.
+         */
+        private long maxSizeBytes = 67108864;
+
+        /**
+         * Greeting events shorter than this are left out of the continuous recording.
+         */
+        private long greetingThresholdMillis = 5;
+
+        /**
+         * Handler method, as Controller.method, whose latency is watched.
+         */
+        private String handler = "JavaSpringServiceController.sayHello";
+
+        /**
+         * p99 latency of the handler over a check interval past which the recording is dumped.
+         */
+        private long p99ThresholdMillis = 250;
+
+        /**
+         * Calls of the handler a check interval needs before its p99 is trusted.
+         */
+        private long minimumCalls = 100;
+
+        /**
+         * How often the p99 latency of the handler is checked.
+         */
+        private long checkIntervalSeconds = 10;
+
+        /**
+         * Time after a dump during which latency regressions do not dump the recording again.
+         */
+        private long cooldownSeconds = 300;
+
+        /**
+         * Dumps kept in the directory, past which the oldest is deleted.
+         */
+        private int maximumDumps = 10;
+
+    }
+}
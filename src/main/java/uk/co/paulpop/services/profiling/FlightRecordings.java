@@ -0,0 +1,407 @@
+package uk.co.paulpop.services.profiling;
+
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Name;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.HdrHistogram.Histogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.context.SmartLifecycle;
+import uk.co.paulpop.services.metrics.LatencyHistograms;
+import uk.co.paulpop.services.warmup.WarmUp;
+
+import java.io.IOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Collectors;
+
+/**
+ * Java Flight Recorder recordings of this JVM. Recordings are started, stopped and dumped on demand for the {@link FlightRecorderEndpoint},
+ * and unless disabled a continuous recording with low overhead settings keeps the last minutes of events. Every check interval the p99
+ * latency of the watched handler method over the interval is read from the {@link LatencyHistograms}, and when it crosses the threshold
+ * the continuous recording is dumped to the recordings directory, at most once per cooldown. Latency is not checked until the
+ * {@link WarmUp} is done.
+ */
+public class FlightRecordings implements SmartLifecycle, PublicMetrics {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FlightRecordings.class);
+
+    private static final String CONTINUOUS = "continuous";
+    private static final String DUMP_PREFIX = "latency-";
+    private static final String SUFFIX = ".jfr";
+    private static final String GREETING_THRESHOLD = GreetingEvent.class.getAnnotation(Name.class).value() + "#threshold";
+    private static final DateTimeFormatter DUMP_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS").withZone(ZoneOffset.UTC);
+
+    private final FlightRecorderProperties properties;
+    private final FlightRecorderProperties.Continuous continuousProperties;
+    private final LatencyHistograms histograms;
+    private final WarmUp warmUp;
+    private final Path directory;
+    private final ConcurrentMap<Long, Recording> recordings = new ConcurrentHashMap<>();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LongAdder latencyDumps = new LongAdder();
+
+    private volatile Recording continuous;
+    private volatile ScheduledExecutorService checker;
+    private volatile boolean running;
+
+    // Only used by the thread checking latency
+    private Histogram previous;
+    private Histogram window;
+    private long lastDumpNanos;
+    private boolean dumped;
+
+    public FlightRecordings(final FlightRecorderProperties properties, final LatencyHistograms histograms, final WarmUp warmUp)
+        throws IOException {
+        this.properties = properties;
+        this.continuousProperties = properties.getContinuous();
+        this.histograms = histograms;
+        this.warmUp = warmUp;
+        this.directory = Files.createDirectories(Paths.get(properties.getDirectory()));
+    }
+
+    @Override
+    public void start() {
+        running = true;
+        if (!continuousProperties.isEnabled()) {
+            return;
+        }
+        if (!FlightRecorder.isAvailable()) {
+            LOGGER.warn("Flight recorder is not available in this JVM, latency regressions will not be recorded");
+            return;
+        }
+        try {
+            Recording recording = new Recording(configuration(continuousProperties.getSettings()));
+            recording.setName(CONTINUOUS);
+            recording.setMaxAge(Duration.ofSeconds(continuousProperties.getMaxAgeSeconds()));
+            recording.setMaxSize(continuousProperties.getMaxSizeBytes());
+            recording.enable(GreetingEvent.class).withThreshold(Duration.ofMillis(continuousProperties.getGreetingThresholdMillis()));
+            recording.start();
+            continuous = recording;
+        } catch (IOException e) {
+            LOGGER.warn("Could not start the continuous flight recording", e);
+            return;
+        }
+        ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "flight-recordings");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = continuousProperties.getCheckIntervalSeconds();
+        executor.scheduleWithFixedDelay(() -> {
+            try {
+                checkLatency();
+            } catch (IOException | RuntimeException e) {
+                LOGGER.warn("Could not check latency against the flight recording threshold", e);
+            }
+        }, interval, interval, TimeUnit.SECONDS);
+        checker = executor;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        ScheduledExecutorService executor = checker;
+        if (executor != null) {
+            executor.shutdownNow();
+            checker = null;
+        }
+        Recording recording = continuous;
+        if (recording != null) {
+            recording.close();
+            continuous = null;
+        }
+        recordings.values().forEach(Recording::close);
+        recordings.clear();
+    }
+
+    @Override
+    public void stop(final Runnable callback) {
+        stop();
+        callback.run();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return true;
+    }
+
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    @Override
+    public Collection<Metric<?>> metrics() {
+        return Arrays.asList(
+            new Metric<>("jfr.recordings", recordings.size()),
+            new Metric<>("jfr.latency-dumps", latencyDumps.sum()));
+    }
+
+    /**
+     * Starts a recording, with the configured settings and limits for any that aren't given
+     *
+     * @param settings        the configured settings, or the name of a JDK configuration such as default or profile
+     * @param maxAgeSeconds   how long the recording keeps its data for
+     * @param maxSizeBytes    how much data the recording keeps
+     * @param durationSeconds how long until the recording stops by itself, or null to keep it running until it is stopped
+     * @return the recording that was started
+     * @throws IOException if the configured settings can't be read
+     */
+    public RecordingInfo startRecording(final String settings, final Long maxAgeSeconds, final Long maxSizeBytes,
+                                        final Long durationSeconds) throws IOException {
+        String name = settings != null ? settings : properties.getSettings();
+        if (!name.equals(properties.getSettings()) && !configurationNames().contains(name)) {
+            throw new IllegalArgumentException("Unknown settings " + name + ", expected " + properties.getSettings() + " or one of "
+                + configurationNames());
+        }
+        Duration maxAge = Duration.ofSeconds(positive(maxAgeSeconds, properties.getMaxAgeSeconds(), "maxAgeSeconds"));
+        long maxSize = positive(maxSizeBytes, properties.getMaxSizeBytes(), "maxSizeBytes");
+        Duration duration = durationSeconds != null ? Duration.ofSeconds(positive(durationSeconds, 0, "durationSeconds")) : null;
+        Configuration configuration = configuration(name);
+        lock.lock();
+        try {
+            if (recordings.size() >= properties.getMaximumRecordings()) {
+                throw new IllegalStateException("There are already " + recordings.size() + " recordings, delete one first");
+            }
+            Recording recording = new Recording(configuration);
+            recording.setName(name);
+            if (!configuration.getSettings().containsKey(GREETING_THRESHOLD)) {
+                // Thresholds are shared by every running recording, so greetings need a threshold of their own not to inherit the
+                // one of the continuous recording
+                recording.enable(GreetingEvent.class).withThreshold(Duration.ZERO);
+            }
+            recording.setMaxAge(maxAge);
+            recording.setMaxSize(maxSize);
+            recording.setDuration(duration);
+            recording.start();
+            recordings.put(recording.getId(), recording);
+            return info(recording);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stops a recording, keeping its data until it is deleted
+     *
+     * @return the stopped recording, or null if there is no such recording
+     */
+    public RecordingInfo stopRecording(final long id) {
+        Recording recording = recordings.get(id);
+        if (recording == null) {
+            return null;
+        }
+        if (recording.getState() == RecordingState.RUNNING || recording.getState() == RecordingState.DELAYED) {
+            recording.stop();
+        }
+        return info(recording);
+    }
+
+    /**
+     * Stops a recording if it is running and discards its data
+     *
+     * @return whether there was such a recording
+     */
+    public boolean deleteRecording(final long id) {
+        Recording recording = recordings.remove(id);
+        if (recording == null) {
+            return false;
+        }
+        recording.close();
+        return true;
+    }
+
+    /**
+     * Dumps the data a recording holds to a new file in the recordings directory, which the caller must delete once done with it
+     *
+     * @return the file, or null if there is no such recording
+     * @throws IOException if the file can't be written
+     */
+    public Path dumpRecording(final long id) throws IOException {
+        Recording recording = recordings.get(id);
+        if (recording == null) {
+            return null;
+        }
+        Path file = Files.createTempFile(directory, "recording-" + id + "-", SUFFIX);
+        try {
+            recording.dump(file);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+        return file;
+    }
+
+    /**
+     * @return the recordings started on demand, oldest first
+     */
+    public List<RecordingInfo> recordings() {
+        return recordings.values().stream()
+            .sorted(Comparator.comparingLong(Recording::getId))
+            .map(FlightRecordings::info)
+            .collect(Collectors.toList());
+    }
+
+    /**
+     * @return the continuous recording, or null if it isn't running
+     */
+    public RecordingInfo continuous() {
+        Recording recording = continuous;
+        return recording != null ? info(recording) : null;
+    }
+
+    /**
+     * @return the file names of the dumps of the continuous recording, oldest first
+     * @throws IOException if the recordings directory can't be read
+     */
+    public List<String> dumps() throws IOException {
+        List<String> dumps = new ArrayList<>();
+        try (DirectoryStream<Path> paths = Files.newDirectoryStream(directory, DUMP_PREFIX + "*" + SUFFIX)) {
+            for (Path path : paths) {
+                dumps.add(path.getFileName().toString());
+            }
+        }
+        // Dump times are zero padded, so names sort in the order the dumps were written
+        Collections.sort(dumps);
+        return dumps;
+    }
+
+    /**
+     * @return the dump of the continuous recording with the given file name, or null if there is no such dump
+     * @throws IOException if the recordings directory can't be read
+     */
+    public Path dumpFile(final String name) throws IOException {
+        // Only names listed in the directory are resolved, so the name can't escape it
+        return dumps().contains(name) ? directory.resolve(name) : null;
+    }
+
+    /**
+     * Dumps the continuous recording if the p99 latency of the watched handler method since the previous check crossed the threshold
+     *
+     * @return whether the recording was dumped
+     * @throws IOException if the dump can't be written
+     */
+    boolean checkLatency() throws IOException {
+        long[] interval = new long[2];
+        histograms.forEach((handler, histogram) -> {
+            if (handler.equals(continuousProperties.getHandler())) {
+                Histogram since = sinceLastCheck(histogram);
+                interval[0] = since.getTotalCount();
+                interval[1] = since.getValueAtPercentile(99);
+            }
+        });
+        long calls = interval[0];
+        long p99Micros = interval[1];
+        if ((warmUp != null && !warmUp.isDone()) || calls < continuousProperties.getMinimumCalls()
+            || p99Micros <= TimeUnit.MILLISECONDS.toMicros(continuousProperties.getP99ThresholdMillis())) {
+            return false;
+        }
+        long now = System.nanoTime();
+        if (dumped && now - lastDumpNanos < TimeUnit.SECONDS.toNanos(continuousProperties.getCooldownSeconds())) {
+            return false;
+        }
+        Recording recording = continuous;
+        if (recording == null) {
+            return false;
+        }
+        Path file = directory.resolve(DUMP_PREFIX + DUMP_TIME.format(Instant.now()) + SUFFIX);
+        recording.dump(file);
+        latencyDumps.increment();
+        lastDumpNanos = now;
+        dumped = true;
+        LOGGER.warn("p99 latency of {} was {} ms over {} calls, dumped the last {} seconds of the flight recording to {}",
+            continuousProperties.getHandler(), TimeUnit.MICROSECONDS.toMillis(p99Micros), calls, continuousProperties.getMaxAgeSeconds(),
+            file);
+        deleteOldDumps();
+        return true;
+    }
+
+    /**
+     * Subtracts the cumulative histogram of the previous check from the given one, reusing the same two histograms every check
+     */
+    private Histogram sinceLastCheck(final Histogram cumulative) {
+        if (previous == null) {
+            previous = new Histogram(cumulative.getHighestTrackableValue(), cumulative.getNumberOfSignificantValueDigits());
+            window = previous.copy();
+        }
+        cumulative.copyInto(window);
+        window.subtract(previous);
+        cumulative.copyInto(previous);
+        return window;
+    }
+
+    private void deleteOldDumps() throws IOException {
+        List<String> dumps = dumps();
+        for (int i = 0; i < dumps.size() - continuousProperties.getMaximumDumps(); i++) {
+            Files.deleteIfExists(directory.resolve(dumps.get(i)));
+        }
+    }
+
+    private Configuration configuration(final String settings) throws IOException {
+        try {
+            return settings.endsWith(".jfc") ? Configuration.create(Paths.get(settings)) : Configuration.getConfiguration(settings);
+        } catch (ParseException e) {
+            throw new IOException("Could not parse the flight recorder settings " + settings, e);
+        }
+    }
+
+    private static List<String> configurationNames() {
+        return Configuration.getConfigurations().stream().map(Configuration::getName).collect(Collectors.toList());
+    }
+
+    private static long positive(final Long value, final long defaultValue, final String name) {
+        if (value == null) {
+            return defaultValue;
+        }
+        if (value <= 0) {
+            throw new IllegalArgumentException(name + " must be positive");
+        }
+        return value;
+    }
+
+    private static RecordingInfo info(final Recording recording) {
+        Instant startTime = recording.getStartTime();
+        Duration duration = recording.getDuration();
+        Duration maxAge = recording.getMaxAge();
+        return RecordingInfo.builder()
+            .id(recording.getId())
+            .settings(recording.getName())
+            .state(recording.getState().name())
+            .startTime(startTime != null ? startTime.toString() : null)
+            .durationSeconds(duration != null ? duration.getSeconds() : null)
+            .maxAgeSeconds(maxAge != null ? maxAge.getSeconds() : null)
+            .maxSizeBytes(recording.getMaxSize())
+            .sizeBytes(recording.getSize())
+            .build();
+    }
+}
@@ -0,0 +1,27 @@
+package uk.co.paulpop.services.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event marking a call to say hello, spanning the whole handler method. It carries no stack trace, so recording it costs little more
+ * than the two timestamps.
+ */
+@Name("uk.co.paulpop.services.Greeting")
+@Label("Greeting")
+@Category({"Java Spring Service", "Greetings"})
+@Description("A call to say hello to a name")
+@StackTrace(false)
+public class GreetingEvent extends Event {
+
+    @Label("Name")
+    private String name;
+
+    public void setName(final String name) {
+        this.name = name;
+    }
+}
@@ -0,0 +1,35 @@
+package uk.co.paulpop.services.profiling;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * JFR event marking an error response returned by the {@code HttpExceptionHandler}, with the exception that was handled. The exceptions
+ * thrown on the hot paths carry no stack trace, and neither does the event.
+ */
+@Name("uk.co.paulpop.services.HttpException")
+@Label("HTTP Exception")
+@Category({"Java Spring Service", "Errors"})
+@Description("An exception turned into an error response")
+@StackTrace(false)
+public class HttpExceptionEvent extends Event {
+
+    @Label("Status")
+    private int status;
+
+    @Label("Exception")
+    private Class<?> exception;
+
+    @Label("Error")
+    private String error;
+
+    public void set(final int status, final Class<?> exception, final String error) {
+        this.status = status;
+        this.exception = exception;
+        this.error = error;
+    }
+}
@@ -0,0 +1,22 @@
+package uk.co.paulpop.services.profiling;
+
+import lombok.Builder;
+import lombok.Data;
+
+/**
+ * Snapshot of a flight recording managed by {@link FlightRecordings}.
+ */
+@Data
+@Builder
+public class RecordingInfo {
+
+    private final long id;
+    private final String settings;
+    private final String state;
+    private final String startTime;
+    private final Long durationSeconds;
+    private final Long maxAgeSeconds;
+    private final long maxSizeBytes;
+    private final long sizeBytes;
+
+}
@@ -0,0 +1,60 @@
+package uk.co.paulpop.services.routing;
+
+import org.springframework.core.Ordered;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.handler.AbstractHandlerMapping;
+import org.springframework.web.servlet.mvc.method.RequestMappingInfo;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerMapping;
+
+import javax.servlet.DispatcherType;
+import javax.servlet.http.HttpServletRequest;
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Routes requests whose name was decoded by the {@link NameRouteFilter} straight to the handler method of {@code GET /api/{name}}, ahead
+ * of the stock request mapping, so they skip its lookup path decoding and pattern matching. The name is handed over as the URI template
+ * variable the stock {@code @PathVariable} resolver reads.
+ */
+public class NameHandlerMapping extends AbstractHandlerMapping {
+
+    public static final String PATTERN = "/api/{name}";
+
+    private final HandlerMethod handlerMethod;
+
+    public NameHandlerMapping(final HandlerMethod handlerMethod) {
+        this.handlerMethod = handlerMethod;
+        setOrder(Ordered.HIGHEST_PRECEDENCE);
+    }
+
+    /**
+     * Finds the handler method mapped to {@code GET /api/{name}} by the stock request mapping
+     *
+     * @param mapping the stock request mapping, already initialised
+     * @return the handler method, with its bean resolved
+     * @throws IllegalStateException if no handler method is mapped to the route
+     */
+    public static HandlerMethod find(final RequestMappingHandlerMapping mapping) {
+        for (Map.Entry<RequestMappingInfo, HandlerMethod> entry : mapping.getHandlerMethods().entrySet()) {
+            RequestMappingInfo info = entry.getKey();
+            if (info.getPatternsCondition().getPatterns().contains(PATTERN)
+                && info.getMethodsCondition().getMethods().contains(RequestMethod.GET)) {
+                return entry.getValue().createWithResolvedBean();
+            }
+        }
+        throw new IllegalStateException("No handler method is mapped to GET " + PATTERN);
+    }
+
+    @Override
+    protected Object getHandlerInternal(final HttpServletRequest request) {
+        Object name = request.getAttribute(NameRouteFilter.NAME_ATTRIBUTE);
+        // Error dispatches of the same request go through the stock mapping
+        if (name == null || request.getDispatcherType() != DispatcherType.REQUEST) {
+            return null;
+        }
+        request.setAttribute(URI_TEMPLATE_VARIABLES_ATTRIBUTE, Collections.singletonMap("name", (String) name));
+        request.setAttribute(BEST_MATCHING_PATTERN_ATTRIBUTE, PATTERN);
+        return handlerMethod;
+    }
+}
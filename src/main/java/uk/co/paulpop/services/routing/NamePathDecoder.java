@@ -0,0 +1,128 @@
+package uk.co.paulpop.services.routing;
+
+import uk.co.paulpop.services.exception.InvalidNameException;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+
+/**
+ * Decodes and validates a name straight from the raw, percent-encoded request URI. Plain ASCII names are returned as a substring of the
+ * URI; anything else is percent-decoded into a byte buffer and decoded into a char buffer that are reused per thread, so the decoded name
+ * is the only allocation. Bytes that aren't valid in the charset are rejected with an {@link InvalidNameException}, and so are the names
+ * breaking the rules of the {@link NameValidator}.
+ */
+public class NamePathDecoder {
+
+    private final NameValidator validator;
+    private final int maximumLength;
+    private final Charset charset;
+    private final ThreadLocal<Buffers> buffers;
+
+    private final InvalidNameException tooLong;
+    private final InvalidNameException badPercentEncoding;
+    private final InvalidNameException badCharset;
+
+    public NamePathDecoder(final int maximumLength, final Charset charset) {
+        this.validator = new NameValidator(maximumLength, charset);
+        this.maximumLength = maximumLength;
+        this.charset = charset;
+        this.buffers = ThreadLocal.withInitial(Buffers::new);
+        this.tooLong = validator.tooLong();
+        this.badPercentEncoding = new InvalidNameException("Name must be percent-encoded");
+        this.badCharset = validator.badCharset();
+    }
+
+    /**
+     * Decodes the name between the given indexes of the raw request URI
+     *
+     * @param uri   the raw request URI
+     * @param start index of the first character of the name
+     * @param end   index after the last character of the name
+     * @return the decoded name
+     * @throws InvalidNameException if the name is not valid
+     */
+    public String decode(final String uri, final int start, final int end) {
+        int length = end - start;
+        // A character takes at most four bytes of three characters each once percent-encoded
+        if (length > maximumLength * 12L) {
+            throw tooLong;
+        }
+        boolean plain = true;
+        for (int i = start; i < end && plain; i++) {
+            char c = uri.charAt(i);
+            plain = c >= 0x20 && c < 0x7f && c != '%';
+        }
+        if (plain) {
+            if (length > maximumLength) {
+                throw tooLong;
+            }
+            return uri.substring(start, end);
+        }
+        return buffers.get().decode(uri, start, end);
+    }
+
+    private int hex(final char c) {
+        int digit = Character.digit(c, 16);
+        if (digit < 0) {
+            throw badPercentEncoding;
+        }
+        return digit;
+    }
+
+    /**
+     * Per thread buffers and charset decoder.
+     */
+    private final class Buffers {
+
+        private final CharsetDecoder decoder = charset.newDecoder()
+            .onMalformedInput(CodingErrorAction.REPORT)
+            .onUnmappableCharacter(CodingErrorAction.REPORT);
+        private ByteBuffer bytes = ByteBuffer.allocate(64);
+        private CharBuffer chars = CharBuffer.allocate(64);
+
+        String decode(final String uri, final int start, final int end) {
+            ensureCapacity(end - start);
+            for (int i = start; i < end; i++) {
+                char c = uri.charAt(i);
+                if (c == '%') {
+                    if (i + 2 >= end) {
+                        throw badPercentEncoding;
+                    }
+                    bytes.put((byte) (hex(uri.charAt(i + 1)) << 4 | hex(uri.charAt(i + 2))));
+                    i += 2;
+                } else if (c <= 0xff) {
+                    // The container hands over the raw bytes of the URI as ISO-8859-1 characters
+                    bytes.put((byte) c);
+                } else {
+                    throw badCharset;
+                }
+            }
+            bytes.flip();
+            decoder.reset();
+            CoderResult result = decoder.decode(bytes, chars, true);
+            if (!result.isUnderflow() || !decoder.flush(chars).isUnderflow()) {
+                throw badCharset;
+            }
+            chars.flip();
+            validator.validateDecoded(chars);
+            return chars.toString();
+        }
+
+        private void ensureCapacity(final int length) {
+            // Percent-encoding only ever shrinks the URI characters into fewer bytes
+            if (bytes.capacity() < length) {
+                bytes = ByteBuffer.allocate(length);
+            }
+            int maximumChars = (int) Math.ceil(length * (double) decoder.maxCharsPerByte());
+            if (chars.capacity() < maximumChars) {
+                chars = CharBuffer.allocate(maximumChars);
+            }
+            bytes.clear();
+            chars.clear();
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package uk.co.paulpop.services.routing;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.filter.OncePerRequestFilter;
+import uk.co.paulpop.services.exception.InvalidNameException;
+import uk.co.paulpop.services.exception.handler.HttpExceptionHandler;
+import uk.co.paulpop.services.exception.handler.HttpExceptionResponse;
+import uk.co.paulpop.services.exception.handler.HttpExceptionResponses;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON_UTF8_VALUE;
+
+/**
+ * Decodes and validates the name of {@code GET /api/{name}} requests with the {@link NamePathDecoder} before they reach the dispatcher.
+ * Invalid names get the 400 {@link HttpExceptionResponse} of the {@link HttpExceptionHandler} straight away. Valid names are left in a
+ * request attribute for the {@link NameHandlerMapping}, unless the request needs the stock route: names with a dot are matched with a
+ * file extension suffix there, and requests not accepting JSON are answered with a 406.
+ */
+public class NameRouteFilter extends OncePerRequestFilter {
+
+    public static final String NAME_ATTRIBUTE = NameRouteFilter.class.getName() + ".NAME";
+
+    private static final String PREFIX = "/api/";
+
+    private final NamePathDecoder decoder;
+    private final HttpExceptionHandler exceptionHandler;
+    private final HttpExceptionResponses responses;
+
+    public NameRouteFilter(final NamePathDecoder decoder, final HttpExceptionHandler exceptionHandler,
+                           final HttpExceptionResponses responses) {
+        this.decoder = decoder;
+        this.exceptionHandler = exceptionHandler;
+        this.responses = responses;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(final HttpServletRequest request) {
+        String method = request.getMethod();
+        return !"GET".equals(method) && !"HEAD".equals(method);
+    }
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response, final FilterChain chain)
+        throws ServletException, IOException {
+        String uri = request.getRequestURI();
+        int start = request.getContextPath().length() + PREFIX.length();
+        if (!uri.startsWith(PREFIX, start - PREFIX.length()) || !isSingleSegment(uri, start)) {
+            chain.doFilter(request, response);
+            return;
+        }
+        String name;
+        try {
+            name = decoder.decode(uri, start, uri.length());
+        } catch (InvalidNameException e) {
+            reject(response, e);
+            return;
+        }
+        if (name.indexOf('.') < 0 && acceptsJson(request.getHeader("Accept"))) {
+            request.setAttribute(NAME_ATTRIBUTE, name);
+        }
+        chain.doFilter(request, response);
+    }
+
+    /**
+     * Whether the rest of the URI is a single, non-empty path segment without path parameters, which the stock route strips
+     */
+    private static boolean isSingleSegment(final String uri, final int start) {
+        if (start >= uri.length()) {
+            return false;
+        }
+        for (int i = start; i < uri.length(); i++) {
+            char c = uri.charAt(i);
+            if (c == '/' || c == ';') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean acceptsJson(final String accept) {
+        return accept == null || accept.isEmpty() || accept.contains("json") || accept.contains("*/*") || accept.contains("application/*");
+    }
+
+    private void reject(final HttpServletResponse response, final InvalidNameException e) throws IOException {
+        ResponseEntity<HttpExceptionResponse> error = exceptionHandler.handleInvalidNameException(e);
+        byte[] body = responses.serialize(error.getBody());
+        response.setStatus(error.getStatusCodeValue());
+        response.setContentType(APPLICATION_JSON_UTF8_VALUE);
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+}
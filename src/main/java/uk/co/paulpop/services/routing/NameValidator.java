@@ -0,0 +1,76 @@
+package uk.co.paulpop.services.routing;
+
+import uk.co.paulpop.services.exception.InvalidNameException;
+
+import java.nio.charset.Charset;
+
+/**
+ * The rules every greeted name follows, however it reached the service: it is not empty, has at most the maximum number of characters,
+ * counted in code points, contains no control characters and can be encoded in the configured charset. The {@link NamePathDecoder} applies
+ * them to the names it decodes from a URI and the gRPC service to the names it receives, so both reject the same names with the same
+ * {@link InvalidNameException}.
+ */
+public class NameValidator {
+
+    private final int maximumLength;
+    private final Charset charset;
+    private final boolean unicode;
+
+    private final InvalidNameException empty;
+    private final InvalidNameException tooLong;
+    private final InvalidNameException badCharset;
+    private final InvalidNameException controlCharacter;
+
+    public NameValidator(final int maximumLength, final Charset charset) {
+        this.maximumLength = maximumLength;
+        this.charset = charset;
+        // Java strings are always valid Unicode, so only narrower charsets need checking
+        this.unicode = charset.name().startsWith("UTF-");
+        this.empty = new InvalidNameException("Name must not be empty");
+        this.tooLong = new InvalidNameException("Name must be at most " + maximumLength + " characters");
+        this.badCharset = new InvalidNameException("Name must be encoded in " + charset.name());
+        this.controlCharacter = new InvalidNameException("Name must not contain control characters");
+    }
+
+    /**
+     * Validates a name against every rule
+     *
+     * @param name the name
+     * @throws InvalidNameException if the name is not valid
+     */
+    public void validate(final CharSequence name) {
+        if (name.length() == 0) {
+            throw empty;
+        }
+        validateDecoded(name);
+        if (!unicode && !charset.newEncoder().canEncode(name)) {
+            throw badCharset;
+        }
+    }
+
+    /**
+     * Validates the length and characters of a name that was decoded from the charset, and so is neither empty nor in need of the charset
+     * check
+     *
+     * @param name the decoded name
+     * @throws InvalidNameException if the name is not valid
+     */
+    void validateDecoded(final CharSequence name) {
+        if (name.length() > maximumLength && Character.codePointCount(name, 0, name.length()) > maximumLength) {
+            throw tooLong;
+        }
+        for (int i = 0; i < name.length(); i++) {
+            if (Character.isISOControl(name.charAt(i))) {
+                throw controlCharacter;
+            }
+        }
+    }
+
+    InvalidNameException tooLong() {
+        return tooLong;
+    }
+
+    InvalidNameException badCharset() {
+        return badCharset;
+    }
+}
@@ -0,0 +1,43 @@
+package uk.co.paulpop.services.security;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration for caching verified basic auth credentials and locking out repeated failures.
+ */
+@Data
+@ConfigurationProperties("service.auth-cache")
+public class AuthenticationCacheProperties {
+
+    /**
+     * Whether verified credentials are cached.
+     */
+    private boolean enabled = true;
+
+    /**
+     * How long verified credentials are trusted before they are checked against the user store again.
+     */
+    private long ttlSeconds = 60;
+
+    /**
+     * Maximum number of users whose credentials are cached.
+     */
+    private long maximumSize = 1024;
+
+    /**
+     * Number of failed attempts from a client within the lockout period after which the user is locked out for that client.
+     */
+    private int maxFailures = 5;
+
+    /**
+     * How long failed attempts are counted and a lockout lasts.
+     */
+    private long lockoutSeconds = 60;
+
+    /**
+     * Maximum number of user name and client address pairs whose failed attempts are counted.
+     */
+    private long lockoutMaximumSize = 10000;
+
+}
@@ -0,0 +1,108 @@
+package uk.co.paulpop.services.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.LockedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Remembers credentials the delegate has verified for a limited time, so repeated basic auth requests, such as monitoring scrapes, skip
+ * the full authentication. Only a salted SHA-256 digest of the password is kept and it is compared in constant time. A user name with too
+ * many recent failures from a client is rejected for that client without reaching the delegate.
+ */
+public class CachingAuthenticationProvider implements AuthenticationProvider {
+
+    private final AuthenticationProvider delegate;
+    private final FailedAuthenticationLockout lockout;
+    private final Cache<String, Verified> verified;
+    private final byte[] salt = new byte[16];
+
+    public CachingAuthenticationProvider(final AuthenticationProvider delegate, final FailedAuthenticationLockout lockout,
+                                         final long ttlSeconds, final long maximumSize) {
+        this.delegate = delegate;
+        this.lockout = lockout;
+        this.verified = Caffeine.newBuilder()
+            .expireAfterWrite(ttlSeconds, TimeUnit.SECONDS)
+            .maximumSize(maximumSize)
+            .executor(Runnable::run)
+            .build();
+        new SecureRandom().nextBytes(salt);
+    }
+
+    @Override
+    public Authentication authenticate(final Authentication authentication) throws AuthenticationException {
+        String username = authentication.getName();
+        Object credentials = authentication.getCredentials();
+        if (username == null || credentials == null) {
+            return delegate.authenticate(authentication);
+        }
+        // A locked out client is turned away even with the right password, as that may have been verified for someone else
+        String client = client(authentication);
+        if (lockout.isLockedOut(username, client)) {
+            throw new LockedException("Too many failed attempts, try again later");
+        }
+        byte[] digest = digest(credentials.toString());
+        Verified cached = verified.getIfPresent(username);
+        if (cached != null && MessageDigest.isEqual(cached.digest, digest)) {
+            return cached.authentication;
+        }
+        Authentication result;
+        try {
+            result = delegate.authenticate(authentication);
+        } catch (BadCredentialsException e) {
+            lockout.failed(username, client);
+            throw e;
+        }
+        if (result != null) {
+            lockout.succeeded(username, client);
+            verified.put(username, new Verified(digest, result));
+        }
+        return result;
+    }
+
+    @Override
+    public boolean supports(final Class<?> authentication) {
+        return UsernamePasswordAuthenticationToken.class.isAssignableFrom(authentication) && delegate.supports(authentication);
+    }
+
+    /**
+     * The remote address the authentication filters record in the details, or an empty one for authentications from elsewhere
+     */
+    private static String client(final Authentication authentication) {
+        Object details = authentication.getDetails();
+        return details instanceof WebAuthenticationDetails ? String.valueOf(((WebAuthenticationDetails) details).getRemoteAddress()) : "";
+    }
+
+    private byte[] digest(final String password) {
+        try {
+            MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+            sha256.update(salt);
+            return sha256.digest(password.getBytes(UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static final class Verified {
+
+        private final byte[] digest;
+        private final Authentication authentication;
+
+        Verified(final byte[] digest, final Authentication authentication) {
+            this.digest = digest;
+            this.authentication = authentication;
+        }
+    }
+}
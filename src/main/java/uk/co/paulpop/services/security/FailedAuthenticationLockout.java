@@ -0,0 +1,70 @@
+package uk.co.paulpop.services.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Counts failed authentications per user name and client address, so a client guessing passwords only locks itself out of the account
+ * instead of everybody else. Each pair gets its own counter rather than a shared stripe, as a client could otherwise lock out any user
+ * name by failing with others that share its stripe. The counters live in a bounded cache and expire one lockout period after the first
+ * failure they counted.
+ */
+public class FailedAuthenticationLockout {
+
+    private final int maxFailures;
+    private final Cache<String, AtomicInteger> failures;
+
+    /**
+     * @param maxFailures    the number of failures after which a user name is locked out for a client
+     * @param lockoutSeconds how long failures are counted and a lockout lasts
+     * @param maximumSize    the number of user name and client address pairs tracked at a time
+     */
+    public FailedAuthenticationLockout(final int maxFailures, final long lockoutSeconds, final long maximumSize) {
+        this.maxFailures = maxFailures;
+        this.failures = Caffeine.newBuilder()
+            .expireAfterWrite(lockoutSeconds, TimeUnit.SECONDS)
+            .maximumSize(maximumSize)
+            .executor(Runnable::run)
+            .build();
+    }
+
+    /**
+     * @param username the user name
+     * @param client   the address of the client authenticating
+     * @return whether the user name is currently locked out for the client
+     */
+    public boolean isLockedOut(final String username, final String client) {
+        AtomicInteger count = failures.getIfPresent(key(username, client));
+        return count != null && count.get() >= maxFailures;
+    }
+
+    /**
+     * Counts a failed authentication, starting a new period if the previous one is over
+     *
+     * @param username the user name that failed to authenticate
+     * @param client   the address of the client that failed
+     */
+    public void failed(final String username, final String client) {
+        failures.get(key(username, client), pair -> new AtomicInteger()).incrementAndGet();
+    }
+
+    /**
+     * Clears the failures counted for a user name and client after they authenticated successfully
+     *
+     * @param username the user name
+     * @param client   the address of the client
+     */
+    public void succeeded(final String username, final String client) {
+        failures.invalidate(key(username, client));
+    }
+
+    /**
+     * Addresses never contain a NUL character, so no two pairs share a key however the user name is chosen
+     */
+    private static String key(final String username, final String client) {
+        return username + '\0' + client;
+    }
+}
@@ -0,0 +1,426 @@
+package uk.co.paulpop.services.server;
+
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.io.UncheckedIOException;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Gzip compresses responses for clients accepting it. The first min-response-size bytes of a response are held back, so small bodies
+ * such as a single greeting are written as they are, while batch results and the Swagger documentation are compressed. Responses declaring
+ * a length below min-response-size skip the buffering and go out as they are, while longer ones are buffered and compressed like any
+ * other. Streamed responses start compressing as soon as they are flushed. Responses written with non-blocking I/O go out uncompressed,
+ * since one write of the application may turn into several writes of compressed bytes.
+ * <p>
+ * Tomcat's own compression, server.compression, isn't used because it doesn't report the bytes it saved, which the http.compression
+ * metrics are about.
+ */
+public class CompressionFilter extends OncePerRequestFilter {
+
+    private static final String GZIP = "gzip";
+
+    private final int minResponseSize;
+    private final Set<String> mimeTypes;
+    private final ConnectorMetrics metrics;
+
+    public CompressionFilter(final int minResponseSize, final Collection<String> mimeTypes, final ConnectorMetrics metrics) {
+        this.minResponseSize = minResponseSize;
+        this.mimeTypes = new HashSet<>(mimeTypes);
+        this.metrics = metrics;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(final HttpServletRequest request) {
+        return "HEAD".equals(request.getMethod()) || !acceptsGzip(request.getHeader("Accept-Encoding"));
+    }
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response, final FilterChain chain)
+        throws ServletException, IOException {
+        CompressingResponse compressingResponse = new CompressingResponse(response);
+        try {
+            chain.doFilter(request, compressingResponse);
+        } finally {
+            if (isAsyncStarted(request)) {
+                request.getAsyncContext().addListener(new FinishingListener(compressingResponse));
+            } else {
+                compressingResponse.finish();
+            }
+        }
+    }
+
+    /**
+     * Whether gzip is acceptable according to the given Accept-Encoding header, either by name or through a wildcard, with a non-zero
+     * quality.
+     */
+    public static boolean acceptsGzip(final String acceptEncoding) {
+        if (!StringUtils.hasText(acceptEncoding)) {
+            return false;
+        }
+        Boolean wildcard = null;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim().toLowerCase(Locale.ROOT);
+            boolean acceptable = quality(parts) > 0;
+            if (GZIP.equals(name) || "x-gzip".equals(name)) {
+                return acceptable;
+            }
+            if ("*".equals(name)) {
+                wildcard = acceptable;
+            }
+        }
+        return Boolean.TRUE.equals(wildcard);
+    }
+
+    private static double quality(final String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    private boolean isCompressible(final String contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        int parameters = contentType.indexOf(';');
+        String mimeType = parameters < 0 ? contentType : contentType.substring(0, parameters);
+        return mimeTypes.contains(mimeType.trim().toLowerCase(Locale.ROOT));
+    }
+
+    private enum State {
+        BUFFERING, UNCOMPRESSED, COMPRESSING
+    }
+
+    /**
+     * Holds back the start of the response until it is known whether it is large enough to be compressed.
+     */
+    private final class CompressingResponse extends HttpServletResponseWrapper {
+
+        private final byte[] buffer = new byte[minResponseSize];
+        private int buffered;
+        private State state = State.BUFFERING;
+        private long declaredLength = -1;
+
+        private ServletOutputStream outputStream;
+        private PrintWriter writer;
+        private CountingOutputStream target;
+        private GZIPOutputStream gzip;
+        private long bytesIn;
+
+        CompressingResponse(final HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (writer != null) {
+                throw new IllegalStateException("getWriter() has already been called for this response");
+            }
+            if (outputStream == null) {
+                outputStream = new CompressingOutputStream();
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (outputStream != null && writer == null) {
+                throw new IllegalStateException("getOutputStream() has already been called for this response");
+            }
+            if (writer == null) {
+                outputStream = new CompressingOutputStream();
+                writer = new PrintWriter(new OutputStreamWriter(outputStream, getCharacterEncoding()));
+            }
+            return writer;
+        }
+
+        @Override
+        public void setContentLength(final int length) {
+            setContentLengthLong(length);
+        }
+
+        @Override
+        public void setContentLengthLong(final long length) {
+            if (state == State.BUFFERING) {
+                declaredLength = length;
+                if (length < minResponseSize) {
+                    writeUncompressed();
+                }
+            } else if (state == State.UNCOMPRESSED) {
+                super.setContentLengthLong(length);
+            }
+        }
+
+        @Override
+        public void setHeader(final String name, final String value) {
+            if (!interceptHeader(name, value)) {
+                super.setHeader(name, value);
+            }
+        }
+
+        @Override
+        public void addHeader(final String name, final String value) {
+            if (!interceptHeader(name, value)) {
+                super.addHeader(name, value);
+            }
+        }
+
+        private boolean interceptHeader(final String name, final String value) {
+            if ("Content-Length".equalsIgnoreCase(name) && value != null) {
+                setContentLengthLong(Long.parseLong(value.trim()));
+                return true;
+            }
+            if ("Content-Encoding".equalsIgnoreCase(name) && state == State.BUFFERING) {
+                writeUncompressed();
+            }
+            return false;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            startStreaming();
+            if (gzip != null) {
+                gzip.flush();
+            }
+            super.flushBuffer();
+        }
+
+        @Override
+        public void resetBuffer() {
+            buffered = 0;
+            super.resetBuffer();
+        }
+
+        @Override
+        public void reset() {
+            buffered = 0;
+            declaredLength = -1;
+            super.reset();
+        }
+
+        void finish() throws IOException {
+            if (writer != null) {
+                writer.flush();
+            }
+            if (state == State.BUFFERING) {
+                writeUncompressed();
+                writeBuffered();
+            }
+            if (gzip != null) {
+                // Closing ends the deflater and frees its native memory even when the trailer can't be written, the response stays open
+                gzip.close();
+                metrics.compressed(bytesIn, target.count);
+            } else {
+                metrics.uncompressed();
+            }
+        }
+
+        private void write(final byte[] bytes, final int offset, final int length) throws IOException {
+            if (state == State.BUFFERING) {
+                if (buffered + length <= buffer.length) {
+                    System.arraycopy(bytes, offset, buffer, buffered, length);
+                    buffered += length;
+                    return;
+                }
+                startStreaming();
+            }
+            if (gzip != null) {
+                bytesIn += length;
+                gzip.write(bytes, offset, length);
+            } else {
+                super.getOutputStream().write(bytes, offset, length);
+            }
+        }
+
+        private void flush() throws IOException {
+            startStreaming();
+            if (gzip != null) {
+                gzip.flush();
+            } else {
+                super.getOutputStream().flush();
+            }
+        }
+
+        /**
+         * Decides how the response goes out once it can't be held back any longer, either because it outgrew the buffer or because it is
+         * being flushed.
+         */
+        private void startStreaming() throws IOException {
+            if (state != State.BUFFERING) {
+                return;
+            }
+            int status = getStatus();
+            if (isCommitted() || status == SC_NO_CONTENT || status == SC_NOT_MODIFIED || !isCompressible(getContentType())
+                || getHeader("Content-Encoding") != null) {
+                writeUncompressed();
+                writeBuffered();
+                return;
+            }
+            state = State.COMPRESSING;
+            super.setHeader("Content-Encoding", GZIP);
+            super.addHeader("Vary", "Accept-Encoding");
+            String etag = getHeader("ETag");
+            if (etag != null && !etag.startsWith("W/")) {
+                super.setHeader("ETag", "W/" + etag);
+            }
+            target = new CountingOutputStream(super.getOutputStream());
+            gzip = new GZIPOutputStream(target, Math.max(512, minResponseSize), true);
+            if (buffered > 0) {
+                bytesIn += buffered;
+                gzip.write(buffer, 0, buffered);
+            }
+        }
+
+        private void writeUncompressed() {
+            if (state == State.BUFFERING) {
+                state = State.UNCOMPRESSED;
+                if (declaredLength >= 0) {
+                    super.setContentLengthLong(declaredLength);
+                }
+            }
+        }
+
+        private void writeBuffered() throws IOException {
+            if (buffered > 0) {
+                super.getOutputStream().write(buffer, 0, buffered);
+                buffered = 0;
+            }
+        }
+
+        private final class CompressingOutputStream extends ServletOutputStream {
+
+            private final ServletOutputStream out;
+            private final byte[] single = new byte[1];
+
+            CompressingOutputStream() throws IOException {
+                out = CompressingResponse.super.getOutputStream();
+            }
+
+            @Override
+            public void write(final int b) throws IOException {
+                single[0] = (byte) b;
+                CompressingResponse.this.write(single, 0, 1);
+            }
+
+            @Override
+            public void write(final byte[] bytes, final int offset, final int length) throws IOException {
+                CompressingResponse.this.write(bytes, offset, length);
+            }
+
+            @Override
+            public void flush() throws IOException {
+                CompressingResponse.this.flush();
+            }
+
+            @Override
+            public boolean isReady() {
+                return state == State.BUFFERING || out.isReady();
+            }
+
+            /**
+             * Hands the listener to the container, after writing out what was held back while the response was still blocking.
+             */
+            @Override
+            public void setWriteListener(final WriteListener writeListener) {
+                if (state == State.BUFFERING) {
+                    writeUncompressed();
+                    try {
+                        writeBuffered();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                }
+                out.setWriteListener(writeListener);
+            }
+        }
+    }
+
+    /**
+     * Finishes a response once the asynchronous request writing it completes, rather than when the filter chain returns.
+     */
+    private static final class FinishingListener implements AsyncListener {
+
+        private final CompressingResponse response;
+
+        FinishingListener(final CompressingResponse response) {
+            this.response = response;
+        }
+
+        @Override
+        public void onComplete(final AsyncEvent event) throws IOException {
+            response.finish();
+        }
+
+        @Override
+        public void onTimeout(final AsyncEvent event) {
+        }
+
+        @Override
+        public void onError(final AsyncEvent event) {
+        }
+
+        @Override
+        public void onStartAsync(final AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+
+    /**
+     * Counts the compressed bytes on their way to the client, closing it doesn't close the response.
+     */
+    private static final class CountingOutputStream extends OutputStream {
+
+        private final OutputStream out;
+        private long count;
+
+        CountingOutputStream(final OutputStream out) {
+            this.out = out;
+        }
+
+        @Override
+        public void write(final int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(final byte[] bytes, final int offset, final int length) throws IOException {
+            out.write(bytes, offset, length);
+            count += length;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            out.flush();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package uk.co.paulpop.services.server;
+
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Counts requests by HTTP protocol version and the bytes saved by response compression, exposed on the actuator metrics endpoint as
+ * http.*.
+ */
+public class ConnectorMetrics implements PublicMetrics {
+
+    private final LongAdder http1Requests = new LongAdder();
+    private final LongAdder http2Streams = new LongAdder();
+    private final LongAdder activeHttp2Streams = new LongAdder();
+    private final LongAdder compressedResponses = new LongAdder();
+    private final LongAdder uncompressedResponses = new LongAdder();
+    private final LongAdder bytesBeforeCompression = new LongAdder();
+    private final LongAdder bytesAfterCompression = new LongAdder();
+
+    public void http1Request() {
+        http1Requests.increment();
+    }
+
+    public void http2StreamOpened() {
+        http2Streams.increment();
+        activeHttp2Streams.increment();
+    }
+
+    public void http2StreamClosed() {
+        activeHttp2Streams.decrement();
+    }
+
+    public void compressed(final long bytesIn, final long bytesOut) {
+        compressedResponses.increment();
+        bytesBeforeCompression.add(bytesIn);
+        bytesAfterCompression.add(bytesOut);
+    }
+
+    public void uncompressed() {
+        uncompressedResponses.increment();
+    }
+
+    public long getBytesSaved() {
+        return bytesBeforeCompression.sum() - bytesAfterCompression.sum();
+    }
+
+    @Override
+    public Collection<Metric<?>> metrics() {
+        return Arrays.asList(
+            new Metric<>("http.requests.http1", http1Requests.sum()),
+            new Metric<>("http.requests.http2", http2Streams.sum()),
+            new Metric<>("http.streams.active", activeHttp2Streams.sum()),
+            new Metric<>("http.compression.compressed", compressedResponses.sum()),
+            new Metric<>("http.compression.uncompressed", uncompressedResponses.sum()),
+            new Metric<>("http.compression.bytes.in", bytesBeforeCompression.sum()),
+            new Metric<>("http.compression.bytes.out", bytesAfterCompression.sum()),
+            new Metric<>("http.compression.bytes.saved", getBytesSaved()));
+    }
+}
@@ -0,0 +1,35 @@
+package uk.co.paulpop.services.server;
+
+import org.apache.catalina.connector.Connector;
+import org.apache.coyote.Request;
+import org.apache.coyote.http2.Http2Protocol;
+import org.springframework.boot.context.embedded.tomcat.TomcatConnectorCustomizer;
+
+/**
+ * Adds HTTP/2 as an upgrade protocol of Tomcat's connector. Without TLS, clients either send an h2c upgrade or start with the HTTP/2
+ * preface, so every request of a connection is multiplexed as its own stream. Upgrades are only accepted on requests without a body: Tomcat
+ * 8.5 drops the connection when upgrading one that has a body, so those are answered over HTTP/1.1 instead.
+ */
+public class Http2ConnectorCustomizer implements TomcatConnectorCustomizer {
+
+    private final int maxConcurrentStreams;
+
+    public Http2ConnectorCustomizer(final int maxConcurrentStreams) {
+        this.maxConcurrentStreams = maxConcurrentStreams;
+    }
+
+    @Override
+    public void customize(final Connector connector) {
+        Http2Protocol http2 = new BodilessUpgradeHttp2Protocol();
+        http2.setMaxConcurrentStreams(maxConcurrentStreams);
+        connector.addUpgradeProtocol(http2);
+    }
+
+    private static final class BodilessUpgradeHttp2Protocol extends Http2Protocol {
+
+        @Override
+        public boolean accept(final Request request) {
+            return request.getContentLengthLong() <= 0 && request.getHeader("Transfer-Encoding") == null && super.accept(request);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package uk.co.paulpop.services.server;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Configuration for the HTTP protocols and response compression of the embedded Tomcat.
+ */
+@Data
+@ConfigurationProperties("service.http")
+public class HttpProperties {
+
+    private final Http2 http2 = new Http2();
+
+    private final Compression compression = new Compression();
+
+    @Data
+    public static class Http2 {
+
+        /**
+         * Whether connections can be upgraded to HTTP/2, in clear text (h2c) unless the connector uses TLS.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Maximum number of streams a single HTTP/2 connection can have open at a time.
+         */
+        private int maxConcurrentStreams = 100;
+
+    }
+
+    @Data
+    public static class Compression {
+
+        /**
+         * Whether responses are gzip compressed for clients sending a matching Accept-Encoding.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Responses smaller than this, in bytes, are always written uncompressed.
+         */
+        private int minResponseSize = 1024;
+
+        /**
+         * Content types that are worth compressing, parameters such as the charset are ignored.
+         */
+        private List<String> mimeTypes = Arrays.asList("application/json", "application/x-ndjson", "application/javascript",
+            "application/xml", "text/html", "text/css", "text/plain", "text/javascript", "image/svg+xml");
+
+    }
+}
@@ -0,0 +1,40 @@
+package uk.co.paulpop.services.server;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+
+/**
+ * Counts requests by protocol version. Tomcat serves every HTTP/2 stream as a request with the HTTP/2.0 protocol, so the requests in flight
+ * over HTTP/2 are the open streams.
+ */
+public class ProtocolMetricsFilter extends OncePerRequestFilter {
+
+    private static final String HTTP_2 = "HTTP/2.0";
+
+    private final ConnectorMetrics metrics;
+
+    public ProtocolMetricsFilter(final ConnectorMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response, final FilterChain chain)
+        throws ServletException, IOException {
+        if (!HTTP_2.equals(request.getProtocol())) {
+            metrics.http1Request();
+            chain.doFilter(request, response);
+            return;
+        }
+        metrics.http2StreamOpened();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            metrics.http2StreamClosed();
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package uk.co.paulpop.services.server;
+
+import org.apache.catalina.connector.Connector;
+import org.apache.coyote.AbstractProtocol;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.boot.context.embedded.tomcat.TomcatConnectorCustomizer;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Replaces the platform thread pool of Tomcat's connector with an executor starting a virtual thread per request, so the number of requests
+ * in flight is no longer capped by server.tomcat.max-threads. Tomcat's acceptor and poller keep running on platform threads.
+ */
+public class VirtualThreadExecutorCustomizer implements TomcatConnectorCustomizer, DisposableBean {
+
+    private final ExecutorService executor = Executors.newThreadPerTaskExecutor(Thread.ofVirtual()
+        .name("http-vt-", 0)
+        .factory());
+
+    @Override
+    public void customize(final Connector connector) {
+        ((AbstractProtocol<?>) connector.getProtocolHandler()).setExecutor(executor);
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdown();
+    }
+}
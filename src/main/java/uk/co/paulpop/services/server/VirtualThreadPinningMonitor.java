@@ -0,0 +1,122 @@
+package uk.co.paulpop.services.server;
+
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Streams the JFR {@code jdk.VirtualThreadPinned} events of this JVM, which are raised when a virtual thread blocks while it cannot unmount
+ * from its carrier, typically inside a synchronized block such as a synchronized logback appender. Every pinning is counted, and the first
+ * pinning at each code location is logged with its stack trace.
+ */
+public class VirtualThreadPinningMonitor implements SmartLifecycle, PublicMetrics {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final int MAXIMUM_LOGGED_LOCATIONS = 1000;
+    private static final int LOGGED_FRAMES = 8;
+    private static final String VIRTUAL_THREAD_CLASS = "java.lang.VirtualThread.";
+
+    private final Duration threshold;
+    private final LongAdder pinned = new LongAdder();
+    private final Set<String> loggedLocations = ConcurrentHashMap.newKeySet();
+
+    private volatile RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(final Duration threshold) {
+        this.threshold = threshold;
+    }
+
+    @Override
+    public void start() {
+        RecordingStream recording = new RecordingStream();
+        recording.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recording.onEvent(PINNED_EVENT, this::onPinned);
+        recording.startAsync();
+        stream = recording;
+    }
+
+    @Override
+    public void stop() {
+        RecordingStream recording = stream;
+        if (recording != null) {
+            recording.close();
+            stream = null;
+        }
+    }
+
+    @Override
+    public void stop(final Runnable callback) {
+        stop();
+        callback.run();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return stream != null;
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return true;
+    }
+
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+
+    @Override
+    public Collection<Metric<?>> metrics() {
+        return Collections.singletonList(new Metric<>("virtual-threads.pinned", pinned.sum()));
+    }
+
+    /**
+     * @return the number of pinnings seen since the monitor started
+     */
+    public long getPinnedCount() {
+        return pinned.sum();
+    }
+
+    private void onPinned(final RecordedEvent event) {
+        pinned.increment();
+
+        List<String> frames = frames(event.getStackTrace());
+        String location = frames.stream()
+            .filter(frame -> !frame.startsWith("java.") && !frame.startsWith("jdk.") && !frame.startsWith("sun."))
+            .findFirst()
+            .orElse(frames.isEmpty() ? "unknown" : frames.get(0));
+        if (loggedLocations.size() < MAXIMUM_LOGGED_LOCATIONS && loggedLocations.add(location)) {
+            LOGGER.warn("Virtual thread pinned its carrier for {} ms at\n\t{}", event.getDuration().toMillis(), String.join("\n\t", frames));
+        }
+    }
+
+    private static List<String> frames(final RecordedStackTrace stackTrace) {
+        if (stackTrace == null) {
+            return Collections.emptyList();
+        }
+        return stackTrace.getFrames().stream()
+            .filter(RecordedFrame::isJavaFrame)
+            .map(frame -> frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber())
+            // The parking frames of the virtual thread itself are the same for every pinning
+            .filter(frame -> !frame.startsWith(VIRTUAL_THREAD_CLASS))
+            .limit(LOGGED_FRAMES)
+            .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,23 @@
+package uk.co.paulpop.services.server;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration for running servlet requests on virtual threads.
+ */
+@Data
+@ConfigurationProperties("service.virtual-threads")
+public class VirtualThreadsProperties {
+
+    /**
+     * Whether Tomcat hands requests to a virtual thread each instead of its platform thread pool.
+     */
+    private boolean enabled;
+
+    /**
+     * Minimum time a virtual thread has to pin its carrier thread for the pinning to be logged and counted.
+     */
+    private long pinnedThresholdMillis = 20;
+
+}
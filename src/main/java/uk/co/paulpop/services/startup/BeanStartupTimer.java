@@ -0,0 +1,80 @@
+package uk.co.paulpop.services.startup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.InstantiationAwareBeanPostProcessorAdapter;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+
+import java.lang.management.ManagementFactory;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records how long every bean takes from instantiation until it is fully initialised, including the beans it depends on, and how long the
+ * JVM took to get the application ready. The slowest beans are logged once the application is ready.
+ */
+public class BeanStartupTimer extends InstantiationAwareBeanPostProcessorAdapter implements ApplicationListener<ApplicationReadyEvent> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(BeanStartupTimer.class);
+    private static final int LOGGED_BEANS = 10;
+
+    private final ConcurrentMap<String, Long> started = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Long> durations = new ConcurrentHashMap<>();
+    private volatile long readyMillis = -1;
+
+    @Override
+    public Object postProcessBeforeInstantiation(final Class<?> beanClass, final String beanName) {
+        if (beanName != null) {
+            started.putIfAbsent(beanName, System.nanoTime());
+        }
+        return null;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+        Long start = beanName == null ? null : started.remove(beanName);
+        if (start != null) {
+            durations.put(beanName, System.nanoTime() - start);
+        }
+        return bean;
+    }
+
+    @Override
+    public void onApplicationEvent(final ApplicationReadyEvent event) {
+        readyMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+        LOGGER.info("Application ready {} ms after the JVM started, slowest beans: {}", readyMillis, slowest(LOGGED_BEANS));
+    }
+
+    /**
+     * @return how long after the JVM started the application was ready, or -1 if it is not ready yet
+     */
+    public long getReadyMillis() {
+        return readyMillis;
+    }
+
+    /**
+     * @param limit the maximum number of beans to return
+     * @return the slowest beans and their initialisation time in milliseconds, slowest first
+     */
+    public Map<String, Long> slowest(final int limit) {
+        Map<String, Long> slowest = new LinkedHashMap<>();
+        durations.entrySet().stream()
+            .sorted(Collections.reverseOrder(Comparator.comparingLong(Map.Entry::getValue)))
+            .limit(limit)
+            .forEach(e -> slowest.put(e.getKey(), TimeUnit.NANOSECONDS.toMillis(e.getValue())));
+        return slowest;
+    }
+
+    /**
+     * @return the number of beans timed
+     */
+    public int getBeanCount() {
+        return durations.size();
+    }
+}
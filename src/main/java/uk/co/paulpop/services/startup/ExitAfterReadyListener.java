@@ -0,0 +1,22 @@
+package uk.co.paulpop.services.startup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+
+/**
+ * Shuts the application down as soon as it is ready. Used for a training run that records the classes loaded during start up into a class
+ * data sharing archive, which the JVM only writes when it exits.
+ */
+public class ExitAfterReadyListener implements ApplicationListener<ApplicationReadyEvent> {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ExitAfterReadyListener.class);
+
+    @Override
+    public void onApplicationEvent(final ApplicationReadyEvent event) {
+        LOGGER.info("Application ready, exiting as requested by service.startup.exit-after-ready");
+        System.exit(SpringApplication.exit(event.getApplicationContext()));
+    }
+}
@@ -0,0 +1,63 @@
+package uk.co.paulpop.services.startup;
+
+import org.springframework.web.filter.OncePerRequestFilter;
+import springfox.documentation.spring.web.plugins.DocumentationPluginsBootstrapper;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Scans the API for the Swagger documentation on the first request for it, instead of during start up. Only used when
+ * springfox.documentation.auto-startup is false.
+ */
+public class LazySwaggerBootstrapFilter extends OncePerRequestFilter {
+
+    private static final String[] DOCUMENTATION_PATHS = {"/v2/api-docs", "/swagger-resources", "/swagger-ui.html"};
+
+    private final DocumentationPluginsBootstrapper bootstrapper;
+    private final ReentrantLock lock = new ReentrantLock();
+    private volatile boolean started;
+
+    public LazySwaggerBootstrapFilter(final DocumentationPluginsBootstrapper bootstrapper) {
+        this.bootstrapper = bootstrapper;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(final HttpServletRequest request) {
+        return started || !isDocumentationRequest(request.getRequestURI().substring(request.getContextPath().length()));
+    }
+
+    @Override
+    protected void doFilterInternal(final HttpServletRequest request, final HttpServletResponse response, final FilterChain chain)
+        throws ServletException, IOException {
+        bootstrap();
+        chain.doFilter(request, response);
+    }
+
+    private void bootstrap() {
+        lock.lock();
+        try {
+            if (!started) {
+                if (!bootstrapper.isRunning()) {
+                    bootstrapper.start();
+                }
+                started = true;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private static boolean isDocumentationRequest(final String path) {
+        for (String documentationPath : DOCUMENTATION_PATHS) {
+            if (path.startsWith(documentationPath)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,32 @@
+package uk.co.paulpop.services.startup;
+
+import org.springframework.boot.actuate.endpoint.AbstractEndpoint;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Actuator endpoint exposing the start up timings recorded by {@link BeanStartupTimer}.
+ */
+@ConfigurationProperties(prefix = "endpoints.startup")
+public class StartupEndpoint extends AbstractEndpoint<Map<String, Object>> {
+
+    private static final int SLOWEST_BEANS = 50;
+
+    private final BeanStartupTimer timer;
+
+    public StartupEndpoint(final BeanStartupTimer timer) {
+        super("startup", true);
+        this.timer = timer;
+    }
+
+    @Override
+    public Map<String, Object> invoke() {
+        Map<String, Object> startup = new LinkedHashMap<>();
+        startup.put("readyMillis", timer.getReadyMillis());
+        startup.put("beans", timer.getBeanCount());
+        startup.put("slowestBeansMillis", timer.slowest(SLOWEST_BEANS));
+        return startup;
+    }
+}
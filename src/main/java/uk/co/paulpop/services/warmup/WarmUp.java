@@ -0,0 +1,233 @@
+package uk.co.paulpop.services.warmup;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationListener;
+import org.springframework.core.env.Environment;
+import org.springframework.web.context.request.WebRequest;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Replays a synthetic workload through the embedded server once the application is ready, so the request paths are compiled before the
+ * {@link WarmUpHealthIndicator} lets the service take traffic. The requests go over loopback HTTP through the same filters, dispatcher and
+ * exception handler as client requests, and carry a per-process token so the controller doesn't record their synthetic names. Warm-up is
+ * followed by a measurement phase whose latencies are reported on the actuator.
+ */
+public class WarmUp implements ApplicationListener<ApplicationReadyEvent> {
+
+    public static final String HEADER = "X-Warm-Up";
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(WarmUp.class);
+    private static final String NAME = "{name}";
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    enum State {
+        PENDING, WARMING_UP, MEASURING, DONE
+    }
+
+    private final WarmUpProperties properties;
+    private final WarmUpRequest[] schedule;
+    private final String token = UUID.randomUUID().toString();
+    private final LongAdder requests = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    private volatile State state = State.PENDING;
+    private volatile long durationMillis = -1;
+    private volatile Histogram measured;
+    private volatile String lastFailure;
+
+    public WarmUp(final WarmUpProperties properties) {
+        this.properties = properties;
+        this.schedule = schedule(properties.getRequests().isEmpty() ? WarmUpProperties.defaultRequests() : properties.getRequests());
+    }
+
+    @Override
+    public void onApplicationEvent(final ApplicationReadyEvent event) {
+        Environment environment = event.getApplicationContext().getEnvironment();
+        Integer port = environment.getProperty("local.server.port", Integer.class);
+        if (port == null || port <= 0 || state != State.PENDING) {
+            state = State.DONE;
+            return;
+        }
+        String host = environment.getProperty("server.address", "localhost");
+        Thread thread = new Thread(() -> run(host, port), "warm-up");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    /**
+     * Whether the given request was sent by the warm-up. Only a single volatile read once warm-up is done.
+     */
+    public boolean isWarmUpRequest(final WebRequest request) {
+        return state != State.DONE && token.equals(request.getHeader(HEADER));
+    }
+
+    /**
+     * Same as {@link #isWarmUpRequest(WebRequest)}, for filters running ahead of the dispatcher
+     */
+    public boolean isWarmUpRequest(final HttpServletRequest request) {
+        return state != State.DONE && token.equals(request.getHeader(HEADER));
+    }
+
+    /**
+     * @return whether warm-up has finished, successfully or not
+     */
+    public boolean isDone() {
+        return state == State.DONE;
+    }
+
+    /**
+     * @return the state of the warm-up, its duration and the latencies of the measurement phase
+     */
+    public Map<String, Object> report() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("state", state.name());
+        report.put("durationMillis", durationMillis);
+        report.put("requests", requests.sum());
+        report.put("failures", failures.sum());
+        Histogram histogram = measured;
+        if (histogram != null) {
+            report.put("measuredRequests", histogram.getTotalCount());
+            report.put("p50Micros", histogram.getValueAtPercentile(50));
+            report.put("p99Micros", histogram.getValueAtPercentile(99));
+            report.put("maxMicros", histogram.getMaxValue());
+        }
+        if (lastFailure != null) {
+            report.put("lastFailure", lastFailure);
+        }
+        return report;
+    }
+
+    void run(final String host, final int port) {
+        try {
+            long start = System.nanoTime();
+            state = State.WARMING_UP;
+            long budget = properties.getBudgetMillis();
+            long deadline = budget > 0 ? start + TimeUnit.MILLISECONDS.toNanos(budget) : Long.MAX_VALUE;
+            replay(host, port, properties.getIterations(), deadline, null);
+            durationMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+            state = State.MEASURING;
+            Recorder recorder = new Recorder(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+            replay(host, port, properties.getMeasurementIterations(), Long.MAX_VALUE, recorder);
+            measured = recorder.getIntervalHistogram();
+
+            LOGGER.info("Warmed up with {} requests in {} ms, {} failed; afterwards p50 was {} and p99 {} microseconds", requests.sum(),
+                durationMillis, failures.sum(), measured.getValueAtPercentile(50), measured.getValueAtPercentile(99));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            state = State.DONE;
+        }
+    }
+
+    private void replay(final String host, final int port, final int iterations, final long deadline, final Recorder recorder)
+        throws InterruptedException {
+        AtomicInteger next = new AtomicInteger();
+        List<Thread> threads = new ArrayList<>();
+        for (int i = 0; i < Math.max(1, properties.getThreads()); i++) {
+            Thread thread = new Thread(() -> {
+                int iteration;
+                while ((iteration = next.getAndIncrement()) < iterations && System.nanoTime() < deadline) {
+                    send(host, port, schedule[iteration % schedule.length], iteration, recorder);
+                }
+            }, "warm-up-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            threads.add(thread);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+    }
+
+    private void send(final String host, final int port, final WarmUpRequest request, final int iteration, final Recorder recorder) {
+        String name = "warm-up-" + iteration % Math.max(1, properties.getDistinctNames());
+        long start = System.nanoTime();
+        try {
+            HttpURLConnection connection = (HttpURLConnection) new URL("http", host, port, request.getPath().replace(NAME, name))
+                .openConnection();
+            connection.setRequestMethod(request.getMethod());
+            connection.setConnectTimeout(properties.getTimeoutMillis());
+            connection.setReadTimeout(properties.getTimeoutMillis());
+            connection.setRequestProperty(HEADER, token);
+            request.getHeaders().forEach(connection::setRequestProperty);
+            if (request.getBody() != null) {
+                connection.setDoOutput(true);
+                try (OutputStream out = connection.getOutputStream()) {
+                    out.write(request.getBody().replace(NAME, name).getBytes(UTF_8));
+                }
+            }
+            int status = connection.getResponseCode();
+            drain(status >= 400 ? connection.getErrorStream() : connection.getInputStream());
+            if (recorder != null) {
+                recorder.recordValue(Math.min(TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - start), HIGHEST_TRACKABLE_MICROS));
+            }
+            if (status != request.getExpectedStatus()) {
+                fail(request.getMethod() + " " + request.getPath() + " returned " + status + " rather than " + request.getExpectedStatus());
+            }
+        } catch (IOException | RuntimeException e) {
+            fail(request.getMethod() + " " + request.getPath() + " failed: " + e);
+        }
+        requests.increment();
+    }
+
+    private void fail(final String failure) {
+        failures.increment();
+        lastFailure = failure;
+    }
+
+    /**
+     * Reads the whole response, so the connection is kept alive for the next request
+     */
+    private static void drain(final InputStream in) throws IOException {
+        if (in == null) {
+            return;
+        }
+        try (InputStream body = in) {
+            byte[] buffer = new byte[4096];
+            while (body.read(buffer) >= 0) {
+                // Discarded
+            }
+        }
+    }
+
+    /**
+     * Lays the requests out by weight, interleaved so every stretch of the schedule mixes them
+     */
+    private static WarmUpRequest[] schedule(final List<WarmUpRequest> requests) {
+        List<WarmUpRequest> schedule = new ArrayList<>();
+        int maximumWeight = requests.stream().mapToInt(WarmUpRequest::getWeight).max().orElse(0);
+        for (int round = 0; round < maximumWeight; round++) {
+            for (WarmUpRequest request : requests) {
+                if (round < request.getWeight()) {
+                    schedule.add(request);
+                }
+            }
+        }
+        if (schedule.isEmpty()) {
+            throw new IllegalArgumentException("The warm-up needs at least one request with a positive weight");
+        }
+        return schedule.toArray(new WarmUpRequest[0]);
+    }
+}
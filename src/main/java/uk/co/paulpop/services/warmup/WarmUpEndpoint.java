@@ -0,0 +1,25 @@
+package uk.co.paulpop.services.warmup;
+
+import org.springframework.boot.actuate.endpoint.AbstractEndpoint;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.Map;
+
+/**
+ * Actuator endpoint exposing the duration of the {@link WarmUp} and the latencies measured after it.
+ */
+@ConfigurationProperties(prefix = "endpoints.warmup")
+public class WarmUpEndpoint extends AbstractEndpoint<Map<String, Object>> {
+
+    private final WarmUp warmUp;
+
+    public WarmUpEndpoint(final WarmUp warmUp) {
+        super("warmup", true);
+        this.warmUp = warmUp;
+    }
+
+    @Override
+    public Map<String, Object> invoke() {
+        return warmUp.report();
+    }
+}
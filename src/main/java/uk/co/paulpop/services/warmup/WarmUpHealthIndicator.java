@@ -0,0 +1,26 @@
+package uk.co.paulpop.services.warmup;
+
+import org.springframework.boot.actuate.health.AbstractHealthIndicator;
+import org.springframework.boot.actuate.health.Health;
+
+/**
+ * Reports the service out of service until the {@link WarmUp} is done, so health checks only let it take traffic once it is warm.
+ */
+public class WarmUpHealthIndicator extends AbstractHealthIndicator {
+
+    private final WarmUp warmUp;
+
+    public WarmUpHealthIndicator(final WarmUp warmUp) {
+        this.warmUp = warmUp;
+    }
+
+    @Override
+    protected void doHealthCheck(final Health.Builder builder) {
+        if (warmUp.isDone()) {
+            builder.up();
+        } else {
+            builder.outOfService();
+        }
+        warmUp.report().forEach(builder::withDetail);
+    }
+}
@@ -0,0 +1,43 @@
+package uk.co.paulpop.services.warmup;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Warm-up configuration properties. Warm-up stops after {@code iterations} requests or {@code budgetMillis}, whichever comes first, and
+ * is followed by {@code measurementIterations} requests timed to report the latency the service starts taking traffic with. Without any
+ * configured {@code requests} the {@link #defaultRequests() default workload} is replayed.
+ */
+@Data
+@ConfigurationProperties(prefix = "service.warm-up")
+public class WarmUpProperties {
+
+    private boolean enabled = true;
+    private int iterations = 20000;
+    private long budgetMillis = 15000;
+    private int measurementIterations = 2000;
+    private int threads = 2;
+    private int distinctNames = 256;
+    private int timeoutMillis = 2000;
+    private List<WarmUpRequest> requests = new ArrayList<>();
+
+    /**
+     * The default workload: mostly greetings, with the counts, a batch and the errors the {@code HttpExceptionHandler} returns most
+     */
+    static List<WarmUpRequest> defaultRequests() {
+        WarmUpRequest batch = new WarmUpRequest("POST", "/api/batch", 200, 1);
+        batch.getHeaders().put("Content-Type", "application/json");
+        batch.getHeaders().put("Accept-Encoding", "gzip");
+        batch.setBody("[\"{name}\",\"\",\"{name}\",42,\"{name}\"]");
+        return Arrays.asList(
+            new WarmUpRequest("GET", "/api/{name}", 200, 16),
+            new WarmUpRequest("GET", "/api/{name}/count", 200, 2),
+            batch,
+            new WarmUpRequest("GET", "/api/%FF{name}", 400, 1),
+            new WarmUpRequest("DELETE", "/api/{name}", 400, 1));
+    }
+}
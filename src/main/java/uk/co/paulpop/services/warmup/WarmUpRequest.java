@@ -0,0 +1,29 @@
+package uk.co.paulpop.services.warmup;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * A request replayed during warm-up. Every {@code {name}} in the path and body is replaced by one of the synthetic warm-up names.
+ */
+@Data
+@NoArgsConstructor
+public class WarmUpRequest {
+
+    private String method = "GET";
+    private String path;
+    private Map<String, String> headers = new LinkedHashMap<>();
+    private String body;
+    private int expectedStatus = 200;
+    private int weight = 1;
+
+    WarmUpRequest(final String method, final String path, final int expectedStatus, final int weight) {
+        this.method = method;
+        this.path = path;
+        this.expectedStatus = expectedStatus;
+        this.weight = weight;
+    }
+}
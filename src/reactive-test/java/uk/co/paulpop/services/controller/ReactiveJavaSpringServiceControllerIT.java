@@ -0,0 +1,27 @@
+package uk.co.paulpop.services.controller;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import uk.co.paulpop.services.JavaSpringServiceApplication;
+
+/**
+ * Runs every test of {@link JavaSpringServiceControllerIT} against the reactive runtime, which publishes its port as local.server.port like
+ * the servlet container does. The context isn't a web application, so the rest template isn't registered by the test framework.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+    classes = {JavaSpringServiceApplication.class, ReactiveJavaSpringServiceControllerIT.RestTemplateConfig.class},
+    properties = {"service.runtime=reactive", "server.port=0"})
+public class ReactiveJavaSpringServiceControllerIT extends JavaSpringServiceControllerIT {
+
+    @TestConfiguration
+    static class RestTemplateConfig {
+
+        @Bean
+        public TestRestTemplate testRestTemplate(final RestTemplateBuilder restTemplateBuilder) {
+            return new TestRestTemplate(restTemplateBuilder);
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package uk.co.paulpop.services.load;
+
+import io.netty.util.internal.PlatformDependent;
+import org.junit.Assume;
+import org.junit.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import uk.co.paulpop.services.JavaSpringServiceApplication;
+import uk.co.paulpop.services.ServiceRuntime;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.lang.management.BufferPoolMXBean;
+import java.lang.management.ManagementFactory;
+import java.net.Socket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+
+/**
+ * Compares the servlet and the reactive runtime while they hold load.comparison.connections idle keep-alive connections, each of which has
+ * been served one greeting: the memory the connections take, scaled to 10k connections, and the p99 latency of greetings sent at a
+ * constant rate meanwhile. Both runtimes run in this JVM one after the other, so the memory includes the client side of the connections,
+ * which is the same for both. Skipped unless load.comparison.connections is set, since holding 10k connections needs the open files limit
+ * raised well past the usual default.
+ */
+public class RuntimeComparisonIT {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RuntimeComparisonIT.class);
+
+    private static final int NAMES = 1024;
+    private static final int PER_CONNECTIONS = 10_000;
+    private static final double BYTES_PER_MEGABYTE = 1024 * 1024;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+
+    @Test
+    public void servletAndReactive_holdConnectionsWhileServingGreetings() throws Exception {
+        int connections = (int) setting("load.comparison.connections", 0);
+        Assume.assumeTrue("Set load.comparison.connections to compare the runtimes", connections > 0);
+        Path reports = Paths.get(System.getProperty("load.report-directory", "target/load-test"), "runtime-comparison");
+
+        List<String> summary = new ArrayList<>();
+        for (ServiceRuntime runtime : ServiceRuntime.values()) {
+            try (ConfigurableApplicationContext context = start(runtime, connections)) {
+                int port = context.getEnvironment().getProperty("local.server.port", Integer.class);
+                Measurement measurement = measure(port, connections);
+                measurement.result.writeReports(reports.resolve(runtime.name().toLowerCase()));
+                summary.add(String.format("%-8s p99=%.3fms max=%.3fms heap=%.1fMB direct=%.1fMB per %d connections", runtime,
+                    LoadResult.millis(measurement.result.corrected(LoadResult.OVERALL).getValueAtPercentile(99)),
+                    LoadResult.millis(measurement.result.corrected(LoadResult.OVERALL).getMaxValue()),
+                    measurement.heapBytes * PER_CONNECTIONS / connections / BYTES_PER_MEGABYTE,
+                    measurement.directBytes * PER_CONNECTIONS / connections / BYTES_PER_MEGABYTE, PER_CONNECTIONS));
+
+                assertThat(runtime + " failed requests", measurement.result.failed(), equalTo(0L));
+                assertThat(runtime + " unexpected responses", measurement.result.unexpected(), equalTo(0L));
+            }
+        }
+        LOGGER.info("Runtimes holding {} connections:\n{}", connections, String.join("\n", summary));
+    }
+
+    /**
+     * Starts the service the way the main method does, on a free port and without the rate limit, which would throttle a single client
+     */
+    private static ConfigurableApplicationContext start(final ServiceRuntime runtime, final int connections) {
+        return new SpringApplicationBuilder(JavaSpringServiceApplication.class)
+            .web(runtime == ServiceRuntime.SERVLET)
+            .run("--" + ServiceRuntime.PROPERTY + "=" + runtime.name().toLowerCase(),
+                "--server.port=0",
+                "--service.rate-limit.enabled=false",
+                "--service.grpc.enabled=false",
+                // Tomcat closes idle connections after the connection timeout and stops accepting past its maximum
+                "--server.connection-timeout=" + Duration.ofMinutes(10).toMillis(),
+                "--server.tomcat.max-connections=" + (connections + (int) setting("load.max-in-flight", 256) * 2));
+    }
+
+    private static Measurement measure(final int port, final int connections) throws InterruptedException, IOException {
+        HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(REQUEST_TIMEOUT)
+            .build();
+        ConstantRateLoadGenerator generator =
+            new ConstantRateLoadGenerator(client, setting("load.requests-per-second", 200), (int) setting("load.max-in-flight", 256));
+        List<LoadRequest> mix = Collections.singletonList(new LoadRequest("greeting", 1, 200,
+            i -> HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/name" + i % NAMES))
+                .timeout(REQUEST_TIMEOUT)
+                .header("Accept", APPLICATION_JSON_VALUE)
+                .GET()
+                .build()));
+
+        generator.run(mix, Duration.ofSeconds((long) setting("load.warm-up-seconds", 5)), REQUEST_TIMEOUT);
+        long heap = usedHeap();
+        long direct = usedDirect();
+        List<Socket> idle = new ArrayList<>(connections);
+        try {
+            open(port, connections, idle);
+            long heldHeap = usedHeap() - heap;
+            long heldDirect = usedDirect() - direct;
+            LoadResult result = generator.run(mix, Duration.ofSeconds((long) setting("load.duration-seconds", 10)), REQUEST_TIMEOUT);
+            return new Measurement(result, heldHeap, heldDirect);
+        } finally {
+            for (Socket socket : idle) {
+                socket.close();
+            }
+        }
+    }
+
+    /**
+     * Opens the connections and sends a greeting on each without reading the response, which fits in the socket buffers, so every
+     * connection has been served once and is then left idle
+     */
+    private static void open(final int port, final int connections, final List<Socket> idle) throws IOException {
+        for (int i = 0; i < connections; i++) {
+            Socket socket;
+            try {
+                socket = new Socket("localhost", port);
+            } catch (IOException e) {
+                throw new IllegalStateException("Opened " + i + " of " + connections + " connections, raise the open files limit", e);
+            }
+            idle.add(socket);
+            OutputStream out = socket.getOutputStream();
+            out.write(("GET /api/idle" + i % NAMES + " HTTP/1.1\r\nHost: localhost\r\nAccept: " + APPLICATION_JSON_VALUE + "\r\n\r\n")
+                .getBytes(UTF_8));
+            out.flush();
+        }
+    }
+
+    private static long usedHeap() {
+        System.gc();
+        System.gc();
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+
+    /**
+     * Direct buffers of the JDK, which the servlet container's NIO connector uses, plus the ones Netty allocates without a cleaner
+     */
+    private static long usedDirect() {
+        long used = Math.max(PlatformDependent.usedDirectMemory(), 0);
+        for (BufferPoolMXBean pool : ManagementFactory.getPlatformMXBeans(BufferPoolMXBean.class)) {
+            if ("direct".equals(pool.getName())) {
+                used += pool.getMemoryUsed();
+            }
+        }
+        return used;
+    }
+
+    private static double setting(final String name, final double defaultValue) {
+        String value = System.getProperty(name);
+        return value == null || value.isEmpty() ? defaultValue : Double.parseDouble(value);
+    }
+
+    private static final class Measurement {
+
+        private final LoadResult result;
+        private final long heapBytes;
+        private final long directBytes;
+
+        Measurement(final LoadResult result, final long heapBytes, final long directBytes) {
+            this.result = result;
+            this.heapBytes = heapBytes;
+            this.directBytes = directBytes;
+        }
+    }
+}
@@ -0,0 +1,163 @@
+package uk.co.paulpop.services.reactive;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.boot.actuate.endpoint.HealthEndpoint;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.OrderedHealthAggregator;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.util.StreamUtils;
+import uk.co.paulpop.services.exception.handler.HttpExceptionHandler;
+import uk.co.paulpop.services.exception.handler.HttpExceptionResponses;
+import uk.co.paulpop.services.exception.handler.SampledErrorLogger;
+import uk.co.paulpop.services.greeting.BatchGreetingWriter;
+import uk.co.paulpop.services.greeting.GreetingTemplate;
+import uk.co.paulpop.services.greeting.cache.LruGreetingCache;
+import uk.co.paulpop.services.greeting.frequency.NameFrequencyIndex;
+import uk.co.paulpop.services.greeting.store.InMemoryGreetingStore;
+import uk.co.paulpop.services.metrics.HttpStatusCounters;
+import uk.co.paulpop.services.routing.NamePathDecoder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.util.Collections;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+
+public class ReactiveGreetingServerTest {
+
+    private final NameFrequencyIndex nameFrequencyIndex = new NameFrequencyIndex(16, 1024, 1, 64, 4, 4);
+    private final InMemoryGreetingStore greetingStore = new InMemoryGreetingStore(nameFrequencyIndex);
+    private final HttpStatusCounters statusCounters = new HttpStatusCounters();
+
+    private ReactiveGreetingServer server;
+
+    @Before
+    public void setUp() {
+        GreetingTemplate template = GreetingTemplate.compile("Hello {name}");
+        HttpExceptionResponses responses = new HttpExceptionResponses(16);
+        server = new ReactiveGreetingServer("localhost", 0, template, new LruGreetingCache(1024), greetingStore,
+            new BatchGreetingWriter(template, Jackson2ObjectMapperBuilder.json().build(), greetingStore, 2),
+            new NamePathDecoder(256, UTF_8),
+            new ReactiveHttpExceptionHandler(new HttpExceptionHandler(statusCounters, responses, new SampledErrorLogger(0)), responses),
+            new HealthEndpoint(new OrderedHealthAggregator(), Collections.singletonMap("test", () -> Health.up().build())));
+        server.start();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop();
+    }
+
+    @Test
+    public void whenGetIsCalledWithMultiWordPathParam_thenReturnHello() throws IOException {
+        HttpURLConnection connection = open("GET", "/api/Paul%20Pop");
+
+        assertThat(connection.getResponseCode(), equalTo(200));
+        assertThat(connection.getContentType(), equalTo("application/json;charset=UTF-8"));
+        assertThat(connection.getHeaderField("ETag"), notNullValue());
+        assertThat(body(connection.getInputStream()), equalTo("{\"message\":\"Hello Paul Pop\"}"));
+        assertThat(greetingStore.count("Paul Pop"), equalTo(1L));
+        assertThat(nameFrequencyIndex.count("Paul Pop").getCount(), equalTo(1L));
+    }
+
+    @Test
+    public void whenCountIsCalled_thenReturnGreetingsOfName() throws IOException {
+        open("GET", "/api/P").getResponseCode();
+        open("GET", "/api/P?x=1").getResponseCode();
+
+        HttpURLConnection connection = open("GET", "/api/P/count");
+
+        assertThat(connection.getResponseCode(), equalTo(200));
+        assertThat(body(connection.getInputStream()), equalTo("{\"name\":\"P\",\"count\":2}"));
+    }
+
+    @Test
+    public void whenBatchIsCalledWithNames_thenReturnHelloPerLine() throws IOException {
+        HttpURLConnection connection = open("POST", "/api/batch");
+        connection.setRequestProperty("Content-Type", "application/json");
+        connection.setDoOutput(true);
+        try (OutputStream out = connection.getOutputStream()) {
+            out.write("[\"P\", 42]".getBytes(UTF_8));
+        }
+
+        assertThat(connection.getResponseCode(), equalTo(200));
+        assertThat(connection.getContentType(), equalTo("application/x-ndjson"));
+        assertThat(body(connection.getInputStream()), equalTo("{\"message\":\"Hello P\"}\n"
+            + "{\"message\":\"Bad Request\",\"errors\":[\"Item 1 must be a non-empty string\"]}\n"));
+        assertThat(greetingStore.count("P"), equalTo(1L));
+    }
+
+    @Test
+    public void whenGetIsCalledWithTooLongPathParam_thenReturnBadRequest() throws IOException {
+        String name = String.join("", Collections.nCopies(257, "P"));
+        HttpURLConnection connection = open("GET", "/api/" + name);
+
+        assertThat(connection.getResponseCode(), equalTo(400));
+        assertThat(body(connection.getErrorStream()),
+            equalTo("{\"message\":\"Bad Request\",\"errors\":[\"Name must be at most 256 characters\"]}"));
+        assertThat(statusCounters.get(400), equalTo(1L));
+        assertThat(greetingStore.count(name), equalTo(0L));
+    }
+
+    @Test
+    public void whenGetIsCalledWithControlCharacter_thenReturnBadRequest() throws IOException {
+        assertThat(open("GET", "/api/P%0Aop").getResponseCode(), equalTo(400));
+    }
+
+    @Test
+    public void whenGetIsCalledWithMatchingEtag_thenReturnNotModified() throws IOException {
+        String etag = open("GET", "/api/P").getHeaderField("ETag");
+
+        HttpURLConnection connection = open("GET", "/api/P");
+        connection.setRequestProperty("If-None-Match", etag);
+
+        assertThat(connection.getResponseCode(), equalTo(304));
+    }
+
+    @Test
+    public void whenGetIsCalledWithNoPathParam_thenReturnNotFound() throws IOException {
+        assertThat(open("GET", "/api/").getResponseCode(), equalTo(404));
+        assertThat(open("GET", "/api/P/unknown").getResponseCode(), equalTo(404));
+    }
+
+    @Test
+    public void whenPostIsCalled_thenReturnBadRequest() throws IOException {
+        HttpURLConnection connection = open("POST", "/api/P");
+
+        assertThat(connection.getResponseCode(), equalTo(400));
+        assertThat(body(connection.getErrorStream()), equalTo("{\"message\":\"Bad Request\",\"errors\":[\"Request method 'POST' not supported\"]}"));
+    }
+
+    @Test
+    public void whenGetIsCalledWithMalformedEscape_thenReturnBadRequest() throws IOException {
+        assertThat(open("GET", "/api/%zz").getResponseCode(), equalTo(400));
+    }
+
+    @Test
+    public void whenHealthIsCalled_thenReturnUp() throws IOException {
+        HttpURLConnection connection = open("GET", "/health");
+
+        assertThat(connection.getResponseCode(), equalTo(200));
+        assertThat(body(connection.getInputStream()), equalTo("{\"status\":\"UP\"}"));
+    }
+
+    private HttpURLConnection open(String method, String path) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://localhost:" + server.getPort() + path).openConnection();
+        connection.setRequestMethod(method);
+        return connection;
+    }
+
+    private static String body(InputStream in) throws IOException {
+        try (InputStream stream = in) {
+            return StreamUtils.copyToString(stream, UTF_8);
+        }
+    }
+}
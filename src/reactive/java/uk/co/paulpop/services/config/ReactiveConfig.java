@@ -0,0 +1,52 @@
+package uk.co.paulpop.services.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.actuate.endpoint.HealthEndpoint;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import uk.co.paulpop.services.ServiceRuntime;
+import uk.co.paulpop.services.exception.handler.HttpExceptionHandler;
+import uk.co.paulpop.services.exception.handler.HttpExceptionResponses;
+import uk.co.paulpop.services.greeting.BatchGreetingWriter;
+import uk.co.paulpop.services.greeting.GreetingProperties;
+import uk.co.paulpop.services.greeting.GreetingTemplate;
+import uk.co.paulpop.services.greeting.cache.GreetingCache;
+import uk.co.paulpop.services.greeting.store.GreetingStore;
+import uk.co.paulpop.services.reactive.ReactiveGreetingServer;
+import uk.co.paulpop.services.reactive.ReactiveHttpExceptionHandler;
+import uk.co.paulpop.services.routing.NamePathDecoder;
+
+import java.nio.charset.Charset;
+import java.util.Optional;
+
+/**
+ * Reactive runtime configuration class, only used when service.runtime is reactive.
+ */
+@Configuration
+@ConditionalOnProperty(name = ServiceRuntime.PROPERTY, havingValue = "reactive")
+class ReactiveConfig {
+
+    @Bean
+    public ReactiveHttpExceptionHandler reactiveHttpExceptionHandler(final HttpExceptionHandler httpExceptionHandler,
+                                                                     final HttpExceptionResponses httpExceptionResponses) {
+        return new ReactiveHttpExceptionHandler(httpExceptionHandler, httpExceptionResponses);
+    }
+
+    @Bean
+    public ReactiveGreetingServer reactiveGreetingServer(@Value("${server.address:0.0.0.0}") final String host,
+                                                         @Value("${server.port:8080}") final int port,
+                                                         final GreetingTemplate greetingTemplate,
+                                                         final Optional<GreetingCache> greetingCache,
+                                                         final GreetingStore greetingStore,
+                                                         final BatchGreetingWriter batchGreetingWriter,
+                                                         final GreetingProperties properties,
+                                                         final ReactiveHttpExceptionHandler reactiveHttpExceptionHandler,
+                                                         final Optional<HealthEndpoint> healthEndpoint) {
+        // The fast route's decoder is only a bean in the servlet runtime, but every reactive route validates names with it
+        GreetingProperties.Name name = properties.getName();
+        NamePathDecoder namePathDecoder = new NamePathDecoder(name.getMaximumLength(), Charset.forName(name.getCharset()));
+        return new ReactiveGreetingServer(host, port, greetingTemplate, greetingCache.orElse(null), greetingStore, batchGreetingWriter,
+            namePathDecoder, reactiveHttpExceptionHandler, healthEndpoint.orElse(null));
+    }
+}
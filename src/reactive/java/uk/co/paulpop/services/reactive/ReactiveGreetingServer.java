@@ -0,0 +1,303 @@
+package uk.co.paulpop.services.reactive;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufOutputStream;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpMethod;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.reactivestreams.Publisher;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.actuate.endpoint.HealthEndpoint;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.context.EnvironmentAware;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.core.env.ConfigurableEnvironment;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.core.env.MutablePropertySources;
+import org.springframework.core.env.PropertySource;
+import org.springframework.web.HttpRequestMethodNotSupportedException;
+import reactor.core.publisher.Mono;
+import reactor.ipc.netty.NettyContext;
+import reactor.ipc.netty.http.server.HttpServer;
+import reactor.ipc.netty.http.server.HttpServerRequest;
+import reactor.ipc.netty.http.server.HttpServerResponse;
+import reactor.ipc.netty.http.server.HttpServerRoutes;
+import uk.co.paulpop.services.greeting.BatchGreetingWriter;
+import uk.co.paulpop.services.greeting.GreetingTemplate;
+import uk.co.paulpop.services.greeting.cache.GreetingCache;
+import uk.co.paulpop.services.greeting.cache.RenderedGreeting;
+import uk.co.paulpop.services.greeting.store.GreetingStore;
+import uk.co.paulpop.services.model.GreetingCount;
+import uk.co.paulpop.services.model.GreetingCountJsonCodec;
+import uk.co.paulpop.services.profiling.GreetingEvent;
+import uk.co.paulpop.services.routing.NamePathDecoder;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.springframework.http.MediaType.APPLICATION_JSON_UTF8_VALUE;
+import static uk.co.paulpop.services.greeting.BatchGreetingWriter.APPLICATION_NDJSON_VALUE;
+
+/**
+ * Serves the same /api contract as the Spring MVC controller on Reactor Netty, without occupying a thread per request. Names are decoded
+ * and validated by the {@link NamePathDecoder} like on the fast route of the servlet runtime, greetings, batches included, are recorded and
+ * counted in the {@link GreetingStore}, and errors get the responses of the {@link ReactiveHttpExceptionHandler}. Greetings are not
+ * coalesced, since joining a rendering in flight would block an event loop. The port is published as local.server.port like the embedded
+ * servlet container does.
+ */
+public class ReactiveGreetingServer implements SmartLifecycle, EnvironmentAware {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReactiveGreetingServer.class);
+
+    private static final String API_PATH = "/api/";
+    private static final String BATCH_PATH = API_PATH + "batch";
+    private static final String COUNT_SUFFIX = "/count";
+    private static final String HEALTH_PATH = "/health";
+    private static final String PORT_PROPERTY = "local.server.port";
+    private static final String PORTS_PROPERTY_SOURCE = "server.ports";
+
+    private final String host;
+    private final int port;
+    private final GreetingTemplate greetingTemplate;
+    private final GreetingCache greetingCache;
+    private final Function<String, RenderedGreeting> greetingRenderer;
+    private final GreetingStore greetingStore;
+    private final BatchGreetingWriter batchGreetingWriter;
+    private final NamePathDecoder namePathDecoder;
+    private final ReactiveHttpExceptionHandler exceptionHandler;
+    private final HealthEndpoint healthEndpoint;
+
+    private volatile NettyContext context;
+    private Environment environment;
+
+    /**
+     * @param host                the address to bind to
+     * @param port                the port to bind to, or 0 for any free port
+     * @param greetingTemplate    the template greetings are rendered with
+     * @param greetingCache       the cache of rendered greetings, or null to render every greeting
+     * @param greetingStore       the store every greeting is recorded in
+     * @param batchGreetingWriter the writer of batch greetings
+     * @param namePathDecoder     the decoder validating names
+     * @param exceptionHandler    the handler writing error responses
+     * @param healthEndpoint      the actuator health endpoint backing GET /health, or null to not serve it
+     */
+    public ReactiveGreetingServer(final String host, final int port, final GreetingTemplate greetingTemplate, final GreetingCache greetingCache,
+                                  final GreetingStore greetingStore, final BatchGreetingWriter batchGreetingWriter,
+                                  final NamePathDecoder namePathDecoder,
+                                  final ReactiveHttpExceptionHandler exceptionHandler, final HealthEndpoint healthEndpoint) {
+        this.host = host;
+        this.port = port;
+        this.greetingTemplate = greetingTemplate;
+        this.greetingCache = greetingCache;
+        this.greetingRenderer = name -> RenderedGreeting.of(greetingTemplate.toJson(name));
+        this.greetingStore = greetingStore;
+        this.batchGreetingWriter = batchGreetingWriter;
+        this.namePathDecoder = namePathDecoder;
+        this.exceptionHandler = exceptionHandler;
+        this.healthEndpoint = healthEndpoint;
+    }
+
+    @Override
+    public void setEnvironment(final Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public void start() {
+        context = HttpServer.create(host, port)
+            .newRouter(this::routes)
+            .block();
+        publishPort(getPort());
+        LOGGER.info("Reactor Netty started on port {}", getPort());
+    }
+
+    @Override
+    public void stop() {
+        NettyContext running = context;
+        if (running != null) {
+            running.dispose();
+            running.onClose().block();
+            context = null;
+        }
+    }
+
+    @Override
+    public void stop(final Runnable callback) {
+        stop();
+        callback.run();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return context != null;
+    }
+
+    @Override
+    public boolean isAutoStartup() {
+        return true;
+    }
+
+    @Override
+    public int getPhase() {
+        return Integer.MAX_VALUE;
+    }
+
+    /**
+     * @return the port the server is listening on
+     */
+    public int getPort() {
+        return context.address().getPort();
+    }
+
+    private void routes(final HttpServerRoutes routes) {
+        routes.route(request -> request.uri().startsWith(API_PATH), this::api);
+        if (healthEndpoint != null) {
+            routes.get(HEALTH_PATH, this::health);
+        }
+    }
+
+    /**
+     * Reports the aggregated health status the way the unauthenticated actuator endpoint does, so the Docker HEALTHCHECK works in this runtime
+     */
+    private Publisher<Void> health(final HttpServerRequest request, final HttpServerResponse response) {
+        Health health = healthEndpoint.invoke();
+        boolean down = Status.DOWN.equals(health.getStatus()) || Status.OUT_OF_SERVICE.equals(health.getStatus());
+        byte[] body = ("{\"status\":\"" + health.getStatus().getCode() + "\"}").getBytes(UTF_8);
+        return send(response.status(down ? HttpResponseStatus.SERVICE_UNAVAILABLE : HttpResponseStatus.OK), body);
+    }
+
+    /**
+     * Routes the raw URI like the controller mappings: GET /api/{name}, GET /api/{name}/count and POST /api/batch. Anything else under /api
+     * is not found for a GET and a bad request for other methods, as in the servlet runtime.
+     */
+    private Publisher<Void> api(final HttpServerRequest request, final HttpServerResponse response) {
+        try {
+            String uri = request.uri();
+            int query = uri.indexOf('?');
+            int end = query == -1 ? uri.length() : query;
+            int start = API_PATH.length();
+            int slash = uri.indexOf('/', start);
+            boolean get = HttpMethod.GET.equals(request.method());
+
+            if (get && start < end && (slash == -1 || slash >= end)) {
+                return sayHello(request, response, namePathDecoder.decode(uri, start, end));
+            }
+            if (get && slash > start && slash + COUNT_SUFFIX.length() == end && uri.startsWith(COUNT_SUFFIX, slash)) {
+                return countGreetings(response, namePathDecoder.decode(uri, start, slash));
+            }
+            if (HttpMethod.POST.equals(request.method()) && end == BATCH_PATH.length() && uri.startsWith(BATCH_PATH)) {
+                return sayHelloToAll(request, response);
+            }
+            if (get) {
+                return response.sendNotFound();
+            }
+            return exceptionHandler.handle(response, new HttpRequestMethodNotSupportedException(request.method().name()));
+        } catch (RuntimeException e) {
+            return exceptionHandler.handle(response, e);
+        }
+    }
+
+    private Publisher<Void> sayHello(final HttpServerRequest request, final HttpServerResponse response, final String name) {
+        GreetingEvent event = new GreetingEvent();
+        event.begin();
+        try {
+            LOGGER.debug("Received request to say hello to {}", name);
+            greetingStore.record(name, System.currentTimeMillis());
+
+            if (greetingCache == null) {
+                return send(response, greetingTemplate.toJson(name));
+            }
+            RenderedGreeting greeting = greetingCache.get(name, greetingRenderer);
+            response.header(HttpHeaderNames.ETAG, greeting.getEtag());
+            if (matches(request.requestHeaders().get(HttpHeaderNames.IF_NONE_MATCH), greeting.getEtag())) {
+                response.status(HttpResponseStatus.NOT_MODIFIED);
+                return Mono.empty();
+            }
+            return send(response, greeting.getBody());
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.setName(name);
+                event.commit();
+            }
+        }
+    }
+
+    private Publisher<Void> countGreetings(final HttpServerResponse response, final String name) {
+        return send(response, GreetingCountJsonCodec.INSTANCE.encode(GreetingCount.builder()
+            .name(name)
+            .count(greetingStore.count(name))
+            .build()));
+    }
+
+    /**
+     * Greets every name of the body like the servlet runtime does, except that the body is read as a whole before the greetings are
+     * written, so the event loop never waits for the client
+     */
+    private Publisher<Void> sayHelloToAll(final HttpServerRequest request, final HttpServerResponse response) {
+        return request.receive()
+            .aggregate()
+            .asInputStream()
+            .defaultIfEmpty(new ByteArrayInputStream(new byte[0]))
+            .flatMap(in -> response
+                .header(HttpHeaderNames.CONTENT_TYPE, APPLICATION_NDJSON_VALUE)
+                .send(Mono.just(writeBatch(response, in)))
+                .then())
+            .onErrorResume(e -> Mono.from(exceptionHandler.handle(response, e)));
+    }
+
+    private ByteBuf writeBatch(final HttpServerResponse response, final InputStream in) {
+        ByteBuf buffer = response.alloc().buffer();
+        try (ByteBufOutputStream out = new ByteBufOutputStream(buffer)) {
+            long names = batchGreetingWriter.write(in, out, true);
+            LOGGER.info("Said hello to a batch of {} names", names);
+            return buffer;
+        } catch (IOException e) {
+            buffer.release();
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Publisher<Void> send(final HttpServerResponse response, final byte[] body) {
+        return response
+            .header(HttpHeaderNames.CONTENT_TYPE, APPLICATION_JSON_UTF8_VALUE)
+            .header(HttpHeaderNames.CONTENT_LENGTH, Integer.toString(body.length))
+            .sendByteArray(Mono.just(body));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void publishPort(final int port) {
+        if (!(environment instanceof ConfigurableEnvironment)) {
+            return;
+        }
+        MutablePropertySources sources = ((ConfigurableEnvironment) environment).getPropertySources();
+        PropertySource<?> source = sources.get(PORTS_PROPERTY_SOURCE);
+        if (source == null) {
+            source = new MapPropertySource(PORTS_PROPERTY_SOURCE, new HashMap<>());
+            sources.addFirst(source);
+        }
+        ((Map<String, Object>) source.getSource()).put(PORT_PROPERTY, port);
+    }
+
+    private static boolean matches(final String ifNoneMatch, final String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String trimmed = candidate.trim();
+            if ("*".equals(trimmed) || etag.equals(trimmed) || ("W/" + etag).equals(trimmed)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,58 @@
+package uk.co.paulpop.services.reactive;
+
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import org.reactivestreams.Publisher;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.HttpRequestMethodNotSupportedException;
+import reactor.core.publisher.Mono;
+import reactor.ipc.netty.http.server.HttpServerResponse;
+import uk.co.paulpop.services.exception.InvalidNameException;
+import uk.co.paulpop.services.exception.handler.HttpExceptionHandler;
+import uk.co.paulpop.services.exception.handler.HttpExceptionResponse;
+import uk.co.paulpop.services.exception.handler.HttpExceptionResponses;
+
+import static org.springframework.http.MediaType.APPLICATION_JSON_UTF8_VALUE;
+
+/**
+ * Reactive counterpart of {@link HttpExceptionHandler}. Errors are handed to the same handler, so they get the same statuses and bodies and
+ * are counted, logged and recorded in flight recordings exactly like in the servlet runtime. The bodies are written pre-serialized by
+ * {@link HttpExceptionResponses} when interned.
+ */
+public class ReactiveHttpExceptionHandler {
+
+    private final HttpExceptionHandler exceptionHandler;
+    private final HttpExceptionResponses responses;
+
+    public ReactiveHttpExceptionHandler(final HttpExceptionHandler exceptionHandler, final HttpExceptionResponses responses) {
+        this.exceptionHandler = exceptionHandler;
+        this.responses = responses;
+    }
+
+    /**
+     * Writes the error response for the given exception
+     *
+     * @param response the response to write to
+     * @param ex       the exception
+     * @return a publisher completing once the response is written
+     */
+    public Publisher<Void> handle(final HttpServerResponse response, final Throwable ex) {
+        ResponseEntity<HttpExceptionResponse> error = handle(ex);
+        byte[] body = responses.serialize(error.getBody());
+        return response
+            .status(HttpResponseStatus.valueOf(error.getStatusCodeValue()))
+            .header(HttpHeaderNames.CONTENT_TYPE, APPLICATION_JSON_UTF8_VALUE)
+            .header(HttpHeaderNames.CONTENT_LENGTH, Integer.toString(body.length))
+            .sendByteArray(Mono.just(body));
+    }
+
+    private ResponseEntity<HttpExceptionResponse> handle(final Throwable ex) {
+        if (ex instanceof InvalidNameException) {
+            return exceptionHandler.handleInvalidNameException((InvalidNameException) ex);
+        }
+        if (ex instanceof HttpRequestMethodNotSupportedException) {
+            return exceptionHandler.handleMethodNotSupportedException((HttpRequestMethodNotSupportedException) ex);
+        }
+        return exceptionHandler.handleException(ex instanceof Exception ? (Exception) ex : new RuntimeException(ex));
+    }
+}
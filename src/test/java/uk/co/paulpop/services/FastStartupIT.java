@@ -0,0 +1,69 @@
+package uk.co.paulpop.services;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.embedded.LocalServerPort;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.junit4.SpringRunner;
+import springfox.documentation.spring.web.plugins.DocumentationPluginsBootstrapper;
+import uk.co.paulpop.services.model.Hello;
+import uk.co.paulpop.services.startup.BeanStartupTimer;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.springframework.http.HttpStatus.OK;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, classes = JavaSpringServiceApplication.class)
+@ActiveProfiles("fast-startup")
+@RunWith(SpringRunner.class)
+public class FastStartupIT {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+
+    @Autowired
+    private DocumentationPluginsBootstrapper documentationPluginsBootstrapper;
+
+    @Autowired
+    private BeanStartupTimer beanStartupTimer;
+
+    @Test
+    public void whenStartedWithExplicitAutoConfiguration_thenServesApiAndHealth() {
+        ResponseEntity<Hello> hello = restTemplate.getForEntity(createURI("/api/Paul"), Hello.class);
+        ResponseEntity<String> health = restTemplate.getForEntity(createURI("/health"), String.class);
+
+        assertThat(hello.getStatusCode(), equalTo(OK));
+        assertThat(hello.getBody(), equalTo(Hello.builder().message("Hello Paul").build()));
+        assertThat(health.getStatusCode(), equalTo(OK));
+    }
+
+    @Test
+    public void whenApiDocsRequested_thenScansApiOnFirstRequest() {
+        assertThat(documentationPluginsBootstrapper.isRunning(), is(false));
+
+        ResponseEntity<String> docs = restTemplate.getForEntity(createURI("/v2/api-docs"), String.class);
+
+        assertThat(docs.getStatusCode(), equalTo(OK));
+        assertThat(docs.getBody(), containsString("/api/{name}"));
+        assertThat(documentationPluginsBootstrapper.isRunning(), is(true));
+    }
+
+    @Test
+    public void whenStarted_thenBeansAreTimed() {
+        assertThat(beanStartupTimer.getBeanCount(), greaterThan(0));
+    }
+
+    private String createURI(String uri) {
+        return "http://localhost:" + port + uri;
+    }
+}
@@ -0,0 +1,54 @@
+package uk.co.paulpop.services.assets;
+
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.FilterChain;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+
+public class ApiDocsCacheFilterTest {
+
+    private static final String DOCUMENT = "{\"swagger\":\"2.0\",\"host\":\"localhost\"}";
+
+    private final ApiDocsCacheFilter filter = new ApiDocsCacheFilter(16);
+    private final AtomicInteger renders = new AtomicInteger();
+    private final FilterChain springfox = (req, res) -> {
+        renders.incrementAndGet();
+        res.setContentType("application/json;charset=UTF-8");
+        res.getOutputStream().write(DOCUMENT.getBytes());
+    };
+
+    @Test
+    public void doFilter_whenDocumentWasRendered_thenServesItFromCache() throws Exception {
+        MockHttpServletResponse first = get("localhost");
+        MockHttpServletResponse second = get("localhost");
+
+        assertThat(renders.get(), equalTo(1));
+        assertThat(first.getContentAsString(), equalTo(DOCUMENT));
+        assertThat(second.getContentAsString(), equalTo(DOCUMENT));
+        assertThat(second.getHeader("ETag"), notNullValue());
+        assertThat(second.getContentType(), equalTo("application/json;charset=UTF-8"));
+    }
+
+    @Test
+    public void doFilter_whenHostDiffers_thenRendersDocumentAgain() throws Exception {
+        get("localhost");
+        get("docs.internal");
+
+        assertThat(renders.get(), equalTo(2));
+        assertThat(filter.size(), equalTo(2));
+    }
+
+    private MockHttpServletResponse get(final String host) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/v2/api-docs");
+        request.addHeader("Host", host);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, springfox);
+        return response;
+    }
+}
@@ -0,0 +1,50 @@
+package uk.co.paulpop.services.assets;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+
+import java.nio.file.Files;
+import java.util.Collections;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+public class StaticAssetStoreTest {
+
+    private StaticAssetStore store;
+
+    @Before
+    public void setUp() throws Exception {
+        store = new StaticAssetStore(new PathMatchingResourcePatternResolver(),
+            Collections.singletonList("classpath*:META-INF/resources/swagger-ui.html"), 60);
+    }
+
+    @After
+    public void tearDown() throws Exception {
+        store.destroy();
+    }
+
+    @Test
+    public void get_whenAssetWasOnClassPath_thenReturnsMappedAssetWithCompressedCopy() {
+        StaticAsset asset = store.get("/swagger-ui.html");
+
+        assertThat(asset, is(notNullValue()));
+        assertThat(asset.getContentType(), equalTo("text/html;charset=UTF-8"));
+        assertThat(asset.getCacheControl(), equalTo("no-cache"));
+        assertThat(Files.exists(asset.getIdentity().getFile()), is(true));
+        assertThat(asset.getIdentity().getContent().remaining(), greaterThan(0));
+        assertThat(asset.getGzip(), is(notNullValue()));
+    }
+
+    @Test
+    public void get_whenAssetWasNotOnClassPath_thenReturnsNull() {
+        assertThat(store.get("/webjars/springfox-swagger-ui/springfox.js"), is(nullValue()));
+        assertThat(store.size(), equalTo(1));
+    }
+}
@@ -0,0 +1,83 @@
+package uk.co.paulpop.services.assets;
+
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.nio.ByteBuffer;
+import java.nio.file.Paths;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.nullValue;
+
+public class StaticAssetTest {
+
+    private static final byte[] SCRIPT = repeat("console.log('Hello Paul');\n", 100).getBytes();
+
+    private final StaticAsset asset = StaticAsset.of(SCRIPT, "application/javascript", "public, max-age=60, immutable", true);
+    private final MockHttpServletRequest request = new MockHttpServletRequest("GET", "/webjars/springfox-swagger-ui/springfox.js");
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    @Test
+    public void serve_whenClientAcceptsGzip_thenWritesCompressedCopy() throws Exception {
+        request.addHeader("Accept-Encoding", "gzip");
+
+        asset.serve(request, response);
+
+        assertThat(response.getHeader("Content-Encoding"), equalTo("gzip"));
+        assertThat(response.getHeader("ETag"), equalTo(asset.getGzip().getEtag()));
+        assertThat(response.getHeader("Cache-Control"), equalTo("public, max-age=60, immutable"));
+        assertThat(response.getContentAsByteArray(), equalTo(StaticAsset.gzip(SCRIPT)));
+    }
+
+    @Test
+    public void serve_whenClientDoesNotAcceptGzip_thenWritesContentAsItIs() throws Exception {
+        asset.serve(request, response);
+
+        assertThat(response.getHeader("Content-Encoding"), is(nullValue()));
+        assertThat(response.getHeader("Vary"), equalTo("Accept-Encoding"));
+        assertThat(response.getContentLength(), equalTo(SCRIPT.length));
+        assertThat(response.getContentAsByteArray(), equalTo(SCRIPT));
+    }
+
+    @Test
+    public void serve_whenEtagMatches_thenReturnsNotModified() throws Exception {
+        request.addHeader("If-None-Match", asset.getIdentity().getEtag());
+
+        asset.serve(request, response);
+
+        assertThat(response.getStatus(), equalTo(304));
+        assertThat(response.getContentAsByteArray().length, equalTo(0));
+    }
+
+    @Test
+    public void serve_whenSendfileIsSupported_thenHandsFileToConnector() throws Exception {
+        StaticAsset.Body body = StaticAsset.Body.of(Paths.get("/tmp/springfox.js"), ByteBuffer.wrap(SCRIPT), StaticAsset.etag(SCRIPT));
+        request.setAttribute(StaticAsset.SENDFILE_SUPPORTED, true);
+
+        new StaticAsset("application/javascript", "no-cache", body, null).serve(request, response);
+
+        assertThat(request.getAttribute(StaticAsset.SENDFILE_FILENAME), equalTo("/tmp/springfox.js"));
+        assertThat(request.getAttribute(StaticAsset.SENDFILE_END), equalTo((long) SCRIPT.length));
+        assertThat(response.getContentAsByteArray().length, equalTo(0));
+    }
+
+    @Test
+    public void of_whenCompressingDoesNotPayOff_thenKeepsNoCompressedCopy() {
+        StaticAsset tiny = StaticAsset.of("{}".getBytes(), "application/json", "no-cache", true);
+
+        assertThat(tiny.getGzip(), is(nullValue()));
+        assertThat(tiny.getIdentity().getEtag(), not(equalTo(asset.getIdentity().getEtag())));
+    }
+
+    private static String repeat(final String value, final int times) {
+        StringBuilder repeated = new StringBuilder();
+        for (int i = 0; i < times; i++) {
+            repeated.append(value);
+        }
+        return repeated.toString();
+    }
+}
@@ -16,9 +16,13 @@ import uk.co.paulpop.services.JavaSpringServiceApplication;
 import uk.co.paulpop.services.exception.handler.HttpExceptionResponse;
 import uk.co.paulpop.services.model.Hello;
 
+import java.util.Collections;
+
 import static org.hamcrest.CoreMatchers.equalTo;
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.springframework.http.HttpStatus.BAD_REQUEST;
 import static org.springframework.http.HttpStatus.NOT_FOUND;
+import static org.springframework.http.HttpStatus.NOT_MODIFIED;
 import static org.springframework.http.HttpStatus.OK;
 import static org.springframework.http.MediaType.APPLICATION_JSON_UTF8;
 
@@ -86,6 +90,65 @@ public class JavaSpringServiceControllerIT {
         assertThat(response.getBody(), equalTo(Hello.builder().message("Hello Paul Pop").build()));
     }
 
+    @Test
+    public void whenGetIsCalledWithUnicodePathParam_thenReturnHello() {
+        ResponseEntity<Hello> response = restTemplate.exchange(
+            createURI("/api/Jean-François"),
+            HttpMethod.GET,
+            new HttpEntity(headers),
+            Hello.class);
+
+        assertThat(response.getStatusCode(), equalTo(OK));
+        assertThat(response.getBody(), equalTo(Hello.builder().message("Hello Jean-François").build()));
+    }
+
+    @Test
+    public void whenGetIsCalledWithTooLongPathParam_thenReturnBadRequest() {
+        ResponseEntity<HttpExceptionResponse> response = restTemplate.exchange(
+            createURI("/api/" + String.join("", Collections.nCopies(257, "P"))),
+            HttpMethod.GET,
+            new HttpEntity(headers),
+            HttpExceptionResponse.class);
+
+        assertThat(response.getStatusCode(), equalTo(BAD_REQUEST));
+        assertThat(response.getBody().getErrors(), equalTo(Collections.singletonList("Name must be at most 256 characters")));
+    }
+
+    @Test
+    public void whenGetIsCalledWithMatchingEtag_thenReturnNotModified() {
+        ResponseEntity<Hello> first = restTemplate.exchange(
+            createURI("/api/Paul Pop"),
+            HttpMethod.GET,
+            new HttpEntity(headers),
+            Hello.class);
+
+        HttpHeaders conditionalHeaders = new HttpHeaders();
+        conditionalHeaders.setIfNoneMatch(first.getHeaders().getETag());
+        ResponseEntity<Hello> second = restTemplate.exchange(
+            createURI("/api/Paul Pop"),
+            HttpMethod.GET,
+            new HttpEntity(conditionalHeaders),
+            Hello.class);
+
+        assertThat(first.getStatusCode(), equalTo(OK));
+        assertThat(second.getStatusCode(), equalTo(NOT_MODIFIED));
+        assertThat(second.getHeaders().getETag(), equalTo(first.getHeaders().getETag()));
+    }
+
+    @Test
+    public void whenBatchIsCalledWithNames_thenReturnHelloPerLine() {
+        ResponseEntity<String> response = restTemplate.exchange(
+            createURI("/api/batch"),
+            HttpMethod.POST,
+            new HttpEntity<>("[\"P\", \"Paul Pop\", 42]", headers),
+            String.class);
+
+        assertThat(response.getStatusCode(), equalTo(OK));
+        assertThat(response.getBody(), equalTo("{\"message\":\"Hello P\"}\n"
+            + "{\"message\":\"Hello Paul Pop\"}\n"
+            + "{\"message\":\"Bad Request\",\"errors\":[\"Item 2 must be a non-empty string\"]}\n"));
+    }
+
     private String createURI(String uri) {
         return "http://localhost:" + port + uri;
     }
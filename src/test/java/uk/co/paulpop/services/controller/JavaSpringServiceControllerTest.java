@@ -2,43 +2,191 @@ package uk.co.paulpop.services.controller;
 
 import org.junit.Before;
 import org.junit.Test;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
-import org.springframework.http.ResponseEntity;
-import uk.co.paulpop.services.model.Hello;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import uk.co.paulpop.services.greeting.BatchGreetingWriter;
+import uk.co.paulpop.services.greeting.GreetingTemplate;
+import uk.co.paulpop.services.greeting.SingleFlight;
+import uk.co.paulpop.services.greeting.cache.GreetingCache;
+import uk.co.paulpop.services.greeting.cache.LruGreetingCache;
+import uk.co.paulpop.services.greeting.cache.RenderedGreeting;
+import uk.co.paulpop.services.greeting.frequency.NameFrequencyIndex;
+import uk.co.paulpop.services.greeting.store.InMemoryGreetingStore;
+import uk.co.paulpop.services.model.GreetingCount;
+import uk.co.paulpop.services.warmup.WarmUp;
+
+import javax.servlet.http.HttpServletRequest;
+import java.io.IOException;
+import java.util.Optional;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.isEmptyString;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.http.MediaType.APPLICATION_JSON_UTF8_VALUE;
+import static uk.co.paulpop.services.greeting.BatchGreetingWriter.APPLICATION_NDJSON_VALUE;
 
 public class JavaSpringServiceControllerTest {
 
+    private static final GreetingTemplate TEMPLATE = GreetingTemplate.compile("Hello {name}");
+
+    private NameFrequencyIndex index;
+    private InMemoryGreetingStore store;
+    private BatchGreetingWriter batchWriter;
     private JavaSpringServiceController controller;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
 
     @Before
     public void setUp() {
-        controller = new JavaSpringServiceController();
+        index = new NameFrequencyIndex(16, 1024, 1, 16, 2, 4);
+        store = new InMemoryGreetingStore(index);
+        batchWriter = new BatchGreetingWriter(TEMPLATE, Jackson2ObjectMapperBuilder.json().build(), store, 256);
+        controller = new JavaSpringServiceController(TEMPLATE, Optional.empty(), Optional.empty(), store, batchWriter, Optional.empty());
+        request = new MockHttpServletRequest("GET", "/api/Paul Pop");
+        response = new MockHttpServletResponse();
+    }
+
+    @Test
+    public void whenMethodCalledWithEmptyString_thenSayHello() throws IOException {
+        sayHello("");
+
+        assertThat(response.getStatus(), equalTo(HttpStatus.OK.value()));
+        assertThat(response.getContentType(), equalTo(APPLICATION_JSON_UTF8_VALUE));
+        assertThat(response.getContentAsString(), equalTo("{\"message\":\"Hello \"}"));
+    }
+
+    @Test
+    public void whenMethodCalledWithSpace_thenSayHello() throws IOException {
+        sayHello(" ");
+
+        assertThat(response.getStatus(), equalTo(HttpStatus.OK.value()));
+        assertThat(response.getContentType(), equalTo(APPLICATION_JSON_UTF8_VALUE));
+        assertThat(response.getContentAsString(), equalTo("{\"message\":\"Hello  \"}"));
+    }
+
+    @Test
+    public void whenMethodCalledWithFullName_thenSayHello() throws IOException {
+        sayHello("Paul Pop");
+
+        assertThat(response.getStatus(), equalTo(HttpStatus.OK.value()));
+        assertThat(response.getContentType(), equalTo(APPLICATION_JSON_UTF8_VALUE));
+        assertThat(response.getContentAsString(), equalTo("{\"message\":\"Hello Paul Pop\"}"));
+        assertThat(response.getHeader(HttpHeaders.ETAG), nullValue());
+    }
+
+    @Test
+    public void whenCacheEnabled_thenSayHelloWithEtag() throws IOException {
+        controller = new JavaSpringServiceController(TEMPLATE, Optional.of(new LruGreetingCache(1024)), Optional.empty(), store,
+            batchWriter, Optional.empty());
+
+        sayHello("Paul Pop");
+
+        assertThat(response.getStatus(), equalTo(HttpStatus.OK.value()));
+        assertThat(response.getContentType(), equalTo(APPLICATION_JSON_UTF8_VALUE));
+        assertThat(response.getContentLength(), equalTo(28));
+        assertThat(response.getContentAsString(), equalTo("{\"message\":\"Hello Paul Pop\"}"));
+        assertThat(response.getHeader(HttpHeaders.ETAG), notNullValue());
+    }
+
+    @Test
+    public void whenCacheEnabledAndEtagMatches_thenReturnNotModified() throws IOException {
+        GreetingCache cache = new LruGreetingCache(1024);
+        controller = new JavaSpringServiceController(TEMPLATE, Optional.of(cache), Optional.empty(), store, batchWriter, Optional.empty());
+        sayHello("Paul Pop");
+        String etag = response.getHeader(HttpHeaders.ETAG);
+
+        request = new MockHttpServletRequest("GET", "/api/Paul Pop");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+        response = new MockHttpServletResponse();
+        sayHello("Paul Pop");
+
+        assertThat(response.getStatus(), equalTo(HttpStatus.NOT_MODIFIED.value()));
+        assertThat(response.getHeader(HttpHeaders.ETAG), equalTo(etag));
+        assertThat(response.getContentAsString(), isEmptyString());
+        assertThat(cache.stats().getHits(), equalTo(1L));
     }
 
     @Test
-    public void whenMethodCalledWithEmptyString_thenSayHello() {
-        ResponseEntity<Hello> response = controller.sayHello("");
+    public void whenCoalescingEnabledWithoutCache_thenSayHelloThroughSingleFlightWithoutEtag() throws IOException {
+        SingleFlight<String, RenderedGreeting> singleFlight = new SingleFlight<>();
+        controller = new JavaSpringServiceController(TEMPLATE, Optional.empty(), Optional.of(singleFlight), store, batchWriter,
+            Optional.empty());
 
-        assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
-        assertThat(response.getBody(), equalTo(Hello.builder().message("Hello ").build()));
+        sayHello("Paul Pop");
+
+        assertThat(response.getContentAsString(), equalTo("{\"message\":\"Hello Paul Pop\"}"));
+        assertThat(response.getHeader(HttpHeaders.ETAG), nullValue());
+        assertThat(singleFlight.getExecutions(), equalTo(1L));
     }
 
     @Test
-    public void whenMethodCalledWithSpace_thenSayHello() {
-        ResponseEntity<Hello> response = controller.sayHello(" ");
+    public void whenSaidHello_thenGreetingIsCounted() throws IOException {
+        sayHello("Paul Pop");
+        sayHello("Paul Pop");
 
-        assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
-        assertThat(response.getBody(), equalTo(Hello.builder().message("Hello  ").build()));
+        assertThat(controller.countGreetings("Paul Pop"), equalTo(GreetingCount.builder().name("Paul Pop").count(2).build()));
+        assertThat(controller.countGreetings("Paul"), equalTo(GreetingCount.builder().name("Paul").count(0).build()));
     }
 
     @Test
-    public void whenMethodCalledWithFullName_thenSayHello() {
-        ResponseEntity<Hello> response = controller.sayHello("Paul Pop");
+    public void whenSaidHello_thenGreetingIsCountedByNameInTheIndex() throws IOException {
+        sayHello("Paul Pop");
+
+        assertThat(index.count("Paul Pop").getCount(), equalTo(1L));
+    }
+
+    @Test
+    public void whenSentByWarmUp_thenGreetingIsNotRecorded() throws IOException {
+        WarmUp warmUp = mock(WarmUp.class);
+        when(warmUp.isWarmUpRequest(any(WebRequest.class))).thenReturn(true);
+        controller = new JavaSpringServiceController(TEMPLATE, Optional.empty(), Optional.empty(), store, batchWriter, Optional.of(warmUp));
+
+        sayHello("Paul Pop");
+
+        assertThat(response.getContentAsString(), equalTo("{\"message\":\"Hello Paul Pop\"}"));
+        assertThat(store.count("Paul Pop"), equalTo(0L));
+        assertThat(index.count("Paul Pop").getCount(), equalTo(0L));
+    }
+
+    @Test
+    public void whenBatchCalledWithNames_thenSayHelloToAll() throws IOException {
+        request = new MockHttpServletRequest("POST", "/api/batch");
+        request.setContent("[\"Paul\", \"Pop\"]".getBytes(UTF_8));
+
+        controller.sayHelloToAll(request, response);
+
+        assertThat(response.getContentType(), equalTo(APPLICATION_NDJSON_VALUE));
+        assertThat(response.getContentAsString(), equalTo("{\"message\":\"Hello Paul\"}\n{\"message\":\"Hello Pop\"}\n"));
+        assertThat(store.count("Paul"), equalTo(1L));
+        assertThat(index.count("Pop").getCount(), equalTo(1L));
+    }
+
+    @Test
+    public void whenBatchSentByWarmUp_thenGreetingsAreNotRecorded() throws IOException {
+        WarmUp warmUp = mock(WarmUp.class);
+        when(warmUp.isWarmUpRequest(any(HttpServletRequest.class))).thenReturn(true);
+        controller = new JavaSpringServiceController(TEMPLATE, Optional.empty(), Optional.empty(), store, batchWriter, Optional.of(warmUp));
+        request = new MockHttpServletRequest("POST", "/api/batch");
+        request.setContent("[\"Paul\", \"Pop\"]".getBytes(UTF_8));
+
+        controller.sayHelloToAll(request, response);
+
+        assertThat(response.getContentAsString(), equalTo("{\"message\":\"Hello Paul\"}\n{\"message\":\"Hello Pop\"}\n"));
+        assertThat(store.count("Paul"), equalTo(0L));
+    }
 
-        assertThat(response.getStatusCode(), equalTo(HttpStatus.OK));
-        assertThat(response.getBody(), equalTo(Hello.builder().message("Hello Paul Pop").build()));
+    private void sayHello(String name) throws IOException {
+        controller.sayHello(name, new ServletWebRequest(request, response), response);
     }
 }
@@ -3,7 +3,6 @@ package uk.co.paulpop.services.exception.handler;
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnit;
 import org.mockito.junit.MockitoRule;
@@ -19,6 +18,10 @@ import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.ServletRequestBindingException;
 import org.springframework.web.method.annotation.MethodArgumentTypeMismatchException;
 import org.springframework.web.multipart.support.MissingServletRequestPartException;
+import uk.co.paulpop.services.exception.InvalidNameException;
+import uk.co.paulpop.services.exception.RateLimitedException;
+import uk.co.paulpop.services.exception.ServiceOverloadedException;
+import uk.co.paulpop.services.metrics.HttpStatusCounters;
 
 import javax.validation.ConstraintViolation;
 import javax.validation.ConstraintViolationException;
@@ -31,6 +34,7 @@ import static org.hamcrest.CoreMatchers.hasItems;
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.core.Is.is;
 import static org.hamcrest.core.IsEqual.equalTo;
+import static org.hamcrest.core.IsSame.sameInstance;
 import static org.mockito.Mockito.when;
 
 public class HttpExceptionHandlerTest {
@@ -59,12 +63,14 @@ public class HttpExceptionHandlerTest {
     @Mock
     private ConstraintViolation constraintViolation2;
 
-    @InjectMocks
     private HttpExceptionHandler handler;
 
+    private HttpStatusCounters errorCounters;
+
     @Before
     public void setUp() {
-        handler = new HttpExceptionHandler();
+        errorCounters = new HttpStatusCounters();
+        handler = new HttpExceptionHandler(errorCounters, new HttpExceptionResponses(2), new SampledErrorLogger(-1));
     }
 
     @Test
@@ -195,11 +201,11 @@ public class HttpExceptionHandlerTest {
     }
 
     /**
-     * Tests for {@link HttpExceptionHandler#handleException()}
+     * Tests for {@link HttpExceptionHandler#handleException(Exception)}
      */
     @Test
     public void handleParentException_shouldReturnCorrectResponse() {
-        ResponseEntity<HttpExceptionResponse> result = handler.handleException();
+        ResponseEntity<HttpExceptionResponse> result = handler.handleException(new IllegalStateException(MESSAGE));
 
         assertThat(result.getStatusCode(), is(equalTo(HttpStatus.INTERNAL_SERVER_ERROR)));
         assertThat(result.getStatusCodeValue(), is(equalTo(500)));
@@ -207,6 +213,49 @@ public class HttpExceptionHandlerTest {
         assertThat(result.getBody().getErrors(), hasItems(GENERIC_ERROR_MESSAGE));
     }
 
+    @Test
+    public void handleParentException_returnsSameResponseEveryTime() {
+        assertThat(handler.handleException(new IllegalStateException("first")),
+            is(sameInstance(handler.handleException(new IllegalStateException("second")))));
+    }
+
+    @Test
+    public void handleServletRequestBindingException_withRepeatedMessage_returnsInternedResponse() {
+        ResponseEntity<HttpExceptionResponse> first = handler.handleServletRequestBindingException(new ServletRequestBindingException(MESSAGE));
+        ResponseEntity<HttpExceptionResponse> second = handler.handleServletRequestBindingException(new ServletRequestBindingException(MESSAGE));
+
+        assertThat(second, is(sameInstance(first)));
+    }
+
+    @Test
+    public void handleServletRequestBindingException_afterManyOneOffMessages_stillInternsRepeatedMessage() {
+        for (int i = 0; i < 100; i++) {
+            handler.handleMethodNotSupportedException(new HttpRequestMethodNotSupportedException("METHOD" + i));
+        }
+
+        // Each repetition makes the message more likely to be admitted over the one-off messages, so it is soon interned again
+        ResponseEntity<HttpExceptionResponse> previous = null;
+        boolean interned = false;
+        for (int i = 0; i < 10 && !interned; i++) {
+            ResponseEntity<HttpExceptionResponse> current = handler.handleServletRequestBindingException(
+                new ServletRequestBindingException(MESSAGE));
+            interned = current == previous;
+            previous = current;
+        }
+
+        assertThat(interned, is(true));
+    }
+
+    @Test
+    public void handle_countsEveryResponseByStatus() {
+        handler.handleException(new IllegalStateException(MESSAGE));
+        handler.handleMessageNotReadableException(new HttpMessageNotReadableException(MESSAGE));
+        handler.handleServletRequestBindingException(new ServletRequestBindingException(MESSAGE));
+
+        assertThat(errorCounters.get(500), is(equalTo(1L)));
+        assertThat(errorCounters.get(400), is(equalTo(2L)));
+    }
+
     @Test
     public void handleMessageNotReadableException_shouldReturnCorrectResponse() {
         ResponseEntity<HttpExceptionResponse> result = handler.handleMessageNotReadableException(new HttpMessageNotReadableException(MESSAGE));
@@ -227,5 +276,38 @@ public class HttpExceptionHandlerTest {
         assertThat(result.getBody().getErrors(), hasItems(MESSAGE));
     }
 
+    @Test
+    public void handleInvalidNameException_shouldReturnCorrectResponse() {
+        ResponseEntity<HttpExceptionResponse> result = handler.handleInvalidNameException(new InvalidNameException(MESSAGE));
+
+        assertThat(result.getStatusCode(), is(equalTo(HttpStatus.BAD_REQUEST)));
+        assertThat(result.getStatusCodeValue(), is(equalTo(400)));
+        assertThat(result.getBody().getMessage(), is(equalTo(HttpStatus.BAD_REQUEST.getReasonPhrase())));
+        assertThat(result.getBody().getErrors(), hasItems(MESSAGE));
+        assertThat(errorCounters.get(400), is(equalTo(1L)));
+    }
+
+    @Test
+    public void handleServiceOverloadedException_shouldReturnCorrectResponse() {
+        ResponseEntity<HttpExceptionResponse> result = handler.handleServiceOverloadedException(new ServiceOverloadedException(MESSAGE));
+
+        assertThat(result.getStatusCode(), is(equalTo(HttpStatus.SERVICE_UNAVAILABLE)));
+        assertThat(result.getStatusCodeValue(), is(equalTo(503)));
+        assertThat(result.getBody().getMessage(), is(equalTo(HttpStatus.SERVICE_UNAVAILABLE.getReasonPhrase())));
+        assertThat(result.getBody().getErrors(), hasItems(MESSAGE));
+        assertThat(errorCounters.get(503), is(equalTo(1L)));
+    }
+
+    @Test
+    public void handleRateLimitedException_shouldReturnCorrectResponse() {
+        ResponseEntity<HttpExceptionResponse> result = handler.handleRateLimitedException(new RateLimitedException(MESSAGE));
+
+        assertThat(result.getStatusCode(), is(equalTo(HttpStatus.TOO_MANY_REQUESTS)));
+        assertThat(result.getStatusCodeValue(), is(equalTo(429)));
+        assertThat(result.getBody().getMessage(), is(equalTo(HttpStatus.TOO_MANY_REQUESTS.getReasonPhrase())));
+        assertThat(result.getBody().getErrors(), hasItems(MESSAGE));
+        assertThat(errorCounters.get(429), is(equalTo(1L)));
+    }
+
     private enum StubEnum {}
 }
@@ -0,0 +1,63 @@
+package uk.co.paulpop.services.exception.handler;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class HttpExceptionResponseConverterTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final HttpExceptionResponses responses = new HttpExceptionResponses(16);
+    private final HttpExceptionResponseConverter converter = new HttpExceptionResponseConverter(responses);
+
+    @Test
+    public void write_matchesJackson() throws IOException {
+        HttpExceptionResponse response = responses.of(HttpStatus.BAD_REQUEST,
+            Arrays.asList("Parameter 'name' does not accept value '\"\\\u0001/é😀'", null)).getBody();
+
+        MockHttpOutputMessage message = new MockHttpOutputMessage();
+        converter.write(response, MediaType.APPLICATION_JSON_UTF8, message);
+
+        assertThat(message.getBodyAsBytes(), equalTo(objectMapper.writeValueAsBytes(response)));
+        assertThat(message.getHeaders().getContentLength(), equalTo((long) message.getBodyAsBytes().length));
+        assertThat(message.getHeaders().getContentType(), equalTo(MediaType.APPLICATION_JSON_UTF8));
+    }
+
+    @Test
+    public void write_withNullErrors_matchesJackson() throws IOException {
+        HttpExceptionResponse response = HttpExceptionResponse.builder().message("Bad Request").build();
+
+        MockHttpOutputMessage message = new MockHttpOutputMessage();
+        converter.write(response, MediaType.APPLICATION_JSON_UTF8, message);
+
+        assertThat(message.getBodyAsBytes(), equalTo(objectMapper.writeValueAsBytes(response)));
+    }
+
+    @Test
+    public void serialize_whenInterned_returnsPreSerializedBytes() {
+        HttpExceptionResponse response = responses.fixed(HttpStatus.INTERNAL_SERVER_ERROR, "Something went wrong").getBody();
+
+        assertThat(responses.serialize(response), is(sameInstance(responses.serialize(response))));
+        assertThat(new String(responses.serialize(response)),
+            equalTo("{\"message\":\"Internal Server Error\",\"errors\":[\"Something went wrong\"]}"));
+    }
+
+    @Test
+    public void canRead_isFalse() {
+        assertThat(converter.canRead(HttpExceptionResponse.class, MediaType.APPLICATION_JSON), is(false));
+        assertThat(converter.canWrite(HttpExceptionResponse.class, MediaType.APPLICATION_JSON), is(true));
+        assertThat(converter.canWrite(Collections.class, MediaType.APPLICATION_JSON), is(false));
+    }
+}
@@ -0,0 +1,95 @@
+package uk.co.paulpop.services.greeting;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import uk.co.paulpop.services.greeting.frequency.NameFrequencyIndex;
+import uk.co.paulpop.services.greeting.store.InMemoryGreetingStore;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+public class BatchGreetingWriterTest {
+
+    private InMemoryGreetingStore store;
+    private BatchGreetingWriter writer;
+    private ByteArrayOutputStream out;
+
+    @Before
+    public void setUp() {
+        store = new InMemoryGreetingStore(new NameFrequencyIndex(16, 1024, 1, 64, 4, 4));
+        writer = new BatchGreetingWriter(GreetingTemplate.compile("Hello {name}"), Jackson2ObjectMapperBuilder.json().build(), store, 2);
+        out = new ByteArrayOutputStream();
+    }
+
+    @Test
+    public void write_withJsonArray_writesGreetingPerLine() throws IOException {
+        long items = write("[\"Paul\", \"Paul Pop\", \"Jean-François\"]");
+
+        assertThat(items, equalTo(3L));
+        assertThat(out.toString("UTF-8"), equalTo(
+            "{\"message\":\"Hello Paul\"}\n"
+                + "{\"message\":\"Hello Paul Pop\"}\n"
+                + "{\"message\":\"Hello Jean-François\"}\n"));
+        assertThat(store.count("Paul Pop"), equalTo(1L));
+        assertThat(store.stats().getRecorded(), equalTo(3L));
+    }
+
+    @Test
+    public void write_withNewlineDelimitedStrings_writesGreetingPerLine() throws IOException {
+        long items = write("\"Paul\"\n\"Pop\"\n");
+
+        assertThat(items, equalTo(2L));
+        assertThat(out.toString("UTF-8"), equalTo("{\"message\":\"Hello Paul\"}\n{\"message\":\"Hello Pop\"}\n"));
+    }
+
+    @Test
+    public void write_withEmptyArray_writesNothing() throws IOException {
+        assertThat(write("[]"), equalTo(0L));
+        assertThat(out.toString("UTF-8"), equalTo(""));
+    }
+
+    @Test
+    public void write_withInvalidItems_writesErrorLinePerItem() throws IOException {
+        long items = write("[\"Paul\", 1, \"\", {\"name\": \"Pop\"}, [\"Pop\"], null, \"Pop\"]");
+
+        assertThat(items, equalTo(7L));
+        assertThat(out.toString("UTF-8"), equalTo(
+            "{\"message\":\"Hello Paul\"}\n"
+                + "{\"message\":\"Bad Request\",\"errors\":[\"Item 1 must be a non-empty string\"]}\n"
+                + "{\"message\":\"Bad Request\",\"errors\":[\"Item 2 must be a non-empty string\"]}\n"
+                + "{\"message\":\"Bad Request\",\"errors\":[\"Item 3 must be a non-empty string\"]}\n"
+                + "{\"message\":\"Bad Request\",\"errors\":[\"Item 4 must be a non-empty string\"]}\n"
+                + "{\"message\":\"Bad Request\",\"errors\":[\"Item 5 must be a non-empty string\"]}\n"
+                + "{\"message\":\"Hello Pop\"}\n"));
+        assertThat(store.stats().getRecorded(), equalTo(2L));
+    }
+
+    @Test
+    public void write_whenNotRecording_thenStoresNothing() throws IOException {
+        writer.write(new ByteArrayInputStream("[\"Paul\"]".getBytes(UTF_8)), out, false);
+
+        assertThat(out.toString("UTF-8"), equalTo("{\"message\":\"Hello Paul\"}\n"));
+        assertThat(store.count("Paul"), equalTo(0L));
+    }
+
+    @Test
+    public void write_withMalformedJson_keepsGreetingsAndEndsWithErrorLine() throws IOException {
+        long items = write("[\"Paul\", \"Pop");
+
+        String[] lines = out.toString("UTF-8").split("\n");
+        assertThat(items, equalTo(1L));
+        assertThat(lines.length, equalTo(2));
+        assertThat(lines[0], equalTo("{\"message\":\"Hello Paul\"}"));
+        assertThat(lines[1].startsWith("{\"message\":\"Bad Request\",\"errors\":[\"Malformed JSON after item 1: "), equalTo(true));
+    }
+
+    private long write(String body) throws IOException {
+        return writer.write(new ByteArrayInputStream(body.getBytes(UTF_8)), out, true);
+    }
+}
@@ -0,0 +1,86 @@
+package uk.co.paulpop.services.greeting;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import uk.co.paulpop.services.model.Hello;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+public class GreetingTemplateTest {
+
+    private static final GreetingTemplate DEFAULT_TEMPLATE = GreetingTemplate.compile("Hello {name}");
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+
+    @Test
+    public void writeJson_withPlainName_matchesJackson() throws IOException {
+        assertMatchesJackson("Paul Pop");
+    }
+
+    @Test
+    public void writeJson_withQuotesAndBackslashes_matchesJackson() throws IOException {
+        assertMatchesJackson("\"Paul\" \\ Pop /");
+    }
+
+    @Test
+    public void writeJson_withControlCharacters_matchesJackson() throws IOException {
+        assertMatchesJackson("\u0000\b\t\n\u000B\f\r\u001F\u007F");
+    }
+
+    @Test
+    public void writeJson_withUnicode_matchesJackson() throws IOException {
+        assertMatchesJackson("Jean-François € 世界");
+    }
+
+    @Test
+    public void writeJson_withSurrogates_matchesJackson() throws IOException {
+        assertMatchesJackson("😀 and a lone \uD800");
+    }
+
+    @Test
+    public void writeJson_withRepeatedPlaceholder_writesNameEveryTime() throws IOException {
+        GreetingTemplate template = GreetingTemplate.compile("{name}, \"hello\" {name}!");
+
+        assertThat(write(template, "Paul"), equalTo("{\"message\":\"Paul, \\\"hello\\\" Paul!\"}"));
+    }
+
+    @Test
+    public void writeJson_withoutPlaceholder_writesTemplate() throws IOException {
+        GreetingTemplate template = GreetingTemplate.compile("Hello");
+
+        assertThat(write(template, "Paul"), equalTo("{\"message\":\"Hello\"}"));
+    }
+
+    @Test
+    public void render_withRepeatedPlaceholder_rendersNameEveryTime() {
+        GreetingTemplate template = GreetingTemplate.compile("{name}, \"hello\" {name}!");
+
+        assertThat(template.render("Paul"), equalTo("Paul, \"hello\" Paul!"));
+        assertThat(DEFAULT_TEMPLATE.render("Jean-François"), equalTo("Hello Jean-François"));
+        assertThat(GreetingTemplate.compile("Hello").render("Paul"), equalTo("Hello"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void compile_withNullTemplate_throwsException() {
+        GreetingTemplate.compile(null);
+    }
+
+    private void assertMatchesJackson(String name) throws IOException {
+        // The bytes rather than a string, since only Jackson's UTF-8 generator escapes surrogates the way responses are written
+        String expected = new String(objectMapper.writeValueAsBytes(Hello.builder().message("Hello " + name).build()), UTF_8);
+
+        assertThat(write(DEFAULT_TEMPLATE, name), equalTo(expected));
+    }
+
+    private static String write(GreetingTemplate template, String name) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        template.writeJson(name, out);
+        return new String(out.toByteArray(), UTF_8);
+    }
+}
@@ -0,0 +1,110 @@
+package uk.co.paulpop.services.greeting;
+
+import org.junit.After;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.fail;
+
+public class SingleFlightTest {
+
+    private static final int CALLERS = 8;
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>();
+    private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void execute_whenCalledConcurrentlyWithSameKey_thenComputesOnce() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger computations = new AtomicInteger();
+
+        List<Future<String>> results = callConcurrently(() -> singleFlight.execute("Paul", name -> {
+            computations.incrementAndGet();
+            await(release);
+            return "Hello " + name;
+        }));
+        awaitCoalesced(CALLERS - 1);
+        release.countDown();
+
+        String first = results.get(0).get(5, SECONDS);
+        for (Future<String> result : results) {
+            assertThat(result.get(5, SECONDS), sameInstance(first));
+        }
+        assertThat(computations.get(), equalTo(1));
+        assertThat(singleFlight.getExecutions(), equalTo(1L));
+        assertThat(singleFlight.getCoalesced(), equalTo((long) CALLERS - 1));
+        assertThat(singleFlight.getInFlight(), equalTo(0));
+    }
+
+    @Test
+    public void execute_whenComputationFails_thenEveryWaiterGetsTheFailure() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+
+        List<Future<String>> results = callConcurrently(() -> singleFlight.execute("Paul", name -> {
+            await(release);
+            throw new IllegalStateException("backend down");
+        }));
+        awaitCoalesced(CALLERS - 1);
+        release.countDown();
+
+        for (Future<String> result : results) {
+            try {
+                result.get(5, SECONDS);
+                fail("Expected the computation to fail");
+            } catch (ExecutionException e) {
+                assertThat(e.getCause().getMessage(), equalTo("backend down"));
+            }
+        }
+        assertThat(singleFlight.execute("Paul", name -> "Hello " + name), equalTo("Hello Paul"));
+    }
+
+    @Test
+    public void execute_whenCalledSequentially_thenComputesEveryTime() {
+        singleFlight.execute("Paul", name -> "Hello " + name);
+        singleFlight.execute("Paul", name -> "Hello " + name);
+
+        assertThat(singleFlight.getExecutions(), equalTo(2L));
+        assertThat(singleFlight.getCoalesced(), equalTo(0L));
+    }
+
+    private List<Future<String>> callConcurrently(final Callable<String> call) {
+        List<Future<String>> results = new ArrayList<>();
+        for (int i = 0; i < CALLERS; i++) {
+            results.add(executor.submit(call));
+        }
+        return results;
+    }
+
+    private void awaitCoalesced(final long callers) throws InterruptedException {
+        long deadline = System.nanoTime() + SECONDS.toNanos(5);
+        while (singleFlight.getCoalesced() < callers && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await(5, SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
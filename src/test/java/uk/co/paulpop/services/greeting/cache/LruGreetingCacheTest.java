@@ -0,0 +1,74 @@
+package uk.co.paulpop.services.greeting.cache;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.function.Function;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.sameInstance;
+
+public class LruGreetingCacheTest {
+
+    private static final Function<String, RenderedGreeting> RENDERER = name -> RenderedGreeting.of(name.getBytes(UTF_8));
+
+    private RenderedGreeting sample;
+    private LruGreetingCache cache;
+
+    @Before
+    public void setUp() {
+        sample = RENDERER.apply("a");
+        // Room for exactly three single character greetings
+        cache = new LruGreetingCache(3 * sample.weigh("a"));
+    }
+
+    @Test
+    public void get_whenCached_returnsSameGreetingAndCountsHit() {
+        RenderedGreeting first = cache.get("a", RENDERER);
+        RenderedGreeting second = cache.get("a", RENDERER);
+
+        assertThat(second, sameInstance(first));
+        assertThat(cache.stats(), equalTo(GreetingCacheStats.builder()
+            .hits(1)
+            .misses(1)
+            .evictions(0)
+            .entries(1)
+            .bytes(sample.weigh("a"))
+            .build()));
+    }
+
+    @Test
+    public void get_whenOverBudget_evictsLeastRecentlyUsed() {
+        RenderedGreeting a = cache.get("a", RENDERER);
+        cache.get("b", RENDERER);
+        cache.get("c", RENDERER);
+        cache.get("a", RENDERER);
+        cache.get("d", RENDERER);
+
+        assertThat(cache.get("a", RENDERER), sameInstance(a));
+        assertThat(cache.stats().getEvictions(), equalTo(1L));
+        assertThat(cache.stats().getEntries(), equalTo(3L));
+
+        // b was the least recently used, so it has to be rendered again
+        long misses = cache.stats().getMisses();
+        cache.get("b", RENDERER);
+        assertThat(cache.stats().getMisses(), equalTo(misses + 1));
+    }
+
+    @Test
+    public void get_whenGreetingLargerThanBudget_returnsWithoutCaching() {
+        RenderedGreeting large = cache.get("a much longer name than the budget allows", RENDERER);
+
+        assertThat(cache.get("a much longer name than the budget allows", RENDERER), not(sameInstance(large)));
+        assertThat(cache.stats().getEntries(), equalTo(0L));
+        assertThat(cache.stats().getBytes(), equalTo(0L));
+    }
+
+    @Test
+    public void of_derivesQuotedEtagFromBody() {
+        assertThat(RenderedGreeting.of("a".getBytes(UTF_8)).getEtag(), equalTo("\"00cc175b9c0f1b6a831c399e269772661\""));
+    }
+}
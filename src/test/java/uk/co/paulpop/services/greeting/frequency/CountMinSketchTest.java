@@ -0,0 +1,56 @@
+package uk.co.paulpop.services.greeting.frequency;
+
+import org.junit.Test;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+public class CountMinSketchTest {
+
+    @Test
+    public void estimate_whenNeverAdded_thenReturnsZero() {
+        CountMinSketch sketch = new CountMinSketch(64, 4);
+
+        assertThat(sketch.estimate(hash("Paul")), equalTo(0L));
+    }
+
+    @Test
+    public void add_returnsEstimateIncludingAddition() {
+        CountMinSketch sketch = new CountMinSketch(64, 4);
+
+        sketch.add(hash("Paul"));
+
+        assertThat(sketch.add(hash("Paul")), equalTo(2L));
+        assertThat(sketch.estimate(hash("Paul")), equalTo(2L));
+    }
+
+    @Test
+    public void estimate_whenManyKeysAdded_thenNeverUndercountsAndRarelyExceedsErrorBound() {
+        CountMinSketch sketch = new CountMinSketch(1024, 4);
+        int keys = 10_000;
+        for (int i = 0; i < keys; i++) {
+            for (int j = 0; j <= i % 10; j++) {
+                sketch.add(hash("name" + i));
+            }
+        }
+        long bound = (long) (Math.E * keys * 11 / 2 / 1024);
+
+        int overBound = 0;
+        for (int i = 0; i < keys; i++) {
+            long error = sketch.estimate(hash("name" + i)) - (i % 10 + 1);
+            assertThat(error, greaterThanOrEqualTo(0L));
+            if (error > bound) {
+                overBound++;
+            }
+        }
+        // Every estimate is within e / width of all additions with a probability of 1 - e^-4, so about 98% of them
+        assertThat(overBound, lessThanOrEqualTo(keys / 50));
+    }
+
+    private static long hash(final String key) {
+        return NameFrequencyIndex.hash(key.getBytes(UTF_8));
+    }
+}
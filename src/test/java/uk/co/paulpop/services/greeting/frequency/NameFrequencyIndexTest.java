@@ -0,0 +1,73 @@
+package uk.co.paulpop.services.greeting.frequency;
+
+import org.junit.Test;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.is;
+
+public class NameFrequencyIndexTest {
+
+    @Test
+    public void count_whenNameIsIndexed_thenReturnsExactCount() {
+        NameFrequencyIndex index = new NameFrequencyIndex(16, 1024, 2, 64, 4, 4);
+
+        index.record("Paul");
+        index.record("Paul");
+
+        assertThat(index.count("Paul"), equalTo(NameCount.builder().name("Paul").count(2).exact(true).build()));
+        assertThat(index.count("Pop"), equalTo(NameCount.builder().name("Pop").count(0).exact(false).build()));
+    }
+
+    @Test
+    public void count_whenIndexIsFull_thenEstimatesCountFromSketch() {
+        NameFrequencyIndex index = new NameFrequencyIndex(4, 1024, 1, 64, 4, 4);
+        index.record("a");
+        index.record("b");
+        index.record("c");
+
+        index.record("Paul");
+        index.record("Paul");
+
+        NameCount paul = index.count("Paul");
+        assertThat(paul.isExact(), is(false));
+        assertThat(paul.getCount(), greaterThanOrEqualTo(2L));
+        assertThat(index.stats().getUnindexedGreetings(), equalTo(2L));
+        assertThat(index.stats().getIndexedNames(), equalTo(3L));
+    }
+
+    @Test
+    public void top_returnsMostGreetedIndexedAndSketchedNames() {
+        NameFrequencyIndex index = new NameFrequencyIndex(4, 1024, 1, 1024, 4, 2);
+        record(index, "a", 5);
+        record(index, "b", 1);
+        record(index, "c", 3);
+        record(index, "Paul", 4);
+        record(index, "Pop", 2);
+
+        List<NameCount> top = index.top(3);
+
+        assertThat(top.stream().map(NameCount::getName).collect(Collectors.toList()), contains("a", "Paul", "c"));
+        assertThat(top.get(0).isExact(), is(true));
+        assertThat(top.get(1).isExact(), is(false));
+    }
+
+    @Test
+    public void top_whenLimitIsZero_thenReturnsNoNames() {
+        NameFrequencyIndex index = new NameFrequencyIndex(16, 1024, 1, 64, 4, 4);
+        index.record("Paul");
+
+        assertThat(index.top(0).isEmpty(), is(true));
+    }
+
+    private static void record(final NameFrequencyIndex index, final String name, final int times) {
+        for (int i = 0; i < times; i++) {
+            index.record(name);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package uk.co.paulpop.services.greeting.frequency;
+
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+public class OffHeapCountIndexTest {
+
+    @Test
+    public void count_whenIncremented_thenReturnsCount() {
+        OffHeapCountIndex index = new OffHeapCountIndex(16, 1024, 4);
+
+        increment(index, "Paul");
+        increment(index, "Paul");
+        increment(index, "Jean-François");
+
+        assertThat(count(index, "Paul"), equalTo(2L));
+        assertThat(count(index, "Jean-François"), equalTo(1L));
+        assertThat(count(index, "Pop"), equalTo(-1L));
+        assertThat(index.size(), equalTo(2));
+        assertThat(index.keyBytes(), equalTo(4 + "Jean-François".getBytes(UTF_8).length));
+    }
+
+    @Test
+    public void increment_whenHashesCollide_thenCountsKeysSeparately() {
+        OffHeapCountIndex index = new OffHeapCountIndex(16, 1024, 1);
+
+        index.increment(bytes("Paul"), 42L);
+        index.increment(bytes("Pop"), 42L);
+        index.increment(bytes("Pop"), 42L);
+
+        assertThat(index.count(bytes("Paul"), 42L), equalTo(1L));
+        assertThat(index.count(bytes("Pop"), 42L), equalTo(2L));
+    }
+
+    @Test
+    public void increment_whenSlotsAreFull_thenOnlyCountsIndexedKeys() {
+        OffHeapCountIndex index = new OffHeapCountIndex(4, 1024, 1);
+
+        assertThat(increment(index, "a"), is(true));
+        assertThat(increment(index, "b"), is(true));
+        assertThat(increment(index, "c"), is(true));
+
+        assertThat(increment(index, "d"), is(false));
+        assertThat(increment(index, "a"), is(true));
+        assertThat(index.size(), equalTo(index.maximumEntries()));
+    }
+
+    @Test
+    public void increment_whenKeyBytesAreFull_thenDoesNotIndexKey() {
+        OffHeapCountIndex index = new OffHeapCountIndex(16, 4, 1);
+
+        assertThat(increment(index, "Paul"), is(true));
+        assertThat(increment(index, "Pop"), is(false));
+
+        assertThat(count(index, "Pop"), equalTo(-1L));
+        assertThat(index.size(), equalTo(1));
+    }
+
+    @Test
+    public void forEach_returnsEveryKeyWithItsCount() {
+        OffHeapCountIndex index = new OffHeapCountIndex(16, 1024, 2);
+        increment(index, "Paul");
+        increment(index, "Pop");
+        increment(index, "Pop");
+
+        Map<String, Long> counts = new HashMap<>();
+        index.forEach(counts::put);
+
+        Map<String, Long> expected = new HashMap<>();
+        expected.put("Paul", 1L);
+        expected.put("Pop", 2L);
+        assertThat(counts, equalTo(expected));
+    }
+
+    @Test
+    public void increment_whenCalledConcurrently_thenCountsEveryIncrement() throws InterruptedException {
+        OffHeapCountIndex index = new OffHeapCountIndex(1024, 64 * 1024, 4);
+        int threads = 8;
+        int increments = 10_000;
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < threads; t++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < increments; i++) {
+                    increment(index, "name" + (i % 100));
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(30, TimeUnit.SECONDS), is(true));
+
+        assertThat(index.size(), equalTo(100));
+        for (int i = 0; i < 100; i++) {
+            assertThat(count(index, "name" + i), equalTo((long) threads * increments / 100));
+        }
+    }
+
+    private static boolean increment(final OffHeapCountIndex index, final String key) {
+        return index.increment(bytes(key), NameFrequencyIndex.hash(bytes(key)));
+    }
+
+    private static long count(final OffHeapCountIndex index, final String key) {
+        return index.count(bytes(key), NameFrequencyIndex.hash(bytes(key)));
+    }
+
+    private static byte[] bytes(final String key) {
+        return key.getBytes(UTF_8);
+    }
+}
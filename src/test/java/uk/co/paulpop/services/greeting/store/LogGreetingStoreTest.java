@@ -0,0 +1,92 @@
+package uk.co.paulpop.services.greeting.store;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import uk.co.paulpop.services.greeting.frequency.NameFrequencyIndex;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+
+public class LogGreetingStoreTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void count_whenGreetingsWereCommitted_thenCountsThem() throws Exception {
+        try (LogGreetingStore store = open(FsyncPolicy.BATCH)) {
+            store.record("Paul", 1L);
+            store.record("Paul", 2L);
+            store.record("Pop", 3L);
+
+            awaitRecorded(store, 3);
+
+            assertThat(store.count("Paul"), equalTo(2L));
+            assertThat(store.count("Pop"), equalTo(1L));
+            assertThat(store.count("Nobody"), equalTo(0L));
+            assertThat(store.stats().getSyncs(), equalTo(store.stats().getBatches()));
+        }
+    }
+
+    @Test
+    public void open_whenLogHasGreetings_thenRebuildsCounts() throws Exception {
+        try (LogGreetingStore store = open(FsyncPolicy.NEVER)) {
+            for (int i = 0; i < 100; i++) {
+                store.record(i % 2 == 0 ? "Paul" : "Pop", i);
+            }
+        }
+
+        try (LogGreetingStore store = open(FsyncPolicy.NEVER)) {
+            assertThat(store.count("Paul"), equalTo(50L));
+            assertThat(store.count("Pop"), equalTo(50L));
+            assertThat(store.stats().getBytes(), greaterThan(0L));
+        }
+    }
+
+    @Test
+    public void open_whenLogHasMoreSegmentsThanRetained_thenOnlyCountsRetainedGreetings() throws Exception {
+        Path directory = folder.getRoot().toPath();
+        // Every greeting of Paul takes 20 bytes, so a segment of 64 bytes holds two of them
+        try (LogGreetingStore store = open(new MappedGreetingLog(directory, 64, 2), FsyncPolicy.NEVER)) {
+            for (int i = 0; i < 10; i++) {
+                store.record("Paul", i);
+            }
+        }
+
+        try (LogGreetingStore store = open(new MappedGreetingLog(directory, 64, 2), FsyncPolicy.NEVER)) {
+            assertThat(store.count("Paul"), equalTo(4L));
+            assertThat(store.stats().getBytes(), equalTo(4L * 20));
+        }
+    }
+
+    @Test
+    public void record_whenStoreIsClosed_thenDropsGreeting() throws Exception {
+        LogGreetingStore store = open(FsyncPolicy.INTERVAL);
+        store.close();
+
+        store.record("Paul", 1L);
+
+        assertThat(store.stats().getDropped(), equalTo(1L));
+    }
+
+    private LogGreetingStore open(final FsyncPolicy fsyncPolicy) throws IOException {
+        return open(new MappedGreetingLog(folder.getRoot().toPath(), 4096, 16), fsyncPolicy);
+    }
+
+    private static LogGreetingStore open(final MappedGreetingLog log, final FsyncPolicy fsyncPolicy) throws IOException {
+        return new LogGreetingStore(log, new NameFrequencyIndex(16, 1024, 1, 64, 4, 4), 1024, 16, 1, fsyncPolicy, 10);
+    }
+
+    private static void awaitRecorded(final GreetingStore store, final long greetings) throws InterruptedException {
+        long deadline = System.nanoTime() + SECONDS.toNanos(5);
+        while (store.stats().getRecorded() < greetings && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package uk.co.paulpop.services.greeting.store;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+public class MappedGreetingLogTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void open_whenLogWasWritten_thenReplaysRecordsInOrder() throws IOException {
+        Path directory = folder.getRoot().toPath();
+        try (MappedGreetingLog log = new MappedGreetingLog(directory, 1024, 16)) {
+            log.open((name, timestamp) -> { });
+            log.append(bytes("Paul"), 1L);
+            log.append(bytes(""), 2L);
+            log.append(bytes("Jean-François"), 3L);
+        }
+
+        List<String> replayed = new ArrayList<>();
+        try (MappedGreetingLog log = new MappedGreetingLog(directory, 1024, 16)) {
+            assertThat(log.open((name, timestamp) -> replayed.add(name + "@" + timestamp)), equalTo(3L));
+        }
+        assertThat(replayed, contains("Paul@1", "@2", "Jean-François@3"));
+    }
+
+    @Test
+    public void append_whenSegmentIsFull_thenRollsToNewSegment() throws IOException {
+        Path directory = folder.getRoot().toPath();
+        try (MappedGreetingLog log = new MappedGreetingLog(directory, 64, 16)) {
+            log.open((name, timestamp) -> { });
+            for (int i = 0; i < 10; i++) {
+                log.append(bytes("Paul" + i), i);
+            }
+        }
+
+        List<String> replayed = new ArrayList<>();
+        try (MappedGreetingLog log = new MappedGreetingLog(directory, 64, 16)) {
+            log.open((name, timestamp) -> replayed.add(name));
+            log.append(bytes("Pop"), 10L);
+        }
+        assertThat(replayed.size(), equalTo(10));
+        assertThat(replayed.get(9), equalTo("Paul9"));
+        assertThat(folder.getRoot().list((dir, name) -> name.endsWith(".log")).length > 1, is(true));
+    }
+
+    @Test
+    public void append_whenRetainedSegmentsAreFull_thenDeletesOldestSegment() throws IOException {
+        Path directory = folder.getRoot().toPath();
+        try (MappedGreetingLog log = new MappedGreetingLog(directory, 64, 2)) {
+            log.open((name, timestamp) -> { });
+            // Two records of 21 bytes fit in a segment, so the last four are in the last two segments
+            for (int i = 0; i < 10; i++) {
+                log.append(bytes("Paul" + i), i);
+            }
+            assertThat(log.bytes(), equalTo(4L * 21));
+        }
+
+        List<String> replayed = new ArrayList<>();
+        try (MappedGreetingLog log = new MappedGreetingLog(directory, 64, 2)) {
+            log.open((name, timestamp) -> replayed.add(name));
+        }
+        assertThat(replayed, contains("Paul6", "Paul7", "Paul8", "Paul9"));
+        assertThat(folder.getRoot().list((dir, name) -> name.endsWith(".log")).length, equalTo(2));
+    }
+
+    @Test
+    public void open_whenMoreSegmentsThanRetained_thenDeletesThemBeforeReplaying() throws IOException {
+        Path directory = folder.getRoot().toPath();
+        try (MappedGreetingLog log = new MappedGreetingLog(directory, 64, 16)) {
+            log.open((name, timestamp) -> { });
+            for (int i = 0; i < 10; i++) {
+                log.append(bytes("Paul" + i), i);
+            }
+        }
+
+        List<String> replayed = new ArrayList<>();
+        try (MappedGreetingLog log = new MappedGreetingLog(directory, 64, 1)) {
+            assertThat(log.open((name, timestamp) -> replayed.add(name)), equalTo(2L));
+            assertThat(log.bytes(), equalTo(2L * 21));
+        }
+        assertThat(replayed, contains("Paul8", "Paul9"));
+        assertThat(folder.getRoot().list((dir, name) -> name.endsWith(".log")).length, equalTo(1));
+    }
+
+    @Test
+    public void open_whenLastRecordIsCorrupt_thenStopsBeforeItAndAppendsOverIt() throws IOException {
+        Path directory = folder.getRoot().toPath();
+        try (MappedGreetingLog log = new MappedGreetingLog(directory, 1024, 16)) {
+            log.open((name, timestamp) -> { });
+            log.append(bytes("Paul"), 1L);
+            log.append(bytes("Pop"), 2L);
+        }
+        try (RandomAccessFile segment = new RandomAccessFile(directory.resolve("greetings-000000000001.log").toFile(), "rw")) {
+            // Flip a byte of the second name, as a torn write would
+            segment.seek(20 + 4 + 8);
+            segment.write('X');
+        }
+
+        List<String> replayed = new ArrayList<>();
+        try (MappedGreetingLog log = new MappedGreetingLog(directory, 1024, 16)) {
+            log.open((name, timestamp) -> replayed.add(name));
+            log.append(bytes("Pop"), 3L);
+        }
+        try (MappedGreetingLog log = new MappedGreetingLog(directory, 1024, 16)) {
+            log.open((name, timestamp) -> replayed.add(name));
+        }
+        assertThat(replayed, contains("Paul", "Paul", "Pop"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void constructor_whenDirectoryIsAlreadyOpen_thenFails() throws IOException {
+        Path directory = folder.getRoot().toPath();
+        try (MappedGreetingLog log = new MappedGreetingLog(directory, 1024, 16)) {
+            new MappedGreetingLog(directory, 1024, 16);
+        }
+    }
+
+    private static byte[] bytes(final String name) {
+        return name.getBytes(UTF_8);
+    }
+}
@@ -0,0 +1,109 @@
+package uk.co.paulpop.services.json.codec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.mock.http.MockHttpInputMessage;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import uk.co.paulpop.services.exception.handler.HttpExceptionResponse;
+import uk.co.paulpop.services.model.GreetingCount;
+import uk.co.paulpop.services.model.Hello;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+public class JsonCodecHttpMessageConverterTest {
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final JsonCodecHttpMessageConverter converter =
+        new JsonCodecHttpMessageConverter(GeneratedJsonCodecs.all(), objectMapper.getFactory());
+
+    @Test
+    public void write_matchesJackson() throws IOException {
+        assertWritesLikeJackson(Hello.builder().message("Hello \"Paul\" \\ \u0001/é😀").build());
+        assertWritesLikeJackson(Hello.builder().build());
+        assertWritesLikeJackson(GreetingCount.builder().name("Paul").count(Long.MIN_VALUE).build());
+        assertWritesLikeJackson(GreetingCount.builder().name("Paul").count(1234567890123L).build());
+        assertWritesLikeJackson(GreetingCount.builder().count(-7).build());
+        assertWritesLikeJackson(HttpExceptionResponse.builder()
+            .message("Bad Request")
+            .errors(Arrays.asList("Parameter 'name' does not accept value '\"\\\u0001/é😀'", null))
+            .build());
+        assertWritesLikeJackson(HttpExceptionResponse.builder().message("Bad Request").errors(Collections.emptyList()).build());
+        assertWritesLikeJackson(HttpExceptionResponse.builder().build());
+    }
+
+    @Test
+    public void read_roundTripsJacksonOutput() throws IOException {
+        HttpExceptionResponse response = HttpExceptionResponse.builder()
+            .message("Bad Request")
+            .errors(Arrays.asList("é😀 \"quoted\"", null))
+            .build();
+
+        assertThat(read(HttpExceptionResponse.class, objectMapper.writeValueAsString(response)), equalTo(response));
+        assertThat(read(GreetingCount.class, "{\"name\":\"Paul\",\"count\":42}"),
+            equalTo(GreetingCount.builder().name("Paul").count(42).build()));
+    }
+
+    @Test
+    public void read_skipsUnknownFieldsAndDefaultsMissingOnes() throws IOException {
+        Hello hello = read(Hello.class, "{\"greeting\":{\"nested\":[1,2,{\"message\":\"no\"}]},\"message\":\"Hello Paul\",\"extra\":[]}");
+        GreetingCount count = read(GreetingCount.class, "{}");
+
+        assertThat(hello, equalTo(Hello.builder().message("Hello Paul").build()));
+        assertThat(count, equalTo(GreetingCount.builder().build()));
+    }
+
+    @Test
+    public void read_coercesScalarsLikeJackson() throws IOException {
+        GreetingCount count = read(GreetingCount.class, "{\"name\":12,\"count\":\"34\"}");
+
+        assertThat(count, equalTo(GreetingCount.builder().name("12").count(34).build()));
+    }
+
+    @Test
+    public void read_null_returnsNull() throws IOException {
+        assertThat(read(Hello.class, "null"), is(nullValue()));
+    }
+
+    @Test(expected = HttpMessageNotReadableException.class)
+    public void read_wrongType_throwsNotReadable() throws IOException {
+        read(GreetingCount.class, "{\"name\":\"Paul\",\"count\":\"many\"}");
+    }
+
+    @Test(expected = HttpMessageNotReadableException.class)
+    public void read_malformedJson_throwsNotReadable() throws IOException {
+        read(Hello.class, "{\"message\":");
+    }
+
+    @Test
+    public void supports_onlyGeneratedTypes() {
+        assertThat(converter.canWrite(Hello.class, MediaType.APPLICATION_JSON), is(true));
+        assertThat(converter.canRead(HttpExceptionResponse.class, MediaType.APPLICATION_JSON), is(true));
+        assertThat(converter.canWrite(GreetingCount.class, MediaType.TEXT_PLAIN), is(false));
+        assertThat(converter.canWrite(String.class, MediaType.APPLICATION_JSON), is(false));
+    }
+
+    private void assertWritesLikeJackson(final Object value) throws IOException {
+        MockHttpOutputMessage message = new MockHttpOutputMessage();
+        converter.write(value, MediaType.APPLICATION_JSON_UTF8, message);
+
+        // The bytes rather than a string, since only Jackson's UTF-8 generator escapes surrogates the way responses are written
+        assertThat(message.getBodyAsString(UTF_8), equalTo(new String(objectMapper.writeValueAsBytes(value), UTF_8)));
+        assertThat(message.getHeaders().getContentLength(), equalTo((long) message.getBodyAsBytes().length));
+    }
+
+    @SuppressWarnings("unchecked")
+    private <T> T read(final Class<T> type, final String json) throws IOException {
+        return (T) converter.read(type, new MockHttpInputMessage(json.getBytes(UTF_8)));
+    }
+}
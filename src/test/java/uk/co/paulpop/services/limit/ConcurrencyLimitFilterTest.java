@@ -0,0 +1,88 @@
+package uk.co.paulpop.services.limit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import uk.co.paulpop.services.exception.handler.HttpExceptionHandler;
+import uk.co.paulpop.services.exception.handler.HttpExceptionResponses;
+import uk.co.paulpop.services.exception.handler.SampledErrorLogger;
+import uk.co.paulpop.services.metrics.HttpStatusCounters;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+public class ConcurrencyLimitFilterTest {
+
+    private ConcurrencyLimiter limiter;
+    private HttpStatusCounters statusCounters;
+    private ConcurrencyLimitFilter filter;
+
+    @Before
+    public void setUp() {
+        limiter = new ConcurrencyLimiter(new GradientLimit(2, 1, 10, 1.5, 0.2, 10), 0.5);
+        statusCounters = new HttpStatusCounters();
+        HttpExceptionResponses responses = new HttpExceptionResponses(16);
+        filter = new ConcurrencyLimitFilter(limiter, new HttpExceptionHandler(statusCounters, responses, new SampledErrorLogger(0)), responses,
+            Arrays.asList("/health", "/health/**"), Collections.singletonList("/api/batch"));
+    }
+
+    @Test
+    public void doFilter_whenBelowLimit_thenPassesRequestOnAndReleasesIt() throws Exception {
+        MockHttpServletResponse response = get("/api/Paul");
+
+        assertThat(response.getStatus(), equalTo(200));
+        assertThat(limiter.getInFlight(), equalTo(0));
+        assertThat(limiter.getAdmitted(RoutePriority.NORMAL), equalTo(1L));
+    }
+
+    @Test
+    public void doFilter_whenLimitIsReached_thenRejectsWithServiceUnavailable() throws Exception {
+        limiter.tryAcquire(RoutePriority.NORMAL);
+        limiter.tryAcquire(RoutePriority.NORMAL);
+
+        MockHttpServletResponse response = get("/api/Paul");
+
+        assertThat(response.getStatus(), equalTo(503));
+        assertThat(response.getHeader("Retry-After"), equalTo("1"));
+        assertThat(response.getContentAsString(), containsString("\"message\":\"Service Unavailable\""));
+        assertThat(statusCounters.get(503), equalTo(1L));
+        assertThat(limiter.getRejected(RoutePriority.NORMAL), equalTo(1L));
+    }
+
+    @Test
+    public void doFilter_whenLimitIsReached_thenStillServesHealthChecks() throws Exception {
+        limiter.tryAcquire(RoutePriority.NORMAL);
+        limiter.tryAcquire(RoutePriority.NORMAL);
+
+        assertThat(get("/health").getStatus(), equalTo(200));
+        assertThat(limiter.getInFlight(), equalTo(2));
+    }
+
+    @Test
+    public void doFilter_whenShareOfLimitIsUsed_thenShedsLowPriorityFirst() throws Exception {
+        limiter.tryAcquire(RoutePriority.NORMAL);
+
+        assertThat(get("/api/batch").getStatus(), equalTo(503));
+        assertThat(get("/api/Paul").getStatus(), equalTo(200));
+    }
+
+    @Test
+    public void priorityOf_matchesConfiguredPaths() {
+        assertThat(filter.priorityOf("/health/db"), is(RoutePriority.CRITICAL));
+        assertThat(filter.priorityOf("/api/batch"), is(RoutePriority.LOW));
+        assertThat(filter.priorityOf("/api/batchelor"), is(RoutePriority.NORMAL));
+    }
+
+    private MockHttpServletResponse get(final String path) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(new MockHttpServletRequest("GET", path), response, new MockFilterChain());
+        return response;
+    }
+}
@@ -0,0 +1,84 @@
+package uk.co.paulpop.services.limit;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThan;
+
+public class GradientLimitTest {
+
+    private final GradientLimit limit = new GradientLimit(20, 5, 100, 1.5, 0.5, 10);
+
+    @Test
+    public void onSample_whenLatencyIsSteadyUnderLoad_thenGrowsLimit() {
+        sample(20, 10, 20);
+
+        assertThat(limit.getLimit(), greaterThan(20));
+    }
+
+    @Test
+    public void onSample_whenLatencyRises_thenShrinksLimit() {
+        sample(1, 10, 20);
+        int before = limit.getLimit();
+
+        sample(5, 100, before);
+
+        assertThat(limit.getLimit(), lessThan(before));
+    }
+
+    @Test
+    public void onSample_whenFewRequestsAreInFlight_thenKeepsLimit() {
+        sample(5, 10, 2);
+
+        assertThat(limit.getLimit(), equalTo(20));
+    }
+
+    @Test
+    public void onSample_neverLeavesBounds() {
+        sample(1, 10, 20);
+        sample(50, 1000, 100);
+        assertThat(limit.getLimit(), equalTo(5));
+
+        sample(500, 1, 100);
+        assertThat(limit.getLimit(), equalTo(100));
+    }
+
+    @Test
+    public void onSample_fromManyThreads_thenStillGrowsLimit() throws InterruptedException {
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                sample(5, 10, 20);
+            });
+            thread.start();
+            threads.add(thread);
+        }
+
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertThat(limit.getLimit(), greaterThan(20));
+    }
+
+    private void sample(final int windows, final long rttMillis, final int inFlight) {
+        for (int i = 0; i < windows * 10; i++) {
+            limit.onSample(MILLISECONDS.toNanos(rttMillis), inFlight);
+        }
+    }
+}
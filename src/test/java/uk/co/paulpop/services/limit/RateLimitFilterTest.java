@@ -0,0 +1,135 @@
+package uk.co.paulpop.services.limit;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import uk.co.paulpop.services.exception.handler.HttpExceptionHandler;
+import uk.co.paulpop.services.exception.handler.HttpExceptionResponses;
+import uk.co.paulpop.services.exception.handler.SampledErrorLogger;
+import uk.co.paulpop.services.metrics.HttpStatusCounters;
+import uk.co.paulpop.services.warmup.WarmUp;
+
+import javax.servlet.http.HttpServletRequest;
+import java.util.Arrays;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class RateLimitFilterTest {
+
+    private RateLimitRoute batch;
+    private RateLimitRoute api;
+    private HttpStatusCounters statusCounters;
+    private WarmUp warmUp;
+    private RateLimitFilter filter;
+
+    @Before
+    public void setUp() {
+        batch = new RateLimitRoute("batch", "/api/batch", new TokenBucketTable(1, 1, 16, 1));
+        api = new RateLimitRoute("api", "/api/**", new TokenBucketTable(1, 2, 16, 1));
+        statusCounters = new HttpStatusCounters();
+        warmUp = mock(WarmUp.class);
+        filter = filter(1);
+    }
+
+    @Test
+    public void doFilter_whenClientHasTokens_thenPassesRequestOn() throws Exception {
+        MockHttpServletResponse response = get("/api/batch", "10.0.0.1");
+
+        assertThat(response.getStatus(), equalTo(200));
+        assertThat(batch.getAdmitted(), equalTo(1L));
+        assertThat(api.getAdmitted(), equalTo(0L));
+    }
+
+    @Test
+    public void doFilter_whenClientIsOverItsLimit_thenRejectsWithTooManyRequests() throws Exception {
+        get("/api/batch", "10.0.0.1");
+
+        MockHttpServletResponse response = get("/api/batch", "10.0.0.1");
+
+        assertThat(response.getStatus(), equalTo(429));
+        assertThat(response.getHeader("Retry-After"), equalTo("1"));
+        assertThat(response.getContentAsString(), containsString("\"message\":\"Too Many Requests\""));
+        assertThat(statusCounters.get(429), equalTo(1L));
+        assertThat(batch.getRejected(), equalTo(1L));
+    }
+
+    @Test
+    public void doFilter_limitsEveryClientOnItsOwn() throws Exception {
+        get("/api/batch", "10.0.0.1");
+
+        assertThat(get("/api/batch", "10.0.0.2").getStatus(), equalTo(200));
+    }
+
+    @Test
+    public void doFilter_whenClientForgesForwardedEntries_thenStillLimitsIt() throws Exception {
+        get("/api/batch", "1.1.1.1, 10.0.0.1");
+
+        assertThat(get("/api/batch", "2.2.2.2, 10.0.0.1").getStatus(), equalTo(429));
+    }
+
+    @Test
+    public void doFilter_whenNoRouteMatches_thenPassesRequestOn() throws Exception {
+        get("/health", "10.0.0.1");
+
+        assertThat(get("/health", "10.0.0.1").getStatus(), equalTo(200));
+        assertThat(batch.getAdmitted() + api.getAdmitted(), equalTo(0L));
+    }
+
+    @Test
+    public void doFilter_whenWarmingUp_thenDoesNotLimit() throws Exception {
+        when(warmUp.isWarmUpRequest(any(HttpServletRequest.class))).thenReturn(true);
+        get("/api/batch", "10.0.0.1");
+
+        assertThat(get("/api/batch", "10.0.0.1").getStatus(), equalTo(200));
+        assertThat(batch.getAdmitted(), equalTo(0L));
+    }
+
+    @Test
+    public void routeOf_returnsFirstMatchingRoute() {
+        assertThat(filter.routeOf("/api/batch"), sameInstance(batch));
+        assertThat(filter.routeOf("/api/Paul"), sameInstance(api));
+        assertThat(filter.routeOf("/health"), nullValue());
+    }
+
+    @Test
+    public void clientOf_takesEntryAddedByLastTrustedProxy() {
+        assertThat(filter.clientOf(request("/api/Paul", "1.1.1.1, 10.0.0.1")), equalTo("10.0.0.1"));
+        assertThat(filter(2).clientOf(request("/api/Paul", "1.1.1.1, 10.0.0.1, 10.0.0.2")), equalTo("10.0.0.1"));
+    }
+
+    @Test
+    public void clientOf_whenProxiesAddedTooFewEntries_thenUsesRemoteAddress() {
+        assertThat(filter.clientOf(request("/api/Paul", null)), equalTo("127.0.0.1"));
+        assertThat(filter(2).clientOf(request("/api/Paul", "10.0.0.1")), equalTo("127.0.0.1"));
+        assertThat(filter(0).clientOf(request("/api/Paul", "10.0.0.1")), equalTo("127.0.0.1"));
+    }
+
+    private RateLimitFilter filter(final int trustedProxies) {
+        HttpExceptionResponses responses = new HttpExceptionResponses(16);
+        return new RateLimitFilter(Arrays.asList(batch, api), "X-Forwarded-For", trustedProxies,
+            new HttpExceptionHandler(statusCounters, responses, new SampledErrorLogger(0)), responses, warmUp);
+    }
+
+    private MockHttpServletResponse get(final String path, final String forwardedFor) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(path, forwardedFor), response, new MockFilterChain());
+        return response;
+    }
+
+    private static MockHttpServletRequest request(final String path, final String forwardedFor) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        if (forwardedFor != null) {
+            request.addHeader("X-Forwarded-For", forwardedFor);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,78 @@
+package uk.co.paulpop.services.limit;
+
+import org.junit.Test;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThanOrEqualTo;
+
+public class TokenBucketTableTest {
+
+    private final TokenBucketTable table = new TokenBucketTable(10, 2, 2, 1);
+
+    @Test
+    public void tryAcquire_whenBurstIsUsed_thenRejectsUntilNextToken() {
+        assertThat(table.tryAcquire("a", 0), equalTo(0L));
+        assertThat(table.tryAcquire("a", 0), equalTo(0L));
+
+        long wait = table.tryAcquire("a", 0);
+
+        assertThat(wait, greaterThan(MILLISECONDS.toNanos(99)));
+        assertThat(wait, lessThanOrEqualTo(MILLISECONDS.toNanos(101)));
+    }
+
+    @Test
+    public void tryAcquire_refillsAtRequestRate() {
+        table.tryAcquire("a", 0);
+        table.tryAcquire("a", 0);
+
+        assertThat(table.tryAcquire("a", MILLISECONDS.toNanos(101)), equalTo(0L));
+        assertThat(table.tryAcquire("a", MILLISECONDS.toNanos(101)), greaterThan(0L));
+    }
+
+    @Test
+    public void tryAcquire_keepsABucketPerClient() {
+        table.tryAcquire("a", 0);
+        table.tryAcquire("a", 0);
+
+        assertThat(table.tryAcquire("b", 0), equalTo(0L));
+        assertThat(table.size(), equalTo(2));
+    }
+
+    @Test
+    public void tryAcquire_whenTableIsFullOfActiveClients_thenEvictsLeastRecentlySeen() {
+        table.tryAcquire("a", 0);
+        table.tryAcquire("b", 0);
+        table.tryAcquire("a", 1);
+
+        table.tryAcquire("c", 2);
+
+        assertThat(table.size(), equalTo(2));
+        assertThat(table.evictions(), equalTo(1L));
+        // "a" was seen after "b", so it kept its empty bucket rather than getting a new full one
+        assertThat(table.tryAcquire("a", 3), greaterThan(0L));
+    }
+
+    @Test
+    public void tryAcquire_whenBucketsHaveRefilled_thenDropsThemWithoutEvicting() {
+        table.tryAcquire("a", 0);
+        table.tryAcquire("b", 0);
+
+        table.tryAcquire("c", MILLISECONDS.toNanos(201));
+
+        assertThat(table.size(), equalTo(1));
+        assertThat(table.evictions(), equalTo(0L));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_whenRateIsNotPositive_thenThrows() {
+        new TokenBucketTable(0, 1, 1, 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_whenBurstIsBelowOne_thenThrows() {
+        new TokenBucketTable(1, 0, 1, 1);
+    }
+}
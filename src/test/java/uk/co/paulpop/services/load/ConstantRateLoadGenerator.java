@@ -0,0 +1,100 @@
+package uk.co.paulpop.services.load;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open model load generator: requests are due at a constant rate whether or not earlier ones have been answered, the way independent
+ * callers arrive, rather than each client waiting for its previous response. Latency is measured from the time a request was due, so a
+ * stall is charged to every request that should have been sent during it and not only to the one that was stuck, which corrects for
+ * coordinated omission. The kinds of requests are interleaved evenly in proportion to their weights.
+ */
+final class ConstantRateLoadGenerator {
+
+    private final HttpClient client;
+    private final double requestsPerSecond;
+    private final int maxInFlight;
+
+    /**
+     * @param client            the client sending the requests
+     * @param requestsPerSecond the rate requests are due at
+     * @param maxInFlight       requests waiting for a response past which the next one is held back, which still counts towards its
+     *                          latency, so a hung server cannot exhaust the test JVM
+     */
+    ConstantRateLoadGenerator(final HttpClient client, final double requestsPerSecond, final int maxInFlight) {
+        if (requestsPerSecond <= 0 || maxInFlight < 1) {
+            throw new IllegalArgumentException("Rate and requests in flight must be positive");
+        }
+        this.client = client;
+        this.requestsPerSecond = requestsPerSecond;
+        this.maxInFlight = maxInFlight;
+    }
+
+    /**
+     * Sends the mix of requests at the configured rate for the given duration and waits for all of them to be answered
+     *
+     * @param mix      the kinds of requests to send
+     * @param duration how long to send requests for
+     * @param timeout  how long to wait for the last responses once all requests are sent
+     * @return the latencies and unexpected responses
+     * @throws InterruptedException  if interrupted while sending or waiting
+     * @throws IllegalStateException if responses are still missing after the timeout
+     */
+    LoadResult run(final List<LoadRequest> mix, final Duration duration, final Duration timeout) throws InterruptedException {
+        LoadRequest[] schedule = schedule(mix);
+        double intervalNanos = TimeUnit.SECONDS.toNanos(1) / requestsPerSecond;
+        long requests = (long) (duration.toNanos() / intervalNanos);
+        LoadResult result = new LoadResult(mix);
+        Semaphore inFlight = new Semaphore(maxInFlight);
+
+        long start = System.nanoTime();
+        for (long i = 0; i < requests; i++) {
+            long due = start + (long) (i * intervalNanos);
+            long wait;
+            while ((wait = due - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            inFlight.acquire();
+            LoadRequest request = schedule[(int) (i % schedule.length)];
+            long sent = System.nanoTime();
+            client.sendAsync(request.request(i), HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    long received = System.nanoTime();
+                    result.record(request, response != null ? response.statusCode() : -1, received - due, received - sent);
+                    inFlight.release();
+                });
+        }
+        if (!inFlight.tryAcquire(maxInFlight, timeout.toNanos(), TimeUnit.NANOSECONDS)) {
+            throw new IllegalStateException((maxInFlight - inFlight.availablePermits()) + " requests still unanswered after " + timeout);
+        }
+        result.finish(requests, System.nanoTime() - start);
+        return result;
+    }
+
+    /**
+     * Spreads every kind of request evenly over a cycle as long as the sum of the weights, so a short run still sees the intended mix
+     */
+    static LoadRequest[] schedule(final List<LoadRequest> mix) {
+        int total = mix.stream().mapToInt(LoadRequest::getWeight).sum();
+        List<LoadRequest> schedule = new ArrayList<>(total);
+        double[] credit = new double[mix.size()];
+        for (int slot = 0; slot < total; slot++) {
+            int next = 0;
+            for (int i = 0; i < mix.size(); i++) {
+                credit[i] += mix.get(i).getWeight();
+                if (credit[i] > credit[next]) {
+                    next = i;
+                }
+            }
+            credit[next] -= total;
+            schedule.add(mix.get(next));
+        }
+        return schedule.toArray(new LoadRequest[total]);
+    }
+}
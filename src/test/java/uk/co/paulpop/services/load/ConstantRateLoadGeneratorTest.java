@@ -0,0 +1,123 @@
+package uk.co.paulpop.services.load;
+
+import com.sun.net.httpserver.HttpServer;
+import org.HdrHistogram.Histogram;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.lessThan;
+
+public class ConstantRateLoadGeneratorTest {
+
+    private static final int STALL_MILLIS = 300;
+
+    private final HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    private HttpServer server;
+
+    @Before
+    public void setUp() throws IOException, InterruptedException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            if (requests.incrementAndGet() == 10) {
+                sleep();
+            }
+            exchange.sendResponseHeaders(200, -1);
+            exchange.close();
+        });
+        server.setExecutor(executor);
+        server.start();
+        // Opens the connection up front, so the first request of a run isn't slowed down by it
+        client.send(request("ok", 1, 200).request(0), HttpResponse.BodyHandlers.discarding());
+        requests.set(0);
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void run_whenServerStalls_thenChargesTheStallToEveryRequestDueDuringIt() throws InterruptedException {
+        // A single request in flight makes the generator wait out the stall like a closed model client would
+        ConstantRateLoadGenerator generator = new ConstantRateLoadGenerator(client, 50, 1);
+
+        LoadResult result = generator.run(Collections.singletonList(request("ok", 1, 200)), Duration.ofSeconds(1), Duration.ofSeconds(5));
+
+        assertThat(result.sent(), equalTo(50L));
+        assertThat(result.corrected(LoadResult.OVERALL).getTotalCount(), equalTo(50L));
+        assertThat(result.uncorrected(LoadResult.OVERALL).getMaxValue(), greaterThan(STALL_MILLIS * 900L));
+        // Only the stuck request was slow once sent, but the ones that should have gone out meanwhile were late
+        assertThat(result.uncorrected(LoadResult.OVERALL).getValueAtPercentile(90), lessThan(100_000L));
+        assertThat(result.corrected(LoadResult.OVERALL).getValueAtPercentile(90), greaterThan(100_000L));
+    }
+
+    @Test
+    public void run_countsResponsesWithUnexpectedStatusPerKind() throws InterruptedException {
+        ConstantRateLoadGenerator generator = new ConstantRateLoadGenerator(client, 400, 16);
+
+        LoadResult result = generator.run(Arrays.asList(request("ok", 3, 200), request("created", 1, 201)), Duration.ofMillis(100),
+            Duration.ofSeconds(5));
+
+        assertThat(result.corrected("ok").getTotalCount(), equalTo(30L));
+        assertThat(result.corrected("created").getTotalCount(), equalTo(10L));
+        assertThat(result.unexpected(), equalTo(10L));
+        assertThat(result.failed(), equalTo(0L));
+    }
+
+    @Test
+    public void schedule_interleavesKindsInProportionToTheirWeights() {
+        LoadRequest a = request("a", 3, 200);
+        LoadRequest b = request("b", 1, 200);
+
+        assertThat(Arrays.asList(ConstantRateLoadGenerator.schedule(Arrays.asList(a, b))), contains(a, a, b, a));
+    }
+
+    @Test
+    public void violations_listsEveryMissedObjective() {
+        Histogram latencies = new Histogram(3);
+        for (int i = 0; i < 99; i++) {
+            latencies.recordValue(1000);
+        }
+        latencies.recordValue(2000);
+
+        assertThat(new LatencySlo(1, 1, 2).violations(latencies), empty());
+        assertThat(new LatencySlo(0.5, 1, 1.5).violations(latencies),
+            contains("p50 of 1.000ms is over the objective of 0.500ms", "max of 2.000ms is over the objective of 1.500ms"));
+    }
+
+    private LoadRequest request(final String name, final int weight, final int expectedStatus) {
+        return new LoadRequest(name, weight, expectedStatus,
+            i -> HttpRequest.newBuilder(URI.create("http://localhost:" + server.getAddress().getPort() + "/")).build());
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(STALL_MILLIS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
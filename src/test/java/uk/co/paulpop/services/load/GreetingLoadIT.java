@@ -0,0 +1,102 @@
+package uk.co.paulpop.services.load;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.embedded.LocalServerPort;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import uk.co.paulpop.services.JavaSpringServiceApplication;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.springframework.http.MediaType.APPLICATION_JSON_VALUE;
+import static uk.co.paulpop.services.greeting.BatchGreetingWriter.APPLICATION_NDJSON_VALUE;
+
+/**
+ * Sends a mix of greetings, counts, batches and invalid requests at a constant rate and fails when the latencies, corrected for coordinated
+ * omission, miss the objectives. The rate, durations and objectives are taken from the load.* system properties that failsafe sets from
+ * the Maven properties of the same name, and the HdrHistogram reports are written to load.report-directory.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, classes = JavaSpringServiceApplication.class,
+    properties = {"service.rate-limit.enabled=true", "service.rate-limit.trusted-proxies=1"})
+@RunWith(SpringRunner.class)
+public class GreetingLoadIT {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(GreetingLoadIT.class);
+
+    private static final int NAMES = 1024;
+    // Requests come from as many clients as a busy proxy would forward, so the rate limit, set up as behind one proxy, is exercised
+    // without being hit
+    private static final int CLIENTS = 4096;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+    private static final String TOO_LONG_NAME = String.join("", Collections.nCopies(257, "P"));
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    public void mixedTraffic_meetsLatencyObjectives() throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(REQUEST_TIMEOUT)
+            .build();
+        ConstantRateLoadGenerator generator =
+            new ConstantRateLoadGenerator(client, setting("load.requests-per-second", 200), (int) setting("load.max-in-flight", 256));
+        LatencySlo slo = new LatencySlo(setting("load.slo.p50-millis", 20), setting("load.slo.p99-millis", 200),
+            setting("load.slo.max-millis", 2000));
+        List<LoadRequest> mix = mix();
+
+        // Lets the JIT compile the request paths first, the service's own warm-up being disabled in the integration tests
+        generator.run(mix, Duration.ofSeconds((long) setting("load.warm-up-seconds", 5)), REQUEST_TIMEOUT);
+        LoadResult result = generator.run(mix, Duration.ofSeconds((long) setting("load.duration-seconds", 10)), REQUEST_TIMEOUT);
+
+        result.writeReports(Paths.get(System.getProperty("load.report-directory", "target/load-test")));
+        LOGGER.info("Load test against {}:\n{}", slo, result.summary());
+
+        assertThat(result.failed(), equalTo(0L));
+        assertThat(result.unexpected(), equalTo(0L));
+        assertThat(result.corrected(LoadResult.OVERALL).getTotalCount(), equalTo(result.sent()));
+        assertThat(slo.violations(result.corrected(LoadResult.OVERALL)), empty());
+    }
+
+    private List<LoadRequest> mix() {
+        return Arrays.asList(
+            new LoadRequest("greeting", 75, 200, i -> get(i, "/api/name" + i % NAMES)),
+            new LoadRequest("count", 5, 200, i -> get(i, "/api/name" + i % NAMES + "/count")),
+            new LoadRequest("batch", 5, 200, i -> request(i, "/api/batch", APPLICATION_NDJSON_VALUE)
+                .header("Content-Type", APPLICATION_JSON_VALUE)
+                .POST(HttpRequest.BodyPublishers.ofString("[\"Paul\",\"Pop\",\"name" + i % NAMES + "\"]"))
+                .build()),
+            new LoadRequest("invalid-name", 10, 400, i -> get(i, "/api/" + TOO_LONG_NAME)),
+            new LoadRequest("missing-name", 5, 404, i -> get(i, "/api/")));
+    }
+
+    private HttpRequest get(final long sequence, final String path) {
+        return request(sequence, path, APPLICATION_JSON_VALUE).GET().build();
+    }
+
+    private HttpRequest.Builder request(final long sequence, final String path, final String accept) {
+        long client = sequence % CLIENTS;
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+            .timeout(REQUEST_TIMEOUT)
+            .header("Accept", accept)
+            .header("X-Forwarded-For", "10.0." + client / 256 + "." + client % 256);
+    }
+
+    private static double setting(final String name, final double defaultValue) {
+        String value = System.getProperty(name);
+        return value == null || value.isEmpty() ? defaultValue : Double.parseDouble(value);
+    }
+}
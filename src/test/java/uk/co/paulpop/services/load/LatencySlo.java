@@ -0,0 +1,45 @@
+package uk.co.paulpop.services.load;
+
+import org.HdrHistogram.Histogram;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Latency objectives a load test must meet, in milliseconds, checked against a histogram recorded in microseconds.
+ */
+final class LatencySlo {
+
+    private final double p50Millis;
+    private final double p99Millis;
+    private final double maxMillis;
+
+    LatencySlo(final double p50Millis, final double p99Millis, final double maxMillis) {
+        this.p50Millis = p50Millis;
+        this.p99Millis = p99Millis;
+        this.maxMillis = maxMillis;
+    }
+
+    /**
+     * @param latencies the latencies in microseconds
+     * @return a description of every objective that was missed, empty if all of them were met
+     */
+    List<String> violations(final Histogram latencies) {
+        List<String> violations = new ArrayList<>(3);
+        check(violations, "p50", LoadResult.millis(latencies.getValueAtPercentile(50)), p50Millis);
+        check(violations, "p99", LoadResult.millis(latencies.getValueAtPercentile(99)), p99Millis);
+        check(violations, "max", LoadResult.millis(latencies.getMaxValue()), maxMillis);
+        return violations;
+    }
+
+    private static void check(final List<String> violations, final String name, final double actual, final double objective) {
+        if (actual > objective) {
+            violations.add(String.format("%s of %.3fms is over the objective of %.3fms", name, actual, objective));
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("p50 <= %.1fms, p99 <= %.1fms, max <= %.1fms", p50Millis, p99Millis, maxMillis);
+    }
+}
@@ -0,0 +1,48 @@
+package uk.co.paulpop.services.load;
+
+import java.net.http.HttpRequest;
+import java.util.function.LongFunction;
+
+/**
+ * One kind of request in the traffic mix of a {@link ConstantRateLoadGenerator}, sent in proportion to its weight and expected to be
+ * answered with the given status.
+ */
+final class LoadRequest {
+
+    private final String name;
+    private final int weight;
+    private final int expectedStatus;
+    private final LongFunction<HttpRequest> request;
+
+    /**
+     * @param name           the name the latencies of this kind are reported under
+     * @param weight         how many of every sum of the weights of the mix are of this kind
+     * @param expectedStatus the status every response must have
+     * @param request        builds the request from its sequence number in the run
+     */
+    LoadRequest(final String name, final int weight, final int expectedStatus, final LongFunction<HttpRequest> request) {
+        if (weight < 1) {
+            throw new IllegalArgumentException("Weight must be positive");
+        }
+        this.name = name;
+        this.weight = weight;
+        this.expectedStatus = expectedStatus;
+        this.request = request;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    int getWeight() {
+        return weight;
+    }
+
+    int getExpectedStatus() {
+        return expectedStatus;
+    }
+
+    HttpRequest request(final long sequence) {
+        return request.apply(sequence);
+    }
+}
@@ -0,0 +1,159 @@
+package uk.co.paulpop.services.load;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+
+/**
+ * Latencies and unexpected responses of a {@link ConstantRateLoadGenerator} run, overall and per kind of request. Latencies are recorded in
+ * microseconds twice: from the time a request was due to be sent, which is what callers arriving at that rate would see, and from the time
+ * it was actually sent, which leaves out the time it waited behind slow responses (coordinated omission).
+ */
+final class LoadResult {
+
+    static final String OVERALL = "overall";
+
+    private static final long HIGHEST_TRACKABLE_MICROS = TimeUnit.MINUTES.toMicros(1);
+    private static final int SIGNIFICANT_DIGITS = 3;
+    private static final double MICROS_PER_MILLI = 1000.0;
+
+    private final Map<String, Latencies> latencies = new LinkedHashMap<>();
+    private final LongAdder unexpected = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private long sent;
+    private long elapsedNanos;
+
+    LoadResult(final List<LoadRequest> mix) {
+        latencies.put(OVERALL, new Latencies());
+        mix.forEach(request -> latencies.put(request.getName(), new Latencies()));
+    }
+
+    /**
+     * Records a response, or a request that failed without one when the status is -1
+     */
+    void record(final LoadRequest request, final int status, final long correctedNanos, final long uncorrectedNanos) {
+        if (status == -1) {
+            failed.increment();
+        } else if (status != request.getExpectedStatus()) {
+            unexpected.increment();
+        }
+        long corrected = TimeUnit.NANOSECONDS.toMicros(correctedNanos);
+        long uncorrected = TimeUnit.NANOSECONDS.toMicros(uncorrectedNanos);
+        latencies.get(OVERALL).record(corrected, uncorrected);
+        latencies.get(request.getName()).record(corrected, uncorrected);
+    }
+
+    void finish(final long sent, final long elapsedNanos) {
+        this.sent = sent;
+        this.elapsedNanos = elapsedNanos;
+        latencies.values().forEach(Latencies::finish);
+    }
+
+    /**
+     * @return the latencies measured from the time requests were due, in microseconds
+     */
+    Histogram corrected(final String name) {
+        return latencies.get(name).corrected;
+    }
+
+    /**
+     * @return the latencies measured from the time requests were sent, in microseconds
+     */
+    Histogram uncorrected(final String name) {
+        return latencies.get(name).uncorrected;
+    }
+
+    /**
+     * @return the responses with another status than expected
+     */
+    long unexpected() {
+        return unexpected.sum();
+    }
+
+    /**
+     * @return the requests that failed without a response
+     */
+    long failed() {
+        return failed.sum();
+    }
+
+    long sent() {
+        return sent;
+    }
+
+    /**
+     * @return the requests sent per second over the run
+     */
+    double throughput() {
+        return sent * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Writes the percentile distribution of every histogram in milliseconds, as the {@code <name>.hgrm} and {@code <name>-uncorrected.hgrm}
+     * files the HdrHistogram plotter reads
+     *
+     * @param directory the directory to write to, created if missing
+     * @throws IOException if a report cannot be written
+     */
+    void writeReports(final Path directory) throws IOException {
+        Files.createDirectories(directory);
+        for (Map.Entry<String, Latencies> entry : latencies.entrySet()) {
+            write(entry.getValue().corrected, directory.resolve(entry.getKey() + ".hgrm"));
+            write(entry.getValue().uncorrected, directory.resolve(entry.getKey() + "-uncorrected.hgrm"));
+        }
+    }
+
+    /**
+     * @return one line per kind of request with its count and corrected percentiles in milliseconds
+     */
+    String summary() {
+        StringBuilder summary = new StringBuilder(String.format("%d requests at %.1f/s, %d unexpected responses, %d failed%n",
+            sent, throughput(), unexpected(), failed()));
+        latencies.forEach((name, latency) -> summary.append(String.format("  %-16s count=%-8d p50=%.3fms p99=%.3fms max=%.3fms%n",
+            name, latency.corrected.getTotalCount(), millis(latency.corrected.getValueAtPercentile(50)),
+            millis(latency.corrected.getValueAtPercentile(99)), millis(latency.corrected.getMaxValue()))));
+        return summary.toString();
+    }
+
+    static double millis(final long micros) {
+        return micros / MICROS_PER_MILLI;
+    }
+
+    private static void write(final Histogram histogram, final Path file) throws IOException {
+        try (PrintStream out = new PrintStream(Files.newOutputStream(file), false, UTF_8.name())) {
+            histogram.outputPercentileDistribution(out, MICROS_PER_MILLI);
+        }
+    }
+
+    /**
+     * Recorders are wait-free, so responses completing on many threads at once don't hold each other up.
+     */
+    private static final class Latencies {
+
+        private final Recorder correctedRecorder = new Recorder(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+        private final Recorder uncorrectedRecorder = new Recorder(HIGHEST_TRACKABLE_MICROS, SIGNIFICANT_DIGITS);
+        private Histogram corrected;
+        private Histogram uncorrected;
+
+        void record(final long correctedMicros, final long uncorrectedMicros) {
+            correctedRecorder.recordValue(Math.min(correctedMicros, HIGHEST_TRACKABLE_MICROS));
+            uncorrectedRecorder.recordValue(Math.min(uncorrectedMicros, HIGHEST_TRACKABLE_MICROS));
+        }
+
+        void finish() {
+            corrected = correctedRecorder.getIntervalHistogram();
+            uncorrected = uncorrectedRecorder.getIntervalHistogram();
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package uk.co.paulpop.services.logging;
+
+import ch.qos.logback.access.spi.IAccessEvent;
+import ch.qos.logback.core.ContextBase;
+import org.junit.Before;
+import org.junit.Test;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class AccessLogEncoderTest {
+
+    private IAccessEvent event;
+    private AccessLogEncoder encoder;
+
+    @Before
+    public void setUp() {
+        event = mock(IAccessEvent.class);
+        when(event.getTimeStamp()).thenReturn(1500000000000L);
+        when(event.getRemoteHost()).thenReturn("127.0.0.1");
+        when(event.getMethod()).thenReturn("GET");
+        when(event.getRequestURI()).thenReturn("/api/Pa\"ul");
+        when(event.getQueryString()).thenReturn("");
+        when(event.getProtocol()).thenReturn("HTTP/1.1");
+        when(event.getStatusCode()).thenReturn(200);
+        when(event.getContentLength()).thenReturn(22L);
+        when(event.getElapsedTime()).thenReturn(3L);
+        when(event.getRequestHeader("Referer")).thenReturn(IAccessEvent.NA);
+        when(event.getRequestHeader("X-Forwarded-For")).thenReturn("10.0.0.1");
+        when(event.getRequestHeader("User-Agent")).thenReturn("curl/7.58.0");
+
+        encoder = new AccessLogEncoder();
+        encoder.setContext(new ContextBase());
+    }
+
+    @Test
+    public void encode_whenJson_writesOneObjectPerLineWithoutMissingHeaders() {
+        encoder.setFormat(AccessLogFormat.JSON);
+        encoder.start();
+
+        assertThat(new String(encoder.encode(event), UTF_8), equalTo("{\"timestamp\":1500000000000,\"remoteHost\":\"127.0.0.1\","
+            + "\"method\":\"GET\",\"uri\":\"/api/Pa\\\"ul\",\"protocol\":\"HTTP/1.1\",\"status\":200,\"bytes\":22,\"elapsedMillis\":3,"
+            + "\"forwardedFor\":\"10.0.0.1\",\"userAgent\":\"curl/7.58.0\"}" + System.lineSeparator()));
+    }
+
+    @Test
+    public void encode_whenPattern_formatsWithLayout() {
+        encoder.setPattern("%m %U %s");
+        encoder.start();
+
+        assertThat(new String(encoder.encode(event), UTF_8), equalTo("GET /api/Pa\"ul 200" + System.lineSeparator()));
+    }
+}
@@ -0,0 +1,159 @@
+package uk.co.paulpop.services.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.encoder.EchoEncoder;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.util.concurrent.CountDownLatch;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.not;
+
+public class AsyncBatchingAppenderTest {
+
+    private LoggerContext context;
+    private Logger logger;
+    private AsyncBatchingAppender<ILoggingEvent> appender;
+
+    @Before
+    public void setUp() {
+        context = new LoggerContext();
+        logger = context.getLogger(AsyncBatchingAppenderTest.class);
+        appender = new AsyncBatchingAppender<>();
+        appender.setContext(context);
+        appender.setName("test");
+        EchoEncoder<ILoggingEvent> encoder = new EchoEncoder<>();
+        encoder.setContext(context);
+        encoder.start();
+        appender.setEncoder(encoder);
+    }
+
+    @After
+    public void tearDown() {
+        appender.stop();
+    }
+
+    @Test
+    public void doAppend_writesEveryEventOnceStopped() {
+        ByteArrayOutputStream target = new ByteArrayOutputStream();
+        appender.setTarget(target);
+        appender.setBatchSize(4);
+        appender.start();
+
+        for (int i = 0; i < 10; i++) {
+            appender.doAppend(event("Hello " + i));
+        }
+        appender.stop();
+
+        String written = new String(target.toByteArray(), UTF_8);
+        for (int i = 0; i < 10; i++) {
+            assertThat(written, containsString("Hello " + i));
+        }
+        assertThat(appender.getWritten(), equalTo(10L));
+        assertThat(appender.getDropped(), equalTo(0L));
+    }
+
+    @Test
+    public void doAppend_whenFullAndDropping_countsDroppedEvents() throws InterruptedException {
+        BlockingOutputStream target = new BlockingOutputStream();
+        appender.setTarget(target);
+        appender.setCapacity(2);
+        appender.setBatchSize(1);
+        appender.setOverflowPolicy(OverflowPolicy.DROP);
+        appender.start();
+
+        try {
+            // The writer takes the first event and then blocks flushing it, so two more fill the buffer
+            appender.doAppend(event("first"));
+            target.flushing.await();
+            for (int i = 0; i < 5; i++) {
+                appender.doAppend(event("overflow " + i));
+            }
+
+            assertThat(appender.getQueueSize(), equalTo(2));
+            assertThat(appender.getDropped(), equalTo(3L));
+        } finally {
+            target.release.countDown();
+        }
+    }
+
+    @Test
+    public void doAppend_whenFullAndBlocking_waitsForFreeSlot() throws InterruptedException {
+        BlockingOutputStream target = new BlockingOutputStream();
+        appender.setTarget(target);
+        appender.setCapacity(2);
+        appender.setBatchSize(1);
+        appender.setOverflowPolicy(OverflowPolicy.BLOCK);
+        appender.start();
+
+        Thread blocked = new Thread(() -> appender.doAppend(event("fourth")));
+        try {
+            // The writer takes the first event and then blocks flushing it, so two more fill the buffer
+            appender.doAppend(event("first"));
+            target.flushing.await();
+            appender.doAppend(event("second"));
+            appender.doAppend(event("third"));
+            blocked.start();
+            blocked.join(200);
+
+            assertThat(blocked.isAlive(), is(true));
+        } finally {
+            target.release.countDown();
+        }
+        blocked.join();
+        appender.stop();
+
+        assertThat(appender.getDropped(), equalTo(0L));
+        assertThat(appender.getWritten(), equalTo(4L));
+    }
+
+    @Test
+    public void start_registersAppenderForMetricsUntilStopped() {
+        appender.setTarget(new ByteArrayOutputStream());
+        appender.start();
+
+        assertThat(AsyncBatchingAppender.started(), hasItem(appender));
+        appender.stop();
+        assertThat(AsyncBatchingAppender.started(), not(hasItem(appender)));
+    }
+
+    private LoggingEvent event(final String message) {
+        return new LoggingEvent(Logger.FQCN, logger, Level.INFO, message, null, null);
+    }
+
+    /**
+     * Blocks the writer thread on its first flush until released.
+     */
+    private static final class BlockingOutputStream extends OutputStream {
+
+        private final CountDownLatch flushing = new CountDownLatch(1);
+        private final CountDownLatch release = new CountDownLatch(1);
+
+        @Override
+        public void write(final int b) {
+        }
+
+        @Override
+        public void flush() {
+            flushing.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package uk.co.paulpop.services.logging;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+public class RingBufferTest {
+
+    @Test
+    public void constructor_roundsCapacityUpToPowerOfTwo() {
+        assertThat(new RingBuffer<>(1).capacity(), equalTo(2));
+        assertThat(new RingBuffer<>(5).capacity(), equalTo(8));
+        assertThat(new RingBuffer<>(8).capacity(), equalTo(8));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void constructor_whenCapacityNotPositive_throwsIllegalArgumentException() {
+        new RingBuffer<>(0);
+    }
+
+    @Test
+    public void offer_whenFull_returnsFalseUntilDrained() {
+        RingBuffer<Integer> buffer = new RingBuffer<>(2);
+
+        assertThat(buffer.offer(1), is(true));
+        assertThat(buffer.offer(2), is(true));
+        assertThat(buffer.offer(3), is(false));
+        assertThat(buffer.size(), equalTo(2));
+
+        List<Integer> drained = new ArrayList<>();
+        assertThat(buffer.drain(drained::add, 1), equalTo(1));
+        assertThat(buffer.offer(3), is(true));
+        assertThat(buffer.drain(drained::add, 10), equalTo(2));
+
+        assertThat(drained, contains(1, 2, 3));
+        assertThat(buffer.size(), equalTo(0));
+    }
+
+    @Test
+    public void offer_withCapacityOfOne_neverOverwritesUndrainedElements() {
+        RingBuffer<Integer> buffer = new RingBuffer<>(1);
+
+        assertThat(buffer.offer(1), is(true));
+        assertThat(buffer.offer(2), is(true));
+        assertThat(buffer.offer(3), is(false));
+
+        List<Integer> drained = new ArrayList<>();
+        assertThat(buffer.drain(drained::add, 10), equalTo(2));
+        assertThat(drained, contains(1, 2));
+    }
+
+    @Test
+    public void offer_fromManyProducers_keepsEveryElementInProducerOrder() throws InterruptedException {
+        int producers = 4;
+        int perProducer = 100_000;
+        RingBuffer<int[]> buffer = new RingBuffer<>(64);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            executor.execute(() -> {
+                await(start);
+                for (int i = 0; i < perProducer; i++) {
+                    int[] element = {producer, i};
+                    while (!buffer.offer(element)) {
+                        Thread.yield();
+                    }
+                }
+            });
+        }
+
+        int[] next = new int[producers];
+        int received = 0;
+        start.countDown();
+        while (received < producers * perProducer) {
+            received += buffer.drain(element -> {
+                assertThat(element[1], equalTo(next[element[0]]));
+                next[element[0]]++;
+            }, 32);
+        }
+        executor.shutdown();
+
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS), is(true));
+        assertThat(buffer.size(), equalTo(0));
+    }
+
+    private static void await(final CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package uk.co.paulpop.services.metrics;
+
+import org.junit.Test;
+
+import java.lang.reflect.Method;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.closeTo;
+import static org.hamcrest.Matchers.equalTo;
+
+public class LatencyHistogramsTest {
+
+    private final LatencyHistograms histograms = new LatencyHistograms();
+
+    @Test
+    public void forEach_returnsCumulativeHistogramPerMethod() throws NoSuchMethodException {
+        Method toString = Object.class.getMethod("toString");
+        Method hashCode = Object.class.getMethod("hashCode");
+
+        histograms.record(toString, TimeUnit.MILLISECONDS.toNanos(1));
+        histograms.record(toString, TimeUnit.MILLISECONDS.toNanos(3));
+        histograms.record(hashCode, TimeUnit.MILLISECONDS.toNanos(2));
+        Map<String, Long> counts = new HashMap<>();
+        histograms.forEach((name, histogram) -> counts.put(name, histogram.getTotalCount()));
+
+        histograms.record(toString, TimeUnit.MILLISECONDS.toNanos(5));
+        Map<String, Double> means = new HashMap<>();
+        histograms.forEach((name, histogram) -> {
+            counts.put(name, histogram.getTotalCount());
+            means.put(name, histogram.getMean());
+        });
+
+        assertThat(counts.get("Object.toString"), equalTo(3L));
+        assertThat(counts.get("Object.hashCode"), equalTo(1L));
+        assertThat(means.get("Object.toString"), closeTo(3000, 3));
+    }
+
+    @Test
+    public void record_clampsValuesOutsideTrackableRange() throws NoSuchMethodException {
+        Method toString = Object.class.getMethod("toString");
+
+        histograms.record(toString, -1);
+        histograms.record(toString, TimeUnit.HOURS.toNanos(1));
+
+        histograms.forEach((name, histogram) -> {
+            assertThat(histogram.getTotalCount(), equalTo(2L));
+            assertThat(histogram.getMinValue(), equalTo(0L));
+        });
+    }
+}
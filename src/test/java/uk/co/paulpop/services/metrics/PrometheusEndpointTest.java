@@ -0,0 +1,69 @@
+package uk.co.paulpop.services.metrics;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.boot.actuate.endpoint.PublicMetrics;
+import org.springframework.boot.actuate.metrics.Metric;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.is;
+
+public class PrometheusEndpointTest {
+
+    private LatencyHistograms histograms;
+    private HttpStatusCounters errorCounters;
+    private PrometheusEndpoint endpoint;
+
+    @Before
+    public void setUp() {
+        histograms = new LatencyHistograms();
+        errorCounters = new HttpStatusCounters();
+        PublicMetrics publicMetrics = () -> Arrays.asList(
+            new Metric<>("greeting.cache.hits", 42L),
+            new Metric<>("systemload.average", 0.5d));
+        endpoint = new PrometheusEndpoint(histograms, errorCounters, Collections.singletonList(publicMetrics));
+    }
+
+    @Test
+    public void constructor_isSensitive() {
+        assertThat(endpoint.isSensitive(), is(true));
+        assertThat(endpoint.getPath(), is("/prometheus"));
+    }
+
+    @Test
+    public void scrape_writesLatencySummaryInSeconds() throws NoSuchMethodException {
+        histograms.record(Object.class.getMethod("toString"), TimeUnit.MILLISECONDS.toNanos(2));
+
+        String scrape = endpoint.scrape();
+
+        assertThat(scrape, containsString("# TYPE http_server_requests_seconds summary\n"));
+        assertThat(scrape, containsString("http_server_requests_seconds{handler=\"Object.toString\",quantile=\"0.99\"} 0.002"));
+        assertThat(scrape, containsString("http_server_requests_seconds_count{handler=\"Object.toString\"} 1\n"));
+    }
+
+    @Test
+    public void scrape_writesErrorCountersByStatus() {
+        errorCounters.increment(400);
+        errorCounters.increment(400);
+        errorCounters.increment(500);
+
+        String scrape = endpoint.scrape();
+
+        assertThat(scrape, containsString("# TYPE http_server_errors_total counter\n"));
+        assertThat(scrape, containsString("http_server_errors_total{status=\"400\"} 2\n"));
+        assertThat(scrape, containsString("http_server_errors_total{status=\"500\"} 1\n"));
+    }
+
+    @Test
+    public void scrape_writesPublicMetricsAsGauges() {
+        String scrape = endpoint.scrape();
+
+        assertThat(scrape, containsString("# TYPE greeting_cache_hits gauge\ngreeting_cache_hits 42\n"));
+        assertThat(scrape, containsString("systemload_average 0.5\n"));
+    }
+}
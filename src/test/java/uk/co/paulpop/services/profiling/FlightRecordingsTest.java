@@ -0,0 +1,187 @@
+package uk.co.paulpop.services.profiling;
+
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import uk.co.paulpop.services.metrics.LatencyHistograms;
+import uk.co.paulpop.services.warmup.WarmUp;
+
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.stream.Collectors;
+
+import static java.util.concurrent.TimeUnit.MILLISECONDS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.hasItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+import static org.mockito.Mockito.mock;
+
+public class FlightRecordingsTest {
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    private final FlightRecorderProperties properties = new FlightRecorderProperties();
+    private final LatencyHistograms histograms = new LatencyHistograms();
+
+    private FlightRecordings recordings;
+
+    @Before
+    public void setUp() throws Exception {
+        properties.setDirectory(folder.getRoot().toString());
+        properties.getContinuous().setHandler("FlightRecordingsTest.handler");
+        properties.getContinuous().setP99ThresholdMillis(10);
+        properties.getContinuous().setMinimumCalls(10);
+        properties.getContinuous().setCheckIntervalSeconds(3600);
+        properties.getContinuous().setCooldownSeconds(0);
+        properties.getContinuous().setMaximumDumps(2);
+        recordings = start(null);
+    }
+
+    @After
+    public void tearDown() {
+        recordings.stop();
+    }
+
+    @Test
+    public void startRecording_recordsCustomEventsUntilDeleted() throws Exception {
+        RecordingInfo started = recordings.startRecording(null, null, null, null);
+        GreetingEvent event = new GreetingEvent();
+        event.begin();
+        event.setName("Paul");
+        event.commit();
+
+        RecordingInfo stopped = recordings.stopRecording(started.getId());
+        Path file = recordings.dumpRecording(started.getId());
+
+        assertThat(started.getState(), equalTo("RUNNING"));
+        assertThat(started.getSettings(), equalTo("profile"));
+        assertThat(started.getMaxAgeSeconds(), equalTo(600L));
+        assertThat(stopped.getState(), equalTo("STOPPED"));
+        assertThat(RecordingFile.readAllEvents(file).stream().map(e -> e.getEventType().getName()).collect(Collectors.toList()),
+            hasItem("uk.co.paulpop.services.Greeting"));
+        assertThat(recordings.deleteRecording(started.getId()), is(true));
+        assertThat(recordings.deleteRecording(started.getId()), is(false));
+        assertThat(recordings.dumpRecording(started.getId()), nullValue());
+        assertThat(recordings.recordings(), hasSize(0));
+    }
+
+    @Test
+    public void startRecording_whenParametersAreGiven_thenOverridesConfiguredOnes() throws Exception {
+        RecordingInfo started = recordings.startRecording("default", 60L, 1048576L, 30L);
+
+        assertThat(started.getSettings(), equalTo("default"));
+        assertThat(started.getMaxAgeSeconds(), equalTo(60L));
+        assertThat(started.getMaxSizeBytes(), equalTo(1048576L));
+        assertThat(started.getDurationSeconds(), equalTo(30L));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void startRecording_whenSettingsAreUnknown_thenThrows() throws Exception {
+        recordings.startRecording("/etc/passwd", null, null, null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void startRecording_whenLimitIsNotPositive_thenThrows() throws Exception {
+        recordings.startRecording(null, 0L, null, null);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void startRecording_whenTooManyRecordingsAreOpen_thenThrows() throws Exception {
+        properties.setMaximumRecordings(1);
+        recordings.startRecording(null, null, null, null);
+
+        recordings.startRecording(null, null, null, null);
+    }
+
+    @Test
+    public void checkLatency_whenP99CrossesThreshold_thenDumpsContinuousRecording() throws Exception {
+        assertThat(recordings.continuous(), notNullValue());
+
+        record(100, 20);
+
+        assertThat(recordings.checkLatency(), is(true));
+        assertThat(recordings.dumps(), hasSize(1));
+        Path dump = recordings.dumpFile(recordings.dumps().get(0));
+        assertThat(Files.size(dump), greaterThan(0L));
+        // The next check only sees the calls since this one
+        assertThat(recordings.checkLatency(), is(false));
+    }
+
+    @Test
+    public void checkLatency_whenP99IsBelowThreshold_thenDoesNotDump() throws Exception {
+        record(100, 1);
+
+        assertThat(recordings.checkLatency(), is(false));
+        assertThat(recordings.dumps(), hasSize(0));
+    }
+
+    @Test
+    public void checkLatency_whenThereAreTooFewCalls_thenDoesNotDump() throws Exception {
+        record(5, 20);
+
+        assertThat(recordings.checkLatency(), is(false));
+    }
+
+    @Test
+    public void checkLatency_whenWarmingUp_thenDoesNotDump() throws Exception {
+        recordings.stop();
+        recordings = start(mock(WarmUp.class));
+
+        record(100, 20);
+
+        assertThat(recordings.checkLatency(), is(false));
+    }
+
+    @Test
+    public void checkLatency_whenCoolingDown_thenDoesNotDumpAgain() throws Exception {
+        properties.getContinuous().setCooldownSeconds(300);
+        recordings.stop();
+        recordings = start(null);
+        record(100, 20);
+        recordings.checkLatency();
+
+        record(100, 20);
+
+        assertThat(recordings.checkLatency(), is(false));
+        assertThat(recordings.dumps(), hasSize(1));
+    }
+
+    @Test
+    public void checkLatency_keepsMaximumDumps() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            record(100, 20);
+            recordings.checkLatency();
+            Thread.sleep(2);
+        }
+
+        assertThat(recordings.dumps(), hasSize(2));
+        assertThat(recordings.dumpFile("../latency.jfr"), nullValue());
+    }
+
+    private FlightRecordings start(final WarmUp warmUp) throws Exception {
+        FlightRecordings started = new FlightRecordings(properties, histograms, warmUp);
+        started.start();
+        return started;
+    }
+
+    private void record(final int calls, final long millis) throws Exception {
+        Method handler = FlightRecordingsTest.class.getDeclaredMethod("handler");
+        for (int i = 0; i < calls; i++) {
+            histograms.record(handler, MILLISECONDS.toNanos(millis));
+        }
+    }
+
+    @SuppressWarnings("unused")
+    private void handler() {
+    }
+}
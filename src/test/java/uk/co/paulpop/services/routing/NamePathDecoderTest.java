@@ -0,0 +1,89 @@
+package uk.co.paulpop.services.routing;
+
+import org.junit.Test;
+import uk.co.paulpop.services.exception.InvalidNameException;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.fail;
+
+public class NamePathDecoderTest {
+
+    private final NamePathDecoder decoder = new NamePathDecoder(16, UTF_8);
+
+    @Test
+    public void decode_whenNameIsPlainAscii_thenReturnsIt() {
+        assertThat(decode("/api/Paul"), equalTo("Paul"));
+    }
+
+    @Test
+    public void decode_whenNameIsPercentEncoded_thenDecodesIt() {
+        assertThat(decode("/api/Paul%20Pop"), equalTo("Paul Pop"));
+        assertThat(decode("/api/Jean-Fran%C3%A7ois"), equalTo("Jean-François"));
+        assertThat(decode("/api/%f0%9f%91%8b"), equalTo("👋"));
+    }
+
+    @Test
+    public void decode_whenLongerNameWasDecodedBefore_thenReusesBuffers() {
+        decode("/api/%C3%A7%C3%A7%C3%A7%C3%A7%C3%A7%C3%A7%C3%A7%C3%A7%C3%A7%C3%A7");
+
+        assertThat(decode("/api/%C3%A7"), equalTo("ç"));
+    }
+
+    @Test(expected = InvalidNameException.class)
+    public void decode_whenPlainNameIsTooLong_thenRejectsIt() {
+        decode("/api/Paul Pop Paul Pop Paul Pop");
+    }
+
+    @Test
+    public void decode_whenEncodedNameHasMaximumLength_thenReturnsIt() {
+        // Sixteen characters, one of which takes two chars
+        assertThat(decode("/api/%f0%9f%91%8b123456789012345"), equalTo("👋123456789012345"));
+    }
+
+    @Test(expected = InvalidNameException.class)
+    public void decode_whenEncodedNameIsTooLong_thenRejectsIt() {
+        decode("/api/%C3%A7%C3%A7%C3%A7%C3%A7%C3%A7%C3%A7%C3%A7%C3%A7%C3%A7%C3%A7%C3%A7%C3%A7%C3%A7%C3%A7%C3%A7%C3%A7%C3%A7");
+    }
+
+    @Test(expected = InvalidNameException.class)
+    public void decode_whenPercentEncodingIsTruncated_thenRejectsIt() {
+        decode("/api/Paul%2");
+    }
+
+    @Test(expected = InvalidNameException.class)
+    public void decode_whenPercentEncodingIsNotHex_thenRejectsIt() {
+        decode("/api/Paul%zz");
+    }
+
+    @Test(expected = InvalidNameException.class)
+    public void decode_whenBytesAreNotValidUtf8_thenRejectsIt() {
+        decode("/api/Paul%C3");
+    }
+
+    @Test(expected = InvalidNameException.class)
+    public void decode_whenBytesAreNotInConfiguredCharset_thenRejectsIt() {
+        new NamePathDecoder(16, US_ASCII).decode("/api/Fran%C3%A7ois", 5, 18);
+    }
+
+    @Test(expected = InvalidNameException.class)
+    public void decode_whenNameContainsControlCharacter_thenRejectsIt() {
+        decode("/api/Paul%0APop");
+    }
+
+    @Test
+    public void decode_whenRejected_thenExplainsWhy() {
+        try {
+            decode("/api/Paul%00");
+            fail("Expected the name to be rejected");
+        } catch (InvalidNameException e) {
+            assertThat(e.getMessage(), equalTo("Name must not contain control characters"));
+        }
+    }
+
+    private String decode(final String uri) {
+        return decoder.decode(uri, "/api/".length(), uri.length());
+    }
+}
@@ -0,0 +1,100 @@
+package uk.co.paulpop.services.routing;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import uk.co.paulpop.services.exception.handler.HttpExceptionHandler;
+import uk.co.paulpop.services.exception.handler.HttpExceptionResponses;
+import uk.co.paulpop.services.exception.handler.SampledErrorLogger;
+import uk.co.paulpop.services.metrics.HttpStatusCounters;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.notNullValue;
+import static org.hamcrest.Matchers.nullValue;
+
+public class NameRouteFilterTest {
+
+    private HttpStatusCounters statusCounters;
+    private NameRouteFilter filter;
+    private MockFilterChain chain;
+
+    @Before
+    public void setUp() {
+        statusCounters = new HttpStatusCounters();
+        HttpExceptionResponses responses = new HttpExceptionResponses(16);
+        filter = new NameRouteFilter(new NamePathDecoder(16, UTF_8),
+            new HttpExceptionHandler(statusCounters, responses, new SampledErrorLogger(0)), responses);
+        chain = new MockFilterChain();
+    }
+
+    @Test
+    public void doFilter_whenNameIsValid_thenLeavesDecodedNameForHandlerMapping() throws Exception {
+        MockHttpServletRequest request = get("/api/Paul%20Pop");
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertThat(request.getAttribute(NameRouteFilter.NAME_ATTRIBUTE), equalTo("Paul Pop"));
+        assertThat(chain.getRequest(), notNullValue());
+    }
+
+    @Test
+    public void doFilter_whenNameIsTooLong_thenRejectsWithBadRequest() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filter.doFilter(get("/api/Paul%20Pop%20Paul%20Pop%20Paul%20Pop"), response, chain);
+
+        assertThat(response.getStatus(), equalTo(400));
+        assertThat(response.getContentAsString(), containsString("\"errors\":[\"Name must be at most 16 characters\"]"));
+        assertThat(statusCounters.get(400), equalTo(1L));
+        assertThat(chain.getRequest(), nullValue());
+    }
+
+    @Test
+    public void doFilter_whenNameHasDot_thenLeavesItToStockRoute() throws Exception {
+        MockHttpServletRequest request = get("/api/Paul.json");
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertThat(request.getAttribute(NameRouteFilter.NAME_ATTRIBUTE), nullValue());
+        assertThat(chain.getRequest(), notNullValue());
+    }
+
+    @Test
+    public void doFilter_whenJsonIsNotAccepted_thenLeavesItToStockRoute() throws Exception {
+        MockHttpServletRequest request = get("/api/Paul");
+        request.addHeader("Accept", "text/html");
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertThat(request.getAttribute(NameRouteFilter.NAME_ATTRIBUTE), nullValue());
+    }
+
+    @Test
+    public void doFilter_whenPathHasMoreSegments_thenLeavesItToStockRoute() throws Exception {
+        MockHttpServletRequest request = get("/api/Paul/count");
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertThat(request.getAttribute(NameRouteFilter.NAME_ATTRIBUTE), nullValue());
+        assertThat(chain.getRequest(), notNullValue());
+    }
+
+    @Test
+    public void doFilter_whenRequestIsPost_thenPassesItOn() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/batch");
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertThat(request.getAttribute(NameRouteFilter.NAME_ATTRIBUTE), nullValue());
+        assertThat(chain.getRequest(), notNullValue());
+    }
+
+    private static MockHttpServletRequest get(final String uri) {
+        return new MockHttpServletRequest("GET", uri);
+    }
+}
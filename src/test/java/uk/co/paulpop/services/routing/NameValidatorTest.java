@@ -0,0 +1,38 @@
+package uk.co.paulpop.services.routing;
+
+import org.junit.Test;
+import uk.co.paulpop.services.exception.InvalidNameException;
+
+import static java.nio.charset.StandardCharsets.US_ASCII;
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.Assert.fail;
+
+public class NameValidatorTest {
+
+    private final NameValidator validator = new NameValidator(4, UTF_8);
+
+    @Test
+    public void validate_whenNameHasMaximumLengthInCodePoints_thenAcceptsIt() {
+        validator.validate("👋👋👋👋");
+        validator.validate("Paul");
+    }
+
+    @Test
+    public void validate_whenNameBreaksARule_thenExplainsWhich() {
+        assertRejected(validator, "", "Name must not be empty");
+        assertRejected(validator, "Paul Pop", "Name must be at most 4 characters");
+        assertRejected(validator, "P\top", "Name must not contain control characters");
+        assertRejected(new NameValidator(16, US_ASCII), "François", "Name must be encoded in US-ASCII");
+    }
+
+    private static void assertRejected(final NameValidator validator, final String name, final String message) {
+        try {
+            validator.validate(name);
+            fail("Expected " + name + " to be rejected");
+        } catch (InvalidNameException e) {
+            assertThat(e.getMessage(), equalTo(message));
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package uk.co.paulpop.services.security;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.mockito.Mock;
+import org.mockito.junit.MockitoJUnit;
+import org.mockito.junit.MockitoRule;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.security.authentication.AuthenticationProvider;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.LockedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.web.authentication.WebAuthenticationDetails;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.fail;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class CachingAuthenticationProviderTest {
+
+    private static final Authentication VERIFIED = new UsernamePasswordAuthenticationToken("admin", null,
+        AuthorityUtils.createAuthorityList("ROLE_ACTUATOR"));
+
+    @Rule
+    public final MockitoRule mockitoRule = MockitoJUnit.rule();
+
+    @Mock
+    private AuthenticationProvider delegate;
+
+    private CachingAuthenticationProvider provider;
+
+    @Before
+    public void setUp() {
+        when(delegate.authenticate(any())).thenAnswer(invocation -> {
+            Authentication authentication = (Authentication) invocation.getArguments()[0];
+            if ("admin".equals(authentication.getCredentials())) {
+                return VERIFIED;
+            }
+            throw new BadCredentialsException("Bad credentials");
+        });
+        provider = new CachingAuthenticationProvider(delegate, new FailedAuthenticationLockout(3, 60, 16), 60, 16);
+    }
+
+    @Test
+    public void authenticate_whenVerifiedBefore_skipsDelegate() {
+        Authentication first = provider.authenticate(token("admin", "admin"));
+        Authentication second = provider.authenticate(token("admin", "admin"));
+
+        assertThat(first, sameInstance(VERIFIED));
+        assertThat(second, sameInstance(VERIFIED));
+        verify(delegate, times(1)).authenticate(any());
+    }
+
+    @Test
+    public void authenticate_withDifferentPasswordThanCached_checksDelegate() {
+        provider.authenticate(token("admin", "admin"));
+
+        try {
+            provider.authenticate(token("admin", "wrong"));
+            fail("Expected BadCredentialsException");
+        } catch (BadCredentialsException e) {
+            verify(delegate, times(2)).authenticate(any());
+        }
+    }
+
+    @Test
+    public void authenticate_afterTooManyFailures_locksOutWithoutCheckingDelegate() {
+        for (int i = 0; i < 3; i++) {
+            try {
+                provider.authenticate(token("admin", "wrong"));
+                fail("Expected BadCredentialsException");
+            } catch (BadCredentialsException e) {
+                // expected
+            }
+        }
+
+        try {
+            provider.authenticate(token("admin", "admin"));
+            fail("Expected LockedException");
+        } catch (LockedException e) {
+            verify(delegate, times(3)).authenticate(any());
+        }
+    }
+
+    @Test
+    public void authenticate_afterTooManyFailuresFromAnotherClient_checksDelegate() {
+        for (int i = 0; i < 3; i++) {
+            try {
+                provider.authenticate(token("admin", "wrong", "10.0.0.1"));
+                fail("Expected BadCredentialsException");
+            } catch (BadCredentialsException e) {
+                // expected
+            }
+        }
+
+        assertThat(provider.authenticate(token("admin", "admin", "10.0.0.2")), sameInstance(VERIFIED));
+        try {
+            provider.authenticate(token("admin", "admin", "10.0.0.1"));
+            fail("Expected LockedException");
+        } catch (LockedException e) {
+            verify(delegate, times(4)).authenticate(any());
+        }
+    }
+
+    @Test
+    public void authenticate_afterSuccess_clearsFailures() {
+        for (int i = 0; i < 2; i++) {
+            try {
+                provider.authenticate(token("admin", "wrong"));
+            } catch (BadCredentialsException e) {
+                // expected
+            }
+        }
+        provider.authenticate(token("admin", "admin"));
+        try {
+            provider.authenticate(token("admin", "wrong"));
+        } catch (BadCredentialsException e) {
+            // expected
+        }
+
+        assertThat(provider.authenticate(token("admin", "admin")), sameInstance(VERIFIED));
+    }
+
+    private static UsernamePasswordAuthenticationToken token(final String username, final String password) {
+        return new UsernamePasswordAuthenticationToken(username, password);
+    }
+
+    private static UsernamePasswordAuthenticationToken token(final String username, final String password, final String client) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setRemoteAddr(client);
+        UsernamePasswordAuthenticationToken token = token(username, password);
+        token.setDetails(new WebAuthenticationDetails(request));
+        return token;
+    }
+}
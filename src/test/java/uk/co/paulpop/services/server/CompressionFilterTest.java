@@ -0,0 +1,253 @@
+package uk.co.paulpop.services.server;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.util.StreamUtils;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.WriteListener;
+import javax.servlet.http.HttpServletResponse;
+import javax.servlet.http.HttpServletResponseWrapper;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.zip.GZIPInputStream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThan;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.lessThan;
+import static org.hamcrest.Matchers.nullValue;
+import static org.hamcrest.Matchers.sameInstance;
+import static org.junit.Assert.fail;
+
+public class CompressionFilterTest {
+
+    private static final byte[] SMALL_BODY = "{\"message\":\"Hello Paul\"}".getBytes();
+
+    private ConnectorMetrics metrics;
+    private CompressionFilter filter;
+    private MockHttpServletRequest request;
+    private MockHttpServletResponse response;
+
+    @Before
+    public void setUp() {
+        metrics = new ConnectorMetrics();
+        filter = new CompressionFilter(1024, Arrays.asList("application/json", "application/x-ndjson"), metrics);
+        request = new MockHttpServletRequest("GET", "/api/Paul");
+        request.addHeader("Accept-Encoding", "gzip, deflate");
+        response = new MockHttpServletResponse();
+    }
+
+    @Test
+    public void doFilter_whenResponseIsSmall_thenWritesItUncompressed() throws Exception {
+        filter.doFilter(request, response, respondWith("application/json", SMALL_BODY));
+
+        assertThat(response.getHeader("Content-Encoding"), is(nullValue()));
+        assertThat(response.getContentAsByteArray(), equalTo(SMALL_BODY));
+    }
+
+    @Test
+    public void doFilter_whenResponseIsLarge_thenCompressesIt() throws Exception {
+        byte[] body = largeBody();
+
+        filter.doFilter(request, response, respondWith("application/x-ndjson", body));
+
+        assertThat(response.getHeader("Content-Encoding"), equalTo("gzip"));
+        assertThat(response.getHeader("Vary"), equalTo("Accept-Encoding"));
+        assertThat(gunzip(response.getContentAsByteArray()), equalTo(body));
+        assertThat(metrics.getBytesSaved(), greaterThan(0L));
+    }
+
+    @Test
+    public void doFilter_whenLengthIsDeclaredBelowThreshold_thenKeepsContentLength() throws Exception {
+        filter.doFilter(request, response, (req, res) -> {
+            res.setContentType("application/json");
+            res.setContentLength(SMALL_BODY.length);
+            res.getOutputStream().write(SMALL_BODY);
+        });
+
+        assertThat(response.getHeader("Content-Encoding"), is(nullValue()));
+        assertThat(response.getContentLength(), equalTo(SMALL_BODY.length));
+        assertThat(response.getContentAsByteArray(), equalTo(SMALL_BODY));
+    }
+
+    @Test
+    public void doFilter_whenStreamedResponseIsFlushed_thenCompressesWhatWasWritten() throws Exception {
+        filter.doFilter(request, response, (req, res) -> {
+            res.setContentType("application/x-ndjson");
+            res.getOutputStream().write(SMALL_BODY);
+            res.getOutputStream().flush();
+
+            assertThat(response.getContentAsByteArray().length, greaterThan(0));
+            res.getOutputStream().write(SMALL_BODY);
+        });
+
+        assertThat(response.getHeader("Content-Encoding"), equalTo("gzip"));
+        assertThat(gunzip(response.getContentAsByteArray()), equalTo((new String(SMALL_BODY) + new String(SMALL_BODY)).getBytes()));
+    }
+
+    @Test
+    public void doFilter_whenResponseIsWrittenByteByByte_thenCompressesIt() throws Exception {
+        byte[] body = largeBody();
+
+        filter.doFilter(request, response, (req, res) -> {
+            res.setContentType("application/x-ndjson");
+            OutputStream out = res.getOutputStream();
+            for (byte b : body) {
+                out.write(b);
+            }
+        });
+
+        assertThat(response.getHeader("Content-Encoding"), equalTo("gzip"));
+        assertThat(gunzip(response.getContentAsByteArray()), equalTo(body));
+    }
+
+    @Test
+    public void doFilter_whenChainFailsAfterCompressing_thenStillFinishesTheResponse() throws Exception {
+        byte[] body = largeBody();
+        IllegalStateException failure = new IllegalStateException("failed");
+
+        try {
+            filter.doFilter(request, response, (req, res) -> {
+                respondWith("application/x-ndjson", body).doFilter(req, res);
+                throw failure;
+            });
+            fail("Expected the failure to propagate");
+        } catch (IllegalStateException e) {
+            assertThat(e, sameInstance(failure));
+        }
+
+        assertThat(gunzip(response.getContentAsByteArray()), equalTo(body));
+        assertThat(metrics.getBytesSaved(), greaterThan(0L));
+    }
+
+    @Test
+    public void doFilter_whenWriteListenerIsSet_thenHandsItToTheResponseUncompressed() throws Exception {
+        WriteListener listener = new WriteListener() {
+            @Override
+            public void onWritePossible() {
+            }
+
+            @Override
+            public void onError(final Throwable t) {
+            }
+        };
+        ListeningResponse listeningResponse = new ListeningResponse(response);
+
+        filter.doFilter(request, listeningResponse, (req, res) -> {
+            res.setContentType("application/json");
+            res.getOutputStream().write(SMALL_BODY);
+            res.getOutputStream().setWriteListener(listener);
+
+            assertThat(res.getOutputStream().isReady(), is(true));
+            res.getOutputStream().write(largeBody());
+        });
+
+        assertThat(listeningResponse.writeListener, sameInstance(listener));
+        assertThat(response.getHeader("Content-Encoding"), is(nullValue()));
+        assertThat(response.getContentAsByteArray().length, equalTo(SMALL_BODY.length + largeBody().length));
+    }
+
+    @Test
+    public void doFilter_whenContentTypeIsNotCompressible_thenWritesItUncompressed() throws Exception {
+        byte[] body = largeBody();
+
+        filter.doFilter(request, response, respondWith("image/png", body));
+
+        assertThat(response.getHeader("Content-Encoding"), is(nullValue()));
+        assertThat(response.getContentAsByteArray(), equalTo(body));
+    }
+
+    @Test
+    public void doFilter_whenGzipIsNotAccepted_thenWritesItUncompressed() throws Exception {
+        byte[] body = largeBody();
+        request = new MockHttpServletRequest("GET", "/api/Paul");
+        request.addHeader("Accept-Encoding", "gzip;q=0, *");
+
+        filter.doFilter(request, response, respondWith("application/json", body));
+
+        assertThat(response.getHeader("Content-Encoding"), is(nullValue()));
+        assertThat(response.getContentAsByteArray(), equalTo(body));
+    }
+
+    @Test
+    public void doFilter_whenResponseHasStrongEtag_thenWeakensIt() throws Exception {
+        filter.doFilter(request, response, (req, res) -> {
+            ((HttpServletResponse) res).setHeader("ETag", "\"abc\"");
+            respondWith("application/json", largeBody()).doFilter(req, res);
+        });
+
+        assertThat(response.getHeader("ETag"), equalTo("W/\"abc\""));
+        assertThat(response.getContentAsByteArray().length, lessThan(largeBody().length));
+    }
+
+    @Test
+    public void acceptsGzip_honoursQualityAndWildcards() {
+        assertThat(CompressionFilter.acceptsGzip("gzip"), is(true));
+        assertThat(CompressionFilter.acceptsGzip("br;q=1.0, gzip;q=0.8"), is(true));
+        assertThat(CompressionFilter.acceptsGzip("*"), is(true));
+        assertThat(CompressionFilter.acceptsGzip("identity"), is(false));
+        assertThat(CompressionFilter.acceptsGzip("gzip;q=0"), is(false));
+        assertThat(CompressionFilter.acceptsGzip("*;q=0"), is(false));
+        assertThat(CompressionFilter.acceptsGzip(null), is(false));
+    }
+
+    private static FilterChain respondWith(final String contentType, final byte[] body) {
+        return (req, res) -> {
+            res.setContentType(contentType);
+            res.getOutputStream().write(body);
+        };
+    }
+
+    private static byte[] largeBody() {
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            body.append("{\"message\":\"Hello Paul ").append(i).append("\"}\n");
+        }
+        return body.toString().getBytes();
+    }
+
+    /**
+     * Spring's mock response predates non-blocking I/O, so this one takes the write listener itself
+     */
+    private static final class ListeningResponse extends HttpServletResponseWrapper {
+
+        private final MockHttpServletResponse response;
+        private WriteListener writeListener;
+
+        ListeningResponse(final MockHttpServletResponse response) {
+            super(response);
+            this.response = response;
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() {
+            return new ServletOutputStream() {
+                @Override
+                public void write(final int b) throws IOException {
+                    response.getOutputStream().write(b);
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setWriteListener(final WriteListener listener) {
+                    writeListener = listener;
+                }
+            };
+        }
+    }
+
+    private static byte[] gunzip(final byte[] compressed) throws IOException {
+        return StreamUtils.copyToByteArray(new GZIPInputStream(new ByteArrayInputStream(compressed)));
+    }
+}
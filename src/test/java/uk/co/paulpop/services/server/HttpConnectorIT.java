@@ -0,0 +1,76 @@
+package uk.co.paulpop.services.server;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.boot.context.embedded.LocalServerPort;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import org.springframework.util.StreamUtils;
+import uk.co.paulpop.services.JavaSpringServiceApplication;
+
+import java.io.ByteArrayInputStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.zip.GZIPInputStream;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, classes = JavaSpringServiceApplication.class)
+@RunWith(SpringRunner.class)
+public class HttpConnectorIT {
+
+    @LocalServerPort
+    private int port;
+
+    @Test
+    public void whenClientUpgradesToH2c_thenServesRequestsOverHttp2() throws Exception {
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_2).build();
+
+        client.send(request("/api/Paul").build(), HttpResponse.BodyHandlers.ofString());
+        HttpResponse<String> response = client.send(request("/api/Paul").build(), HttpResponse.BodyHandlers.ofString());
+
+        assertThat(response.statusCode(), equalTo(200));
+        assertThat(response.version(), equalTo(HttpClient.Version.HTTP_2));
+        assertThat(response.body(), containsString("Hello Paul"));
+    }
+
+    @Test
+    public void whenSmallResponseIsRequestedWithGzip_thenWritesItUncompressed() throws Exception {
+        HttpResponse<String> response = HttpClient.newHttpClient().send(
+            request("/api/Paul").header("Accept-Encoding", "gzip").build(), HttpResponse.BodyHandlers.ofString());
+
+        assertThat(response.headers().firstValue("Content-Encoding").isPresent(), is(false));
+        assertThat(response.body(), containsString("Hello Paul"));
+    }
+
+    @Test
+    public void whenLargeResponseIsRequestedWithGzip_thenCompressesIt() throws Exception {
+        StringBuilder names = new StringBuilder("[");
+        for (int i = 0; i < 500; i++) {
+            names.append(i == 0 ? "" : ",").append("\"Paul").append(i).append('"');
+        }
+        // The default client offers an h2c upgrade with the body, which has to be answered over HTTP/1.1
+        HttpResponse<byte[]> response = HttpClient.newHttpClient().send(
+            request("/api/batch")
+                .header("Accept-Encoding", "gzip")
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(names.append(']').toString()))
+                .build(),
+            HttpResponse.BodyHandlers.ofByteArray());
+
+        assertThat(response.statusCode(), equalTo(200));
+        assertThat(response.headers().firstValue("Content-Encoding").orElse(null), equalTo("gzip"));
+        String body = new String(StreamUtils.copyToByteArray(new GZIPInputStream(new ByteArrayInputStream(response.body()))), UTF_8);
+        assertThat(body, containsString("Hello Paul499"));
+    }
+
+    private HttpRequest.Builder request(final String uri) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + uri));
+    }
+}
@@ -0,0 +1,38 @@
+package uk.co.paulpop.services.server;
+
+import org.apache.catalina.connector.Connector;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.concurrent.CompletableFuture;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.core.Is.is;
+
+public class VirtualThreadExecutorCustomizerTest {
+
+    private VirtualThreadExecutorCustomizer customizer;
+
+    @Before
+    public void setUp() {
+        customizer = new VirtualThreadExecutorCustomizer();
+    }
+
+    @After
+    public void tearDown() {
+        customizer.destroy();
+    }
+
+    @Test
+    public void customize_runsConnectorTasksOnVirtualThreads() throws Exception {
+        Connector connector = new Connector("org.apache.coyote.http11.Http11NioProtocol");
+
+        customizer.customize(connector);
+
+        CompletableFuture<Boolean> virtual = new CompletableFuture<>();
+        connector.getProtocolHandler().getExecutor().execute(() -> virtual.complete(Thread.currentThread().isVirtual()));
+        assertThat(virtual.get(5, SECONDS), is(true));
+    }
+}
@@ -0,0 +1,51 @@
+package uk.co.paulpop.services.server;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.time.Duration;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.greaterThan;
+
+public class VirtualThreadPinningMonitorTest {
+
+    private final Object lock = new Object();
+
+    private VirtualThreadPinningMonitor monitor;
+
+    @Before
+    public void setUp() {
+        monitor = new VirtualThreadPinningMonitor(Duration.ofMillis(1));
+        monitor.start();
+    }
+
+    @After
+    public void tearDown() {
+        monitor.stop();
+    }
+
+    @Test
+    public void whenVirtualThreadSleepsInsideSynchronized_thenPinningIsCounted() throws InterruptedException {
+        Thread.ofVirtual().start(() -> {
+            synchronized (lock) {
+                sleep(50);
+            }
+        }).join();
+
+        // JFR streams events in roughly one second chunks
+        for (int i = 0; i < 100 && monitor.getPinnedCount() == 0; i++) {
+            sleep(100);
+        }
+        assertThat(monitor.getPinnedCount(), greaterThan(0L));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package uk.co.paulpop.services.warmup;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.junit4.SpringRunner;
+import uk.co.paulpop.services.JavaSpringServiceApplication;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.hamcrest.Matchers.nullValue;
+
+/**
+ * Replays the default workload against the application, which the unit tests can only do against a stub server, so the statuses it
+ * expects are the ones the controllers and exception handler actually return.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, classes = JavaSpringServiceApplication.class,
+    properties = {"service.warm-up.enabled=true", "service.warm-up.iterations=210", "service.warm-up.measurement-iterations=21"})
+@RunWith(SpringRunner.class)
+public class WarmUpIT {
+
+    private static final long TIMEOUT_MILLIS = TimeUnit.SECONDS.toMillis(30);
+
+    @Autowired
+    private WarmUp warmUp;
+
+    @Test
+    public void whenDefaultWorkloadIsReplayed_thenEveryRequestGetsItsExpectedStatus() throws InterruptedException {
+        long deadline = System.currentTimeMillis() + TIMEOUT_MILLIS;
+        while (!warmUp.isDone() && System.currentTimeMillis() < deadline) {
+            Thread.sleep(50);
+        }
+
+        Map<String, Object> report = warmUp.report();
+        assertThat(warmUp.isDone(), is(true));
+        assertThat(report.get("requests"), equalTo(231L));
+        // Compared first, so a failure names the request that got another status
+        assertThat(report.get("lastFailure"), nullValue());
+        assertThat(report.get("failures"), equalTo(0L));
+    }
+}
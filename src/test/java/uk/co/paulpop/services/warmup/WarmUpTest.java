@@ -0,0 +1,178 @@
+package uk.co.paulpop.services.warmup;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static java.nio.charset.StandardCharsets.UTF_8;
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.hasKey;
+import static org.hamcrest.Matchers.is;
+
+public class WarmUpTest {
+
+    private final ConcurrentMap<String, Integer> requests = new ConcurrentHashMap<>();
+    private final List<String> bodies = new CopyOnWriteArrayList<>();
+    private final List<Boolean> recognised = new CopyOnWriteArrayList<>();
+
+    private HttpServer server;
+    private WarmUp warmUp;
+
+    @Before
+    public void setUp() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        server.createContext("/", exchange -> {
+            String request = exchange.getRequestMethod() + " " + exchange.getRequestURI().getRawPath();
+            requests.merge(request, 1, Integer::sum);
+            bodies.add(read(exchange.getRequestBody()));
+            MockHttpServletRequest servletRequest = new MockHttpServletRequest();
+            servletRequest.addHeader(WarmUp.HEADER, exchange.getRequestHeaders().getFirst(WarmUp.HEADER));
+            recognised.add(warmUp.isWarmUpRequest(new ServletWebRequest(servletRequest)));
+
+            byte[] body = "{}".getBytes(UTF_8);
+            exchange.sendResponseHeaders(exchange.getRequestURI().getPath().endsWith("/missing") ? 404 : 200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+    }
+
+    @After
+    public void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    public void whenRun_thenReplaysWorkloadByWeightAndMeasuresIt() {
+        WarmUpRequest greeting = request("GET", "/api/{name}", 3);
+        WarmUpRequest batch = request("POST", "/api/batch", 1);
+        batch.setBody("[\"{name}\"]");
+        warmUp = new WarmUp(properties(40, 8, 2, greeting, batch));
+
+        run();
+
+        // The schedule is greeting, batch, greeting, greeting, so batches always get an odd iteration and the name warm-up-1
+        assertThat(requests.get("GET /api/warm-up-0"), equalTo(24));
+        assertThat(requests.get("GET /api/warm-up-1"), equalTo(12));
+        assertThat(requests.get("POST /api/batch"), equalTo(12));
+        assertThat(bodies.stream().filter(body -> !body.isEmpty()).distinct().toArray(), equalTo(new Object[]{"[\"warm-up-1\"]"}));
+        assertThat(recognised, everyItem(is(true)));
+
+        Map<String, Object> report = warmUp.report();
+        assertThat(report.get("state"), equalTo("DONE"));
+        assertThat(report.get("requests"), equalTo(48L));
+        assertThat(report.get("failures"), equalTo(0L));
+        assertThat(report.get("measuredRequests"), equalTo(8L));
+        assertThat(report, hasKey("p99Micros"));
+    }
+
+    @Test
+    public void whenStatusIsUnexpected_thenCountsFailure() {
+        warmUp = new WarmUp(properties(4, 0, 1, request("GET", "/api/{name}", 1), request("GET", "/missing", 1)));
+
+        run();
+
+        Map<String, Object> report = warmUp.report();
+        assertThat(report.get("failures"), equalTo(2L));
+        assertThat((String) report.get("lastFailure"), containsString("GET /missing returned 404 rather than 200"));
+    }
+
+    @Test
+    public void whenDone_thenRequestsAreNoLongerRecognisedAndHealthIsUp() {
+        warmUp = new WarmUp(properties(1, 1, 1, request("GET", "/api/{name}", 1)));
+        WarmUpHealthIndicator health = new WarmUpHealthIndicator(warmUp);
+        assertThat(health.health().getStatus(), equalTo(Status.OUT_OF_SERVICE));
+
+        run();
+
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(WarmUp.HEADER, "anything");
+        assertThat(warmUp.isWarmUpRequest(new ServletWebRequest(request)), is(false));
+        assertThat(health.health().getStatus(), equalTo(Status.UP));
+        assertThat(health.health().getDetails().get("measuredRequests"), equalTo(1L));
+    }
+
+    @Test
+    public void whenNotSentByWarmUp_thenRequestIsNotRecognised() {
+        warmUp = new WarmUp(properties(1, 0, 1));
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader(WarmUp.HEADER, "forged");
+
+        assertThat(warmUp.isWarmUpRequest(new ServletWebRequest(request)), is(false));
+        assertThat(warmUp.isWarmUpRequest(new ServletWebRequest(new MockHttpServletRequest())), is(false));
+    }
+
+    @Test
+    public void whenNoRequestsConfigured_thenReplaysDefaultWorkload() {
+        warmUp = new WarmUp(properties(21, 0, 1000));
+
+        run();
+
+        assertThat(requests.get("GET /api/warm-up-0"), equalTo(1));
+        assertThat(requests.get("GET /api/warm-up-1/count"), equalTo(1));
+        assertThat(requests.get("POST /api/batch"), equalTo(1));
+        assertThat(requests.get("GET /api/%FFwarm-up-3"), equalTo(1));
+        assertThat(requests.get("DELETE /api/warm-up-4"), equalTo(1));
+        assertThat(requests.values().stream().mapToInt(Integer::intValue).sum(), equalTo(21));
+        // The test server answers the invalid name and the unsupported method with a 200
+        assertThat(warmUp.report().get("failures"), equalTo(2L));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void whenNoRequestHasWeight_thenFails() {
+        new WarmUp(properties(1, 0, 1, request("GET", "/api/{name}", 0)));
+    }
+
+    private void run() {
+        warmUp.run("localhost", server.getAddress().getPort());
+    }
+
+    private static WarmUpProperties properties(final int iterations, final int measurementIterations, final int distinctNames,
+                                               final WarmUpRequest... requests) {
+        WarmUpProperties properties = new WarmUpProperties();
+        properties.setIterations(iterations);
+        properties.setMeasurementIterations(measurementIterations);
+        properties.setDistinctNames(distinctNames);
+        properties.setRequests(requests.length == 0 ? Collections.emptyList() : Arrays.asList(requests));
+        return properties;
+    }
+
+    private static WarmUpRequest request(final String method, final String path, final int weight) {
+        WarmUpRequest request = new WarmUpRequest();
+        request.setMethod(method);
+        request.setPath(path);
+        request.setWeight(weight);
+        return request;
+    }
+
+    private static String read(final InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[256];
+        int read;
+        while ((read = in.read(buffer)) >= 0) {
+            out.write(buffer, 0, read);
+        }
+        return out.toString("UTF-8");
+    }
+}